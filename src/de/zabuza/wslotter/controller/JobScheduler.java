@@ -0,0 +1,150 @@
+package de.zabuza.wslotter.controller;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.ERoutineStatus;
+import de.zabuza.wslotter.model.jobs.Job;
+import de.zabuza.wslotter.model.tasks.RoutineTask;
+
+/**
+ * Scheduler which processes the jobs of a job file unattended. All jobs run in
+ * parallel, limited by the {@link RoutineManager}. Jobs of the same account
+ * share one login, the first of them logs in while the others wait for it and
+ * take over its session. The result of every job is reported once all jobs
+ * have finished.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class JobScheduler {
+	/**
+	 * The controller of the main frame which submits the routines.
+	 */
+	private final MainFrameController mController;
+	/**
+	 * The jobs which are currently running, accessed by the number of their
+	 * routine.
+	 */
+	private final Map<Integer, Job> mJobsByRoutine;
+	/**
+	 * Logger of the main frame.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The results of the jobs of the current batch, in the order of the job
+	 * file.
+	 */
+	private final Map<Job, ERoutineStatus> mResults;
+
+	/**
+	 * Creates a new scheduler without jobs.
+	 * 
+	 * @param controller
+	 *            The controller of the main frame which submits the routines
+	 * @param logger
+	 *            Logger of the main frame
+	 */
+	public JobScheduler(final MainFrameController controller, final Logger logger) {
+		this.mController = controller;
+		this.mLogger = logger;
+		this.mJobsByRoutine = new HashMap<>();
+		this.mResults = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Whether jobs of a batch are running.
+	 * 
+	 * @return <tt>True</tt> if jobs are running, <tt>false</tt> if not
+	 */
+	public synchronized boolean isBusy() {
+		return !this.mJobsByRoutine.isEmpty();
+	}
+
+	/**
+	 * Call this method when the given routine has finished. Records the
+	 * result of its job.
+	 * 
+	 * @param routine
+	 *            The routine which has finished
+	 */
+	public synchronized void routineFinished(final RoutineTask routine) {
+		final Job job = this.mJobsByRoutine.remove(Integer.valueOf(routine.getId()));
+		if (job == null) {
+			// The routine was not started by a job
+			return;
+		}
+		this.mResults.put(job, routine.getStatus());
+		reportIfDone();
+	}
+
+	/**
+	 * Schedules the given jobs. Every job is started immediately, jobs of the
+	 * same account wait for the login of the first one once running.
+	 * 
+	 * @param jobs
+	 *            The jobs to schedule, in the order of the job file
+	 * @throws IllegalStateException
+	 *             If jobs of a previous batch are still running
+	 */
+	public synchronized void schedule(final List<Job> jobs) throws IllegalStateException {
+		if (isBusy()) {
+			throw new IllegalStateException("Jobs of a previous batch are still running.");
+		}
+		this.mResults.clear();
+		if (jobs.isEmpty()) {
+			return;
+		}
+
+		for (final Job job : jobs) {
+			this.mResults.put(job, ERoutineStatus.QUEUED);
+		}
+
+		this.mLogger.logInfo("Scheduled " + jobs.size() + " jobs.", Logger.TOP_LEVEL);
+		for (final Job job : jobs) {
+			startJob(job);
+		}
+	}
+
+	/**
+	 * Logs the result of every job if no job is running anymore.
+	 */
+	private void reportIfDone() {
+		if (isBusy() || this.mResults.isEmpty()) {
+			return;
+		}
+
+		int amountOfFinished = 0;
+		this.mLogger.logInfo("Results of the jobs:", Logger.TOP_LEVEL);
+		for (final Map.Entry<Job, ERoutineStatus> result : this.mResults.entrySet()) {
+			final Job job = result.getKey();
+			final ERoutineStatus status = result.getValue();
+			final String message = "Line " + job.getLine() + " (" + job.getUsername() + "): " + status;
+			if (status == ERoutineStatus.FINISHED) {
+				amountOfFinished++;
+				this.mLogger.logInfo(message, Logger.FIRST_LEVEL);
+			} else {
+				this.mLogger.logError(message, Logger.FIRST_LEVEL);
+			}
+		}
+		this.mLogger.logInfo(amountOfFinished + " of " + this.mResults.size() + " jobs finished.", Logger.TOP_LEVEL);
+		this.mResults.clear();
+	}
+
+	/**
+	 * Starts the given job by submitting a routine for it.
+	 * 
+	 * @param job
+	 *            The job to start
+	 */
+	private void startJob(final Job job) {
+		final int id = this.mController.submitRoutine(job.getThreadUrl(), job.getTextToPost(), job.getUsername(),
+				job.getPassword(), job.getBrowser(), job.getEngine(), RoutineTask.NOT_ARMED);
+		this.mJobsByRoutine.put(Integer.valueOf(id), job);
+		this.mResults.put(job, ERoutineStatus.RUNNING);
+		this.mLogger.logInfo("Job of line " + job.getLine() + " started as routine #" + id + ".", Logger.TOP_LEVEL);
+	}
+}
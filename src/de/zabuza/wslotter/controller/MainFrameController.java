@@ -1,35 +1,85 @@
 package de.zabuza.wslotter.controller;
 
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+
 import javax.swing.JFrame;
 
+import de.zabuza.wslotter.controller.listener.JobFileActionListener;
 import de.zabuza.wslotter.controller.listener.StartActionListener;
 import de.zabuza.wslotter.controller.listener.StopActionListener;
 import de.zabuza.wslotter.controller.listener.StopAtWindowCloseListener;
+import de.zabuza.wslotter.controller.listener.WarmUpListener;
 import de.zabuza.wslotter.controller.logging.Logger;
 import de.zabuza.wslotter.controller.settings.SettingsController;
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EEngine;
+import de.zabuza.wslotter.model.EOption;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.driver.ProfileManager;
+import de.zabuza.wslotter.model.driver.WebDriverConfiguration;
+import de.zabuza.wslotter.model.driver.WebDriverFactory;
+import de.zabuza.wslotter.model.driver.WebDriverPool;
+import de.zabuza.wslotter.model.driver.WebDriverWarmer;
+import de.zabuza.wslotter.model.jobs.Job;
+import de.zabuza.wslotter.model.jobs.JobFileParser;
+import de.zabuza.wslotter.model.poll.AdaptiveIntervalController;
+import de.zabuza.wslotter.model.session.SessionShare;
+import de.zabuza.wslotter.model.session.SessionStore;
 import de.zabuza.wslotter.model.tasks.RoutineTask;
+import de.zabuza.wslotter.model.time.SystemClock;
+import de.zabuza.wslotter.model.wait.AConditionalWait;
+import de.zabuza.wslotter.model.wait.WaitStatistics;
+import de.zabuza.wslotter.model.watch.ThreadPoller;
+import de.zabuza.wslotter.model.watch.ThreadWatcherRegistry;
 import de.zabuza.wslotter.view.MainFrameView;
 
 /**
  * The controller of the main frame.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
- * 
+ *
  */
 public final class MainFrameController {
 	/**
-	 * The time to wait for a thread to be finished after interrupting, in
-	 * milliseconds.
+	 * Prefix of thread URLs which are complete enough to be loaded while
+	 * warming up.
+	 */
+	private static final String WARM_UP_URL_PREFIX = "http";
+	/**
+	 * The pool of web drivers used by the routines.
 	 */
-	private static final long INTERRUPT_WAIT = 2000;
+	private final WebDriverPool mDriverPool;
 	/**
-	 * The current executing routine.
+	 * The scheduler which processes the jobs of job files.
 	 */
-	private RoutineTask mCurrentRoutine;
+	private final JobScheduler mJobScheduler;
 	/**
 	 * Logger of the main frame.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The owning frame of this controller.
+	 */
+	private final JFrame mOwner;
+	/**
+	 * The poller which runs the checks of the shared thread watchers.
+	 */
+	private final ThreadPoller mPoller;
+	/**
+	 * The manager which runs the routines.
+	 */
+	private final RoutineManager mRoutineManager;
+	/**
+	 * The share of the sessions between the routines of the same user.
+	 */
+	private final SessionShare mSessionShare;
+	/**
+	 * The store holding the sessions of the users.
+	 */
+	private final SessionStore mSessionStore;
 	/**
 	 * The controller for the settings.
 	 */
@@ -38,6 +88,15 @@ public final class MainFrameController {
 	 * The view of the main frame.
 	 */
 	private final MainFrameView mView;
+	/**
+	 * The warmer which starts web drivers ahead of the routine.
+	 */
+	private final WebDriverWarmer mWarmer;
+	/**
+	 * The registry of the watchers which poll a thread on behalf of all
+	 * routines targeting it.
+	 */
+	private final ThreadWatcherRegistry mWatcherRegistry;
 
 	/**
 	 * Creates a new controller of the main frame by connecting it to the view.
@@ -50,10 +109,19 @@ public final class MainFrameController {
 	 *            logger of the main frame
 	 */
 	public MainFrameController(final JFrame owner, final MainFrameView view, final Logger logger) {
+		this.mOwner = owner;
 		this.mView = view;
 		this.mLogger = logger;
 		this.mSettingsController = new SettingsController(owner, view, logger);
-		this.mCurrentRoutine = null;
+		this.mRoutineManager = new RoutineManager(this, SystemClock.INSTANCE, logger);
+		this.mJobScheduler = new JobScheduler(this, logger);
+		this.mDriverPool = new WebDriverPool(new WebDriverFactory());
+		this.mWarmer = new WebDriverWarmer(this.mDriverPool, logger);
+		this.mSessionStore = new SessionStore(logger);
+		this.mSessionShare = new SessionShare();
+		this.mPoller = new ThreadPoller(Integer.parseInt(EOption.POLLER_THREADS.getDefaultValue()),
+				this.mRoutineManager.getClock());
+		this.mWatcherRegistry = new ThreadWatcherRegistry(this.mPoller);
 	}
 
 	/**
@@ -65,53 +133,193 @@ public final class MainFrameController {
 	}
 
 	/**
-	 * Call this method when the routine has finished.
+	 * Call this method when the given routine has finished.
+	 * 
+	 * @param routine
+	 *            The routine which has finished
+	 */
+	public void routineFinished(final RoutineTask routine) {
+		this.mJobScheduler.routineFinished(routine);
+	}
+
+	/**
+	 * Call this method when all routines have finished. Logs the statistics of
+	 * the waits the routines made.
 	 */
-	public void routineFinished() {
-		this.mCurrentRoutine = null;
-		this.mLogger.logInfo("Routine finished.", Logger.TOP_LEVEL);
-		this.mView.setAllInputEnabled(true);
-		this.mView.setStartButtonEnabled(true);
+	public void routinesFinished() {
+		this.mLogger.logInfo("All routines finished.", Logger.TOP_LEVEL);
+		final WaitStatistics waitStatistics = AConditionalWait.getStatistics();
+		if (!waitStatistics.isEmpty()) {
+			this.mLogger.logInfo("Wait statistics:", Logger.FIRST_LEVEL);
+			for (final String line : waitStatistics.getSummary()) {
+				this.mLogger.logInfo(line, Logger.SECOND_LEVEL);
+			}
+			waitStatistics.reset();
+		}
 		this.mView.setStopButtonEnabled(false);
 		this.mView.setSettingsButtonEnabled(true);
 	}
 
 	/**
-	 * Starts the controller.
+	 * Reads the jobs of the given job file and runs them unattended. Jobs
+	 * which do not specify a browser or an engine use the currently selected
+	 * ones.
+	 * 
+	 * @param jobFile
+	 *            The job file to run
+	 */
+	public void runJobFile(final File jobFile) {
+		if (this.mJobScheduler.isBusy()) {
+			this.mLogger.logError("The jobs of the previous job file are still running.", Logger.TOP_LEVEL);
+			return;
+		}
+
+		final List<Job> jobs;
+		try {
+			jobs = JobFileParser.parse(jobFile, this.mView.getBrowser(), this.mView.getEngine());
+		} catch (final IOException | IllegalArgumentException e) {
+			this.mLogger.logError("Could not read the job file: " + e.getMessage(), Logger.TOP_LEVEL);
+			return;
+		}
+		if (jobs.isEmpty()) {
+			this.mLogger.logError("The job file contains no jobs.", Logger.TOP_LEVEL);
+			return;
+		}
+
+		this.mLogger.logInfo("Running job file " + jobFile.getName() + ".", Logger.TOP_LEVEL);
+		this.mJobScheduler.schedule(jobs);
+	}
+
+	/**
+	 * Starts the controller. Prunes unused persistent profiles and warms up
+	 * the selected browser if enabled.
 	 */
 	public void start() {
-		// Nothing to do yet
+		if (this.mSettingsController.isOptionEnabled(EOption.PERSISTENT_PROFILE)) {
+			ProfileManager.prune(
+					ProfileManager.getRootDirectory(this.mSettingsController.getOption(EOption.PROFILE_LOCATION)),
+					this.mSettingsController.getOptionAsNumber(EOption.PROFILE_MAX_AGE));
+		}
+		warmUp();
 	}
 
 	/**
-	 * Starts the routine.
+	 * Starts a new routine with the current input. Further routines can be
+	 * started while it runs, they run concurrently up to the configured
+	 * amount and are queued beyond. The routine is armed if an arm time is
+	 * given.
 	 */
 	public void startRoutine() {
-		this.mLogger.logInfo("Routine started.", Logger.TOP_LEVEL);
-		this.mView.setAllInputEnabled(false);
-		this.mView.setStartButtonEnabled(false);
+		long armTime;
+		try {
+			armTime = AdaptiveIntervalController.parseOpeningTime(this.mView.getArmTime());
+		} catch (final ParseException e) {
+			this.mLogger.logError("The arm time is invalid. " + e.getMessage(), Logger.TOP_LEVEL);
+			return;
+		}
+		if (armTime == AdaptiveIntervalController.NO_OPENING_TIME) {
+			armTime = RoutineTask.NOT_ARMED;
+		} else if (armTime <= this.mRoutineManager.getClock().currentTimeMillis()) {
+			this.mLogger.logError("The arm time has already passed.", Logger.TOP_LEVEL);
+			return;
+		}
+
+		submitRoutine(this.mView.getThreadUrl(), this.mView.getTextToPost(), this.mView.getUsername(),
+				this.mView.getPassword(), this.mView.getBrowser(), this.mView.getEngine(), armTime);
+	}
+
+	/**
+	 * Stops the controller. Stops all routines and shuts down all web drivers.
+	 */
+	public void stop() {
+		this.mRoutineManager.shutdown();
+		this.mPoller.shutdown();
+		this.mWarmer.shutdown();
+		this.mDriverPool.shutdown();
+	}
+
+	/**
+	 * Stops all routines. Does not wait for them to be finished, the
+	 * controller is notified once they are.
+	 */
+	public void stopRoutine() {
+		this.mLogger.logInfo("Stopping all routines.", Logger.TOP_LEVEL);
+		this.mRoutineManager.stopAll();
+	}
+
+	/**
+	 * Submits a new routine with the given input. It runs concurrently to the
+	 * other routines up to the configured amount and is queued beyond.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param textToPost
+	 *            The text to post
+	 * @param username
+	 *            The username of the account
+	 * @param password
+	 *            The password of the account
+	 * @param browser
+	 *            The browser to use
+	 * @param engine
+	 *            The engine to use
+	 * @param armTime
+	 *            The time the thread opens by the clock of the server, in
+	 *            milliseconds since midnight, January 1, 1970 UTC. Or
+	 *            {@link RoutineTask#NOT_ARMED} if the routine should poll
+	 *            right after preparing.
+	 * @return The number which identifies the routine
+	 */
+	public int submitRoutine(final String threadUrl, final String textToPost, final String username,
+			final String password, final EBrowser browser, final EEngine engine, final long armTime) {
+		final int id = this.mRoutineManager.nextRoutineId();
+		this.mLogger.logInfo("Routine #" + id + " started.", Logger.TOP_LEVEL);
 		this.mView.setStopButtonEnabled(true);
 		this.mView.setSettingsButtonEnabled(false);
 
-		this.mCurrentRoutine = new RoutineTask(this.mView.getThreadUrl(), this.mView.getTextToPost(),
-				this.mView.getUsername(), this.mView.getPassword(), this.mView.getBrowser(), this.mLogger, this,
-				this.mSettingsController);
-		this.mCurrentRoutine.start();
+		// The routine takes over a warm web driver from the pool
+		this.mWarmer.cancelPending();
+		this.mRoutineManager.setMaxConcurrentRoutines(
+				(int) this.mSettingsController.getOptionAsNumber(EOption.MAX_ROUTINES));
+		this.mPoller.setThreads((int) this.mSettingsController.getOptionAsNumber(EOption.POLLER_THREADS));
+		boolean useVirtualThreads = this.mSettingsController.isOptionEnabled(EOption.VIRTUAL_THREADS);
+		if (useVirtualThreads && !NamedThreadFactory.isVirtualSupported()) {
+			this.mLogger.logError("Virtual threads are not supported by this Java version.", Logger.FIRST_LEVEL);
+			useVirtualThreads = false;
+		}
+		this.mRoutineManager.setVirtualThreads(useVirtualThreads);
+		this.mPoller.setVirtualThreads(useVirtualThreads);
+		final RoutineTask routine = new RoutineTask(id, threadUrl, textToPost, username, password, browser, engine,
+				armTime, this.mLogger.createPrefixedLogger("[#" + id + "] "), this.mRoutineManager,
+				this.mSettingsController, this.mSettingsController, this.mDriverPool, this.mSessionStore,
+				this.mSessionShare, this.mWatcherRegistry);
+		this.mRoutineManager.submit(routine);
+		return id;
 	}
 
 	/**
-	 * Stops the routine.
+	 * Warms up a web driver for the currently selected browser in the
+	 * background, if enabled and no routine is running. The thread URL is
+	 * loaded too if it is complete. The routine takes over the warm web
+	 * driver once started.
 	 */
-	public void stopRoutine() {
-		this.mLogger.logInfo("Routine stopped.", Logger.TOP_LEVEL);
-		if (this.mCurrentRoutine != null) {
-			this.mCurrentRoutine.interrupt();
-			try {
-				this.mCurrentRoutine.join(INTERRUPT_WAIT);
-			} catch (final InterruptedException e) {
-				e.printStackTrace();
-			}
+	public void warmUp() {
+		if (this.mRoutineManager.hasActiveRoutines() || !this.mSettingsController.isOptionEnabled(EOption.WARM_UP)) {
+			return;
+		}
+		if (this.mView.getEngine() == EEngine.HTTP) {
+			// The engine does not use a browser
+			return;
 		}
+
+		final String threadUrl = this.mView.getThreadUrl().trim();
+		String urlToLoad = null;
+		if (threadUrl.startsWith(WARM_UP_URL_PREFIX)) {
+			urlToLoad = threadUrl;
+		}
+		final WebDriverConfiguration configuration = WebDriverConfiguration.fromSettings(this.mView.getBrowser(),
+				threadUrl, this.mView.getUsername(), this.mSettingsController, this.mSettingsController);
+		this.mWarmer.request(configuration, urlToLoad);
 	}
 
 	/**
@@ -120,6 +328,13 @@ public final class MainFrameController {
 	private void linkListener() {
 		this.mView.addListenerToStartAction(new StartActionListener(this));
 		this.mView.addListenerToStopAction(new StopActionListener(this));
+		this.mView.addListenerToJobFileAction(new JobFileActionListener(this, this.mOwner));
 		this.mView.addWindowListener(new StopAtWindowCloseListener(this));
+
+		final WarmUpListener warmUpListener = new WarmUpListener(this);
+		this.mView.addListenerToBrowserChoice(warmUpListener);
+		this.mView.addListenerToEngineChoice(warmUpListener);
+		this.mView.addListenerToThreadUrlChange(warmUpListener);
+		this.mView.addListenerToUsernameChange(warmUpListener);
 	}
 }
\ No newline at end of file
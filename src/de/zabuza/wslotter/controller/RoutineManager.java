@@ -0,0 +1,385 @@
+package de.zabuza.wslotter.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.ERoutineStatus;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.time.ClockScheduler;
+import de.zabuza.wslotter.model.time.IClock;
+import de.zabuza.wslotter.model.tasks.RoutineTask;
+
+/**
+ * Manager which runs several routines concurrently on a bounded amount of
+ * threads. Routines which do not fit are queued until a running routine has
+ * finished. Every routine is identified by its number, its status can be
+ * queried and it can be stopped individually.<br>
+ * <br>
+ * Stopping a routine returns immediately, the routine tears down on its own
+ * thread. A watchdog stops routines whose deadline has passed and aborts the
+ * in-flight calls of stopped routines which did not end within a grace
+ * period. The routines and the watchdog measure their time by the clock of
+ * the manager.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class RoutineManager {
+	/**
+	 * The time to keep idle threads alive, in seconds.
+	 */
+	private static final long KEEP_ALIVE_TIME = 30;
+	/**
+	 * The time to wait for the routines to be finished after stopping them at
+	 * shutdown, in milliseconds.
+	 */
+	private static final long SHUTDOWN_WAIT = 2000;
+	/**
+	 * The time a stopped routine has to end before its in-flight calls are
+	 * aborted, in milliseconds.
+	 */
+	private static final long STOP_GRACE_PERIOD = 3000;
+	/**
+	 * Name of the threads running the routines.
+	 */
+	private static final String THREAD_NAME = "Routine";
+	/**
+	 * Name of the thread of the watchdog.
+	 */
+	private static final String WATCHDOG_THREAD_NAME = "RoutineWatchdog";
+
+	/**
+	 * The clock which measures the time of the routines.
+	 */
+	private final IClock mClock;
+	/**
+	 * The controller of the main frame.
+	 */
+	private final MainFrameController mController;
+	/**
+	 * The scheduled stops of the running routines whose deadline passes,
+	 * accessed by the number of the routine.
+	 */
+	private final Map<Integer, Future<?>> mDeadlines;
+	/**
+	 * The executor which runs the routines.
+	 */
+	private final ThreadPoolExecutor mExecutor;
+	/**
+	 * Logger of the main frame.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The number of the next routine.
+	 */
+	private int mNextRoutineId;
+	/**
+	 * The routines which were not finished yet, accessed by their number.
+	 */
+	private final Map<Integer, RoutineTask> mRoutines;
+	/**
+	 * The watchdog which stops routines whose deadline has passed and aborts
+	 * routines which do not end after being stopped.
+	 */
+	private final ClockScheduler mWatchdog;
+
+	/**
+	 * Creates a new manager without routines.
+	 * 
+	 * @param controller
+	 *            The controller of the main frame which is notified once all
+	 *            routines have finished
+	 * @param clock
+	 *            The clock which measures the time of the routines
+	 * @param logger
+	 *            Logger of the main frame
+	 */
+	public RoutineManager(final MainFrameController controller, final IClock clock, final Logger logger) {
+		this.mController = controller;
+		this.mClock = clock;
+		this.mLogger = logger;
+		this.mRoutines = new LinkedHashMap<>();
+		this.mDeadlines = new HashMap<>();
+		this.mNextRoutineId = 1;
+		this.mExecutor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(THREAD_NAME));
+		this.mExecutor.allowCoreThreadTimeOut(true);
+		this.mWatchdog = new ClockScheduler(WATCHDOG_THREAD_NAME, clock, null);
+	}
+
+	/**
+	 * Gets the numbers of the routines which were not finished yet.
+	 * 
+	 * @return The numbers of the routines which were not finished yet, in the
+	 *         order they were submitted
+	 */
+	public synchronized List<Integer> getActiveRoutineIds() {
+		return new ArrayList<>(this.mRoutines.keySet());
+	}
+
+	/**
+	 * Gets the clock which measures the time of the routines.
+	 * 
+	 * @return The clock of the routines
+	 */
+	public IClock getClock() {
+		return this.mClock;
+	}
+
+	/**
+	 * Gets the status of the routine with the given number.
+	 * 
+	 * @param id
+	 *            The number of the routine
+	 * @return The status of the routine or <tt>null</tt> if there is no such
+	 *         routine or it has already finished
+	 */
+	public synchronized ERoutineStatus getStatus(final int id) {
+		final RoutineTask routine = this.mRoutines.get(Integer.valueOf(id));
+		if (routine == null) {
+			return null;
+		}
+		return routine.getStatus();
+	}
+
+	/**
+	 * Whether there are routines which were not finished yet.
+	 * 
+	 * @return <tt>True</tt> if there are routines which were not finished yet,
+	 *         <tt>false</tt> if not
+	 */
+	public synchronized boolean hasActiveRoutines() {
+		return !this.mRoutines.isEmpty();
+	}
+
+	/**
+	 * Reserves the number of the next routine.
+	 * 
+	 * @return The number of the next routine
+	 */
+	public synchronized int nextRoutineId() {
+		final int id = this.mNextRoutineId;
+		this.mNextRoutineId++;
+		return id;
+	}
+
+	/**
+	 * Call this method when the given routine has finished. Logs its final
+	 * status and notifies the controller, which may submit further routines.
+	 * Notifies the controller again once no routine is active anymore.
+	 * 
+	 * @param routine
+	 *            The routine which has finished
+	 */
+	public void routineFinished(final RoutineTask routine) {
+		final Future<?> deadline;
+		synchronized (this) {
+			this.mRoutines.remove(Integer.valueOf(routine.getId()));
+			deadline = this.mDeadlines.remove(Integer.valueOf(routine.getId()));
+		}
+		if (deadline != null) {
+			deadline.cancel(false);
+		}
+		this.mLogger.logInfo("Routine #" + routine.getId() + " ended: " + routine.getStatus(), Logger.TOP_LEVEL);
+		this.mController.routineFinished(routine);
+		if (!hasActiveRoutines()) {
+			this.mController.routinesFinished();
+		}
+	}
+
+	/**
+	 * Call this method when the given routine has started running. If the
+	 * routine has a deadline, it is stopped once the deadline has passed.
+	 * 
+	 * @param routine
+	 *            The routine which has started running
+	 */
+	public void routineStarted(final RoutineTask routine) {
+		final CancellationContext context = routine.getContext();
+		if (!context.hasDeadline()) {
+			return;
+		}
+		try {
+			final Future<?> deadline = this.mWatchdog.schedule(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					RoutineManager.this.mLogger.logInfo("Routine #" + routine.getId() + " exceeded its deadline.",
+							Logger.TOP_LEVEL);
+					stopRoutine(routine);
+				}
+			}, TimeUnit.MILLISECONDS.toNanos(context.getRemainingMillis()));
+			synchronized (this) {
+				this.mDeadlines.put(Integer.valueOf(routine.getId()), deadline);
+			}
+		} catch (final RejectedExecutionException e) {
+			// The manager was shut down meanwhile, the routine is stopped
+			// anyway
+		}
+	}
+
+	/**
+	 * Sets the maximal amount of routines which run concurrently. Routines
+	 * which are already running are not affected.
+	 * 
+	 * @param maxRoutines
+	 *            The maximal amount of concurrent routines, at least one is
+	 *            used
+	 */
+	public void setMaxConcurrentRoutines(final int maxRoutines) {
+		final int poolSize = Math.max(1, maxRoutines);
+		// The core size must never exceed the maximal size
+		if (poolSize > this.mExecutor.getMaximumPoolSize()) {
+			this.mExecutor.setMaximumPoolSize(poolSize);
+			this.mExecutor.setCorePoolSize(poolSize);
+		} else {
+			this.mExecutor.setCorePoolSize(poolSize);
+			this.mExecutor.setMaximumPoolSize(poolSize);
+		}
+	}
+
+	/**
+	 * Sets whether routines should run on virtual threads, if supported.
+	 * Applies to threads created afterwards, idle threads are replaced after
+	 * a short time.
+	 * 
+	 * @param preferVirtual
+	 *            Whether routines should run on virtual threads
+	 */
+	public void setVirtualThreads(final boolean preferVirtual) {
+		if (((NamedThreadFactory) this.mExecutor.getThreadFactory()).isVirtual() == preferVirtual) {
+			return;
+		}
+		this.mExecutor.setThreadFactory(new NamedThreadFactory(THREAD_NAME, preferVirtual));
+	}
+
+	/**
+	 * Shuts the manager down. Stops all routines and waits a short time for
+	 * them to be finished. The in-flight calls of routines which are still
+	 * running afterwards are aborted.
+	 */
+	public void shutdown() {
+		stopAll();
+		this.mExecutor.shutdown();
+		try {
+			this.mExecutor.awaitTermination(SHUTDOWN_WAIT, TimeUnit.MILLISECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.mWatchdog.shutdown();
+
+		final List<RoutineTask> routines;
+		synchronized (this) {
+			routines = new ArrayList<>(this.mRoutines.values());
+		}
+		for (final RoutineTask routine : routines) {
+			routine.abort();
+		}
+	}
+
+	/**
+	 * Stops the routine with the given number. A queued routine ends as soon
+	 * as it would start. Returns immediately, the routine tears down on its
+	 * own thread.
+	 * 
+	 * @param id
+	 *            The number of the routine
+	 */
+	public void stop(final int id) {
+		final RoutineTask routine;
+		synchronized (this) {
+			routine = this.mRoutines.get(Integer.valueOf(id));
+		}
+		if (routine != null) {
+			stopRoutine(routine);
+		}
+	}
+
+	/**
+	 * Stops all routines. Returns immediately, the routines tear down on their
+	 * own threads.
+	 */
+	public void stopAll() {
+		final List<RoutineTask> routines;
+		synchronized (this) {
+			routines = new ArrayList<>(this.mRoutines.values());
+		}
+		for (final RoutineTask routine : routines) {
+			stopRoutine(routine);
+		}
+	}
+
+	/**
+	 * Submits the given routine. It runs as soon as a thread is free.
+	 * 
+	 * @param routine
+	 *            The routine to run
+	 */
+	public void submit(final RoutineTask routine) {
+		synchronized (this) {
+			this.mRoutines.put(Integer.valueOf(routine.getId()), routine);
+		}
+		this.mExecutor.execute(routine);
+	}
+
+	/**
+	 * Whether the given routine was not finished yet.
+	 * 
+	 * @param routine
+	 *            The routine in question
+	 * @return <tt>True</tt> if the routine was not finished yet,
+	 *         <tt>false</tt> if not
+	 */
+	private synchronized boolean isActive(final RoutineTask routine) {
+		return this.mRoutines.get(Integer.valueOf(routine.getId())) == routine;
+	}
+
+	/**
+	 * Interrupts the given routine. If it is running and does not end within
+	 * the grace period, its in-flight calls are aborted. A routine which is
+	 * still queued ends as soon as it gets a thread, without doing anything.
+	 * 
+	 * @param routine
+	 *            The routine to stop
+	 */
+	private void stopRoutine(final RoutineTask routine) {
+		routine.interrupt();
+		if (routine.getStatus() != ERoutineStatus.RUNNING) {
+			return;
+		}
+		try {
+			this.mWatchdog.schedule(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					if (!isActive(routine)) {
+						return;
+					}
+					RoutineManager.this.mLogger.logInfo(
+							"Routine #" + routine.getId() + " did not end in time, aborting it.", Logger.TOP_LEVEL);
+					routine.abort();
+				}
+			}, TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_PERIOD));
+		} catch (final RejectedExecutionException e) {
+			// The manager is shut down, remaining routines are aborted there
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package de.zabuza.wslotter.controller.listener;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+
+import de.zabuza.wslotter.controller.MainFrameController;
+
+/**
+ * Listener of the job file action. Opens a file choose dialog and runs the
+ * jobs of the selected job file.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class JobFileActionListener implements ActionListener {
+	/**
+	 * The title of the file chooser dialog.
+	 */
+	private final static String DIALOG_TITLE = "Select a job file";
+	/**
+	 * The controller of the main frame.
+	 */
+	private final MainFrameController mController;
+	/**
+	 * The file chooser to use.
+	 */
+	private final JFileChooser mFileChooser;
+	/**
+	 * The frame owning the file chooser dialog.
+	 */
+	private final JFrame mOwner;
+
+	/**
+	 * Creates a new listener of the job file action. Opens a file choose
+	 * dialog and runs the jobs of the selected job file.
+	 * 
+	 * @param controller
+	 *            Controller of the main frame
+	 * @param owner
+	 *            The frame owning the file chooser dialog
+	 */
+	public JobFileActionListener(final MainFrameController controller, final JFrame owner) {
+		this.mController = controller;
+		this.mOwner = owner;
+		this.mFileChooser = new JFileChooser();
+		this.mFileChooser.setDialogTitle(DIALOG_TITLE);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+	 */
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		final int option = this.mFileChooser.showOpenDialog(this.mOwner);
+		if (option == JFileChooser.APPROVE_OPTION) {
+			this.mController.runJobFile(this.mFileChooser.getSelectedFile());
+		} else if (option == JFileChooser.CANCEL_OPTION) {
+			// Do nothing
+		} else {
+			throw new IllegalStateException("An unknown error occurred during file selection.");
+		}
+	}
+}
@@ -6,7 +6,7 @@ import java.awt.event.WindowListener;
 import de.zabuza.wslotter.controller.MainFrameController;
 
 /**
- * Stops the current task if window is closed.
+ * Stops the current task and shuts down the web drivers if window is closed.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
@@ -58,7 +58,7 @@ public final class StopAtWindowCloseListener implements WindowListener {
 	 */
 	@Override
 	public void windowClosing(final WindowEvent event) {
-		this.mController.stopRoutine();
+		this.mController.stop();
 	}
 
 	/*
@@ -0,0 +1,80 @@
+package de.zabuza.wslotter.controller.listener;
+
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import de.zabuza.wslotter.controller.MainFrameController;
+
+/**
+ * Listener of changes to the inputs which determine the browser to warm up,
+ * that are the browser and engine choices, the thread URL and the username.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class WarmUpListener implements ItemListener, DocumentListener {
+	/**
+	 * The controller of the main frame.
+	 */
+	private final MainFrameController mController;
+
+	/**
+	 * Creates a new listener of changes to the inputs which determine the
+	 * browser to warm up.
+	 * 
+	 * @param controller
+	 *            Controller of the main frame
+	 */
+	public WarmUpListener(final MainFrameController controller) {
+		this.mController = controller;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.swing.event.DocumentListener#changedUpdate(javax.swing.event.
+	 * DocumentEvent)
+	 */
+	@Override
+	public void changedUpdate(final DocumentEvent e) {
+		// Only attribute changes, the text stays the same
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.swing.event.DocumentListener#insertUpdate(javax.swing.event.
+	 * DocumentEvent)
+	 */
+	@Override
+	public void insertUpdate(final DocumentEvent e) {
+		this.mController.warmUp();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * java.awt.event.ItemListener#itemStateChanged(java.awt.event.ItemEvent)
+	 */
+	@Override
+	public void itemStateChanged(final ItemEvent e) {
+		if (e.getStateChange() == ItemEvent.SELECTED) {
+			this.mController.warmUp();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.swing.event.DocumentListener#removeUpdate(javax.swing.event.
+	 * DocumentEvent)
+	 */
+	@Override
+	public void removeUpdate(final DocumentEvent e) {
+		this.mController.warmUp();
+	}
+}
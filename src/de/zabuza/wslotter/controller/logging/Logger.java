@@ -6,7 +6,7 @@ import de.zabuza.wslotter.view.MainFrameView;
  * Logger of the main frame.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
- * 
+ *
  */
 public final class Logger {
 	/**
@@ -46,6 +46,10 @@ public final class Logger {
 		return builder.toString();
 	}
 
+	/**
+	 * Prefix which is displayed in front of every output, may be empty.
+	 */
+	private final String mPrefix;
 	/**
 	 * View of the main frame.
 	 */
@@ -58,7 +62,35 @@ public final class Logger {
 	 *            view of the main frame
 	 */
 	public Logger(final MainFrameView view) {
+		this(view, "");
+	}
+
+	/**
+	 * Creates a new Logger using the view of the main frame which displays the
+	 * given prefix in front of every output.
+	 * 
+	 * @param view
+	 *            view of the main frame
+	 * @param prefix
+	 *            Prefix which is displayed in front of every output, may be
+	 *            empty
+	 */
+	public Logger(final MainFrameView view, final String prefix) {
 		this.mView = view;
+		this.mPrefix = prefix;
+	}
+
+	/**
+	 * Creates a logger which logs to the same view but displays the given
+	 * prefix in front of every output, after the prefix of this logger. Can be
+	 * used to distinguish the outputs of concurrent routines.
+	 * 
+	 * @param prefix
+	 *            Prefix to display in front of every output
+	 * @return The logger with the given prefix
+	 */
+	public Logger createPrefixedLogger(final String prefix) {
+		return new Logger(this.mView, this.mPrefix + prefix);
 	}
 
 	/**
@@ -71,7 +103,7 @@ public final class Logger {
 	 */
 	public void logError(final String message, final int level) {
 		if (this.mView != null) {
-			this.mView.logError(createLevelIndent(level) + PROMPT + message);
+			this.mView.logError(this.mPrefix + createLevelIndent(level) + PROMPT + message);
 		}
 	}
 
@@ -85,7 +117,7 @@ public final class Logger {
 	 */
 	public void logInfo(final String message, final int level) {
 		if (this.mView != null) {
-			this.mView.log(createLevelIndent(level) + PROMPT + message);
+			this.mView.log(this.mPrefix + createLevelIndent(level) + PROMPT + message);
 		}
 	}
 
@@ -97,9 +129,9 @@ public final class Logger {
 	 */
 	public void logUnknownError(final Exception e) {
 		if (this.mView != null) {
-			this.mView.logError(PROMPT + "An unknown error occurred:");
+			this.mView.logError(this.mPrefix + PROMPT + "An unknown error occurred:");
 			if (e.getMessage() != null) {
-				this.mView.logError(e.getMessage());
+				this.mView.logError(this.mPrefix + e.getMessage());
 				e.printStackTrace();
 			}
 		}
@@ -16,7 +16,9 @@ import de.zabuza.wslotter.controller.listener.SaveActionListener;
 import de.zabuza.wslotter.controller.listener.SettingsActionListener;
 import de.zabuza.wslotter.controller.logging.Logger;
 import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EOption;
 import de.zabuza.wslotter.model.IBrowserSettingsProvider;
+import de.zabuza.wslotter.model.IOptionProvider;
 import de.zabuza.wslotter.view.MainFrameView;
 import de.zabuza.wslotter.view.SettingsDialog;
 
@@ -26,7 +28,7 @@ import de.zabuza.wslotter.view.SettingsDialog;
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
-public final class SettingsController implements ISettingsProvider, IBrowserSettingsProvider {
+public final class SettingsController implements ISettingsProvider, IBrowserSettingsProvider, IOptionProvider {
 	/**
 	 * Text to save for a value if a key is unknown.
 	 */
@@ -39,10 +41,34 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 * Key identifier for driver settings.
 	 */
 	private static final String KEY_IDENTIFIER_DRIVER = "driver";
+	/**
+	 * Key identifier for option settings.
+	 */
+	private static final String KEY_IDENTIFIER_OPTION = "option";
 	/**
 	 * Separator which separates several information in a key.
 	 */
 	private static final String KEY_INFO_SEPARATOR = "@";
+
+	/**
+	 * Gets the browser whose driver is used by the given browser. Headless
+	 * variants of a browser use the same driver as the browser itself and thus
+	 * share its setting.
+	 * 
+	 * @param browser
+	 *            The browser to get the driver browser for
+	 * @return The browser whose driver is used by the given browser
+	 */
+	private static EBrowser getDriverBrowser(final EBrowser browser) {
+		if (browser == EBrowser.CHROME_HEADLESS) {
+			return EBrowser.CHROME;
+		}
+		if (browser == EBrowser.FIREFOX_HEADLESS) {
+			return EBrowser.FIREFOX;
+		}
+		return browser;
+	}
+
 	/**
 	 * The logger used by this object.
 	 */
@@ -106,6 +132,9 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	public void executeSaveAction() {
 		// Driver settings
 		for (final EBrowser browser : EBrowser.values()) {
+			if (getDriverBrowser(browser) != browser) {
+				continue;
+			}
 			final JTextField field = this.mSettingsDialog.getBrowserDriverField(browser);
 			final String value = field.getText();
 			if (!value.equals(UNKNOWN_KEY_VALUE)) {
@@ -122,6 +151,12 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 			setSetting(key, value);
 		}
 
+		// Option settings
+		for (final EOption option : EOption.values()) {
+			final String key = KEY_IDENTIFIER_OPTION + KEY_INFO_SEPARATOR + option;
+			setSetting(key, this.mSettingsDialog.getOptionValue(option));
+		}
+
 		// Save settings
 		this.mSettings.saveSettings(this);
 
@@ -183,7 +218,7 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 */
 	@Override
 	public String getDriverForBrowser(final EBrowser browser) {
-		final String key = KEY_IDENTIFIER_DRIVER + KEY_INFO_SEPARATOR + browser;
+		final String key = KEY_IDENTIFIER_DRIVER + KEY_INFO_SEPARATOR + getDriverBrowser(browser);
 		final String driver = getSetting(key);
 		if (driver.equals(UNKNOWN_KEY_VALUE)) {
 			return null;
@@ -191,6 +226,39 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		return driver;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.wslotter.model.IOptionProvider#getOption(de.zabuza.wslotter.
+	 * model.EOption)
+	 */
+	@Override
+	public String getOption(final EOption option) {
+		final String key = KEY_IDENTIFIER_OPTION + KEY_INFO_SEPARATOR + option;
+		final String value = getSetting(key);
+		if (value.equals(UNKNOWN_KEY_VALUE)) {
+			return option.getDefaultValue();
+		}
+		return value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.wslotter.model.IOptionProvider#getOptionAsNumber(de.zabuza.
+	 * wslotter.model.EOption)
+	 */
+	@Override
+	public long getOptionAsNumber(final EOption option) {
+		try {
+			return Long.parseLong(getOption(option).trim());
+		} catch (final NumberFormatException e) {
+			return Long.parseLong(option.getDefaultValue());
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -215,6 +283,18 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 		this.mSettings.loadSettings(this);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.wslotter.model.IOptionProvider#isOptionEnabled(de.zabuza.
+	 * wslotter.model.EOption)
+	 */
+	@Override
+	public boolean isOptionEnabled(final EOption option) {
+		return Boolean.parseBoolean(getOption(option));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -236,6 +316,9 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 
 		// Browser field listener
 		for (final EBrowser browser : EBrowser.values()) {
+			if (getDriverBrowser(browser) != browser) {
+				continue;
+			}
 			final ActionListener listener = new FileChooseSetActionListener(this.mSettingsDialog,
 					this.mSettingsDialog.getBrowserDriverField(browser));
 			this.mSettingsDialog.addListenerToBrowserDriverSelectionAction(browser, listener);
@@ -262,6 +345,11 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 	 * Passes the settings of the store to the view for display.
 	 */
 	private void passSettingsToView() {
+		// Options which are not set display their default value
+		for (final EOption option : EOption.values()) {
+			this.mSettingsDialog.setOptionValue(option, getOption(option));
+		}
+
 		for (final Entry<String, String> entry : this.mSettingsStore.entrySet()) {
 			final String[] keySplit = entry.getKey().split(KEY_INFO_SEPARATOR);
 			final String keyIdentifier = keySplit[0];
@@ -275,6 +363,8 @@ public final class SettingsController implements ISettingsProvider, IBrowserSett
 				// Binary settings
 				final JTextField field = this.mSettingsDialog.getBrowserBinaryField();
 				field.setText(entry.getValue());
+			} else if (keyIdentifier.equals(KEY_IDENTIFIER_OPTION)) {
+				// Option settings, already passed together with their defaults
 			} else {
 				throw new IllegalStateException(
 						"The given setting key is not supported by this method: " + entry.getKey());
@@ -0,0 +1,213 @@
+package de.zabuza.wslotter.model;
+
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.model.time.IClock;
+import de.zabuza.wslotter.model.time.SystemClock;
+
+/**
+ * Context of a routine which tells all of its tasks and waits whether they
+ * should stop. The routine is stopped if it was cancelled or if its deadline
+ * has passed, the deadline is a time budget shared by all tasks of the
+ * routine. The state is visible across threads, such that a routine can be
+ * cancelled from any thread.<br>
+ * <br>
+ * The routine binds its context to the thread it runs on, waits created on
+ * that thread pick the context up by {@link #getCurrent()}. They also use the
+ * clock of the context, such that a routine can run in simulated time.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class CancellationContext {
+	/**
+	 * The context bound to the current thread.
+	 */
+	private static final ThreadLocal<CancellationContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+	/**
+	 * Gets the context bound to the current thread.
+	 * 
+	 * @return The context bound to the current thread or <tt>null</tt> if
+	 *         there is none
+	 */
+	public static CancellationContext getCurrent() {
+		return CURRENT_CONTEXT.get();
+	}
+
+	/**
+	 * Gets the clock of the context bound to the current thread.
+	 * 
+	 * @return The clock of the context bound to the current thread or the
+	 *         clock of the system if there is no context
+	 */
+	public static IClock getCurrentClock() {
+		final CancellationContext context = getCurrent();
+		if (context == null) {
+			return SystemClock.INSTANCE;
+		}
+		return context.getClock();
+	}
+
+	/**
+	 * Binds the given context to the current thread.
+	 * 
+	 * @param context
+	 *            The context to bind or <tt>null</tt> to remove the bound
+	 *            context
+	 */
+	public static void setCurrent(final CancellationContext context) {
+		if (context == null) {
+			CURRENT_CONTEXT.remove();
+		} else {
+			CURRENT_CONTEXT.set(context);
+		}
+	}
+
+	/**
+	 * Whether the context was cancelled.
+	 */
+	private volatile boolean mCancelled;
+	/**
+	 * The clock which measures the time of the routine.
+	 */
+	private final IClock mClock;
+	/**
+	 * The time of the deadline, as given by {@link IClock#nanoTime()}. Only
+	 * valid if the context has a deadline.
+	 */
+	private volatile long mDeadline;
+	/**
+	 * Whether the context has a deadline.
+	 */
+	private volatile boolean mHasDeadline;
+
+	/**
+	 * Creates a new context which is not cancelled and has no deadline, using
+	 * the clock of the system.
+	 */
+	public CancellationContext() {
+		this(SystemClock.INSTANCE);
+	}
+
+	/**
+	 * Creates a new context which is not cancelled and has no deadline.
+	 * 
+	 * @param clock
+	 *            The clock which measures the time of the routine
+	 */
+	public CancellationContext(final IClock clock) {
+		this.mClock = clock;
+		this.mCancelled = false;
+		this.mDeadline = 0;
+		this.mHasDeadline = false;
+	}
+
+	/**
+	 * Cancels the context.
+	 */
+	public void cancel() {
+		this.mCancelled = true;
+	}
+
+	/**
+	 * Throws an exception if the tasks should stop.
+	 * 
+	 * @throws AbortTaskException
+	 *             If the context was cancelled or its deadline has passed
+	 */
+	public void checkCancelled() throws AbortTaskException {
+		if (isCancelled()) {
+			throw new AbortTaskException();
+		}
+	}
+
+	/**
+	 * Gets the clock which measures the time of the routine.
+	 * 
+	 * @return The clock of the routine
+	 */
+	public IClock getClock() {
+		return this.mClock;
+	}
+
+	/**
+	 * Gets the time left until the deadline.
+	 * 
+	 * @return The time left until the deadline in milliseconds, zero if it
+	 *         has passed or {@link Long#MAX_VALUE} if there is no deadline
+	 */
+	public long getRemainingMillis() {
+		if (!this.mHasDeadline) {
+			return Long.MAX_VALUE;
+		}
+		final long remaining = this.mDeadline - this.mClock.nanoTime();
+		if (remaining <= 0) {
+			return 0;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(remaining);
+	}
+
+	/**
+	 * Whether the context has a deadline.
+	 * 
+	 * @return <tt>True</tt> if the context has a deadline, <tt>false</tt> if
+	 *         not
+	 */
+	public boolean hasDeadline() {
+		return this.mHasDeadline;
+	}
+
+	/**
+	 * Whether the tasks should stop, i.e. the context was cancelled or its
+	 * deadline has passed.
+	 * 
+	 * @return <tt>True</tt> if the tasks should stop, <tt>false</tt> if not
+	 */
+	public boolean isCancelled() {
+		return this.mCancelled || isExpired();
+	}
+
+	/**
+	 * Whether the deadline of the context has passed.
+	 * 
+	 * @return <tt>True</tt> if the deadline has passed, <tt>false</tt> if not
+	 *         or if there is no deadline
+	 */
+	public boolean isExpired() {
+		return this.mHasDeadline && this.mDeadline - this.mClock.nanoTime() <= 0;
+	}
+
+	/**
+	 * Limits the given timeout to the time left until the deadline.
+	 * 
+	 * @param timeout
+	 *            The timeout to limit, in nanoseconds
+	 * @return The limited timeout in nanoseconds, zero if the deadline has
+	 *         passed
+	 */
+	public long limitTimeout(final long timeout) {
+		if (!this.mHasDeadline) {
+			return timeout;
+		}
+		final long remaining = this.mDeadline - this.mClock.nanoTime();
+		return Math.max(0, Math.min(timeout, remaining));
+	}
+
+	/**
+	 * Starts the deadline of the context, the tasks should stop once the
+	 * given time has passed.
+	 * 
+	 * @param budget
+	 *            The time until the deadline in milliseconds or zero or less
+	 *            if there should be no deadline
+	 */
+	public void startDeadline(final long budget) {
+		if (budget <= 0) {
+			this.mHasDeadline = false;
+			return;
+		}
+		this.mDeadline = this.mClock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+		this.mHasDeadline = true;
+	}
+}
@@ -11,10 +11,18 @@ public enum EBrowser {
 	 * Chrome browser.
 	 */
 	CHROME,
+	/**
+	 * Chrome browser running without a visible window.
+	 */
+	CHROME_HEADLESS,
 	/**
 	 * Firefox browser.
 	 */
 	FIREFOX,
+	/**
+	 * Firefox browser running without a visible window.
+	 */
+	FIREFOX_HEADLESS,
 	/**
 	 * Internet explorer browser.
 	 */
@@ -27,6 +35,10 @@ public enum EBrowser {
 	 * Opera browser.
 	 */
 	OPERA,
+	/**
+	 * PhantomJS, a scriptable browser without a visible window.
+	 */
+	PHANTOMJS,
 	/**
 	 * Safari browser.
 	 */
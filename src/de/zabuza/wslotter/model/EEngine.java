@@ -0,0 +1,32 @@
+package de.zabuza.wslotter.model;
+
+/**
+ * Engine used by the routine to poll the thread and to post the reply.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum EEngine {
+	/**
+	 * Everything is done by the browser, the thread is polled by refreshing
+	 * the page.
+	 */
+	BROWSER,
+	/**
+	 * No browser is used at all. Everything is done by a lightweight HTTP
+	 * client which reads the forms directly from the HTML of the site.
+	 */
+	HTTP,
+	/**
+	 * The browser opens the thread and logs in, the thread is polled by a
+	 * lightweight HTTP client sharing the session of the browser. The browser
+	 * posts the reply once the form was found.
+	 */
+	HYBRID,
+	/**
+	 * The browser opens the thread and logs in, a script running in the site
+	 * then polls the thread in the background and posts the reply itself once
+	 * the form was found.
+	 */
+	SCRIPT
+}
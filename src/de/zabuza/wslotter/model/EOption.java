@@ -0,0 +1,194 @@
+package de.zabuza.wslotter.model;
+
+/**
+ * Options which tune the behavior of the routine. Options are either flags,
+ * which are enabled or disabled, or hold an arbitrary text value.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum EOption {
+	/**
+	 * Time in seconds to wait for the thread to be opened.
+	 */
+	GOTO_THREAD_TIMEOUT("Open thread timeout (s)", "5", false),
+	/**
+	 * Whether browsers should use a lean profile which blocks images, web
+	 * fonts and every resource of other sites such that polling transfers
+	 * little more than the HTML and the stylesheets of the site.
+	 */
+	LEAN_PROFILE("Lean polling profile", Boolean.FALSE.toString(), true),
+	/**
+	 * Comma separated list of additional hosts the lean profile allows, next
+	 * to the host of the thread.
+	 */
+	LEAN_PROFILE_ALLOWED_HOSTS("Allowed hosts", "", false),
+	/**
+	 * Time in seconds to wait for the login form and for the login to succeed.
+	 */
+	LOGIN_TIMEOUT("Login timeout (s)", "5", false),
+	/**
+	 * The maximal amount of routines which run concurrently, further routines
+	 * are queued.
+	 */
+	MAX_ROUTINES("Concurrent routines", "4", false),
+	/**
+	 * The time the thread opens, of the format <tt>yyyy-MM-dd HH:mm:ss</tt> in
+	 * local time. Polling slows down while the opening is far away. If empty,
+	 * the opening time is unknown and the thread is polled as fast as
+	 * allowed. Routines which are armed use their arm time instead.
+	 */
+	OPENING_TIME("Opening time", "", false),
+	/**
+	 * Strategy which determines when the browser considers a site as loaded,
+	 * the name of an {@link EPageLoadStrategy}.
+	 */
+	PAGE_LOAD_STRATEGY("Page load strategy", EPageLoadStrategy.NORMAL.name(), false),
+	/**
+	 * Whether to log in with a lightweight HTTP client while the browser
+	 * starts, such that the browser opens the thread already logged in.
+	 */
+	PARALLEL_LOGIN("Log in while browser starts", Boolean.TRUE.toString(), true),
+	/**
+	 * Whether browsers should use a persistent profile per account, such that
+	 * their caches stay warm across runs.
+	 */
+	PERSISTENT_PROFILE("Persistent profile", Boolean.FALSE.toString(), true),
+	/**
+	 * The maximal pause in seconds between two requests while polling the
+	 * thread.
+	 */
+	POLL_INTERVAL_MAX("Max poll interval (s)", "60", false),
+	/**
+	 * The minimal pause in milliseconds between two requests while polling
+	 * the thread.
+	 */
+	POLL_INTERVAL_MIN("Min poll interval (ms)", "0", false),
+	/**
+	 * Time in seconds to wait for the thread to be ready after each refresh
+	 * while polling.
+	 */
+	POLL_TIMEOUT("Poll timeout (s)", "5", false),
+	/**
+	 * The amount of threads which run the checks of all shared thread
+	 * watchers. Every thread makes one blocking request at a time, this is
+	 * thus also the maximal amount of requests in flight at once.
+	 */
+	POLLER_THREADS("Poller threads", "4", false),
+	/**
+	 * The amount of pollers which request the thread at once, their phases
+	 * evenly offset. Applies to polling by HTTP clients, that is the HTTP and
+	 * hybrid engines and the shared thread watchers, a web driver always
+	 * polls alone.
+	 */
+	POLLERS("Staggered pollers", "1", false),
+	/**
+	 * Directory to place the persistent profiles in, preferably backed by
+	 * memory. If empty, the shared memory or the temporary directory is used.
+	 */
+	PROFILE_LOCATION("Profile location", "", false),
+	/**
+	 * Time in days after which an unused persistent profile is deleted.
+	 */
+	PROFILE_MAX_AGE("Profile max age (days)", "14", false),
+	/**
+	 * Whether the session of a successful login should be stored encrypted
+	 * and restored in the next runs, instead of logging in again.
+	 */
+	REMEMBER_SESSION("Remember session", Boolean.FALSE.toString(), true),
+	/**
+	 * Time in seconds a routine may run at most, shared by all of its steps.
+	 * The routine is stopped once it has passed. If zero, routines run until
+	 * they are finished or stopped.
+	 */
+	ROUTINE_DEADLINE("Routine deadline (s)", "0", false),
+	/**
+	 * Time in seconds between two checks whether the session is still valid
+	 * while polling.
+	 */
+	SESSION_CHECK_INTERVAL("Session check interval (s)", "30", false),
+	/**
+	 * Whether routines targeting the same thread should share one watcher
+	 * which polls the thread on behalf of all of them, instead of polling it
+	 * each on their own. Applies to the hybrid engine, which polls by a HTTP
+	 * client anyway.
+	 */
+	SHARE_POLLING("Share polling of a thread", Boolean.TRUE.toString(), true),
+	/**
+	 * Whether routines, their background logins and the polling of shared
+	 * thread watchers should run on virtual threads, if supported by the Java
+	 * version. Waiting then costs almost no memory, such that many routines
+	 * can run at once.
+	 */
+	VIRTUAL_THREADS("Use virtual threads", Boolean.FALSE.toString(), true),
+	/**
+	 * Whether the selected browser should be started in the background ahead
+	 * of the routine, such that the routine takes over the running browser.
+	 * Independent of the dry runs of the detection set by
+	 * {@link #WARM_UP_CYCLES}.
+	 */
+	WARM_UP("Start browser in background", Boolean.FALSE.toString(), true),
+	/**
+	 * The amount of dry runs of the detection of the post-reply form before
+	 * polling, such that the first attempt is as fast as later ones. If zero,
+	 * which is the default, routines poll without dry runs.
+	 */
+	WARM_UP_CYCLES("Detection dry runs", "0", false);
+
+	/**
+	 * The value of the option if not set.
+	 */
+	private final String mDefaultValue;
+	/**
+	 * Whether the option is a flag.
+	 */
+	private final boolean mIsFlag;
+	/**
+	 * The label of the option to display.
+	 */
+	private final String mLabel;
+
+	/**
+	 * Creates a new option.
+	 * 
+	 * @param label
+	 *            The label of the option to display
+	 * @param defaultValue
+	 *            The value of the option if not set
+	 * @param isFlag
+	 *            Whether the option is a flag
+	 */
+	private EOption(final String label, final String defaultValue, final boolean isFlag) {
+		this.mLabel = label;
+		this.mDefaultValue = defaultValue;
+		this.mIsFlag = isFlag;
+	}
+
+	/**
+	 * Gets the value of the option if not set.
+	 * 
+	 * @return The value of the option if not set
+	 */
+	public String getDefaultValue() {
+		return this.mDefaultValue;
+	}
+
+	/**
+	 * Gets the label of the option to display.
+	 * 
+	 * @return The label of the option to display
+	 */
+	public String getLabel() {
+		return this.mLabel;
+	}
+
+	/**
+	 * Whether the option is a flag, i.e. it is either enabled or disabled.
+	 * 
+	 * @return <tt>True</tt> if the option is a flag, <tt>false</tt> if it
+	 *         holds a text value
+	 */
+	public boolean isFlag() {
+		return this.mIsFlag;
+	}
+}
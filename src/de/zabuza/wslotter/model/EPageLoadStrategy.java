@@ -0,0 +1,54 @@
+package de.zabuza.wslotter.model;
+
+/**
+ * Strategy which determines when the browser considers a site as loaded, i.e.
+ * when navigation calls of the web driver return.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum EPageLoadStrategy {
+	/**
+	 * Navigation returns once the document was parsed, stylesheets, images
+	 * and sub-frames may still be loading.
+	 */
+	EAGER,
+	/**
+	 * Navigation returns immediately, the site may not even have started to
+	 * load. Readiness must be determined by waiting for the relevant elements.
+	 */
+	NONE,
+	/**
+	 * Navigation returns once the site and all of its resources have finished
+	 * loading.
+	 */
+	NORMAL;
+
+	/**
+	 * Gets the strategy with the given name, ignoring case and surrounding
+	 * whitespace.
+	 * 
+	 * @param name
+	 *            The name of the strategy
+	 * @return The strategy with the given name or <tt>null</tt> if there is
+	 *         no such strategy
+	 */
+	public static EPageLoadStrategy fromName(final String name) {
+		for (final EPageLoadStrategy strategy : values()) {
+			if (strategy.name().equalsIgnoreCase(name.trim())) {
+				return strategy;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the value of the page load strategy capability which represents
+	 * this strategy.
+	 * 
+	 * @return The value of the capability
+	 */
+	public String getCapabilityValue() {
+		return name().toLowerCase();
+	}
+}
@@ -0,0 +1,30 @@
+package de.zabuza.wslotter.model;
+
+/**
+ * Status of a routine.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public enum ERoutineStatus {
+	/**
+	 * The routine was aborted because of an error.
+	 */
+	FAILED,
+	/**
+	 * The routine posted its text.
+	 */
+	FINISHED,
+	/**
+	 * The routine waits for a free slot to run in.
+	 */
+	QUEUED,
+	/**
+	 * The routine is running.
+	 */
+	RUNNING,
+	/**
+	 * The routine was stopped before it posted its text.
+	 */
+	STOPPED
+}
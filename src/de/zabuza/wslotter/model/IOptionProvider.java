@@ -0,0 +1,37 @@
+package de.zabuza.wslotter.model;
+
+/**
+ * Interface for objects that provide the values of options.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IOptionProvider {
+	/**
+	 * Gets the value of the given option.
+	 * 
+	 * @param option
+	 *            Option to get the value of
+	 * @return The value of the option or its default value if not set
+	 */
+	public String getOption(final EOption option);
+
+	/**
+	 * Gets the value of the given option as number.
+	 * 
+	 * @param option
+	 *            Option to get the value of
+	 * @return The value of the option or its default value if not set or not a
+	 *         number
+	 */
+	public long getOptionAsNumber(final EOption option);
+
+	/**
+	 * Whether the given flag option is enabled.
+	 * 
+	 * @param option
+	 *            Flag option to check
+	 * @return <tt>True</tt> if the option is enabled, <tt>false</tt> otherwise
+	 */
+	public boolean isOptionEnabled(final EOption option);
+}
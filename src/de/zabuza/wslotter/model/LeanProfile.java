@@ -0,0 +1,214 @@
+package de.zabuza.wslotter.model;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.phantomjs.PhantomJSDriverService;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+/**
+ * Utility class that configures browsers to use a lean profile. The profile
+ * blocks images, web fonts and every resource of hosts which are not
+ * explicitly allowed, such as third-party scripts, stylesheets and
+ * advertisement. Little more than the HTML and the stylesheets of the site is
+ * then transferred and rendered on each poll. No browser offers a setting
+ * which blocks the stylesheets of the site itself. The login and post-reply
+ * forms only need the HTML of the site and thus work without the blocked
+ * resources.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class LeanProfile {
+	/**
+	 * Proxy a blocked host is routed to. It refuses all connections such that
+	 * requests fail immediately.
+	 */
+	private static final String BLOCKING_PROXY = "127.0.0.1:9";
+	/**
+	 * Argument prefix for the Blink settings of Chrome.
+	 */
+	private static final String CHROME_BLINK_SETTINGS_ARGUMENT = "--blink-settings=";
+	/**
+	 * Value of a Chrome content setting which blocks the content.
+	 */
+	private static final int CHROME_CONTENT_SETTING_BLOCK = 2;
+	/**
+	 * Argument prefix for the host resolver rules of Chrome.
+	 */
+	private static final String CHROME_HOST_RESOLVER_RULES_ARGUMENT = "--host-resolver-rules=";
+	/**
+	 * Experimental option for the preferences of Chrome.
+	 */
+	private static final String CHROME_PREFERENCES_OPTION = "prefs";
+	/**
+	 * Key of the preferences inside the options passed by the gecko driver to
+	 * Firefox.
+	 */
+	private static final String FIREFOX_OPTIONS_PREFERENCES = "prefs";
+	/**
+	 * Value of a Firefox permission which denies the content.
+	 */
+	private static final int FIREFOX_PERMISSION_DENY = 2;
+	/**
+	 * Type of the Firefox proxy settings which uses a proxy auto-config.
+	 */
+	private static final int FIREFOX_PROXY_TYPE_AUTO_CONFIG = 2;
+	/**
+	 * Separator which separates the hosts of an allow-list.
+	 */
+	private static final String HOST_SEPARATOR = ",";
+	/**
+	 * Host of the local machine which is always allowed, it is used for the
+	 * communication with the driver.
+	 */
+	private static final String LOCAL_HOST = "localhost";
+	/**
+	 * Command line argument of PhantomJS which disables the loading of images.
+	 */
+	private static final String PHANTOMJS_DISABLE_IMAGES_ARGUMENT = "--load-images=false";
+	/**
+	 * Capability of PhantomJS which controls the loading of images.
+	 */
+	private static final String PHANTOMJS_LOAD_IMAGES = "phantomjs.page.settings.loadImages";
+
+	/**
+	 * Configures the given Chrome options to use the lean profile. Chrome does
+	 * not offer settings for blocking fonts and stylesheets, they are only
+	 * blocked if served by a host which is not allowed.
+	 * 
+	 * @param options
+	 *            Options to configure
+	 * @param allowedHosts
+	 *            Hosts whose resources are allowed to be loaded
+	 */
+	public static void applyToChrome(final ChromeOptions options, final Collection<String> allowedHosts) {
+		// Resolve every host which is not allowed to nothing
+		final StringBuilder rules = new StringBuilder("MAP * ~NOTFOUND");
+		for (final String host : allowedHosts) {
+			rules.append(" , EXCLUDE ").append(host);
+			rules.append(" , EXCLUDE *.").append(host);
+		}
+		options.addArguments(CHROME_HOST_RESOLVER_RULES_ARGUMENT + rules);
+
+		// Block images
+		options.addArguments(CHROME_BLINK_SETTINGS_ARGUMENT + "imagesEnabled=false");
+		final Map<String, Object> preferences = new HashMap<>();
+		preferences.put("profile.managed_default_content_settings.images",
+				Integer.valueOf(CHROME_CONTENT_SETTING_BLOCK));
+		options.setExperimentalOption(CHROME_PREFERENCES_OPTION, preferences);
+	}
+
+	/**
+	 * Configures the given Firefox profile and options to use the lean profile.
+	 * The legacy driver uses the profile while the gecko driver passes the
+	 * preferences of the options to Firefox.
+	 * 
+	 * @param profile
+	 *            Profile to configure
+	 * @param firefoxOptions
+	 *            Options passed by the gecko driver to Firefox to configure
+	 * @param allowedHosts
+	 *            Hosts whose resources are allowed to be loaded
+	 */
+	public static void applyToFirefox(final FirefoxProfile profile, final Map<String, Object> firefoxOptions,
+			final Collection<String> allowedHosts) {
+		final Map<String, Object> preferences = new HashMap<>();
+
+		// Block images and web fonts
+		preferences.put("permissions.default.image", Integer.valueOf(FIREFOX_PERMISSION_DENY));
+		preferences.put("gfx.downloadable_fonts.enabled", Boolean.FALSE);
+		preferences.put("browser.display.use_document_fonts", Integer.valueOf(0));
+
+		// Route every host which is not allowed to a proxy refusing connections
+		preferences.put("network.proxy.type", Integer.valueOf(FIREFOX_PROXY_TYPE_AUTO_CONFIG));
+		preferences.put("network.proxy.autoconfig_url", createProxyAutoConfig(allowedHosts));
+		preferences.put("network.proxy.failover_direct", Boolean.FALSE);
+
+		for (final Entry<String, Object> preference : preferences.entrySet()) {
+			final Object value = preference.getValue();
+			if (value instanceof Integer) {
+				profile.setPreference(preference.getKey(), ((Integer) value).intValue());
+			} else if (value instanceof Boolean) {
+				profile.setPreference(preference.getKey(), ((Boolean) value).booleanValue());
+			} else {
+				profile.setPreference(preference.getKey(), value.toString());
+			}
+		}
+		firefoxOptions.put(FIREFOX_OPTIONS_PREFERENCES, preferences);
+	}
+
+	/**
+	 * Configures the given PhantomJS capabilities to use the lean profile.
+	 * PhantomJS only offers to block images.
+	 * 
+	 * @param capabilities
+	 *            Capabilities to configure
+	 */
+	public static void applyToPhantomJs(final DesiredCapabilities capabilities) {
+		capabilities.setCapability(PHANTOMJS_LOAD_IMAGES, false);
+		capabilities.setCapability(PhantomJSDriverService.PHANTOMJS_CLI_ARGS,
+				new String[] { PHANTOMJS_DISABLE_IMAGES_ARGUMENT });
+	}
+
+	/**
+	 * Gets the hosts whose resources the lean profile allows to be loaded. These
+	 * are the host of the thread, the local host and the additional given
+	 * hosts. Sub-domains of the hosts are also allowed.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param additionalHosts
+	 *            Comma separated list of additional hosts to allow, may be empty
+	 * @return The hosts whose resources are allowed to be loaded
+	 */
+	public static Set<String> getAllowedHosts(final String threadUrl, final String additionalHosts) {
+		final Set<String> allowedHosts = new LinkedHashSet<>();
+		allowedHosts.add(LOCAL_HOST);
+		try {
+			allowedHosts.add(new URL(threadUrl).getHost().toLowerCase());
+		} catch (final MalformedURLException e) {
+			// Only allow the additional hosts
+		}
+		for (final String host : additionalHosts.split(HOST_SEPARATOR)) {
+			final String trimmedHost = host.trim().toLowerCase();
+			if (!trimmedHost.isEmpty()) {
+				allowedHosts.add(trimmedHost);
+			}
+		}
+		return allowedHosts;
+	}
+
+	/**
+	 * Creates a proxy auto-config which connects directly to the given hosts
+	 * and routes every other host to the {@link #BLOCKING_PROXY}.
+	 * 
+	 * @param allowedHosts
+	 *            Hosts to connect directly to
+	 * @return The proxy auto-config as data URL
+	 */
+	private static String createProxyAutoConfig(final Collection<String> allowedHosts) {
+		final StringBuilder config = new StringBuilder("data:text/javascript,function FindProxyForURL(url,host){");
+		for (final String host : allowedHosts) {
+			config.append("if(host==\"").append(host).append("\"||dnsDomainIs(host,\".").append(host)
+					.append("\"))return \"DIRECT\";");
+		}
+		config.append("return \"PROXY ").append(BLOCKING_PROXY).append("\";}");
+		return config.toString();
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private LeanProfile() {
+
+	}
+}
@@ -0,0 +1,133 @@
+package de.zabuza.wslotter.model;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Factory of named background threads. The threads are either daemon platform
+ * threads or, if requested and supported by the running Java version, virtual
+ * threads. Virtual threads cost almost no memory while they wait, such that
+ * many routines and polls which mostly sleep can run at once. The project is
+ * built for Java 8, virtual threads are thus created by reflection.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class NamedThreadFactory implements ThreadFactory {
+	/**
+	 * Name of the builder interface of threads, available since Java 21.
+	 */
+	private static final String THREAD_BUILDER_CLASS = "java.lang.Thread$Builder";
+
+	/**
+	 * Whether the running Java version supports virtual threads.
+	 * 
+	 * @return <tt>True</tt> if virtual threads are supported, <tt>false</tt>
+	 *         if not
+	 */
+	public static boolean isVirtualSupported() {
+		return createVirtualThreadFactory(NamedThreadFactory.class.getSimpleName()) != null;
+	}
+
+	/**
+	 * Creates a factory of virtual threads whose names start with the given
+	 * name, followed by a number.
+	 * 
+	 * @param name
+	 *            The name of the threads
+	 * @return The factory of virtual threads or <tt>null</tt> if virtual
+	 *         threads are not supported
+	 */
+	private static ThreadFactory createVirtualThreadFactory(final String name) {
+		try {
+			// Methods are accessed by the public interface since the
+			// implementing builder is not accessible
+			final Class<?> builderClass = Class.forName(THREAD_BUILDER_CLASS);
+			final Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+			final Method factoryMethod = builderClass.getMethod("factory");
+
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = nameMethod.invoke(builder, name + "-", Long.valueOf(1));
+			return (ThreadFactory) factoryMethod.invoke(builder);
+		} catch (final ReflectiveOperationException | ClassCastException e) {
+			// Virtual threads are not available, also if only in preview
+			return null;
+		}
+	}
+
+	/**
+	 * The name of the threads.
+	 */
+	private final String mName;
+	/**
+	 * The number of the next platform thread.
+	 */
+	private int mNextThreadId;
+	/**
+	 * The factory of virtual threads or <tt>null</tt> if platform threads are
+	 * created.
+	 */
+	private final ThreadFactory mVirtualFactory;
+
+	/**
+	 * Creates a new factory of daemon platform threads whose names start with
+	 * the given name, followed by a number.
+	 * 
+	 * @param name
+	 *            The name of the threads
+	 */
+	public NamedThreadFactory(final String name) {
+		this(name, false);
+	}
+
+	/**
+	 * Creates a new factory of threads whose names start with the given name,
+	 * followed by a number.
+	 * 
+	 * @param name
+	 *            The name of the threads
+	 * @param preferVirtual
+	 *            Whether virtual threads should be created if supported, else
+	 *            daemon platform threads are created
+	 */
+	public NamedThreadFactory(final String name, final boolean preferVirtual) {
+		this.mName = name;
+		this.mNextThreadId = 1;
+		if (preferVirtual) {
+			this.mVirtualFactory = createVirtualThreadFactory(name);
+		} else {
+			this.mVirtualFactory = null;
+		}
+	}
+
+	/**
+	 * Whether the factory creates virtual threads.
+	 * 
+	 * @return <tt>True</tt> if virtual threads are created, <tt>false</tt> if
+	 *         daemon platform threads are created
+	 */
+	public boolean isVirtual() {
+		return this.mVirtualFactory != null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+	 */
+	@Override
+	public Thread newThread(final Runnable runnable) {
+		if (this.mVirtualFactory != null) {
+			return this.mVirtualFactory.newThread(runnable);
+		}
+
+		final int threadId;
+		synchronized (this) {
+			threadId = this.mNextThreadId;
+			this.mNextThreadId++;
+		}
+		final Thread thread = new Thread(runnable, this.mName + "-" + threadId);
+		thread.setDaemon(true);
+		return thread;
+	}
+}
@@ -0,0 +1,224 @@
+package de.zabuza.wslotter.model.driver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriver;
+
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.session.SessionStore;
+
+/**
+ * Manages persistent browser profiles, one per account and browser, such that
+ * caches, DNS entries and TLS sessions of the browser survive across runs.
+ * Profiles are placed in a configurable location, which should be backed by
+ * memory like a <tt>tmpfs</tt>, and pruned once unused for too long. As a
+ * browser locks its profile, concurrent browsers of the same account use
+ * separate slots of the profile.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ProfileManager {
+	/**
+	 * Name of the directory holding the profiles inside a location.
+	 */
+	private static final String DIRECTORY_NAME = "wslotter-profiles";
+	/**
+	 * Name of the file whose modification time marks the last use of a
+	 * profile.
+	 */
+	private static final String LAST_USED_MARKER = ".last-used";
+	/**
+	 * Directory of the shared memory on Linux, which is backed by memory.
+	 */
+	private static final String SHARED_MEMORY_DIRECTORY = "/dev/shm";
+	/**
+	 * System property of the directory for temporary files.
+	 */
+	private static final String TEMP_DIRECTORY_PROPERTY = "java.io.tmpdir";
+
+	/**
+	 * Gets the directory of the profile of the given account and browser.
+	 * 
+	 * @param rootDirectory
+	 *            The directory holding the profiles
+	 * @param browser
+	 *            The browser using the profile
+	 * @param username
+	 *            The name of the account
+	 * @return The directory of the profile
+	 */
+	public static File getProfileDirectory(final File rootDirectory, final EBrowser browser,
+			final String username) {
+		final File browserDirectory = new File(rootDirectory, browser.name().toLowerCase());
+		return new File(browserDirectory, SessionStore.getAccountKey(username));
+	}
+
+	/**
+	 * Gets the directory holding the profiles of the given location. If no
+	 * location is given, the shared memory is used if available and else the
+	 * directory for temporary files.
+	 * 
+	 * @param location
+	 *            The location of the profiles, may be empty
+	 * @return The directory holding the profiles
+	 */
+	public static File getRootDirectory(final String location) {
+		final String trimmedLocation = location.trim();
+		if (!trimmedLocation.isEmpty()) {
+			return new File(trimmedLocation, DIRECTORY_NAME);
+		}
+		final File sharedMemory = new File(SHARED_MEMORY_DIRECTORY);
+		if (sharedMemory.isDirectory() && sharedMemory.canWrite()) {
+			return new File(sharedMemory, DIRECTORY_NAME);
+		}
+		return new File(System.getProperty(TEMP_DIRECTORY_PROPERTY), DIRECTORY_NAME);
+	}
+
+	/**
+	 * Deletes all profiles in the given root directory which were not used
+	 * within the given amount of days.
+	 * 
+	 * @param rootDirectory
+	 *            The directory holding the profiles
+	 * @param maxAgeInDays
+	 *            The amount of days after which an unused profile is deleted
+	 */
+	public static void prune(final File rootDirectory, final long maxAgeInDays) {
+		final long oldestAllowed = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeInDays);
+		final File[] browserDirectories = rootDirectory.listFiles();
+		if (browserDirectories == null) {
+			return;
+		}
+		for (final File browserDirectory : browserDirectories) {
+			final File[] profileDirectories = browserDirectory.listFiles();
+			if (profileDirectories == null) {
+				continue;
+			}
+			for (final File profileDirectory : profileDirectories) {
+				// Profiles without marker are abandoned, their modification
+				// time is used instead
+				File marker = new File(profileDirectory, LAST_USED_MARKER);
+				if (!marker.exists()) {
+					marker = profileDirectory;
+				}
+				if (marker.lastModified() < oldestAllowed) {
+					deleteRecursively(profileDirectory);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes the given file or directory with all its content, ignoring
+	 * failures.
+	 * 
+	 * @param file
+	 *            The file or directory to delete
+	 */
+	private static void deleteRecursively(final File file) {
+		final File[] children = file.listFiles();
+		if (children != null) {
+			for (final File child : children) {
+				deleteRecursively(child);
+			}
+		}
+		if (!file.delete()) {
+			// Just ignore the failure and continue, the file is deleted with
+			// the next pruning
+		}
+	}
+
+	/**
+	 * The slots of profiles currently used by a web driver, accessed by the
+	 * web driver.
+	 */
+	private final Map<WebDriver, File> mSlotsByDriver;
+	/**
+	 * The slots of profiles currently used by a web driver or reserved for a
+	 * web driver which is still starting.
+	 */
+	private final Set<File> mUsedSlots;
+
+	/**
+	 * Creates a new manager without any used profiles.
+	 */
+	public ProfileManager() {
+		this.mSlotsByDriver = new IdentityHashMap<>();
+		this.mUsedSlots = new HashSet<>();
+	}
+
+	/**
+	 * Reserves the first free slot of the given profile and marks the profile
+	 * as used. The slot must either be assigned to a web driver by
+	 * {@link #assign(File, WebDriver)} or released by
+	 * {@link #releaseSlot(File)}.
+	 * 
+	 * @param profileDirectory
+	 *            The directory of the profile
+	 * @return The directory of the reserved slot
+	 * @throws IOException
+	 *             If the directory of the slot could not be created
+	 */
+	public synchronized File acquireSlot(final File profileDirectory) throws IOException {
+		File slot;
+		int slotNumber = 0;
+		do {
+			slot = new File(profileDirectory, Integer.toString(slotNumber));
+			slotNumber++;
+		} while (this.mUsedSlots.contains(slot));
+
+		if (!slot.isDirectory() && !slot.mkdirs()) {
+			throw new IOException("The profile could not be created: " + slot);
+		}
+		final File marker = new File(profileDirectory, LAST_USED_MARKER);
+		if (!marker.createNewFile() && !marker.setLastModified(System.currentTimeMillis())) {
+			throw new IOException("The profile could not be marked as used: " + marker);
+		}
+		this.mUsedSlots.add(slot);
+		return slot;
+	}
+
+	/**
+	 * Assigns the given reserved slot to the given web driver. It is released
+	 * once the web driver was quit and {@link #release(WebDriver)} called.
+	 * 
+	 * @param slot
+	 *            The reserved slot
+	 * @param driver
+	 *            The web driver using the slot
+	 */
+	public synchronized void assign(final File slot, final WebDriver driver) {
+		this.mSlotsByDriver.put(driver, slot);
+	}
+
+	/**
+	 * Releases the slot used by the given web driver, if any. The web driver
+	 * must have been quit.
+	 * 
+	 * @param driver
+	 *            The web driver which was quit
+	 */
+	public synchronized void release(final WebDriver driver) {
+		final File slot = this.mSlotsByDriver.remove(driver);
+		if (slot != null) {
+			this.mUsedSlots.remove(slot);
+		}
+	}
+
+	/**
+	 * Releases the given reserved slot which was not assigned to a web driver.
+	 * 
+	 * @param slot
+	 *            The reserved slot
+	 */
+	public synchronized void releaseSlot(final File slot) {
+		this.mUsedSlots.remove(slot);
+	}
+}
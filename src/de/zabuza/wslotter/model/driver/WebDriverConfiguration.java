@@ -0,0 +1,218 @@
+package de.zabuza.wslotter.model.driver;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EOption;
+import de.zabuza.wslotter.model.EPageLoadStrategy;
+import de.zabuza.wslotter.model.IBrowserSettingsProvider;
+import de.zabuza.wslotter.model.IOptionProvider;
+import de.zabuza.wslotter.model.LeanProfile;
+
+/**
+ * Immutable configuration of a web driver. Web drivers of equal
+ * configurations are interchangeable.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverConfiguration {
+	/**
+	 * Creates the configuration of a web driver for the given browser, thread
+	 * and account, as determined by the given settings. Falls back to the
+	 * {@link EPageLoadStrategy#NORMAL} page load strategy if the options hold
+	 * no valid strategy.
+	 * 
+	 * @param browser
+	 *            The browser to use
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param username
+	 *            The name of the account the browser is used for
+	 * @param browserSettingsProvider
+	 *            The provider of the browser settings
+	 * @param optionProvider
+	 *            The provider of the options
+	 * @return The configuration of the web driver
+	 */
+	public static WebDriverConfiguration fromSettings(final EBrowser browser, final String threadUrl,
+			final String username, final IBrowserSettingsProvider browserSettingsProvider,
+			final IOptionProvider optionProvider) {
+		final String driverPath = browserSettingsProvider.getDriverForBrowser(browser);
+		final String binaryPath = browserSettingsProvider.getBrowserBinary();
+
+		Set<String> leanProfileHosts = null;
+		if (optionProvider.isOptionEnabled(EOption.LEAN_PROFILE)) {
+			leanProfileHosts = LeanProfile.getAllowedHosts(threadUrl,
+					optionProvider.getOption(EOption.LEAN_PROFILE_ALLOWED_HOSTS));
+		}
+
+		EPageLoadStrategy pageLoadStrategy = EPageLoadStrategy
+				.fromName(optionProvider.getOption(EOption.PAGE_LOAD_STRATEGY));
+		if (pageLoadStrategy == null) {
+			pageLoadStrategy = EPageLoadStrategy.NORMAL;
+		}
+
+		File profileDirectory = null;
+		if (optionProvider.isOptionEnabled(EOption.PERSISTENT_PROFILE)) {
+			profileDirectory = ProfileManager.getProfileDirectory(
+					ProfileManager.getRootDirectory(optionProvider.getOption(EOption.PROFILE_LOCATION)), browser,
+					username);
+		}
+
+		return new WebDriverConfiguration(browser, driverPath, binaryPath, leanProfileHosts, pageLoadStrategy,
+				profileDirectory);
+	}
+
+	/**
+	 * Path to the binary of the browser or <tt>null</tt> if not set.
+	 */
+	private final String mBinaryPath;
+	/**
+	 * The browser to use.
+	 */
+	private final EBrowser mBrowser;
+	/**
+	 * Path to the driver of the browser or <tt>null</tt> if not set.
+	 */
+	private final String mDriverPath;
+	/**
+	 * Hosts the lean profile allows to load resources from or <tt>null</tt>
+	 * if the browser does not use a lean profile.
+	 */
+	private final Set<String> mLeanProfileHosts;
+	/**
+	 * The page load strategy the browser uses.
+	 */
+	private final EPageLoadStrategy mPageLoadStrategy;
+	/**
+	 * Directory of the persistent profile the browser uses or <tt>null</tt>
+	 * if the browser uses a temporary profile.
+	 */
+	private final File mProfileDirectory;
+
+	/**
+	 * Creates a new configuration of a web driver.
+	 * 
+	 * @param browser
+	 *            The browser to use
+	 * @param driverPath
+	 *            Path to the driver of the browser or <tt>null</tt> if not set
+	 * @param binaryPath
+	 *            Path to the binary of the browser or <tt>null</tt> if not set
+	 * @param leanProfileHosts
+	 *            Hosts the lean profile allows to load resources from or
+	 *            <tt>null</tt> if the browser should not use a lean profile
+	 * @param pageLoadStrategy
+	 *            The page load strategy the browser should use
+	 * @param profileDirectory
+	 *            Directory of the persistent profile the browser should use
+	 *            or <tt>null</tt> if it should use a temporary profile
+	 */
+	public WebDriverConfiguration(final EBrowser browser, final String driverPath, final String binaryPath,
+			final Set<String> leanProfileHosts, final EPageLoadStrategy pageLoadStrategy,
+			final File profileDirectory) {
+		this.mBrowser = browser;
+		this.mDriverPath = driverPath;
+		this.mBinaryPath = binaryPath;
+		if (leanProfileHosts == null) {
+			this.mLeanProfileHosts = null;
+		} else {
+			this.mLeanProfileHosts = Collections.unmodifiableSet(new LinkedHashSet<>(leanProfileHosts));
+		}
+		this.mPageLoadStrategy = pageLoadStrategy;
+		this.mProfileDirectory = profileDirectory;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof WebDriverConfiguration)) {
+			return false;
+		}
+		final WebDriverConfiguration other = (WebDriverConfiguration) obj;
+		return this.mBrowser == other.mBrowser && this.mPageLoadStrategy == other.mPageLoadStrategy
+				&& Objects.equals(this.mDriverPath, other.mDriverPath)
+				&& Objects.equals(this.mBinaryPath, other.mBinaryPath)
+				&& Objects.equals(this.mLeanProfileHosts, other.mLeanProfileHosts)
+				&& Objects.equals(this.mProfileDirectory, other.mProfileDirectory);
+	}
+
+	/**
+	 * Gets the path to the binary of the browser.
+	 * 
+	 * @return The path to the binary or <tt>null</tt> if not set
+	 */
+	public String getBinaryPath() {
+		return this.mBinaryPath;
+	}
+
+	/**
+	 * Gets the browser to use.
+	 * 
+	 * @return The browser to use
+	 */
+	public EBrowser getBrowser() {
+		return this.mBrowser;
+	}
+
+	/**
+	 * Gets the path to the driver of the browser.
+	 * 
+	 * @return The path to the driver or <tt>null</tt> if not set
+	 */
+	public String getDriverPath() {
+		return this.mDriverPath;
+	}
+
+	/**
+	 * Gets the hosts the lean profile allows to load resources from.
+	 * 
+	 * @return An unmodifiable view to the hosts or <tt>null</tt> if the
+	 *         browser does not use a lean profile
+	 */
+	public Set<String> getLeanProfileHosts() {
+		return this.mLeanProfileHosts;
+	}
+
+	/**
+	 * Gets the page load strategy the browser uses.
+	 * 
+	 * @return The page load strategy the browser uses
+	 */
+	public EPageLoadStrategy getPageLoadStrategy() {
+		return this.mPageLoadStrategy;
+	}
+
+	/**
+	 * Gets the directory of the persistent profile the browser uses.
+	 * 
+	 * @return The directory of the profile or <tt>null</tt> if the browser
+	 *         uses a temporary profile
+	 */
+	public File getProfileDirectory() {
+		return this.mProfileDirectory;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.mBrowser, this.mDriverPath, this.mBinaryPath, this.mLeanProfileHosts,
+				this.mPageLoadStrategy, this.mProfileDirectory);
+	}
+}
@@ -0,0 +1,460 @@
+package de.zabuza.wslotter.model.driver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.FirefoxBinary;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.ie.InternetExplorerDriverService;
+import org.openqa.selenium.opera.OperaDriverService;
+import org.openqa.selenium.phantomjs.PhantomJSDriver;
+import org.openqa.selenium.phantomjs.PhantomJSDriverService;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.safari.SafariDriverService;
+
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EPageLoadStrategy;
+import de.zabuza.wslotter.model.LeanProfile;
+
+/**
+ * Factory which creates web drivers for given configurations. The driver
+ * services, such as of Chrome or of the gecko driver of Firefox, are started
+ * once per driver executable and shared by all web drivers created
+ * afterwards, such that only the browser needs to be launched for a new web
+ * driver. Each service is configured on its own, without JVM-wide system
+ * properties, such that web drivers of different configurations can be
+ * created concurrently. Shared services are stopped by {@link #shutdown()}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverFactory {
+	/**
+	 * Arguments which make Chrome run without a visible window.
+	 */
+	private static final String[] CHROME_HEADLESS_ARGUMENTS = { "--headless", "--disable-gpu" };
+	/**
+	 * Argument prefix for the directory of the profile of Chrome.
+	 */
+	private static final String CHROME_USER_DATA_DIR_ARGUMENT = "--user-data-dir=";
+	/**
+	 * Argument which makes Firefox run without a visible window.
+	 */
+	private static final String FIREFOX_HEADLESS_ARGUMENT = "-headless";
+	/**
+	 * Environment variable which makes Firefox run without a visible window.
+	 */
+	private static final String FIREFOX_HEADLESS_ENVIRONMENT = "MOZ_HEADLESS";
+	/**
+	 * Capability for the options passed by the gecko driver to Firefox.
+	 */
+	private static final String FIREFOX_OPTIONS = "moz:firefoxOptions";
+	/**
+	 * Key of the arguments inside the {@link #FIREFOX_OPTIONS}.
+	 */
+	private static final String FIREFOX_OPTIONS_ARGUMENTS = "args";
+	/**
+	 * Key of the path to the binary inside the {@link #FIREFOX_OPTIONS}.
+	 */
+	private static final String FIREFOX_OPTIONS_BINARY = "binary";
+	/**
+	 * Argument of Firefox which makes it use the profile in the following
+	 * directory.
+	 */
+	private static final String FIREFOX_PROFILE_ARGUMENT = "-profile";
+	/**
+	 * Separator which separates the browser from the driver path in the key of
+	 * a shared service.
+	 */
+	private static final String SERVICE_KEY_SEPARATOR = "@";
+
+	/**
+	 * Creates the capabilities to use with a browser for the given
+	 * configuration.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param usesGeckoService
+	 *            Whether a Firefox browser is driven by a gecko driver service,
+	 *            which only accepts serializable options
+	 * @param profileSlot
+	 *            Directory of the persistent profile to use or <tt>null</tt>
+	 *            if a temporary profile should be used
+	 * @return The capabilities to use
+	 */
+	private static Capabilities createCapabilities(final WebDriverConfiguration configuration,
+			final boolean usesGeckoService, final File profileSlot) {
+		final EBrowser browser = configuration.getBrowser();
+		final String driverPath = configuration.getDriverPath();
+		final String binaryPath = configuration.getBinaryPath();
+		final Collection<String> leanProfileHosts = configuration.getLeanProfileHosts();
+		DesiredCapabilities capabilities = null;
+
+		if (browser == EBrowser.FIREFOX || browser == EBrowser.FIREFOX_HEADLESS) {
+			capabilities = DesiredCapabilities.firefox();
+			final Map<String, Object> firefoxOptions = new HashMap<>();
+			final List<String> arguments = new ArrayList<>();
+
+			// Set the driver
+			if (usesGeckoService) {
+				capabilities.setCapability(FirefoxDriver.MARIONETTE, true);
+			}
+
+			// Set the binary
+			FirefoxBinary binary = null;
+			if (binaryPath != null) {
+				if (usesGeckoService) {
+					firefoxOptions.put(FIREFOX_OPTIONS_BINARY, binaryPath);
+				} else {
+					final File pathToBinary = new File(binaryPath);
+					binary = new FirefoxBinary(pathToBinary);
+					capabilities.setCapability(FirefoxDriver.BINARY, binary);
+				}
+			}
+
+			// Hide the window, the gecko driver passes the options to Firefox
+			// while the legacy driver uses the binary
+			if (browser == EBrowser.FIREFOX_HEADLESS) {
+				arguments.add(FIREFOX_HEADLESS_ARGUMENT);
+				if (binary != null) {
+					binary.addCommandLineOptions(FIREFOX_HEADLESS_ARGUMENT);
+					binary.setEnvironmentProperty(FIREFOX_HEADLESS_ENVIRONMENT, "1");
+				}
+			}
+
+			// Use a lean profile
+			if (leanProfileHosts != null) {
+				final FirefoxProfile profile = new FirefoxProfile();
+				LeanProfile.applyToFirefox(profile, firefoxOptions, leanProfileHosts);
+				if (!usesGeckoService) {
+					capabilities.setCapability(FirefoxDriver.PROFILE, profile);
+				}
+			}
+
+			// Use a persistent profile, only the gecko driver uses a profile
+			// in place instead of copying it
+			if (profileSlot != null && usesGeckoService) {
+				arguments.add(FIREFOX_PROFILE_ARGUMENT);
+				arguments.add(profileSlot.getAbsolutePath());
+			}
+
+			if (!arguments.isEmpty()) {
+				firefoxOptions.put(FIREFOX_OPTIONS_ARGUMENTS, arguments);
+			}
+			if (!firefoxOptions.isEmpty()) {
+				capabilities.setCapability(FIREFOX_OPTIONS, firefoxOptions);
+			}
+		} else if (browser == EBrowser.CHROME || browser == EBrowser.CHROME_HEADLESS) {
+			capabilities = DesiredCapabilities.chrome();
+			final ChromeOptions options = new ChromeOptions();
+
+			// Set the binary
+			if (binaryPath != null) {
+				options.setBinary(binaryPath);
+			}
+
+			// Hide the window
+			if (browser == EBrowser.CHROME_HEADLESS) {
+				options.addArguments(CHROME_HEADLESS_ARGUMENTS);
+			}
+
+			// Use a lean profile
+			if (leanProfileHosts != null) {
+				LeanProfile.applyToChrome(options, leanProfileHosts);
+			}
+
+			// Use a persistent profile
+			if (profileSlot != null) {
+				options.addArguments(CHROME_USER_DATA_DIR_ARGUMENT + profileSlot.getAbsolutePath());
+			}
+
+			capabilities.setCapability(ChromeOptions.CAPABILITY, options);
+		} else if (browser == EBrowser.SAFARI) {
+			capabilities = DesiredCapabilities.safari();
+
+			// Set the binary
+			if (binaryPath != null) {
+				capabilities.setCapability("safari.binary", binaryPath);
+			}
+		} else if (browser == EBrowser.INTERNET_EXPLORER) {
+			capabilities = DesiredCapabilities.internetExplorer();
+
+			// Set the binary
+			if (binaryPath != null) {
+				capabilities.setCapability("ie.binary", binaryPath);
+			}
+		} else if (browser == EBrowser.OPERA) {
+			capabilities = DesiredCapabilities.operaBlink();
+
+			// Set the binary
+			if (binaryPath != null) {
+				capabilities.setCapability("opera.binary", binaryPath);
+			}
+		} else if (browser == EBrowser.MS_EDGE) {
+			capabilities = DesiredCapabilities.edge();
+
+			// Set the binary
+			if (binaryPath != null) {
+				capabilities.setCapability("edge.binary", binaryPath);
+			}
+		} else if (browser == EBrowser.PHANTOMJS) {
+			capabilities = DesiredCapabilities.phantomjs();
+
+			// Set the driver, PhantomJS is its own driver and binary
+			if (driverPath != null) {
+				capabilities.setCapability(PhantomJSDriverService.PHANTOMJS_EXECUTABLE_PATH_PROPERTY, driverPath);
+			} else if (binaryPath != null) {
+				capabilities.setCapability(PhantomJSDriverService.PHANTOMJS_EXECUTABLE_PATH_PROPERTY, binaryPath);
+			}
+
+			// Use a lean profile
+			if (leanProfileHosts != null) {
+				LeanProfile.applyToPhantomJs(capabilities);
+			}
+		} else {
+			throw new IllegalArgumentException("The given browser is not supported: " + browser);
+		}
+
+		// Set the page load strategy
+		if (configuration.getPageLoadStrategy() != EPageLoadStrategy.NORMAL) {
+			capabilities.setCapability(CapabilityType.PAGE_LOAD_STRATEGY,
+					configuration.getPageLoadStrategy().getCapabilityValue());
+		}
+
+		return capabilities;
+	}
+
+	/**
+	 * Launches the browser of the given configuration with the given
+	 * capabilities.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param capabilities
+	 *            The capabilities to use
+	 * @param sharedService
+	 *            The running shared driver service to connect to or
+	 *            <tt>null</tt> if the web driver does not use a shared service
+	 * @return The web driver of the launched browser
+	 */
+	private static WebDriver launchWebDriver(final WebDriverConfiguration configuration,
+			final Capabilities capabilities, final DriverService sharedService) {
+		// Connect to the shared service, closing the web driver does not stop
+		// the service then
+		if (sharedService != null) {
+			return new RemoteWebDriver(sharedService.getUrl(), capabilities);
+		}
+
+		final EBrowser browser = configuration.getBrowser();
+		WebDriver driver;
+		if (browser == EBrowser.FIREFOX || browser == EBrowser.FIREFOX_HEADLESS) {
+			driver = new FirefoxDriver(capabilities);
+		} else if (browser == EBrowser.PHANTOMJS) {
+			driver = new PhantomJSDriver(capabilities);
+		} else {
+			throw new IllegalArgumentException("The given browser is not supported: " + browser);
+		}
+
+		return driver;
+	}
+
+	/**
+	 * Whether the given browser can use a persistent profile.
+	 * 
+	 * @param browser
+	 *            The browser in question
+	 * @param usesGeckoService
+	 *            Whether a Firefox browser is driven by a gecko driver service
+	 * @return <tt>True</tt> if the browser can use a persistent profile,
+	 *         <tt>false</tt> if not
+	 */
+	private static boolean supportsPersistentProfile(final EBrowser browser, final boolean usesGeckoService) {
+		if (browser == EBrowser.CHROME || browser == EBrowser.CHROME_HEADLESS) {
+			return true;
+		}
+		return usesGeckoService && (browser == EBrowser.FIREFOX || browser == EBrowser.FIREFOX_HEADLESS);
+	}
+
+	/**
+	 * The manager of the persistent profiles.
+	 */
+	private final ProfileManager mProfileManager;
+	/**
+	 * The started driver services shared by the web drivers, accessed by the
+	 * browser and driver path they were created for.
+	 */
+	private final Map<String, DriverService> mSharedServices;
+
+	/**
+	 * Creates a new factory without any started driver services.
+	 */
+	public WebDriverFactory() {
+		this.mSharedServices = new HashMap<>();
+		this.mProfileManager = new ProfileManager();
+	}
+
+	/**
+	 * Creates a web driver for the given configuration. Launches the browser
+	 * and, if not already running, the shared driver service. If the web
+	 * driver uses a persistent profile, {@link #releaseProfile(WebDriver)}
+	 * must be called after quitting it.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @return A web driver for the given configuration
+	 * @throws WebDriverException
+	 *             If the shared driver service could not be started or the
+	 *             persistent profile not be created
+	 */
+	public WebDriver createWebDriver(final WebDriverConfiguration configuration) throws WebDriverException {
+		final DriverService sharedService = getSharedService(configuration);
+		final boolean usesGeckoService = sharedService instanceof GeckoDriverService;
+
+		File profileSlot = null;
+		if (configuration.getProfileDirectory() != null
+				&& supportsPersistentProfile(configuration.getBrowser(), usesGeckoService)) {
+			try {
+				profileSlot = this.mProfileManager.acquireSlot(configuration.getProfileDirectory());
+			} catch (final IOException e) {
+				throw new WebDriverException(e);
+			}
+		}
+
+		final WebDriver driver;
+		try {
+			driver = launchWebDriver(configuration,
+					createCapabilities(configuration, usesGeckoService, profileSlot), sharedService);
+		} catch (final RuntimeException e) {
+			if (profileSlot != null) {
+				this.mProfileManager.releaseSlot(profileSlot);
+			}
+			throw e;
+		}
+
+		if (profileSlot != null) {
+			this.mProfileManager.assign(profileSlot, driver);
+		}
+		return driver;
+	}
+
+	/**
+	 * Releases the persistent profile used by the given web driver, such that
+	 * other web drivers may use it. Must be called after quitting a web driver
+	 * created by this factory.
+	 * 
+	 * @param driver
+	 *            The web driver which was quit
+	 */
+	public void releaseProfile(final WebDriver driver) {
+		this.mProfileManager.release(driver);
+	}
+
+	/**
+	 * Stops all shared driver services. Web drivers connected to them can not
+	 * be used anymore.
+	 */
+	public synchronized void shutdown() {
+		for (final DriverService service : this.mSharedServices.values()) {
+			service.stop();
+		}
+		this.mSharedServices.clear();
+	}
+
+	/**
+	 * Gets the shared driver service for the given configuration and starts it
+	 * if not already running.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @return The running shared driver service or <tt>null</tt> if web
+	 *         drivers of the configuration do not use a shared service
+	 * @throws WebDriverException
+	 *             If the service could not be started
+	 */
+	private synchronized DriverService getSharedService(final WebDriverConfiguration configuration)
+			throws WebDriverException {
+		final EBrowser browser = configuration.getBrowser();
+		final String driverPath = configuration.getDriverPath();
+
+		final EBrowser serviceBrowser;
+		if (browser == EBrowser.CHROME || browser == EBrowser.CHROME_HEADLESS) {
+			serviceBrowser = EBrowser.CHROME;
+		} else if (browser == EBrowser.FIREFOX || browser == EBrowser.FIREFOX_HEADLESS) {
+			final String useMarionette = System.getProperty(FirefoxDriver.SystemProperty.DRIVER_USE_MARIONETTE);
+			if (Boolean.FALSE.toString().equals(useMarionette)) {
+				// The legacy Firefox driver was requested, it has no service
+				return null;
+			}
+			// Without a driver path the gecko driver is resolved from the
+			// PATH, like Firefox drivers do on their own
+			serviceBrowser = EBrowser.FIREFOX;
+		} else if (browser == EBrowser.PHANTOMJS) {
+			// PhantomJS is its own driver
+			return null;
+		} else {
+			serviceBrowser = browser;
+		}
+
+		final String key = serviceBrowser + SERVICE_KEY_SEPARATOR + driverPath;
+		DriverService service = this.mSharedServices.get(key);
+		if (service != null && service.isRunning()) {
+			return service;
+		}
+
+		// Configure the service of this instance only, without setting the
+		// driver by JVM-wide system properties
+		final DriverService.Builder<?, ?> builder;
+		if (serviceBrowser == EBrowser.CHROME) {
+			builder = new ChromeDriverService.Builder();
+		} else if (serviceBrowser == EBrowser.FIREFOX) {
+			builder = new GeckoDriverService.Builder();
+		} else if (serviceBrowser == EBrowser.INTERNET_EXPLORER) {
+			builder = new InternetExplorerDriverService.Builder();
+		} else if (serviceBrowser == EBrowser.OPERA) {
+			builder = new OperaDriverService.Builder();
+		} else if (serviceBrowser == EBrowser.MS_EDGE) {
+			builder = new EdgeDriverService.Builder();
+		} else if (serviceBrowser == EBrowser.SAFARI) {
+			builder = new SafariDriverService.Builder();
+		} else {
+			throw new IllegalArgumentException("The given browser is not supported: " + browser);
+		}
+		if (driverPath != null) {
+			builder.usingDriverExecutable(new File(driverPath));
+		}
+		try {
+			service = builder.usingAnyFreePort().build();
+		} catch (final IllegalStateException e) {
+			if (serviceBrowser == EBrowser.FIREFOX && driverPath == null) {
+				// No gecko driver on the PATH, the web driver then looks for
+				// a driver on its own and fails with a fitting message
+				return null;
+			}
+			throw e;
+		}
+
+		try {
+			service.start();
+		} catch (final IOException e) {
+			throw new WebDriverException("The driver service could not be started: " + driverPath, e);
+		}
+		this.mSharedServices.put(key, service);
+		return service;
+	}
+}
@@ -0,0 +1,355 @@
+package de.zabuza.wslotter.model.driver;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Pool of web drivers which keeps returned, logged-out sessions alive such
+ * that a routine does not need to launch a browser. Web drivers are leased by
+ * {@link #lease(WebDriverConfiguration)} and must be returned by
+ * {@link #release(WebDriver)}, which clears their cookies and state. Web
+ * drivers can also be started ahead of time by
+ * {@link #warmUp(WebDriverConfiguration, String)} such that the next lease
+ * takes over the already running browser.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverPool {
+	/**
+	 * Site which is loaded into returned web drivers to leave the thread.
+	 */
+	private static final String BLANK_SITE = "about:blank";
+	/**
+	 * Script which clears the storages of the current site.
+	 */
+	private static final String CLEAR_STORAGE_SCRIPT = "try { window.localStorage.clear();"
+			+ " window.sessionStorage.clear(); } catch (e) { }";
+	/**
+	 * The maximal amount of idle web drivers kept alive per configuration.
+	 */
+	private static final int MAX_IDLE_PER_CONFIGURATION = 2;
+
+	/**
+	 * Whether the given web driver still has a living session.
+	 * 
+	 * @param driver
+	 *            The web driver in question
+	 * @return <tt>True</tt> if the session is alive, <tt>false</tt> if not
+	 */
+	private static boolean isAlive(final WebDriver driver) {
+		try {
+			driver.getWindowHandle();
+			return true;
+		} catch (final WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Clears the cookies and the state of the given web driver and leaves the
+	 * current site.
+	 * 
+	 * @param driver
+	 *            The web driver to reset
+	 * @return <tt>True</tt> if the web driver was reset, <tt>false</tt> if it
+	 *         failed and the web driver should not be used anymore
+	 */
+	private static boolean reset(final WebDriver driver) {
+		try {
+			// Cookies and storages can only be accessed for the current site
+			driver.manage().deleteAllCookies();
+			if (driver instanceof JavascriptExecutor) {
+				((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+			}
+			driver.get(BLANK_SITE);
+			return true;
+		} catch (final WebDriverException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * The factory which creates new web drivers.
+	 */
+	private final WebDriverFactory mFactory;
+	/**
+	 * The idle web drivers, accessed by their configuration.
+	 */
+	private final Map<WebDriverConfiguration, Deque<WebDriver>> mIdleDrivers;
+	/**
+	 * Whether the pool was shut down.
+	 */
+	private boolean mIsShutdown;
+	/**
+	 * The configurations of the currently leased web drivers, accessed by the
+	 * web driver.
+	 */
+	private final Map<WebDriver, WebDriverConfiguration> mLeasedDrivers;
+	/**
+	 * The configurations of the web drivers which are currently warmed up.
+	 */
+	private final Set<WebDriverConfiguration> mWarmingConfigurations;
+
+	/**
+	 * Creates a new empty pool of web drivers.
+	 * 
+	 * @param factory
+	 *            The factory which creates new web drivers
+	 */
+	public WebDriverPool(final WebDriverFactory factory) {
+		this.mFactory = factory;
+		this.mIdleDrivers = new HashMap<>();
+		this.mLeasedDrivers = new IdentityHashMap<>();
+		this.mWarmingConfigurations = new HashSet<>();
+		this.mIsShutdown = false;
+	}
+
+	/**
+	 * Quits all idle web drivers of the given configuration.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web drivers to quit
+	 */
+	public void discardIdle(final WebDriverConfiguration configuration) {
+		final Deque<WebDriver> idleDrivers;
+		synchronized (this) {
+			idleDrivers = this.mIdleDrivers.remove(configuration);
+		}
+		if (idleDrivers == null) {
+			return;
+		}
+		for (final WebDriver driver : idleDrivers) {
+			quitQuietly(driver);
+		}
+	}
+
+	/**
+	 * Leases a web driver of the given configuration. An idle web driver is
+	 * reused if available, else a new one is created. If a web driver of the
+	 * configuration is currently warmed up, the method waits for it to take
+	 * it over instead of launching another browser. The web driver must be
+	 * returned by {@link #release(WebDriver)}.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @return A web driver of the given configuration
+	 * @throws WebDriverException
+	 *             If a new web driver could not be created
+	 * @throws IllegalStateException
+	 *             If the pool was already shut down
+	 */
+	public WebDriver lease(final WebDriverConfiguration configuration)
+			throws WebDriverException, IllegalStateException {
+		awaitWarmUp(configuration);
+		WebDriver driver = pollIdleDriver(configuration);
+		while (driver != null && !isAlive(driver)) {
+			quitQuietly(driver);
+			driver = pollIdleDriver(configuration);
+		}
+
+		// Create a new web driver outside of the lock as launching the
+		// browser takes a while
+		if (driver == null) {
+			driver = this.mFactory.createWebDriver(configuration);
+		}
+
+		synchronized (this) {
+			if (this.mIsShutdown) {
+				quitQuietly(driver);
+				throw new IllegalStateException("The pool was already shut down.");
+			}
+			this.mLeasedDrivers.put(driver, configuration);
+		}
+		return driver;
+	}
+
+	/**
+	 * Returns a leased web driver to the pool. Its cookies and state are
+	 * cleared and it is kept alive for the next lease, or quit if enough web
+	 * drivers of its configuration are idle.
+	 * 
+	 * @param driver
+	 *            The web driver to return
+	 */
+	public void release(final WebDriver driver) {
+		final WebDriverConfiguration configuration;
+		synchronized (this) {
+			configuration = this.mLeasedDrivers.remove(driver);
+		}
+		if (configuration == null || !reset(driver)) {
+			quitQuietly(driver);
+			return;
+		}
+
+		if (!offerIdleDriver(configuration, driver)) {
+			quitQuietly(driver);
+		}
+	}
+
+	/**
+	 * Shuts the pool down. All idle and leased web drivers are quit and the
+	 * shared driver services are stopped. Web drivers returned afterwards are
+	 * quit as well.
+	 */
+	public void shutdown() {
+		final List<WebDriver> driversToQuit = new ArrayList<>();
+		synchronized (this) {
+			this.mIsShutdown = true;
+			notifyAll();
+			for (final Deque<WebDriver> idleDrivers : this.mIdleDrivers.values()) {
+				driversToQuit.addAll(idleDrivers);
+			}
+			this.mIdleDrivers.clear();
+			driversToQuit.addAll(this.mLeasedDrivers.keySet());
+		}
+
+		for (final WebDriver driver : driversToQuit) {
+			quitQuietly(driver);
+		}
+		this.mFactory.shutdown();
+	}
+
+	/**
+	 * Warms up a web driver of the given configuration. An alive idle web
+	 * driver is reused, else a new one is started. The web driver then loads
+	 * the given site such that connections and caches are warm, and is kept
+	 * idle for the next lease. Blocks until the web driver is ready.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param url
+	 *            The URL of the site to load or <tt>null</tt> if no site
+	 *            should be loaded
+	 * @throws WebDriverException
+	 *             If a new web driver could not be created
+	 */
+	public void warmUp(final WebDriverConfiguration configuration, final String url) throws WebDriverException {
+		synchronized (this) {
+			if (this.mIsShutdown) {
+				return;
+			}
+			this.mWarmingConfigurations.add(configuration);
+		}
+
+		try {
+			WebDriver driver = pollIdleDriver(configuration);
+			while (driver != null && !isAlive(driver)) {
+				quitQuietly(driver);
+				driver = pollIdleDriver(configuration);
+			}
+			if (driver == null) {
+				driver = this.mFactory.createWebDriver(configuration);
+			}
+
+			if (url != null) {
+				try {
+					driver.get(url);
+				} catch (final WebDriverException e) {
+					// The site is only loaded to warm the browser up, the
+					// web driver can still be used
+				}
+			}
+
+			if (!offerIdleDriver(configuration, driver)) {
+				quitQuietly(driver);
+			}
+		} finally {
+			synchronized (this) {
+				this.mWarmingConfigurations.remove(configuration);
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits until no web driver of the given configuration is warmed up
+	 * anymore. Returns early if the current thread is interrupted, keeping
+	 * its interrupted flag.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 */
+	private synchronized void awaitWarmUp(final WebDriverConfiguration configuration) {
+		while (!this.mIsShutdown && this.mWarmingConfigurations.contains(configuration)) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Offers the given web driver to the idle web drivers of the given
+	 * configuration. It is accepted if the pool was not shut down and not
+	 * enough web drivers of the configuration are idle yet.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param driver
+	 *            The web driver to offer
+	 * @return <tt>True</tt> if the web driver was accepted, <tt>false</tt> if
+	 *         not and it should be quit
+	 */
+	private synchronized boolean offerIdleDriver(final WebDriverConfiguration configuration,
+			final WebDriver driver) {
+		if (this.mIsShutdown) {
+			return false;
+		}
+		Deque<WebDriver> idleDrivers = this.mIdleDrivers.get(configuration);
+		if (idleDrivers == null) {
+			idleDrivers = new LinkedList<>();
+			this.mIdleDrivers.put(configuration, idleDrivers);
+		}
+		if (idleDrivers.size() >= MAX_IDLE_PER_CONFIGURATION) {
+			return false;
+		}
+		idleDrivers.push(driver);
+		return true;
+	}
+
+	/**
+	 * Removes and returns the most recently returned idle web driver of the
+	 * given configuration.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @return The idle web driver or <tt>null</tt> if there is none
+	 */
+	private synchronized WebDriver pollIdleDriver(final WebDriverConfiguration configuration) {
+		final Deque<WebDriver> idleDrivers = this.mIdleDrivers.get(configuration);
+		if (idleDrivers == null) {
+			return null;
+		}
+		return idleDrivers.poll();
+	}
+
+	/**
+	 * Quits the given web driver, ignoring failures, and releases its
+	 * persistent profile.
+	 * 
+	 * @param driver
+	 *            The web driver to quit
+	 */
+	private void quitQuietly(final WebDriver driver) {
+		try {
+			driver.quit();
+		} catch (final WebDriverException e) {
+			// Just ignore the exception and continue
+		}
+		this.mFactory.releaseProfile(driver);
+	}
+}
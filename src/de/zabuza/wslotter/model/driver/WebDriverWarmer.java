@@ -0,0 +1,147 @@
+package de.zabuza.wslotter.model.driver;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriverException;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+
+/**
+ * Warms web drivers up in the background, ahead of the routine. Requests are
+ * debounced such that typing a thread URL or switching through browsers does
+ * not launch a browser for every intermediate state. The warm web driver is
+ * kept idle in the {@link WebDriverPool}, the routine takes it over by leasing
+ * a web driver of the same configuration.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WebDriverWarmer {
+	/**
+	 * The time to wait for further requests before warming up, in
+	 * milliseconds.
+	 */
+	private static final long DEBOUNCE_DELAY = 1000;
+	/**
+	 * The name of the thread which warms up the web drivers.
+	 */
+	private static final String THREAD_NAME = "WebDriverWarmer";
+
+	/**
+	 * The executor which warms up the web drivers.
+	 */
+	private final ScheduledExecutorService mExecutor;
+	/**
+	 * The configuration of the web driver which was last warmed up or
+	 * <tt>null</tt> if there is none.
+	 */
+	private WebDriverConfiguration mLastConfiguration;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The pending warm up or <tt>null</tt> if there is none.
+	 */
+	private ScheduledFuture<?> mPendingWarmUp;
+	/**
+	 * The pool to keep the warm web drivers in.
+	 */
+	private final WebDriverPool mPool;
+
+	/**
+	 * Creates a new warmer which keeps the warm web drivers in the given pool.
+	 * 
+	 * @param pool
+	 *            The pool to keep the warm web drivers in
+	 * @param logger
+	 *            The logger to use
+	 */
+	public WebDriverWarmer(final WebDriverPool pool, final Logger logger) {
+		this.mPool = pool;
+		this.mLogger = logger;
+		this.mLastConfiguration = null;
+		this.mPendingWarmUp = null;
+		this.mExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(THREAD_NAME));
+	}
+
+	/**
+	 * Cancels the pending warm up, if it did not start yet. A warm up which
+	 * already started is finished and the routine waits for it.
+	 */
+	public synchronized void cancelPending() {
+		if (this.mPendingWarmUp != null) {
+			this.mPendingWarmUp.cancel(false);
+			this.mPendingWarmUp = null;
+		}
+	}
+
+	/**
+	 * Requests to warm up a web driver of the given configuration which loads
+	 * the given site. Replaces the pending request, if any.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param url
+	 *            The URL of the site to load or <tt>null</tt> if no site
+	 *            should be loaded
+	 */
+	public synchronized void request(final WebDriverConfiguration configuration, final String url) {
+		cancelPending();
+		if (this.mExecutor.isShutdown()) {
+			return;
+		}
+
+		this.mPendingWarmUp = this.mExecutor.schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				warmUp(configuration, url);
+			}
+		}, DEBOUNCE_DELAY, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Shuts the warmer down. Pending warm ups are cancelled, the web drivers
+	 * stay in the pool.
+	 */
+	public synchronized void shutdown() {
+		cancelPending();
+		this.mExecutor.shutdownNow();
+	}
+
+	/**
+	 * Warms up a web driver of the given configuration which loads the given
+	 * site. Idle web drivers of the previously warmed up configuration are
+	 * quit if the configuration changed.
+	 * 
+	 * @param configuration
+	 *            The configuration of the web driver
+	 * @param url
+	 *            The URL of the site to load or <tt>null</tt> if no site
+	 *            should be loaded
+	 */
+	private void warmUp(final WebDriverConfiguration configuration, final String url) {
+		final WebDriverConfiguration lastConfiguration = this.mLastConfiguration;
+		if (lastConfiguration != null && !lastConfiguration.equals(configuration)) {
+			this.mPool.discardIdle(lastConfiguration);
+		}
+
+		this.mLogger.logInfo("Warming up web driver...", Logger.TOP_LEVEL);
+		try {
+			this.mPool.warmUp(configuration, url);
+			this.mLastConfiguration = configuration;
+			this.mLogger.logInfo("Web driver is warm.", Logger.FIRST_LEVEL);
+		} catch (final WebDriverException e) {
+			this.mLogger.logError("Warming up the web driver failed: " + e.getMessage(), Logger.FIRST_LEVEL);
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * This is the core package for creating and pooling web drivers.
+ */
+package de.zabuza.wslotter.model.driver;
\ No newline at end of file
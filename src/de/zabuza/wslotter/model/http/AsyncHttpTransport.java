@@ -0,0 +1,781 @@
+package de.zabuza.wslotter.model.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+
+import org.apache.http.conn.DnsResolver;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandler;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.jboss.netty.channel.socket.SocketChannelConfig;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.handler.codec.http.DefaultHttpRequest;
+import org.jboss.netty.handler.codec.http.HttpChunkAggregator;
+import org.jboss.netty.handler.codec.http.HttpClientCodec;
+import org.jboss.netty.handler.codec.http.HttpContentDecompressor;
+import org.jboss.netty.handler.codec.http.HttpHeaders;
+import org.jboss.netty.handler.codec.http.HttpMethod;
+import org.jboss.netty.handler.codec.http.HttpRequest;
+import org.jboss.netty.handler.codec.http.HttpResponse;
+import org.jboss.netty.handler.codec.http.HttpVersion;
+import org.jboss.netty.handler.ssl.SslHandler;
+import org.jboss.netty.util.HashedWheelTimer;
+import org.jboss.netty.util.Timeout;
+import org.jboss.netty.util.Timer;
+import org.jboss.netty.util.TimerTask;
+
+import de.zabuza.wslotter.model.NamedThreadFactory;
+
+/**
+ * Non-blocking HTTP/1.1 transport which makes <tt>GET</tt> requests on the
+ * NIO channels of Netty. All connections are served by a single selector
+ * thread, a request in flight does not occupy any thread. The answer is
+ * handed to an {@link IResponseCallback} on a given executor, such that the
+ * callbacks never block the selector.<br>
+ * <br>
+ * Connections are kept alive and reused for requests to the same host. A
+ * request on a reused connection which the site has closed meanwhile is sent
+ * again once on a new connection. Every request fails if it was not answered
+ * in time.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class AsyncHttpTransport {
+	/**
+	 * A request which waits for its answer.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	private final class Exchange implements TimerTask {
+		/**
+		 * The callback to hand the answer to.
+		 */
+		private final IResponseCallback mCallback;
+		/**
+		 * The channel the request is sent on or <tt>null</tt> if it is not
+		 * connected yet.
+		 */
+		private volatile Channel mChannel;
+		/**
+		 * Whether the exchange has ended.
+		 */
+		private final AtomicBoolean mDone;
+		/**
+		 * The key of the host the request goes to.
+		 */
+		private final String mHostKey;
+		/**
+		 * Whether the request is sent on a reused connection.
+		 */
+		private final boolean mIsReused;
+		/**
+		 * The request to send.
+		 */
+		private final HttpRequest mRequest;
+		/**
+		 * The timeout of the request.
+		 */
+		private final Timeout mTimeout;
+		/**
+		 * The URI of the request.
+		 */
+		private final URI mUri;
+
+		/**
+		 * Creates a new exchange for the given request and starts its
+		 * timeout.
+		 * 
+		 * @param hostKey
+		 *            The key of the host the request goes to
+		 * @param uri
+		 *            The URI of the request
+		 * @param request
+		 *            The request to send
+		 * @param callback
+		 *            The callback to hand the answer to
+		 * @param isReused
+		 *            Whether the request is sent on a reused connection
+		 */
+		public Exchange(final String hostKey, final URI uri, final HttpRequest request,
+				final IResponseCallback callback, final boolean isReused) {
+			this.mHostKey = hostKey;
+			this.mUri = uri;
+			this.mRequest = request;
+			this.mCallback = callback;
+			this.mIsReused = isReused;
+			this.mDone = new AtomicBoolean(false);
+			this.mChannel = null;
+			this.mTimeout = AsyncHttpTransport.this.mTimer.newTimeout(this, REQUEST_TIMEOUT, TimeUnit.MILLISECONDS);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.jboss.netty.util.TimerTask#run(org.jboss.netty.util.Timeout)
+		 */
+		@Override
+		public void run(final Timeout timeout) {
+			fail(new SocketTimeoutException("The request was not answered in time: " + this.mUri), false);
+		}
+
+		/**
+		 * Ends the exchange with the given answer. The connection is kept
+		 * alive for further requests if the site allows it.
+		 * 
+		 * @param response
+		 *            The answer of the site
+		 */
+		void complete(final HttpResponse response) {
+			final Channel channel = this.mChannel;
+			if (!this.mDone.compareAndSet(false, true)) {
+				channel.close();
+				return;
+			}
+			this.mTimeout.cancel();
+			channel.setAttachment(null);
+			if (HttpHeaders.isKeepAlive(response)) {
+				releaseChannel(this.mHostKey, channel);
+			} else {
+				channel.close();
+			}
+			dispatch(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					Exchange.this.mCallback.completed(response);
+				}
+			});
+		}
+
+		/**
+		 * Ends the exchange with the given failure and closes its connection.
+		 * A request on a reused connection is sent again on a new one if the
+		 * failure allows it.
+		 * 
+		 * @param exception
+		 *            The reason the request failed
+		 * @param isRetryable
+		 *            Whether the request may be sent again if it was sent on a
+		 *            reused connection
+		 */
+		void fail(final IOException exception, final boolean isRetryable) {
+			if (!this.mDone.compareAndSet(false, true)) {
+				return;
+			}
+			this.mTimeout.cancel();
+			final Channel channel = this.mChannel;
+			if (channel != null) {
+				channel.setAttachment(null);
+				channel.close();
+			}
+
+			// The site may have closed the kept alive connection meanwhile,
+			// resolving the host must not block the selector thread
+			if (isRetryable && this.mIsReused && !AsyncHttpTransport.this.mIsShutdown) {
+				dispatch(new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * 
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						connect(new Exchange(Exchange.this.mHostKey, Exchange.this.mUri, Exchange.this.mRequest,
+								Exchange.this.mCallback, false));
+					}
+				});
+				return;
+			}
+			dispatch(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					Exchange.this.mCallback.failed(exception);
+				}
+			});
+		}
+
+		/**
+		 * Sends the request on the given connected channel.
+		 * 
+		 * @param channel
+		 *            The channel to send the request on
+		 */
+		void send(final Channel channel) {
+			this.mChannel = channel;
+			channel.setAttachment(this);
+			channel.write(this.mRequest).addListener(new ChannelFutureListener() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see
+				 * org.jboss.netty.channel.ChannelFutureListener#operationComplete
+				 * (org.jboss.netty.channel.ChannelFuture)
+				 */
+				@Override
+				public void operationComplete(final ChannelFuture future) {
+					if (!future.isSuccess()) {
+						fail(toIOException(future.getCause()), true);
+					}
+				}
+			});
+		}
+
+		/**
+		 * Sets the channel the request is sent on once connected.
+		 * 
+		 * @param channel
+		 *            The channel the request is sent on
+		 */
+		void setChannel(final Channel channel) {
+			this.mChannel = channel;
+		}
+	}
+
+	/**
+	 * A kept alive connection which waits for the next request.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	private static final class IdleConnection {
+		/**
+		 * The channel of the connection.
+		 */
+		private final Channel mChannel;
+		/**
+		 * The time in nanoseconds since which the connection is idle.
+		 */
+		private final long mIdleSince;
+
+		/**
+		 * Creates a new idle connection which is idle since now.
+		 * 
+		 * @param channel
+		 *            The channel of the connection
+		 */
+		public IdleConnection(final Channel channel) {
+			this.mChannel = channel;
+			this.mIdleSince = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Handler which ends the exchanges of the channels, it is shared by all
+	 * channels.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	@ChannelHandler.Sharable
+	private final class ResponseHandler extends SimpleChannelUpstreamHandler {
+		/**
+		 * Creates a new handler.
+		 */
+		public ResponseHandler() {
+			// Nothing to initialize
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelClosed(
+		 * org.jboss.netty.channel.ChannelHandlerContext,
+		 * org.jboss.netty.channel.ChannelStateEvent)
+		 */
+		@Override
+		public void channelClosed(final ChannelHandlerContext context, final ChannelStateEvent event) {
+			final Object exchange = context.getChannel().getAttachment();
+			if (exchange instanceof Exchange) {
+				((Exchange) exchange).fail(new IOException("The connection was closed by the site."), true);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.jboss.netty.channel.SimpleChannelUpstreamHandler#exceptionCaught(
+		 * org.jboss.netty.channel.ChannelHandlerContext,
+		 * org.jboss.netty.channel.ExceptionEvent)
+		 */
+		@Override
+		public void exceptionCaught(final ChannelHandlerContext context, final ExceptionEvent event) {
+			final Object exchange = context.getChannel().getAttachment();
+			if (exchange instanceof Exchange) {
+				((Exchange) exchange).fail(toIOException(event.getCause()), true);
+			} else {
+				context.getChannel().close();
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * org.jboss.netty.channel.SimpleChannelUpstreamHandler#messageReceived(
+		 * org.jboss.netty.channel.ChannelHandlerContext,
+		 * org.jboss.netty.channel.MessageEvent)
+		 */
+		@Override
+		public void messageReceived(final ChannelHandlerContext context, final MessageEvent event) {
+			final Object exchange = context.getChannel().getAttachment();
+			if (!(exchange instanceof Exchange) || !(event.getMessage() instanceof HttpResponse)) {
+				// An answer nobody asked for, the connection is out of sync
+				context.getChannel().close();
+				return;
+			}
+			((Exchange) exchange).complete((HttpResponse) event.getMessage());
+		}
+	}
+
+	/**
+	 * The port of HTTP if the URI does not specify one.
+	 */
+	private static final int DEFAULT_HTTP_PORT = 80;
+	/**
+	 * The port of HTTPS if the URI does not specify one.
+	 */
+	private static final int DEFAULT_HTTPS_PORT = 443;
+	/**
+	 * The encodings the content may be compressed with.
+	 */
+	private static final String ENCODINGS = HttpHeaders.Values.GZIP + "," + HttpHeaders.Values.DEFLATE;
+	/**
+	 * The algorithm which verifies that the certificate of the site belongs to
+	 * its host.
+	 */
+	private static final String ENDPOINT_IDENTIFICATION_ALGORITHM = "HTTPS";
+	/**
+	 * The name of the selector threads.
+	 */
+	private static final String IO_THREAD_NAME = "AsyncHttpTransport";
+	/**
+	 * The maximal size of the content of an answer in bytes.
+	 */
+	private static final int MAX_CONTENT_LENGTH = 8 * 1024 * 1024;
+	/**
+	 * The maximal amount of idle connections which are kept alive per host.
+	 */
+	private static final int MAX_IDLE_CONNECTIONS_PER_HOST = 16;
+	/**
+	 * The time in milliseconds a request may take until it fails.
+	 */
+	private static final int REQUEST_TIMEOUT = 10000;
+	/**
+	 * The scheme of HTTP.
+	 */
+	private static final String SCHEME_HTTP = "http";
+	/**
+	 * The scheme of HTTPS.
+	 */
+	private static final String SCHEME_HTTPS = "https";
+	/**
+	 * The protocol of encrypted connections. The old SSL handler of Netty
+	 * does not support the messages TLS 1.3 sends after the handshake.
+	 */
+	private static final String SSL_PROTOCOL = "TLSv1.2";
+	/**
+	 * The name of the thread which times the requests out.
+	 */
+	private static final String TIMER_THREAD_NAME = "AsyncHttpTransportTimer";
+	/**
+	 * The accuracy of the timeouts in milliseconds.
+	 */
+	private static final long TIMER_TICK = 10;
+
+	/**
+	 * Gets the port the given URI goes to.
+	 * 
+	 * @param uri
+	 *            The URI to get the port of
+	 * @return The port the URI goes to
+	 */
+	private static int getPort(final URI uri) {
+		if (uri.getPort() != -1) {
+			return uri.getPort();
+		}
+		if (SCHEME_HTTPS.equalsIgnoreCase(uri.getScheme())) {
+			return DEFAULT_HTTPS_PORT;
+		}
+		return DEFAULT_HTTP_PORT;
+	}
+
+	/**
+	 * Converts the given cause of a failure to an exception of the
+	 * input/output.
+	 * 
+	 * @param cause
+	 *            The cause of the failure
+	 * @return The exception of the input/output
+	 */
+	private static IOException toIOException(final Throwable cause) {
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+		return new IOException(cause);
+	}
+
+	/**
+	 * The executor which runs the callbacks.
+	 */
+	private final Executor mCallbackExecutor;
+	/**
+	 * The factory of the NIO channels.
+	 */
+	private final NioClientSocketChannelFactory mChannelFactory;
+	/**
+	 * All open channels, such that they can be closed on shutdown.
+	 */
+	private final ChannelGroup mChannels;
+	/**
+	 * The resolver of the hosts.
+	 */
+	private final DnsResolver mDnsResolver;
+	/**
+	 * The handler which ends the exchanges of all channels.
+	 */
+	private final ResponseHandler mHandler;
+	/**
+	 * The kept alive connections which wait for the next request, the most
+	 * recently used first, accessed by the key of their host.
+	 */
+	private final Map<String, Deque<IdleConnection>> mIdleConnections;
+	/**
+	 * Whether the transport was shut down.
+	 */
+	private volatile boolean mIsShutdown;
+	/**
+	 * The timer which times the requests out.
+	 */
+	private final Timer mTimer;
+
+	/**
+	 * Creates a new transport.
+	 * 
+	 * @param callbackExecutor
+	 *            The executor which runs the callbacks. If it refuses a
+	 *            callback, for example since it was shut down, the callback is
+	 *            run on the selector thread.
+	 * @param dnsResolver
+	 *            The resolver of the hosts
+	 */
+	public AsyncHttpTransport(final Executor callbackExecutor, final DnsResolver dnsResolver) {
+		this.mCallbackExecutor = callbackExecutor;
+		this.mDnsResolver = dnsResolver;
+		final ExecutorService ioExecutor = Executors.newCachedThreadPool(new NamedThreadFactory(IO_THREAD_NAME));
+		this.mChannelFactory = new NioClientSocketChannelFactory(ioExecutor, ioExecutor, 1, 1);
+		this.mChannels = new DefaultChannelGroup(IO_THREAD_NAME);
+		this.mTimer = new HashedWheelTimer(new NamedThreadFactory(TIMER_THREAD_NAME), TIMER_TICK,
+				TimeUnit.MILLISECONDS);
+		this.mHandler = new ResponseHandler();
+		this.mIdleConnections = new HashMap<>();
+		this.mIsShutdown = false;
+	}
+
+	/**
+	 * Closes the kept alive connections which were idle for longer than the
+	 * given time or were closed by the site.
+	 * 
+	 * @param idleTime
+	 *            The maximal time a connection may be idle
+	 * @param unit
+	 *            The unit of the time
+	 */
+	public synchronized void closeIdleConnections(final long idleTime, final TimeUnit unit) {
+		final long now = System.nanoTime();
+		for (final Deque<IdleConnection> connections : this.mIdleConnections.values()) {
+			final Iterator<IdleConnection> connectionIterator = connections.iterator();
+			while (connectionIterator.hasNext()) {
+				final IdleConnection connection = connectionIterator.next();
+				if (!connection.mChannel.isConnected() || now - connection.mIdleSince > unit.toNanos(idleTime)) {
+					connectionIterator.remove();
+					connection.mChannel.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Makes a <tt>GET</tt> request to the given URI without blocking. The
+	 * outcome is handed to the given callback once the site answered, the
+	 * request failed or the transport was shut down.
+	 * 
+	 * @param uri
+	 *            The absolute URI to request, using HTTP or HTTPS
+	 * @param headers
+	 *            The headers to send in addition to the ones of the transport,
+	 *            accessed by their name
+	 * @param callback
+	 *            The callback to hand the outcome to
+	 */
+	public void fetch(final URI uri, final Map<String, String> headers, final IResponseCallback callback) {
+		final String scheme = uri.getScheme();
+		final boolean isSupported = SCHEME_HTTP.equalsIgnoreCase(scheme) || SCHEME_HTTPS.equalsIgnoreCase(scheme);
+		if (uri.getHost() == null || !isSupported) {
+			failLater(callback, new IOException("Unsupported URI: " + uri));
+			return;
+		}
+		if (this.mIsShutdown) {
+			failLater(callback, new IOException("The transport was shut down."));
+			return;
+		}
+
+		final int port = getPort(uri);
+		String path = uri.getRawPath();
+		if (path == null || path.isEmpty()) {
+			path = "/";
+		}
+		if (uri.getRawQuery() != null) {
+			path += "?" + uri.getRawQuery();
+		}
+		final HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+		String host = uri.getHost();
+		if (uri.getPort() != -1) {
+			host += ":" + port;
+		}
+		request.setHeader(HttpHeaders.Names.HOST, host);
+		request.setHeader(HttpHeaders.Names.CONNECTION, HttpHeaders.Values.KEEP_ALIVE);
+		request.setHeader(HttpHeaders.Names.ACCEPT_ENCODING, ENCODINGS);
+		for (final Entry<String, String> header : headers.entrySet()) {
+			request.setHeader(header.getKey(), header.getValue());
+		}
+
+		final String hostKey = scheme.toLowerCase(Locale.ROOT) + "://" + uri.getHost().toLowerCase(Locale.ROOT)
+				+ ":" + port;
+		final Channel idleChannel = pollIdleChannel(hostKey);
+		final Exchange exchange = new Exchange(hostKey, uri, request, callback, idleChannel != null);
+		if (idleChannel != null) {
+			exchange.send(idleChannel);
+		} else {
+			connect(exchange);
+		}
+	}
+
+	/**
+	 * Shuts the transport down. All connections are closed, requests in
+	 * flight fail.
+	 */
+	public void shutdown() {
+		this.mIsShutdown = true;
+		synchronized (this) {
+			this.mIdleConnections.clear();
+		}
+		this.mChannels.close().awaitUninterruptibly();
+		this.mTimer.stop();
+		this.mChannelFactory.releaseExternalResources();
+	}
+
+	/**
+	 * Opens a new connection for the given exchange and sends its request
+	 * once connected.
+	 * 
+	 * @param exchange
+	 *            The exchange to open the connection for
+	 */
+	private void connect(final Exchange exchange) {
+		final URI uri = exchange.mUri;
+		final int port = getPort(uri);
+		final InetAddress address;
+		try {
+			address = this.mDnsResolver.resolve(uri.getHost())[0];
+		} catch (final UnknownHostException e) {
+			exchange.fail(e, false);
+			return;
+		}
+
+		final ChannelPipeline pipeline = Channels.pipeline();
+		SslHandler sslHandler = null;
+		if (SCHEME_HTTPS.equalsIgnoreCase(uri.getScheme())) {
+			try {
+				final SSLEngine engine = SSLContext.getDefault().createSSLEngine(uri.getHost(), port);
+				engine.setUseClientMode(true);
+				engine.setEnabledProtocols(new String[] { SSL_PROTOCOL });
+				final SSLParameters parameters = engine.getSSLParameters();
+				parameters.setEndpointIdentificationAlgorithm(ENDPOINT_IDENTIFICATION_ALGORITHM);
+				engine.setSSLParameters(parameters);
+				sslHandler = new SslHandler(engine);
+			} catch (final GeneralSecurityException | IllegalArgumentException e) {
+				exchange.fail(toIOException(e), false);
+				return;
+			}
+			pipeline.addLast("ssl", sslHandler);
+		}
+		pipeline.addLast("codec", new HttpClientCodec());
+		pipeline.addLast("inflater", new HttpContentDecompressor());
+		pipeline.addLast("aggregator", new HttpChunkAggregator(MAX_CONTENT_LENGTH));
+		pipeline.addLast("handler", this.mHandler);
+
+		final Channel channel = this.mChannelFactory.newChannel(pipeline);
+		this.mChannels.add(channel);
+		final SocketChannelConfig config = (SocketChannelConfig) channel.getConfig();
+		config.setConnectTimeoutMillis(REQUEST_TIMEOUT);
+		config.setTcpNoDelay(true);
+		exchange.setChannel(channel);
+		channel.setAttachment(exchange);
+
+		final SslHandler handshaker = sslHandler;
+		channel.connect(new InetSocketAddress(address, port)).addListener(new ChannelFutureListener() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * org.jboss.netty.channel.ChannelFutureListener#operationComplete(
+			 * org.jboss.netty.channel.ChannelFuture)
+			 */
+			@Override
+			public void operationComplete(final ChannelFuture future) {
+				if (!future.isSuccess()) {
+					exchange.fail(toIOException(future.getCause()), false);
+					return;
+				}
+				if (handshaker == null) {
+					exchange.send(channel);
+					return;
+				}
+				handshaker.handshake().addListener(new ChannelFutureListener() {
+					/*
+					 * (non-Javadoc)
+					 * 
+					 * @see
+					 * org.jboss.netty.channel.ChannelFutureListener#operationComplete
+					 * (org.jboss.netty.channel.ChannelFuture)
+					 */
+					@Override
+					public void operationComplete(final ChannelFuture handshake) {
+						if (handshake.isSuccess()) {
+							exchange.send(channel);
+						} else {
+							exchange.fail(toIOException(handshake.getCause()), false);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Runs the given callback on the executor of the callbacks or on the
+	 * current thread if the executor refuses it.
+	 * 
+	 * @param callback
+	 *            The callback to run
+	 */
+	private void dispatch(final Runnable callback) {
+		try {
+			this.mCallbackExecutor.execute(callback);
+		} catch (final RejectedExecutionException e) {
+			callback.run();
+		}
+	}
+
+	/**
+	 * Hands the given failure to the given callback without an exchange.
+	 * 
+	 * @param callback
+	 *            The callback to hand the failure to
+	 * @param exception
+	 *            The reason the request failed
+	 */
+	private void failLater(final IResponseCallback callback, final IOException exception) {
+		dispatch(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				callback.failed(exception);
+			}
+		});
+	}
+
+	/**
+	 * Takes the most recently used kept alive connection to the given host.
+	 * 
+	 * @param hostKey
+	 *            The key of the host
+	 * @return The channel of the connection or <tt>null</tt> if there is no
+	 *         open one
+	 */
+	private synchronized Channel pollIdleChannel(final String hostKey) {
+		final Deque<IdleConnection> connections = this.mIdleConnections.get(hostKey);
+		if (connections == null) {
+			return null;
+		}
+		while (!connections.isEmpty()) {
+			final Channel channel = connections.pollFirst().mChannel;
+			if (channel.isConnected()) {
+				return channel;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Keeps the given connection alive for further requests to the given
+	 * host. The connection is closed instead if enough connections to the
+	 * host are kept alive already or the transport was shut down.
+	 * 
+	 * @param hostKey
+	 *            The key of the host
+	 * @param channel
+	 *            The channel of the connection
+	 */
+	private synchronized void releaseChannel(final String hostKey, final Channel channel) {
+		Deque<IdleConnection> connections = this.mIdleConnections.get(hostKey);
+		if (connections == null) {
+			connections = new ArrayDeque<>();
+			this.mIdleConnections.put(hostKey, connections);
+		}
+		if (this.mIsShutdown || connections.size() >= MAX_IDLE_CONNECTIONS_PER_HOST) {
+			channel.close();
+			return;
+		}
+		connections.addFirst(new IdleConnection(channel));
+	}
+}
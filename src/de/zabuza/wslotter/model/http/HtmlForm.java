@@ -0,0 +1,141 @@
+package de.zabuza.wslotter.model.http;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A HTML form read from the raw content of a page. It holds the values of all
+ * fields that would be submitted by a browser and the available submit
+ * buttons.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class HtmlForm {
+	/**
+	 * The absolute URL the form is submitted to.
+	 */
+	private final String mAction;
+	/**
+	 * The charset to encode the values of the form with.
+	 */
+	private final Charset mCharset;
+	/**
+	 * The values of all fields of the form, accessed by their name.
+	 */
+	private final Map<String, String> mFields;
+	/**
+	 * Whether the form is submitted using the POST method.
+	 */
+	private final boolean mIsPost;
+	/**
+	 * The values of all submit buttons of the form, accessed by their name.
+	 */
+	private final Map<String, String> mSubmits;
+
+	/**
+	 * Creates a new form without fields.
+	 * 
+	 * @param action
+	 *            The absolute URL the form is submitted to
+	 * @param isPost
+	 *            Whether the form is submitted using the POST method
+	 * @param charset
+	 *            The charset to encode the values of the form with
+	 */
+	public HtmlForm(final String action, final boolean isPost, final Charset charset) {
+		this.mAction = action;
+		this.mIsPost = isPost;
+		this.mCharset = charset;
+		this.mFields = new LinkedHashMap<>();
+		this.mSubmits = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Adds a submit button to the form.
+	 * 
+	 * @param name
+	 *            The name of the button
+	 * @param value
+	 *            The value of the button
+	 */
+	public void addSubmit(final String name, final String value) {
+		this.mSubmits.put(name, value);
+	}
+
+	/**
+	 * Gets the absolute URL the form is submitted to.
+	 * 
+	 * @return The absolute URL the form is submitted to
+	 */
+	public String getAction() {
+		return this.mAction;
+	}
+
+	/**
+	 * Gets the charset to encode the values of the form with.
+	 * 
+	 * @return The charset to encode the values of the form with
+	 */
+	public Charset getCharset() {
+		return this.mCharset;
+	}
+
+	/**
+	 * Gets the values of all fields of the form.
+	 * 
+	 * @return An unmodifiable view to the values of all fields, accessed by
+	 *         their name
+	 */
+	public Map<String, String> getFields() {
+		return Collections.unmodifiableMap(this.mFields);
+	}
+
+	/**
+	 * Gets the value of the given submit button.
+	 * 
+	 * @param name
+	 *            The name of the button
+	 * @return The value of the button or <tt>null</tt> if the form has no such
+	 *         button
+	 */
+	public String getSubmitValue(final String name) {
+		return this.mSubmits.get(name);
+	}
+
+	/**
+	 * Whether the form has a field or submit button with the given name.
+	 * 
+	 * @param name
+	 *            The name in question
+	 * @return <tt>True</tt> if the form has such a field or button,
+	 *         <tt>false</tt> if not
+	 */
+	public boolean hasField(final String name) {
+		return this.mFields.containsKey(name) || this.mSubmits.containsKey(name);
+	}
+
+	/**
+	 * Whether the form is submitted using the POST method.
+	 * 
+	 * @return <tt>True</tt> if the form is submitted using POST,
+	 *         <tt>false</tt> if it uses GET
+	 */
+	public boolean isPost() {
+		return this.mIsPost;
+	}
+
+	/**
+	 * Sets the value of a field of the form. Adds the field if not present.
+	 * 
+	 * @param name
+	 *            The name of the field
+	 * @param value
+	 *            The value to set
+	 */
+	public void setField(final String name, final String value) {
+		this.mFields.put(name, value);
+	}
+}
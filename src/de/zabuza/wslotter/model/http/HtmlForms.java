@@ -0,0 +1,304 @@
+package de.zabuza.wslotter.model.http;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class that reads forms and other elements out of the raw HTML
+ * content of a page. It is no complete HTML parser but sufficient for the
+ * well-formed pages of the 'Gruppe W' site.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class HtmlForms {
+	/**
+	 * Pattern that matches an attribute of a tag. The value is in one of the
+	 * groups two to four, depending on the quotes used.
+	 */
+	private static final Pattern ATTRIBUTE_PATTERN = Pattern
+			.compile("([\\w:-]+)(?:\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s\"'>]+)))?");
+	/**
+	 * Pattern that matches a numeric or a common named character reference.
+	 * The code point is in group one if it is decimal and in group two if it
+	 * is hexadecimal, the name of a named reference is in group three.
+	 */
+	private static final Pattern CHARACTER_REFERENCE_PATTERN = Pattern
+			.compile("&(?:#([0-9]+)|#[xX]([0-9a-fA-F]+)|(amp|lt|gt|quot|apos|nbsp));");
+	/**
+	 * Pattern that matches a form, the attributes are in group one and the
+	 * content in group two.
+	 */
+	private static final Pattern FORM_PATTERN = Pattern.compile("<form\\b([^>]*)>(.*?)</form>",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	/**
+	 * Pattern that matches an input element, the attributes are in group one.
+	 */
+	private static final Pattern INPUT_PATTERN = Pattern.compile("<input\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+	/**
+	 * Pattern that matches an option of a select element, the attributes are
+	 * in group one and the text in group two.
+	 */
+	private static final Pattern OPTION_PATTERN = Pattern.compile("<option\\b([^>]*)>([^<]*)",
+			Pattern.CASE_INSENSITIVE);
+	/**
+	 * Pattern that matches a select element, the attributes are in group one
+	 * and the content in group two.
+	 */
+	private static final Pattern SELECT_PATTERN = Pattern.compile("<select\\b([^>]*)>(.*?)</select>",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	/**
+	 * Pattern that matches a text area, the attributes are in group one and
+	 * the content in group two.
+	 */
+	private static final Pattern TEXTAREA_PATTERN = Pattern.compile("<textarea\\b([^>]*)>(.*?)</textarea>",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	/**
+	 * Pattern that matches the title of a page, the title is in group one.
+	 */
+	private static final Pattern TITLE_PATTERN = Pattern.compile("<title[^>]*>(.*?)</title>",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+	/**
+	 * Searches the given page for the first form that contains a field or
+	 * submit button with the given name.
+	 * 
+	 * @param page
+	 *            The page to search
+	 * @param fieldName
+	 *            The name of the field the form must contain
+	 * @return The form or <tt>null</tt> if there is no such form
+	 */
+	public static HtmlForm findFormWithField(final HttpPage page, final String fieldName) {
+		final Matcher formMatcher = FORM_PATTERN.matcher(page.getContent());
+		while (formMatcher.find()) {
+			final HtmlForm form = parseForm(page, formMatcher.group(1), formMatcher.group(2));
+			if (form != null && form.hasField(fieldName)) {
+				return form;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the title of the given page.
+	 * 
+	 * @param page
+	 *            The page to get the title of
+	 * @return The title of the page or an empty text if it has no title
+	 */
+	public static String getTitle(final HttpPage page) {
+		final Matcher matcher = TITLE_PATTERN.matcher(page.getContent());
+		if (!matcher.find()) {
+			return "";
+		}
+		return decodeEntities(matcher.group(1)).trim();
+	}
+
+	/**
+	 * Decodes numeric and the most common named character references in the
+	 * given text. All references are decoded in a single pass, such that the
+	 * text of a decoded reference is never decoded again.
+	 * 
+	 * @param text
+	 *            The text to decode
+	 * @return The decoded text
+	 */
+	private static String decodeEntities(final String text) {
+		if (text.indexOf('&') == -1) {
+			return text;
+		}
+
+		final StringBuffer buffer = new StringBuffer();
+		final Matcher matcher = CHARACTER_REFERENCE_PATTERN.matcher(text);
+		while (matcher.find()) {
+			String character;
+			if (matcher.group(3) != null) {
+				character = decodeNamedReference(matcher.group(3));
+			} else {
+				try {
+					final int codePoint;
+					if (matcher.group(1) != null) {
+						codePoint = Integer.parseInt(matcher.group(1), 10);
+					} else {
+						codePoint = Integer.parseInt(matcher.group(2), 16);
+					}
+					character = new String(Character.toChars(codePoint));
+				} catch (final IllegalArgumentException e) {
+					// Out of range, leave the reference unchanged
+					character = matcher.group();
+				}
+			}
+			matcher.appendReplacement(buffer, Matcher.quoteReplacement(character));
+		}
+		matcher.appendTail(buffer);
+
+		return buffer.toString();
+	}
+
+	/**
+	 * Decodes the named character reference with the given name.
+	 * 
+	 * @param name
+	 *            The name of the reference, one of the names matched by
+	 *            {@link #CHARACTER_REFERENCE_PATTERN}
+	 * @return The decoded character
+	 */
+	private static String decodeNamedReference(final String name) {
+		switch (name) {
+		case "amp":
+			return "&";
+		case "lt":
+			return "<";
+		case "gt":
+			return ">";
+		case "quot":
+			return "\"";
+		case "apos":
+			return "'";
+		case "nbsp":
+			return "\u00A0";
+		default:
+			throw new IllegalArgumentException("Unknown character reference: " + name);
+		}
+	}
+
+	/**
+	 * Parses the attributes of a tag.
+	 * 
+	 * @param attributesText
+	 *            The text of the tag containing the attributes
+	 * @return The decoded values of all attributes, accessed by their lower
+	 *         case name. Attributes without a value map to an empty text.
+	 */
+	private static Map<String, String> parseAttributes(final String attributesText) {
+		final Map<String, String> attributes = new HashMap<>();
+		final Matcher matcher = ATTRIBUTE_PATTERN.matcher(attributesText);
+		while (matcher.find()) {
+			String value = "";
+			for (int group = 2; group <= 4; group++) {
+				if (matcher.group(group) != null) {
+					value = decodeEntities(matcher.group(group));
+					break;
+				}
+			}
+			attributes.put(matcher.group(1).toLowerCase(Locale.ROOT), value);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Parses a form.
+	 * 
+	 * @param page
+	 *            The page the form is located on
+	 * @param attributesText
+	 *            The text containing the attributes of the form
+	 * @param content
+	 *            The content of the form
+	 * @return The parsed form or <tt>null</tt> if its action is malformed
+	 */
+	private static HtmlForm parseForm(final HttpPage page, final String attributesText, final String content) {
+		final Map<String, String> formAttributes = parseAttributes(attributesText);
+
+		// Resolve the action against the URL of the page
+		final String actionValue = formAttributes.get("action");
+		final String action;
+		try {
+			if (actionValue == null || actionValue.isEmpty()) {
+				action = page.getUrl();
+			} else {
+				action = new URI(page.getUrl()).resolve(actionValue.trim()).toString();
+			}
+		} catch (final URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+		final boolean isPost = "post".equalsIgnoreCase(formAttributes.get("method"));
+		final HtmlForm form = new HtmlForm(action, isPost, page.getCharset());
+
+		// Input elements
+		final Matcher inputMatcher = INPUT_PATTERN.matcher(content);
+		while (inputMatcher.find()) {
+			final Map<String, String> attributes = parseAttributes(inputMatcher.group(1));
+			final String name = attributes.get("name");
+			if (name == null || attributes.containsKey("disabled")) {
+				continue;
+			}
+			String type = attributes.get("type");
+			if (type == null) {
+				type = "text";
+			}
+			type = type.toLowerCase(Locale.ROOT);
+			String value = attributes.get("value");
+
+			if (type.equals("submit") || type.equals("image")) {
+				if (value == null) {
+					value = "";
+				}
+				form.addSubmit(name, value);
+			} else if (type.equals("checkbox") || type.equals("radio")) {
+				if (attributes.containsKey("checked")) {
+					if (value == null) {
+						value = "on";
+					}
+					form.setField(name, value);
+				}
+			} else if (!type.equals("button") && !type.equals("reset") && !type.equals("file")) {
+				if (value == null) {
+					value = "";
+				}
+				form.setField(name, value);
+			}
+		}
+
+		// Text areas
+		final Matcher textareaMatcher = TEXTAREA_PATTERN.matcher(content);
+		while (textareaMatcher.find()) {
+			final String name = parseAttributes(textareaMatcher.group(1)).get("name");
+			if (name != null) {
+				form.setField(name, decodeEntities(textareaMatcher.group(2)));
+			}
+		}
+
+		// Select elements, use the selected or else the first option
+		final Matcher selectMatcher = SELECT_PATTERN.matcher(content);
+		while (selectMatcher.find()) {
+			final String name = parseAttributes(selectMatcher.group(1)).get("name");
+			if (name == null) {
+				continue;
+			}
+			String value = null;
+			final Matcher optionMatcher = OPTION_PATTERN.matcher(selectMatcher.group(2));
+			while (optionMatcher.find()) {
+				final Map<String, String> attributes = parseAttributes(optionMatcher.group(1));
+				String optionValue = attributes.get("value");
+				if (optionValue == null) {
+					optionValue = decodeEntities(optionMatcher.group(2)).trim();
+				}
+				if (value == null || attributes.containsKey("selected")) {
+					value = optionValue;
+				}
+				if (attributes.containsKey("selected")) {
+					break;
+				}
+			}
+			if (value != null) {
+				form.setField(name, value);
+			}
+		}
+
+		return form;
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private HtmlForms() {
+
+	}
+}
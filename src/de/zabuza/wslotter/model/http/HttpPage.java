@@ -0,0 +1,67 @@
+package de.zabuza.wslotter.model.http;
+
+import java.nio.charset.Charset;
+
+/**
+ * A page requested by a {@link SiteHttpClient}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class HttpPage {
+	/**
+	 * The charset the content of the page was encoded with.
+	 */
+	private final Charset mCharset;
+	/**
+	 * The content of the page.
+	 */
+	private final String mContent;
+	/**
+	 * The URL of the page, after following all redirects.
+	 */
+	private final String mUrl;
+
+	/**
+	 * Creates a new page.
+	 * 
+	 * @param url
+	 *            The URL of the page, after following all redirects
+	 * @param content
+	 *            The content of the page
+	 * @param charset
+	 *            The charset the content of the page was encoded with
+	 */
+	public HttpPage(final String url, final String content, final Charset charset) {
+		this.mUrl = url;
+		this.mContent = content;
+		this.mCharset = charset;
+	}
+
+	/**
+	 * Gets the charset the content of the page was encoded with.
+	 * 
+	 * @return The charset the content of the page was encoded with
+	 */
+	public Charset getCharset() {
+		return this.mCharset;
+	}
+
+	/**
+	 * Gets the content of the page.
+	 * 
+	 * @return The content of the page
+	 */
+	public String getContent() {
+		return this.mContent;
+	}
+
+	/**
+	 * Gets the URL of the page, after following all redirects.
+	 * 
+	 * @return The URL of the page
+	 */
+	public String getUrl() {
+		return this.mUrl;
+	}
+}
@@ -0,0 +1,30 @@
+package de.zabuza.wslotter.model.http;
+
+import java.io.IOException;
+
+/**
+ * Interface for callbacks which receive the outcome of a page that was
+ * fetched asynchronously by a {@link SiteHttpClient}. Exactly one of the
+ * methods is called once per request, on a thread of the executor which
+ * handles the answers.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IPageCallback {
+	/**
+	 * Called when the page was fetched.
+	 * 
+	 * @param page
+	 *            The fetched page
+	 */
+	public void completed(final HttpPage page);
+
+	/**
+	 * Called when the request failed.
+	 * 
+	 * @param exception
+	 *            The reason the request failed
+	 */
+	public void failed(final IOException exception);
+}
@@ -0,0 +1,33 @@
+package de.zabuza.wslotter.model.http;
+
+import java.io.IOException;
+
+import org.jboss.netty.handler.codec.http.HttpResponse;
+
+/**
+ * Interface for callbacks which receive the raw answer to a request of an
+ * {@link AsyncHttpTransport}. Exactly one of the methods is called once per
+ * request, on a thread of the executor which handles the answers.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IResponseCallback {
+	/**
+	 * Called when the site answered the request. The content of the answer is
+	 * already decompressed and complete.
+	 * 
+	 * @param response
+	 *            The answer of the site
+	 */
+	public void completed(final HttpResponse response);
+
+	/**
+	 * Called when the request failed, for example since the connection could
+	 * not be established, was closed or timed out.
+	 * 
+	 * @param exception
+	 *            The reason the request failed
+	 */
+	public void failed(final IOException exception);
+}
@@ -0,0 +1,80 @@
+package de.zabuza.wslotter.model.http;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+
+/**
+ * Resolver of host names which answers pinned hosts from memory. A host is
+ * pinned by resolving it once ahead of time, later connections to it then do
+ * not wait for a lookup, regardless of how long the system caches it. Hosts
+ * which are not pinned are resolved by the system. The resolver is shared by
+ * all HTTP clients.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PinnedDnsResolver implements DnsResolver {
+	/**
+	 * The resolver shared by all HTTP clients.
+	 */
+	public static final PinnedDnsResolver INSTANCE = new PinnedDnsResolver();
+
+	/**
+	 * Creates a key for the given host name.
+	 * 
+	 * @param host
+	 *            The name of the host
+	 * @return The key of the host
+	 */
+	private static String toKey(final String host) {
+		return host.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * The addresses of the pinned hosts, accessed by the key of their name.
+	 */
+	private final ConcurrentMap<String, InetAddress[]> mPinnedHosts;
+
+	/**
+	 * Creates the shared resolver. Use {@link #INSTANCE} instead.
+	 */
+	private PinnedDnsResolver() {
+		this.mPinnedHosts = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Resolves the given host by the system and pins its addresses. An already
+	 * pinned host is resolved again.
+	 * 
+	 * @param host
+	 *            The name of the host
+	 * @return The pinned addresses of the host
+	 * @throws UnknownHostException
+	 *             If the host could not be resolved
+	 */
+	public InetAddress[] pin(final String host) throws UnknownHostException {
+		final InetAddress[] addresses = SystemDefaultDnsResolver.INSTANCE.resolve(host);
+		this.mPinnedHosts.put(toKey(host), addresses);
+		return addresses.clone();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.apache.http.conn.DnsResolver#resolve(java.lang.String)
+	 */
+	@Override
+	public InetAddress[] resolve(final String host) throws UnknownHostException {
+		final InetAddress[] addresses = this.mPinnedHosts.get(toKey(host));
+		if (addresses != null) {
+			return addresses.clone();
+		}
+		return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+	}
+}
@@ -0,0 +1,650 @@
+package de.zabuza.wslotter.model.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.NameValuePair;
+import org.apache.http.ParseException;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.cookie.ClientCookie;
+import org.apache.http.cookie.CookieOrigin;
+import org.apache.http.cookie.CookieSpec;
+import org.apache.http.cookie.MalformedCookieException;
+import org.apache.http.cookie.SM;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.cookie.BasicClientCookie;
+import org.apache.http.impl.cookie.RFC6265CookieSpecProvider;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.jboss.netty.handler.codec.http.HttpResponse;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import de.zabuza.wslotter.model.time.ServerClock;
+
+/**
+ * Lightweight HTTP client for the 'Gruppe W' site. It keeps its own cookie
+ * store which can be filled with the cookies of a web driver, such that
+ * requests are made within the same session as the browser. Pages can also be
+ * fetched without blocking if the client was given an
+ * {@link AsyncHttpTransport}, such requests share the session.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class SiteHttpClient implements Closeable {
+	/**
+	 * Status codes starting at this value indicate a failed request.
+	 */
+	private static final int ERROR_STATUS_CODE = 400;
+	/**
+	 * The maximal amount of redirects followed by a request without blocking.
+	 */
+	private static final int MAX_ASYNC_REDIRECTS = 5;
+	/**
+	 * The maximal amount of own connections per host, such that several
+	 * staggered pollers can request the thread at once.
+	 */
+	private static final int MAX_CONNECTIONS_PER_HOST = 16;
+	/**
+	 * Time in milliseconds to wait for a connection or data until a request
+	 * fails.
+	 */
+	private static final int REQUEST_TIMEOUT = 10000;
+
+	/**
+	 * Creates the origin of the cookies of a request to the given URI.
+	 * 
+	 * @param uri
+	 *            The URI of the request, it must have a host
+	 * @return The origin of the cookies of the request
+	 */
+	private static CookieOrigin createCookieOrigin(final URI uri) {
+		final boolean isSecure = "https".equalsIgnoreCase(uri.getScheme());
+		int port = uri.getPort();
+		if (port < 0) {
+			port = isSecure ? 443 : 80;
+		}
+		String path = uri.getPath();
+		if (path == null || path.isEmpty()) {
+			path = "/";
+		}
+		return new CookieOrigin(uri.getHost(), port, path, isSecure);
+	}
+
+	/**
+	 * Whether the given status code redirects to another location, as
+	 * followed by the blocking requests too.
+	 * 
+	 * @param statusCode
+	 *            The status code of the answer
+	 * @return <tt>True</tt> if the status code redirects, <tt>false</tt> if
+	 *         not
+	 */
+	private static boolean isRedirect(final int statusCode) {
+		return statusCode == HttpStatus.SC_MOVED_PERMANENTLY || statusCode == HttpStatus.SC_MOVED_TEMPORARILY
+				|| statusCode == HttpStatus.SC_SEE_OTHER || statusCode == HttpStatus.SC_TEMPORARY_REDIRECT;
+	}
+
+	/**
+	 * Creates a client cookie out of the given web driver cookie.
+	 * 
+	 * @param cookie
+	 *            The cookie of the web driver
+	 * @return The corresponding client cookie
+	 */
+	private static BasicClientCookie toClientCookie(final Cookie cookie) {
+		final BasicClientCookie clientCookie = new BasicClientCookie(cookie.getName(), cookie.getValue());
+		String domain = cookie.getDomain();
+		if (domain != null) {
+			if (domain.startsWith(".")) {
+				// Cookie is valid for sub domains too
+				domain = domain.substring(1);
+				clientCookie.setAttribute(ClientCookie.DOMAIN_ATTR, domain);
+			}
+			clientCookie.setDomain(domain);
+		}
+		clientCookie.setPath(cookie.getPath());
+		clientCookie.setExpiryDate(cookie.getExpiry());
+		clientCookie.setSecure(cookie.isSecure());
+		return clientCookie;
+	}
+
+	/**
+	 * Creates a web driver cookie out of the given client cookie.
+	 * 
+	 * @param clientCookie
+	 *            The cookie of the client
+	 * @return The corresponding web driver cookie
+	 */
+	private static Cookie toDriverCookie(final org.apache.http.cookie.Cookie clientCookie) {
+		return new Cookie.Builder(clientCookie.getName(), clientCookie.getValue()).domain(clientCookie.getDomain())
+				.path(clientCookie.getPath()).expiresOn(clientCookie.getExpiryDate())
+				.isSecure(clientCookie.isSecure()).build();
+	}
+
+	/**
+	 * The requests which are executed at the moment.
+	 */
+	private final Set<HttpUriRequest> mActiveRequests;
+	/**
+	 * The underlying HTTP client.
+	 */
+	private final CloseableHttpClient mClient;
+	/**
+	 * The specification which matches and parses the cookies of requests
+	 * without blocking.
+	 */
+	private final CookieSpec mCookieSpec;
+	/**
+	 * The store holding all cookies of the session.
+	 */
+	private final BasicCookieStore mCookieStore;
+	/**
+	 * Whether the client was closed.
+	 */
+	private volatile boolean mIsClosed;
+	/**
+	 * The clock of the server the answers are told to or <tt>null</tt> if
+	 * not estimated.
+	 */
+	private volatile ServerClock mServerClock;
+	/**
+	 * The transport of the requests without blocking or <tt>null</tt> if the
+	 * client only makes blocking requests.
+	 */
+	private final AsyncHttpTransport mTransport;
+	/**
+	 * The user agent to send with requests or <tt>null</tt> if the default
+	 * should be used.
+	 */
+	private final String mUserAgent;
+
+	/**
+	 * Creates a new HTTP client with an empty cookie store.
+	 * 
+	 * @param userAgent
+	 *            The user agent to send with requests or <tt>null</tt> if the
+	 *            default should be used
+	 */
+	public SiteHttpClient(final String userAgent) {
+		this(userAgent, null);
+	}
+
+	/**
+	 * Creates a new HTTP client with an empty cookie store which uses the
+	 * connections of the given manager. Several clients can share one manager
+	 * to keep a common pool of keep-alive connections, each with its own
+	 * session.
+	 * 
+	 * @param userAgent
+	 *            The user agent to send with requests or <tt>null</tt> if the
+	 *            default should be used
+	 * @param connectionManager
+	 *            The manager of the connections to use, it is not shut down if
+	 *            the client is closed. Or <tt>null</tt> if the client should
+	 *            manage its own connections, resolving hosts by the
+	 *            {@link PinnedDnsResolver}.
+	 */
+	public SiteHttpClient(final String userAgent, final HttpClientConnectionManager connectionManager) {
+		this(userAgent, connectionManager, null);
+	}
+
+	/**
+	 * Creates a new HTTP client with an empty cookie store which uses the
+	 * connections of the given manager for blocking requests and the given
+	 * transport for requests without blocking.
+	 * 
+	 * @param userAgent
+	 *            The user agent to send with requests or <tt>null</tt> if the
+	 *            default should be used
+	 * @param connectionManager
+	 *            The manager of the connections to use, it is not shut down if
+	 *            the client is closed. Or <tt>null</tt> if the client should
+	 *            manage its own connections, resolving hosts by the
+	 *            {@link PinnedDnsResolver}.
+	 * @param transport
+	 *            The transport of the requests without blocking, it is not
+	 *            shut down if the client is closed. Or <tt>null</tt> if the
+	 *            client should only make blocking requests.
+	 */
+	public SiteHttpClient(final String userAgent, final HttpClientConnectionManager connectionManager,
+			final AsyncHttpTransport transport) {
+		this.mUserAgent = userAgent;
+		this.mTransport = transport;
+		this.mCookieStore = new BasicCookieStore();
+		this.mCookieSpec = new RFC6265CookieSpecProvider().create(null);
+		this.mActiveRequests = Collections.newSetFromMap(new ConcurrentHashMap<HttpUriRequest, Boolean>());
+		this.mServerClock = null;
+		this.mIsClosed = false;
+
+		final RequestConfig requestConfig = RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD)
+				.setConnectTimeout(REQUEST_TIMEOUT).setSocketTimeout(REQUEST_TIMEOUT).build();
+		final HttpClientBuilder builder = HttpClients.custom().setDefaultCookieStore(this.mCookieStore)
+				.setDefaultRequestConfig(requestConfig).setRedirectStrategy(new LaxRedirectStrategy());
+		if (userAgent != null) {
+			builder.setUserAgent(userAgent);
+		}
+		if (connectionManager != null) {
+			builder.setConnectionManager(connectionManager).setConnectionManagerShared(true);
+		} else {
+			builder.setDnsResolver(PinnedDnsResolver.INSTANCE).setMaxConnPerRoute(MAX_CONNECTIONS_PER_HOST)
+					.setMaxConnTotal(MAX_CONNECTIONS_PER_HOST);
+		}
+		this.mClient = builder.build();
+	}
+
+	/**
+	 * Aborts all requests which are executed at the moment, they then fail
+	 * with an I/O-Exception. Can be called from any thread.
+	 */
+	public void abortRequests() {
+		for (final HttpUriRequest request : this.mActiveRequests) {
+			request.abort();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		this.mIsClosed = true;
+		this.mClient.close();
+	}
+
+	/**
+	 * Requests the page behind the given URL.
+	 * 
+	 * @param url
+	 *            The URL of the page to fetch
+	 * @return The requested page
+	 * @throws IOException
+	 *             If an I/O-Exception occurred while requesting the page or
+	 *             the server answered with an error
+	 */
+	public HttpPage fetchPage(final String url) throws IOException {
+		return execute(new HttpGet(url));
+	}
+
+	/**
+	 * Requests the page behind the given URL without blocking. The cookies of
+	 * the session are sent and updated and redirects are followed, as by
+	 * {@link #fetchPage(String)}. The outcome is handed to the given callback
+	 * on a thread of the transport.
+	 * 
+	 * @param url
+	 *            The URL of the page to fetch
+	 * @param callback
+	 *            The callback to hand the page or the failure to
+	 * @throws IllegalStateException
+	 *             If the client has no transport for requests without
+	 *             blocking or was closed
+	 */
+	public void fetchPageAsync(final String url, final IPageCallback callback) throws IllegalStateException {
+		if (this.mTransport == null) {
+			throw new IllegalStateException("The client can not make requests without blocking.");
+		}
+		if (this.mIsClosed) {
+			throw new IllegalStateException("The client was closed.");
+		}
+		final URI uri;
+		try {
+			uri = new URI(url);
+		} catch (final URISyntaxException e) {
+			callback.failed(new IOException(e));
+			return;
+		}
+		fetchAsync(uri, 0, callback);
+	}
+
+	/**
+	 * Gets the value of the cookie with the given name.
+	 * 
+	 * @param name
+	 *            The name of the cookie
+	 * @return The value of the cookie or <tt>null</tt> if there is no such
+	 *         cookie which has not expired yet
+	 */
+	public String getCookieValue(final String name) {
+		this.mCookieStore.clearExpired(new Date());
+		for (final org.apache.http.cookie.Cookie cookie : this.mCookieStore.getCookies()) {
+			if (cookie.getName().equals(name)) {
+				return cookie.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets all cookies of the session which have not expired yet, as web
+	 * driver cookies such that they can be added to a browser.
+	 * 
+	 * @return The cookies of the session
+	 */
+	public List<Cookie> getCookies() {
+		this.mCookieStore.clearExpired(new Date());
+		final List<Cookie> cookies = new ArrayList<>();
+		for (final org.apache.http.cookie.Cookie cookie : this.mCookieStore.getCookies()) {
+			cookies.add(toDriverCookie(cookie));
+		}
+		return cookies;
+	}
+
+	/**
+	 * Copies all cookies of the given web driver into the cookie store of this
+	 * client. Existing cookies with the same name are replaced.
+	 * 
+	 * @param driver
+	 *            The web driver to copy cookies from
+	 */
+	public void importCookies(final WebDriver driver) {
+		for (final Cookie cookie : driver.manage().getCookies()) {
+			this.mCookieStore.addCookie(toClientCookie(cookie));
+		}
+	}
+
+	/**
+	 * Sets the clock of the server all further answers are told to, such that
+	 * it can estimate the time of the server by their <tt>Date</tt> headers.
+	 * 
+	 * @param serverClock
+	 *            The clock of the server or <tt>null</tt> if the answers
+	 *            should not be told to a clock anymore
+	 */
+	public void setServerClock(final ServerClock serverClock) {
+		this.mServerClock = serverClock;
+	}
+
+	/**
+	 * Submits the given form as a browser would do by clicking the given
+	 * submit button.
+	 * 
+	 * @param form
+	 *            The form to submit
+	 * @param submitName
+	 *            The name of the submit button to click or <tt>null</tt> if
+	 *            no button should be submitted
+	 * @return The page answered by the server
+	 * @throws IOException
+	 *             If an I/O-Exception occurred while submitting the form or
+	 *             the server answered with an error
+	 */
+	public HttpPage submitForm(final HtmlForm form, final String submitName) throws IOException {
+		final List<NameValuePair> parameters = new ArrayList<>();
+		for (final Entry<String, String> field : form.getFields().entrySet()) {
+			parameters.add(new BasicNameValuePair(field.getKey(), field.getValue()));
+		}
+		if (submitName != null) {
+			final String submitValue = form.getSubmitValue(submitName);
+			if (submitValue != null) {
+				parameters.add(new BasicNameValuePair(submitName, submitValue));
+			}
+		}
+
+		final HttpUriRequest request;
+		if (form.isPost()) {
+			final HttpPost post = new HttpPost(form.getAction());
+			post.setEntity(new UrlEncodedFormEntity(parameters, form.getCharset()));
+			request = post;
+		} else {
+			try {
+				request = new HttpGet(new URIBuilder(form.getAction()).setParameters(parameters)
+						.setCharset(form.getCharset()).build());
+			} catch (final URISyntaxException e) {
+				throw new IOException(e);
+			}
+		}
+		return execute(request);
+	}
+
+	/**
+	 * Executes the given request and reads the answered page.
+	 * 
+	 * @param request
+	 *            The request to execute
+	 * @return The answered page
+	 * @throws IOException
+	 *             If an I/O-Exception occurred while executing the request or
+	 *             the server answered with an error
+	 */
+	private HttpPage execute(final HttpUriRequest request) throws IOException {
+		final HttpClientContext context = HttpClientContext.create();
+		final ServerClock serverClock = this.mServerClock;
+		long requestStart = 0;
+		if (serverClock != null) {
+			requestStart = serverClock.getBaseClock().currentTimeMillis();
+		}
+		this.mActiveRequests.add(request);
+		try (final CloseableHttpResponse response = this.mClient.execute(request, context)) {
+			if (serverClock != null) {
+				final Header dateHeader = response.getFirstHeader(HttpHeaders.DATE);
+				if (dateHeader != null) {
+					tellServerTime(dateHeader.getValue(), requestStart, serverClock);
+				}
+			}
+			final int statusCode = response.getStatusLine().getStatusCode();
+			if (statusCode >= ERROR_STATUS_CODE) {
+				EntityUtils.consume(response.getEntity());
+				throw new HttpResponseException(statusCode, response.getStatusLine().getReasonPhrase());
+			}
+
+			// Determine the URL of the page after following redirects
+			String url = request.getURI().toString();
+			final List<URI> redirectLocations = context.getRedirectLocations();
+			if (redirectLocations != null && !redirectLocations.isEmpty()) {
+				try {
+					url = URIUtils.resolve(request.getURI(), context.getTargetHost(), redirectLocations).toString();
+				} catch (final URISyntaxException e) {
+					url = redirectLocations.get(redirectLocations.size() - 1).toString();
+				}
+			}
+
+			final HttpEntity entity = response.getEntity();
+			if (entity == null) {
+				return new HttpPage(url, "", StandardCharsets.UTF_8);
+			}
+			Charset charset = ContentType.getOrDefault(entity).getCharset();
+			if (charset == null) {
+				charset = StandardCharsets.UTF_8;
+			}
+			return new HttpPage(url, EntityUtils.toString(entity, charset), charset);
+		} finally {
+			this.mActiveRequests.remove(request);
+		}
+	}
+
+	/**
+	 * Requests the given URI without blocking and hands the outcome to the
+	 * given callback.
+	 * 
+	 * @param uri
+	 *            The URI to request
+	 * @param redirects
+	 *            The amount of redirects followed so far
+	 * @param callback
+	 *            The callback to hand the page or the failure to
+	 */
+	private void fetchAsync(final URI uri, final int redirects, final IPageCallback callback) {
+		if (uri.getHost() == null) {
+			callback.failed(new IOException("The URL has no host: " + uri));
+			return;
+		}
+		final CookieOrigin origin = createCookieOrigin(uri);
+		final Map<String, String> headers = new HashMap<>();
+		if (this.mUserAgent != null) {
+			headers.put(HttpHeaders.USER_AGENT, this.mUserAgent);
+		}
+		this.mCookieStore.clearExpired(new Date());
+		final List<org.apache.http.cookie.Cookie> cookies = new ArrayList<>();
+		for (final org.apache.http.cookie.Cookie cookie : this.mCookieStore.getCookies()) {
+			if (this.mCookieSpec.match(cookie, origin)) {
+				cookies.add(cookie);
+			}
+		}
+		if (!cookies.isEmpty()) {
+			for (final Header header : this.mCookieSpec.formatCookies(cookies)) {
+				headers.put(header.getName(), header.getValue());
+			}
+		}
+
+		final ServerClock serverClock = this.mServerClock;
+		long requestStart = 0;
+		if (serverClock != null) {
+			requestStart = serverClock.getBaseClock().currentTimeMillis();
+		}
+		final long requestStartOfAnswer = requestStart;
+		this.mTransport.fetch(uri, headers, new IResponseCallback() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.http.IResponseCallback#completed(org.jboss.
+			 * netty.handler.codec.http.HttpResponse)
+			 */
+			@Override
+			public void completed(final HttpResponse response) {
+				if (serverClock != null) {
+					final String date = response.getHeader(HttpHeaders.DATE);
+					if (date != null) {
+						tellServerTime(date, requestStartOfAnswer, serverClock);
+					}
+				}
+				handleAsyncResponse(uri, origin, redirects, response, callback);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.http.IResponseCallback#failed(java.io.
+			 * IOException)
+			 */
+			@Override
+			public void failed(final IOException exception) {
+				callback.failed(exception);
+			}
+		});
+	}
+
+	/**
+	 * Handles the answer to a request without blocking. Keeps the cookies the
+	 * site sets, follows a redirect or hands the page to the given callback.
+	 * 
+	 * @param uri
+	 *            The URI which was requested
+	 * @param origin
+	 *            The origin of the cookies of the request
+	 * @param redirects
+	 *            The amount of redirects followed so far
+	 * @param response
+	 *            The answer of the site
+	 * @param callback
+	 *            The callback to hand the page or the failure to
+	 */
+	private void handleAsyncResponse(final URI uri, final CookieOrigin origin, final int redirects,
+			final HttpResponse response, final IPageCallback callback) {
+		for (final String setCookie : response.getHeaders(SM.SET_COOKIE)) {
+			try {
+				for (final org.apache.http.cookie.Cookie cookie : this.mCookieSpec
+						.parse(new BasicHeader(SM.SET_COOKIE, setCookie), origin)) {
+					this.mCookieSpec.validate(cookie, origin);
+					this.mCookieStore.addCookie(cookie);
+				}
+			} catch (final MalformedCookieException e) {
+				// Just ignore the cookie and continue, as the blocking
+				// requests do
+			}
+		}
+
+		final int statusCode = response.getStatus().getCode();
+		final String location = response.getHeader(HttpHeaders.LOCATION);
+		if (isRedirect(statusCode) && location != null && redirects < MAX_ASYNC_REDIRECTS) {
+			if (this.mIsClosed) {
+				callback.failed(new IOException("The client was closed."));
+				return;
+			}
+			try {
+				fetchAsync(uri.resolve(location), redirects + 1, callback);
+			} catch (final IllegalArgumentException e) {
+				callback.failed(new IOException(e));
+			}
+			return;
+		}
+		if (statusCode >= ERROR_STATUS_CODE) {
+			callback.failed(new HttpResponseException(statusCode, response.getStatus().getReasonPhrase()));
+			return;
+		}
+
+		Charset charset = null;
+		final String contentType = response.getHeader(HttpHeaders.CONTENT_TYPE);
+		if (contentType != null) {
+			try {
+				charset = ContentType.parse(contentType).getCharset();
+			} catch (final ParseException | IllegalArgumentException e) {
+				// Just ignore the exception and continue with the default
+			}
+		}
+		if (charset == null) {
+			charset = StandardCharsets.UTF_8;
+		}
+		callback.completed(new HttpPage(uri.toString(), response.getContent().toString(charset), charset));
+	}
+
+	/**
+	 * Tells the given time of the server, as given by the <tt>Date</tt>
+	 * header of an answer, to the clock of the server.
+	 * 
+	 * @param date
+	 *            The value of the <tt>Date</tt> header of the answer, its
+	 *            headers have been received
+	 * @param requestStart
+	 *            The time the request was sent, as given by the local clock
+	 * @param serverClock
+	 *            The clock of the server to tell the time to
+	 */
+	private void tellServerTime(final String date, final long requestStart, final ServerClock serverClock) {
+		final long responseEnd = serverClock.getBaseClock().currentTimeMillis();
+		final Date serverDate = DateUtils.parseDate(date);
+		if (serverDate != null) {
+			serverClock.addSample(requestStart, responseEnd, serverDate.getTime());
+		}
+	}
+}
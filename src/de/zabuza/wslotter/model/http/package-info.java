@@ -0,0 +1,4 @@
+/**
+ * This is the core package for HTTP services of the model.
+ */
+package de.zabuza.wslotter.model.http;
@@ -0,0 +1,143 @@
+package de.zabuza.wslotter.model.jobs;
+
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EEngine;
+
+/**
+ * A job of a job file, posting a text to a thread with a given account.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class Job {
+	/**
+	 * The browser to use.
+	 */
+	private final EBrowser mBrowser;
+	/**
+	 * The engine to use.
+	 */
+	private final EEngine mEngine;
+	/**
+	 * The line of the job file which describes the job.
+	 */
+	private final int mLine;
+	/**
+	 * The password of the account.
+	 */
+	private final String mPassword;
+	/**
+	 * The text to post.
+	 */
+	private final String mTextToPost;
+	/**
+	 * The URL of the thread to post to.
+	 */
+	private final String mThreadUrl;
+	/**
+	 * The username of the account.
+	 */
+	private final String mUsername;
+
+	/**
+	 * Creates a new job.
+	 * 
+	 * @param line
+	 *            The line of the job file which describes the job
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param textToPost
+	 *            The text to post
+	 * @param username
+	 *            The username of the account
+	 * @param password
+	 *            The password of the account
+	 * @param browser
+	 *            The browser to use
+	 * @param engine
+	 *            The engine to use
+	 */
+	public Job(final int line, final String threadUrl, final String textToPost, final String username,
+			final String password, final EBrowser browser, final EEngine engine) {
+		this.mLine = line;
+		this.mThreadUrl = threadUrl;
+		this.mTextToPost = textToPost;
+		this.mUsername = username;
+		this.mPassword = password;
+		this.mBrowser = browser;
+		this.mEngine = engine;
+	}
+
+	/**
+	 * Gets the browser to use.
+	 * 
+	 * @return The browser to use
+	 */
+	public EBrowser getBrowser() {
+		return this.mBrowser;
+	}
+
+	/**
+	 * Gets the engine to use.
+	 * 
+	 * @return The engine to use
+	 */
+	public EEngine getEngine() {
+		return this.mEngine;
+	}
+
+	/**
+	 * Gets the line of the job file which describes the job.
+	 * 
+	 * @return The line of the job file which describes the job
+	 */
+	public int getLine() {
+		return this.mLine;
+	}
+
+	/**
+	 * Gets the password of the account.
+	 * 
+	 * @return The password of the account
+	 */
+	public String getPassword() {
+		return this.mPassword;
+	}
+
+	/**
+	 * Gets the text to post.
+	 * 
+	 * @return The text to post
+	 */
+	public String getTextToPost() {
+		return this.mTextToPost;
+	}
+
+	/**
+	 * Gets the URL of the thread to post to.
+	 * 
+	 * @return The URL of the thread to post to
+	 */
+	public String getThreadUrl() {
+		return this.mThreadUrl;
+	}
+
+	/**
+	 * Gets the username of the account.
+	 * 
+	 * @return The username of the account
+	 */
+	public String getUsername() {
+		return this.mUsername;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Job[line=" + this.mLine + ", user=" + this.mUsername + ", thread=" + this.mThreadUrl + "]";
+	}
+}
@@ -0,0 +1,189 @@
+package de.zabuza.wslotter.model.jobs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EEngine;
+
+/**
+ * Utility class that reads jobs from a job file. The file contains one job per
+ * line as JSON object, for example:
+ * 
+ * <pre>
+ * {"thread": "http://...", "text": "Hello", "username": "Foo", "password": "bar", "engine": "HYBRID"}
+ * </pre>
+ * 
+ * The keys <tt>browser</tt> and <tt>engine</tt> are optional, empty lines and
+ * lines starting with <tt>#</tt> are ignored.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class JobFileParser {
+	/**
+	 * Key of the browser to use.
+	 */
+	private static final String KEY_BROWSER = "browser";
+	/**
+	 * Key of the engine to use.
+	 */
+	private static final String KEY_ENGINE = "engine";
+	/**
+	 * Key of the password of the account.
+	 */
+	private static final String KEY_PASSWORD = "password";
+	/**
+	 * Key of the text to post.
+	 */
+	private static final String KEY_TEXT = "text";
+	/**
+	 * Key of the URL of the thread to post to.
+	 */
+	private static final String KEY_THREAD = "thread";
+	/**
+	 * Key of the username of the account.
+	 */
+	private static final String KEY_USERNAME = "username";
+	/**
+	 * Prefix of lines which are comments.
+	 */
+	private static final String PREFIX_COMMENT = "#";
+
+	/**
+	 * Reads the jobs of the given job file.
+	 * 
+	 * @param file
+	 *            The job file to read
+	 * @param defaultBrowser
+	 *            The browser of jobs which do not specify one
+	 * @param defaultEngine
+	 *            The engine of jobs which do not specify one
+	 * @return The jobs of the file in the order of their lines
+	 * @throws IOException
+	 *             If an I/O-Exception occurred while reading the file
+	 * @throws IllegalArgumentException
+	 *             If a line does not describe a valid job, the message names
+	 *             the line
+	 */
+	public static List<Job> parse(final File file, final EBrowser defaultBrowser, final EEngine defaultEngine)
+			throws IOException, IllegalArgumentException {
+		final List<Job> jobs = new ArrayList<>();
+		final JsonParser parser = new JsonParser();
+		try (final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			int lineNumber = 0;
+			while (true) {
+				final String line = reader.readLine();
+				if (line == null) {
+					break;
+				}
+				lineNumber++;
+
+				final String trimmedLine = line.trim();
+				if (trimmedLine.isEmpty() || trimmedLine.startsWith(PREFIX_COMMENT)) {
+					continue;
+				}
+				try {
+					final JsonElement element = parser.parse(trimmedLine);
+					if (!element.isJsonObject()) {
+						throw new IllegalArgumentException("The line is no JSON object.");
+					}
+					jobs.add(parseJob(lineNumber, element.getAsJsonObject(), defaultBrowser, defaultEngine));
+				} catch (final JsonParseException | IllegalArgumentException e) {
+					throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+				}
+			}
+		}
+		return jobs;
+	}
+
+	/**
+	 * Gets the value of the given key as string.
+	 * 
+	 * @param object
+	 *            The object to get the value of
+	 * @param key
+	 *            The key of the value
+	 * @param isRequired
+	 *            Whether the value must be present and not empty
+	 * @return The value of the key or <tt>null</tt> if not present and not
+	 *         required
+	 * @throws IllegalArgumentException
+	 *             If a required value is not present or empty
+	 */
+	private static String getValue(final JsonObject object, final String key, final boolean isRequired)
+			throws IllegalArgumentException {
+		final JsonElement element = object.get(key);
+		String value = null;
+		if (element != null && element.isJsonPrimitive()) {
+			value = element.getAsString();
+		}
+		if (isRequired && (value == null || value.trim().isEmpty())) {
+			throw new IllegalArgumentException("The key '" + key + "' is missing.");
+		}
+		return value;
+	}
+
+	/**
+	 * Creates the job which is described by the given object.
+	 * 
+	 * @param line
+	 *            The line of the job file which describes the job
+	 * @param object
+	 *            The object which describes the job
+	 * @param defaultBrowser
+	 *            The browser to use if the object does not specify one
+	 * @param defaultEngine
+	 *            The engine to use if the object does not specify one
+	 * @return The job which is described by the object
+	 * @throws IllegalArgumentException
+	 *             If the object does not describe a valid job
+	 */
+	private static Job parseJob(final int line, final JsonObject object, final EBrowser defaultBrowser,
+			final EEngine defaultEngine) throws IllegalArgumentException {
+		final String threadUrl = getValue(object, KEY_THREAD, true).trim();
+		final String textToPost = getValue(object, KEY_TEXT, true);
+		final String username = getValue(object, KEY_USERNAME, true).trim();
+		final String password = getValue(object, KEY_PASSWORD, true);
+
+		EBrowser browser = defaultBrowser;
+		final String browserName = getValue(object, KEY_BROWSER, false);
+		if (browserName != null) {
+			try {
+				browser = EBrowser.valueOf(browserName.trim().toUpperCase(Locale.ROOT));
+			} catch (final IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown browser: " + browserName, e);
+			}
+		}
+
+		EEngine engine = defaultEngine;
+		final String engineName = getValue(object, KEY_ENGINE, false);
+		if (engineName != null) {
+			try {
+				engine = EEngine.valueOf(engineName.trim().toUpperCase(Locale.ROOT));
+			} catch (final IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown engine: " + engineName, e);
+			}
+		}
+
+		return new Job(line, threadUrl, textToPost, username, password, browser, engine);
+	}
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private JobFileParser() {
+
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains classes which describe jobs that are read from a job
+ * file and processed unattended.
+ */
+package de.zabuza.wslotter.model.jobs;
@@ -0,0 +1,213 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.model.time.IClock;
+
+/**
+ * Controller which adapts the pause between two requests to the time left
+ * until the thread opens and to the state of the site.
+ * <ul>
+ * <li>While the opening is far away, the thread is polled rarely. The pause
+ * shrinks as the opening gets closer and the thread is polled as fast as
+ * allowed shortly before it. A pause never lasts beyond the opening. If the
+ * opening time is unknown, the thread is always polled as fast as
+ * allowed.</li>
+ * <li>If the site answers slower than it did at its best, the pause grows by
+ * the same ratio. Failed requests double the pause with every failure in a
+ * row.</li>
+ * </ul>
+ * The pause always stays between the given minimal and maximal interval.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class AdaptiveIntervalController implements IPollIntervalController {
+	/**
+	 * Value of the opening time if it is unknown.
+	 */
+	public static final long NO_OPENING_TIME = -1;
+	/**
+	 * The pause in nanoseconds which is backed off from if the thread is
+	 * polled as fast as possible.
+	 */
+	private static final long BACK_OFF_BASE = TimeUnit.MILLISECONDS.toNanos(100);
+	/**
+	 * The weight of the latest request in the average latency.
+	 */
+	private static final double LATENCY_SMOOTHING = 0.2;
+	/**
+	 * The ratio of the average to the lowest latency up to which the site is
+	 * considered not to be slowed down.
+	 */
+	private static final double LATENCY_TOLERANCE = 1.5;
+	/**
+	 * The maximal amount of failures in a row which further double the pause.
+	 */
+	private static final int MAX_FAILURE_DOUBLINGS = 5;
+	/**
+	 * The pause is this fraction of the time left until the opening, while
+	 * the opening is outside of the sprint window.
+	 */
+	private static final int OPENING_DISTANCE_DIVISOR = 20;
+	/**
+	 * The format of opening times, in local time.
+	 */
+	private static final String OPENING_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+	/**
+	 * The time before the opening in which the thread is polled as fast as
+	 * allowed, in nanoseconds.
+	 */
+	private static final long SPRINT_WINDOW = TimeUnit.SECONDS.toNanos(30);
+
+	/**
+	 * Parses the given opening time of the format
+	 * <tt>yyyy-MM-dd HH:mm:ss</tt>, in local time.
+	 * 
+	 * @param text
+	 *            The text to parse, may be empty if the opening time is
+	 *            unknown
+	 * @return The opening time in milliseconds since midnight, January 1,
+	 *         1970 UTC or {@link #NO_OPENING_TIME} if the given text is empty
+	 * @throws ParseException
+	 *             If the text is not of the expected format
+	 */
+	public static long parseOpeningTime(final String text) throws ParseException {
+		if (text == null || text.trim().isEmpty()) {
+			return NO_OPENING_TIME;
+		}
+		final DateFormat format = new SimpleDateFormat(OPENING_TIME_FORMAT);
+		format.setLenient(false);
+		try {
+			return format.parse(text.trim()).getTime();
+		} catch (final ParseException e) {
+			throw new ParseException("Expected " + OPENING_TIME_FORMAT + ": " + text, e.getErrorOffset());
+		}
+	}
+
+	/**
+	 * The average latency of the answered requests in nanoseconds or zero if
+	 * no request was answered yet.
+	 */
+	private double mAverageLatency;
+	/**
+	 * The clock which measures the time until the opening.
+	 */
+	private final IClock mClock;
+	/**
+	 * The amount of failed requests in a row.
+	 */
+	private int mFailuresInRow;
+	/**
+	 * The lowest average latency so far in nanoseconds or zero if no request
+	 * was answered yet.
+	 */
+	private double mLowestLatency;
+	/**
+	 * The maximal pause in nanoseconds.
+	 */
+	private final long mMaxInterval;
+	/**
+	 * The minimal pause in nanoseconds.
+	 */
+	private final long mMinInterval;
+	/**
+	 * The time the thread opens, in milliseconds since midnight, January 1,
+	 * 1970 UTC. Or {@link #NO_OPENING_TIME} if unknown.
+	 */
+	private final long mOpeningTime;
+
+	/**
+	 * Creates a new adaptive controller.
+	 * 
+	 * @param openingTime
+	 *            The time the thread opens, in milliseconds since midnight,
+	 *            January 1, 1970 UTC. Or {@link #NO_OPENING_TIME} if unknown.
+	 * @param minInterval
+	 *            The minimal pause in milliseconds
+	 * @param maxInterval
+	 *            The maximal pause in milliseconds
+	 * @param clock
+	 *            The clock which measures the time until the opening
+	 */
+	public AdaptiveIntervalController(final long openingTime, final long minInterval, final long maxInterval,
+			final IClock clock) {
+		this.mOpeningTime = openingTime;
+		this.mMinInterval = TimeUnit.MILLISECONDS.toNanos(Math.max(0, minInterval));
+		this.mMaxInterval = Math.max(this.mMinInterval, TimeUnit.MILLISECONDS.toNanos(maxInterval));
+		this.mClock = clock;
+		this.mAverageLatency = 0;
+		this.mLowestLatency = 0;
+		this.mFailuresInRow = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.poll.IPollIntervalController#nextInterval()
+	 */
+	@Override
+	public synchronized long nextInterval() {
+		// Poll rarely while the opening is far away
+		long untilOpening = Long.MAX_VALUE;
+		long interval = this.mMinInterval;
+		if (this.mOpeningTime != NO_OPENING_TIME) {
+			untilOpening = TimeUnit.MILLISECONDS.toNanos(this.mOpeningTime - this.mClock.currentTimeMillis());
+			if (untilOpening > SPRINT_WINDOW) {
+				interval = Math.max(interval, untilOpening / OPENING_DISTANCE_DIVISOR);
+			}
+		}
+
+		// Back off if the site is slowed down or requests fail
+		double load = 1.0;
+		if (this.mLowestLatency > 0 && this.mAverageLatency > LATENCY_TOLERANCE * this.mLowestLatency) {
+			load = this.mAverageLatency / this.mLowestLatency;
+		}
+		load *= 1 << Math.min(this.mFailuresInRow, MAX_FAILURE_DOUBLINGS);
+		if (load > 1.0) {
+			final long base = Math.max(interval, BACK_OFF_BASE);
+			interval = (long) (base * load + (load - 1.0) * this.mAverageLatency);
+		}
+
+		// Do not miss the start of the sprint window or the opening
+		if (untilOpening > SPRINT_WINDOW) {
+			interval = Math.min(interval, untilOpening - SPRINT_WINDOW);
+		} else if (untilOpening > 0) {
+			interval = Math.min(interval, untilOpening);
+		}
+		return Math.max(this.mMinInterval, Math.min(interval, this.mMaxInterval));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.poll.IPollIntervalController#requestFailed()
+	 */
+	@Override
+	public synchronized void requestFailed() {
+		this.mFailuresInRow++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestSucceeded(
+	 * long)
+	 */
+	@Override
+	public synchronized void requestSucceeded(final long latency) {
+		this.mFailuresInRow = 0;
+		if (this.mAverageLatency == 0) {
+			this.mAverageLatency = latency;
+		} else {
+			this.mAverageLatency += LATENCY_SMOOTHING * (latency - this.mAverageLatency);
+		}
+		if (this.mLowestLatency == 0 || this.mAverageLatency < this.mLowestLatency) {
+			this.mLowestLatency = this.mAverageLatency;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.model.time.ServerClock;
+
+/**
+ * Controller for routines which are armed at the time the thread opens. After
+ * the first request it pauses until shortly before the opening and then fires
+ * a dense burst of requests centred on the opening. A single request shortly
+ * before the burst keeps the connection to the site open. A pause does not
+ * exceed the maximal pause, such that the routine keeps its session alive
+ * while waiting for the burst. The opening is measured by the clock of the
+ * server and the requests are sent half a round trip early,
+ * such that they reach the server around the opening. The burst is the wider
+ * the less certain the clock of the server and the round trip time are.
+ * Should the thread not have opened by the end of the burst, the pauses are
+ * determined by a further controller.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ArmedIntervalController implements IPollIntervalController {
+	/**
+	 * The amount of average delays of the round trip time covered by the
+	 * burst.
+	 */
+	private static final int JITTER_DEVIATIONS = 2;
+	/**
+	 * The time in milliseconds before the burst at which a single request
+	 * keeps the connection to the site open.
+	 */
+	private static final long KEEP_ALIVE_LEAD = 3000;
+	/**
+	 * The minimal time in milliseconds the burst covers before and after the
+	 * opening.
+	 */
+	private static final long MIN_BURST_HALF_WIDTH = 250;
+
+	/**
+	 * The controller which determines the pauses after the burst.
+	 */
+	private final IPollIntervalController mAfterBurst;
+	/**
+	 * The time the thread opens by the clock of the server, in milliseconds
+	 * since midnight, January 1, 1970 UTC.
+	 */
+	private final long mArmTime;
+	/**
+	 * The pause between two requests of the burst in nanoseconds.
+	 */
+	private final long mBurstInterval;
+	/**
+	 * The maximal pause before the burst in nanoseconds.
+	 */
+	private final long mMaxInterval;
+	/**
+	 * The clock of the server.
+	 */
+	private final ServerClock mServerClock;
+
+	/**
+	 * Creates a new controller armed at the given time.
+	 * 
+	 * @param armTime
+	 *            The time the thread opens by the clock of the server, in
+	 *            milliseconds since midnight, January 1, 1970 UTC
+	 * @param burstInterval
+	 *            The pause between two requests of the burst in milliseconds
+	 * @param maxInterval
+	 *            The maximal pause before the burst in milliseconds, longer
+	 *            pauses are split
+	 * @param serverClock
+	 *            The clock of the server, it should have seen some answers of
+	 *            the server already
+	 * @param afterBurst
+	 *            The controller which determines the pauses after the burst,
+	 *            it also receives the outcome of all requests
+	 */
+	public ArmedIntervalController(final long armTime, final long burstInterval, final long maxInterval,
+			final ServerClock serverClock, final IPollIntervalController afterBurst) {
+		this.mArmTime = armTime;
+		this.mBurstInterval = TimeUnit.MILLISECONDS.toNanos(Math.max(0, burstInterval));
+		this.mMaxInterval = Math.max(this.mBurstInterval, TimeUnit.MILLISECONDS.toNanos(maxInterval));
+		this.mServerClock = serverClock;
+		this.mAfterBurst = afterBurst;
+	}
+
+	/**
+	 * Gets the time the burst covers before and after the opening, as given
+	 * by the current estimation of the clock of the server.
+	 * 
+	 * @return The time the burst covers before and after the opening, in
+	 *         milliseconds
+	 */
+	public long getBurstHalfWidth() {
+		return Math.max(MIN_BURST_HALF_WIDTH,
+				this.mServerClock.getUncertainty() + JITTER_DEVIATIONS * this.mServerClock.getJitter());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.poll.IPollIntervalController#nextInterval()
+	 */
+	@Override
+	public long nextInterval() {
+		// Send the requests of the burst such that they reach the server
+		// around the opening
+		final long burstCentre = this.mArmTime - this.mServerClock.getOffset()
+				- this.mServerClock.getRoundTrip() / 2;
+		final long burstHalfWidth = getBurstHalfWidth();
+		final long now = this.mServerClock.getBaseClock().currentTimeMillis();
+
+		final long burstStart = burstCentre - burstHalfWidth;
+		if (now < burstStart - KEEP_ALIVE_LEAD) {
+			return Math.min(this.mMaxInterval, TimeUnit.MILLISECONDS.toNanos(burstStart - KEEP_ALIVE_LEAD - now));
+		}
+		if (now < burstStart) {
+			return Math.min(this.mMaxInterval, TimeUnit.MILLISECONDS.toNanos(burstStart - now));
+		}
+		if (now <= burstCentre + burstHalfWidth) {
+			return this.mBurstInterval;
+		}
+		return this.mAfterBurst.nextInterval();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.poll.IPollIntervalController#requestFailed()
+	 */
+	@Override
+	public void requestFailed() {
+		this.mAfterBurst.requestFailed();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestSucceeded(
+	 * long)
+	 */
+	@Override
+	public void requestSucceeded(final long latency) {
+		this.mAfterBurst.requestSucceeded(latency);
+	}
+}
@@ -0,0 +1,26 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.io.IOException;
+
+/**
+ * Interface for checks which make one request to a thread and check whether
+ * the awaited state was reached. Checks are run concurrently by the pollers
+ * of a {@link StaggeredPoller}.
+ * 
+ * @param <T>
+ *            Class of the result of a check which reached the awaited state
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IPollCheck<T> {
+	/**
+	 * Makes one request and checks whether the awaited state was reached.
+	 * 
+	 * @return The result if the awaited state was reached or <tt>null</tt> if
+	 *         not yet
+	 * @throws IOException
+	 *             If the request failed
+	 */
+	public T check() throws IOException;
+}
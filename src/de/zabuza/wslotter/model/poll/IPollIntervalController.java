@@ -0,0 +1,33 @@
+package de.zabuza.wslotter.model.poll;
+
+/**
+ * Interface for controllers which determine the pause between two requests
+ * of a poll loop. The loop reports the outcome of every request and asks for
+ * the pause before it sends the next one, such that at most one request is in
+ * flight at a time.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IPollIntervalController {
+	/**
+	 * Gets the pause before the next request.
+	 * 
+	 * @return The pause before the next request in nanoseconds, zero if the
+	 *         next request should be sent immediately
+	 */
+	public long nextInterval();
+
+	/**
+	 * Reports that a request failed.
+	 */
+	public void requestFailed();
+
+	/**
+	 * Reports that a request was answered.
+	 * 
+	 * @param latency
+	 *            The time the request took, in nanoseconds
+	 */
+	public void requestSucceeded(long latency);
+}
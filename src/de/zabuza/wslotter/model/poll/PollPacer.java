@@ -0,0 +1,173 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.time.IClock;
+
+/**
+ * Paces a poll loop by an {@link IPollIntervalController}. The loop tells the
+ * pacer when a request starts and how it ended, the pacer then pauses before
+ * the next request as long as the controller decides. Requests are thus sent
+ * one after another, never more than one at a time. The attempts and the
+ * chosen pauses are logged.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PollPacer {
+	/**
+	 * Determines after how many attempts a logging message will be printed.
+	 */
+	private static final int ATTEMPT_LOG_EVERY = 5;
+	/**
+	 * Pause in nanoseconds from which on every attempt is logged.
+	 */
+	private static final long LOG_ALL_FROM_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * Logs the given attempt if it should be logged. Every attempt is logged
+	 * while the pauses are long, else only every few attempts.
+	 * 
+	 * @param loggedAttemptNumber
+	 *            The number of the attempt which was considered for logging
+	 *            last
+	 * @param attemptNumber
+	 *            The number of the current attempt
+	 * @param interval
+	 *            The pause before the next attempt in nanoseconds or a
+	 *            negative value if the thread is not paced
+	 * @param logger
+	 *            The logger to use
+	 */
+	public static void logAttempt(final int loggedAttemptNumber, final int attemptNumber, final long interval,
+			final Logger logger) {
+		if (attemptNumber == loggedAttemptNumber) {
+			return;
+		}
+		if (attemptNumber / ATTEMPT_LOG_EVERY == loggedAttemptNumber / ATTEMPT_LOG_EVERY
+				&& interval < LOG_ALL_FROM_INTERVAL) {
+			return;
+		}
+		logger.logInfo(describeAttempt(attemptNumber, interval), Logger.SECOND_LEVEL);
+	}
+
+	/**
+	 * Describes the given attempt and the pause after it.
+	 * 
+	 * @param attemptNumber
+	 *            The number of the attempt
+	 * @param interval
+	 *            The pause before the next attempt in nanoseconds or a
+	 *            negative value if the thread is not paced
+	 * @return The description of the attempt
+	 */
+	private static String describeAttempt(final int attemptNumber, final long interval) {
+		if (interval < 0) {
+			return "Attempt #" + attemptNumber;
+		}
+		return "Attempt #" + attemptNumber + ", next in " + TimeUnit.NANOSECONDS.toMillis(interval) + " ms";
+	}
+
+	/**
+	 * The amount of requests started so far.
+	 */
+	private int mAttempts;
+	/**
+	 * The clock which measures the requests and lets the loop pause.
+	 */
+	private final IClock mClock;
+	/**
+	 * The controller which determines the pauses or <tt>null</tt> if the
+	 * requests follow each other immediately.
+	 */
+	private final IPollIntervalController mController;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The time the current request started, as given by
+	 * {@link IClock#nanoTime()}.
+	 */
+	private long mRequestStart;
+
+	/**
+	 * Creates a new pacer for a poll loop.
+	 * 
+	 * @param controller
+	 *            The controller which determines the pauses or <tt>null</tt>
+	 *            if the requests should follow each other immediately
+	 * @param clock
+	 *            The clock which measures the requests and lets the loop
+	 *            pause
+	 * @param logger
+	 *            The logger to use
+	 */
+	public PollPacer(final IPollIntervalController controller, final IClock clock, final Logger logger) {
+		this.mController = controller;
+		this.mClock = clock;
+		this.mLogger = logger;
+		this.mAttempts = 0;
+		this.mRequestStart = 0;
+	}
+
+	/**
+	 * Gets the amount of requests started so far.
+	 * 
+	 * @return The amount of requests started so far
+	 */
+	public int getAttempts() {
+		return this.mAttempts;
+	}
+
+	/**
+	 * Logs the current attempt and pauses before the next request, as long as
+	 * the controller decides.
+	 * 
+	 * @return <tt>True</tt> if the next request can be sent, <tt>false</tt>
+	 *         if the current thread was interrupted while pausing
+	 */
+	public boolean pause() {
+		if (this.mController == null) {
+			logAttempt(this.mAttempts - 1, this.mAttempts, -1, this.mLogger);
+			return true;
+		}
+
+		final long interval = this.mController.nextInterval();
+		logAttempt(this.mAttempts - 1, this.mAttempts, interval, this.mLogger);
+		try {
+			this.mClock.sleep(interval);
+			return true;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Reports that the current request failed.
+	 */
+	public void requestFailed() {
+		if (this.mController != null) {
+			this.mController.requestFailed();
+		}
+	}
+
+	/**
+	 * Reports that the next request starts now.
+	 */
+	public void requestStarted() {
+		this.mAttempts++;
+		this.mRequestStart = this.mClock.nanoTime();
+	}
+
+	/**
+	 * Reports that the current request was answered.
+	 */
+	public void requestSucceeded() {
+		if (this.mController != null) {
+			this.mController.requestSucceeded(this.mClock.nanoTime() - this.mRequestStart);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staggers the requests of several pollers of the same thread on one shared
+ * schedule, such that their phases are evenly offset. Every poller reserves
+ * the start of its next request right after its previous one, the start is
+ * delayed until the <tt>K</tt>-th part of the pause plus the average latency
+ * has passed since the previously reserved start. With <tt>K</tt> pollers a
+ * request thus starts every <tt>(interval + latency) / K</tt>, the pause is
+ * split across the pollers instead of every poller waiting for all of it.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PollStagger {
+	/**
+	 * The latency in nanoseconds which is assumed until the first request was
+	 * answered.
+	 */
+	private static final long INITIAL_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+	/**
+	 * The weight of the latest request in the average latency.
+	 */
+	private static final double LATENCY_SMOOTHING = 0.2;
+
+	/**
+	 * The average latency of the answered requests in nanoseconds.
+	 */
+	private double mAverageLatency;
+	/**
+	 * Whether a start was reserved already.
+	 */
+	private boolean mHasReservedStart;
+	/**
+	 * The latest reserved start, as given by the clock of the pollers.
+	 */
+	private long mLatestStart;
+	/**
+	 * The amount of pollers.
+	 */
+	private int mPollers;
+
+	/**
+	 * Creates a new stagger for the given amount of pollers.
+	 * 
+	 * @param pollers
+	 *            The amount of pollers, at least one
+	 */
+	public PollStagger(final int pollers) {
+		this.mPollers = Math.max(1, pollers);
+		this.mAverageLatency = INITIAL_LATENCY;
+		this.mHasReservedStart = false;
+		this.mLatestStart = 0;
+	}
+
+	/**
+	 * Gets the amount of pollers.
+	 * 
+	 * @return The amount of pollers
+	 */
+	public synchronized int getPollers() {
+		return this.mPollers;
+	}
+
+	/**
+	 * Reports that a request was answered.
+	 * 
+	 * @param latency
+	 *            The time the request took, in nanoseconds
+	 */
+	public synchronized void requestAnswered(final long latency) {
+		this.mAverageLatency += LATENCY_SMOOTHING * (latency - this.mAverageLatency);
+	}
+
+	/**
+	 * Sets the amount of pollers, for example when pollers are added or
+	 * leave. Applies to the starts reserved afterwards.
+	 * 
+	 * @param pollers
+	 *            The amount of pollers, at least one
+	 */
+	public synchronized void setPollers(final int pollers) {
+		this.mPollers = Math.max(1, pollers);
+	}
+
+	/**
+	 * Reserves the start of the next request of a poller on the shared
+	 * schedule.
+	 * 
+	 * @param earliestStart
+	 *            The earliest time the poller can start its request, as given
+	 *            by the monotonic time of the clock of the pollers
+	 * @param interval
+	 *            The pause between two requests of a single poller in
+	 *            nanoseconds, it is split across all pollers
+	 * @return The time the poller should start its request, as given by the
+	 *         monotonic time of the clock of the pollers
+	 */
+	public synchronized long reserveStart(final long earliestStart, final long interval) {
+		long start = earliestStart;
+		if (this.mHasReservedStart) {
+			final double spacing = (Math.max(0, interval) + this.mAverageLatency) / this.mPollers;
+			start = Math.max(start, this.mLatestStart + (long) spacing);
+		}
+		this.mLatestStart = start;
+		this.mHasReservedStart = true;
+		return start;
+	}
+}
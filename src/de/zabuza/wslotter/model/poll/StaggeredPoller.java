@@ -0,0 +1,277 @@
+package de.zabuza.wslotter.model.poll;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.time.IClock;
+
+/**
+ * Polls a thread with several pollers at once, whose phases are evenly offset
+ * by a {@link PollStagger}. Every poller runs on its own thread and repeats a
+ * given {@link IPollCheck} until one of them reaches the awaited state. The
+ * first result is kept and all pollers stop, the caller then acts on it once.
+ * The pause between two checks is determined by an optional
+ * {@link IPollIntervalController}, which is shared by all pollers. The pause is
+ * split across the pollers by the shared schedule of the stagger.
+ * 
+ * @param <T>
+ *            Class of the result of a check which reached the awaited state
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class StaggeredPoller<T> {
+	/**
+	 * The name of the threads of the pollers.
+	 */
+	private static final String THREAD_NAME = "StaggeredPoller";
+
+	/**
+	 * The amount of checks started so far, by all pollers.
+	 */
+	private final AtomicInteger mAttempts;
+	/**
+	 * The check to repeat.
+	 */
+	private final IPollCheck<T> mCheck;
+	/**
+	 * The clock which measures the checks and lets the pollers pause.
+	 */
+	private final IClock mClock;
+	/**
+	 * The controller which determines the pauses between two checks of a
+	 * poller or <tt>null</tt> if the checks follow each other immediately.
+	 */
+	private final IPollIntervalController mController;
+	/**
+	 * The exception a check failed unexpectedly with or <tt>null</tt> if no
+	 * check did.
+	 */
+	private RuntimeException mFailure;
+	/**
+	 * The pause chosen after the latest check in nanoseconds or a negative
+	 * value if the checks are not paced.
+	 */
+	private volatile long mInterval;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The threads of the pollers, empty until started.
+	 */
+	private final List<Thread> mPollerThreads;
+	/**
+	 * Whether the pollers should run on virtual threads if supported.
+	 */
+	private final boolean mPreferVirtualThreads;
+	/**
+	 * The result of the first check which reached the awaited state or
+	 * <tt>null</tt> if none did yet.
+	 */
+	private T mResult;
+	/**
+	 * The stagger which offsets the phases of the pollers.
+	 */
+	private final PollStagger mStagger;
+	/**
+	 * Whether the pollers should stop.
+	 */
+	private volatile boolean mStopped;
+
+	/**
+	 * Creates new pollers which repeat the given check. They are started by
+	 * {@link #start()}.
+	 * 
+	 * @param check
+	 *            The check to repeat, it must support being run by several
+	 *            threads at once
+	 * @param pollers
+	 *            The amount of pollers, at least one is used
+	 * @param controller
+	 *            The controller which determines the pauses between two
+	 *            checks of a poller or <tt>null</tt> if the checks should
+	 *            follow each other immediately
+	 * @param clock
+	 *            The clock which measures the checks and lets the pollers
+	 *            pause
+	 * @param preferVirtualThreads
+	 *            Whether the pollers should run on virtual threads if
+	 *            supported
+	 * @param logger
+	 *            The logger to use
+	 */
+	public StaggeredPoller(final IPollCheck<T> check, final int pollers, final IPollIntervalController controller,
+			final IClock clock, final boolean preferVirtualThreads, final Logger logger) {
+		this.mCheck = check;
+		this.mStagger = new PollStagger(pollers);
+		this.mController = controller;
+		this.mClock = clock;
+		this.mPreferVirtualThreads = preferVirtualThreads;
+		this.mLogger = logger;
+		this.mAttempts = new AtomicInteger(0);
+		this.mInterval = -1;
+		this.mPollerThreads = new ArrayList<>();
+		this.mResult = null;
+		this.mFailure = null;
+		this.mStopped = false;
+	}
+
+	/**
+	 * Waits until a poller reached the awaited state or the given time has
+	 * passed.
+	 * 
+	 * @param timeout
+	 *            The maximal time to wait in milliseconds
+	 * @return The result of the first check which reached the awaited state or
+	 *         <tt>null</tt> if none did yet
+	 * @throws InterruptedException
+	 *             If the current thread was interrupted while waiting
+	 */
+	public synchronized T awaitResult(final long timeout) throws InterruptedException {
+		if (this.mResult == null && this.mFailure == null) {
+			wait(timeout);
+		}
+		if (this.mFailure != null) {
+			throw this.mFailure;
+		}
+		return this.mResult;
+	}
+
+	/**
+	 * Gets the amount of checks started so far, by all pollers.
+	 * 
+	 * @return The amount of checks started so far
+	 */
+	public int getAttempts() {
+		return this.mAttempts.get();
+	}
+
+	/**
+	 * Gets the pause chosen after the latest check.
+	 * 
+	 * @return The pause in nanoseconds or a negative value if the checks are
+	 *         not paced
+	 */
+	public long getInterval() {
+		return this.mInterval;
+	}
+
+	/**
+	 * Gets the amount of pollers.
+	 * 
+	 * @return The amount of pollers
+	 */
+	public int getPollers() {
+		return this.mStagger.getPollers();
+	}
+
+	/**
+	 * Starts the pollers, each on its own thread.
+	 */
+	public synchronized void start() {
+		final NamedThreadFactory threadFactory = new NamedThreadFactory(THREAD_NAME, this.mPreferVirtualThreads);
+		for (int i = 0; i < this.mStagger.getPollers(); i++) {
+			final Thread pollerThread = threadFactory.newThread(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					poll();
+				}
+			});
+			this.mPollerThreads.add(pollerThread);
+			pollerThread.start();
+		}
+	}
+
+	/**
+	 * Stops the pollers. Checks which are in progress are finished, but their
+	 * results are dropped.
+	 */
+	public synchronized void stop() {
+		this.mStopped = true;
+		for (final Thread pollerThread : this.mPollerThreads) {
+			pollerThread.interrupt();
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Keeps the given outcome if it is the first one and stops the pollers.
+	 * 
+	 * @param result
+	 *            The result of a check which reached the awaited state or
+	 *            <tt>null</tt> if the check failed
+	 * @param failure
+	 *            The exception the check failed with or <tt>null</tt> if it
+	 *            did not
+	 */
+	private synchronized void finish(final T result, final RuntimeException failure) {
+		if (this.mStopped) {
+			return;
+		}
+		this.mResult = result;
+		this.mFailure = failure;
+		this.mStopped = true;
+		notifyAll();
+	}
+
+	/**
+	 * Repeats the check as a poller until the pollers stop, starting every
+	 * check at the time reserved by the stagger. The pollers do not pause on
+	 * their own, the stagger splits the pause across them.
+	 */
+	private void poll() {
+		long interval = 0;
+		while (!this.mStopped) {
+			final long now = this.mClock.nanoTime();
+			final long start = this.mStagger.reserveStart(now, interval);
+			try {
+				this.mClock.sleep(start - now);
+			} catch (final InterruptedException e) {
+				return;
+			}
+			if (this.mStopped) {
+				return;
+			}
+
+			this.mAttempts.incrementAndGet();
+			final long requestStart = this.mClock.nanoTime();
+			try {
+				final T result = this.mCheck.check();
+				final long latency = this.mClock.nanoTime() - requestStart;
+				this.mStagger.requestAnswered(latency);
+				if (this.mController != null) {
+					this.mController.requestSucceeded(latency);
+				}
+				if (result != null) {
+					finish(result, null);
+					return;
+				}
+			} catch (final IOException e) {
+				if (this.mController != null) {
+					this.mController.requestFailed();
+				}
+				if (!this.mStopped) {
+					this.mLogger.logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+				}
+			} catch (final RuntimeException e) {
+				finish(null, e);
+				return;
+			}
+
+			if (this.mController != null) {
+				interval = this.mController.nextInterval();
+				this.mInterval = interval;
+			}
+		}
+	}
+}
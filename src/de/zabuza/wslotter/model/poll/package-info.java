@@ -0,0 +1,5 @@
+/**
+ * This package contains controllers which determine how often a thread is
+ * polled for the post-reply form.
+ */
+package de.zabuza.wslotter.model.poll;
@@ -0,0 +1,134 @@
+package de.zabuza.wslotter.model.scripts;
+
+/**
+ * Utility class that provides JavaScript sources to execute in the browser.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class Scripts {
+	// @formatter:off
+	/**
+	 * Script which probes the current site in one go. Arguments are an array
+	 * of CSS selectors and an array of cookie names. The script answers with
+	 * an object containing the <tt>title</tt> of the site, the
+	 * <tt>elements</tt> found for the selectors, accessed by the selector, and
+	 * the values of the <tt>cookies</tt> visible to scripts, accessed by their
+	 * name. Further it contains the <tt>readyState</tt> of the document and
+	 * whether the document was <tt>marked</tt> by {@link #MARK_DOCUMENT}.
+	 */
+	public static final String DOM_PROBE = ""
+			+ "var selectors = arguments[0];"
+			+ "var cookieNames = arguments[1];"
+			+ "var elements = {};"
+			+ "for (var i = 0; i < selectors.length; i++) {"
+			+ "  elements[selectors[i]] = document.querySelector(selectors[i]);"
+			+ "}"
+			+ "var cookies = {};"
+			+ "var pairs = document.cookie ? document.cookie.split('; ') : [];"
+			+ "for (var j = 0; j < pairs.length; j++) {"
+			+ "  var separator = pairs[j].indexOf('=');"
+			+ "  var name = pairs[j].substring(0, separator);"
+			+ "  if (cookieNames.indexOf(name) !== -1) {"
+			+ "    cookies[name] = pairs[j].substring(separator + 1);"
+			+ "  }"
+			+ "}"
+			+ "return {'title': document.title, 'elements': elements, 'cookies': cookies,"
+			+ "  'readyState': document.readyState, 'marked': window.wslotterMarked === true};";
+	/**
+	 * Script which marks the current document. The mark is lost once the
+	 * browser navigates to another document, which allows to distinguish the
+	 * new document from the old one while it is still loading.
+	 */
+	public static final String MARK_DOCUMENT = ""
+			+ "window.wslotterMarked = true;";
+	/**
+	 * Asynchronous script which repeatedly requests the current site in the
+	 * background and searches the answer for the post-reply form. Once found,
+	 * the form is copied into the current site, the message is filled in and
+	 * the form gets submitted by the browser.<br>
+	 * <br>
+	 * Arguments are the CSS selector of the submit button, the CSS selector of
+	 * the message box, the message to post, the maximal duration of the run
+	 * and the pause between two requests, both in milliseconds. The script
+	 * answers with an array containing the state and the amount of attempts
+	 * made. The state is {@link #WATCHER_STATE_POSTED} if the form was
+	 * submitted, {@link #WATCHER_STATE_PENDING} if the duration has passed
+	 * without finding the form and {@link #WATCHER_STATE_ERROR} if the form
+	 * was found without a message box. Failed requests and error answers of
+	 * the site are retried after the pause, but after at least a short one.
+	 */
+	public static final String POST_REPLY_WATCHER = ""
+			+ "var submitSelector = arguments[0];"
+			+ "var messageBoxSelector = arguments[1];"
+			+ "var message = arguments[2];"
+			+ "var deadline = new Date().getTime() + arguments[3];"
+			+ "var delay = arguments[4];"
+			+ "var callback = arguments[arguments.length - 1];"
+			+ "var url = window.location.href;"
+			+ "var attempts = 0;"
+			+ "function check() {"
+			+ "  if (new Date().getTime() > deadline) {"
+			+ "    callback(['pending', attempts]);"
+			+ "    return;"
+			+ "  }"
+			+ "  attempts++;"
+			+ "  var request = new XMLHttpRequest();"
+			+ "  request.open('GET', url, true);"
+			+ "  request.setRequestHeader('Cache-Control', 'no-cache');"
+			+ "  request.onload = function () {"
+			+ "    if (request.status >= 400) {"
+			+ "      setTimeout(check, Math.max(delay, 100));"
+			+ "      return;"
+			+ "    }"
+			+ "    var page = document.implementation.createHTMLDocument('');"
+			+ "    page.documentElement.innerHTML = request.responseText;"
+			+ "    var submit = page.querySelector(submitSelector);"
+			+ "    if (submit === null || submit.form === null) {"
+			+ "      setTimeout(check, delay);"
+			+ "      return;"
+			+ "    }"
+			+ "    var form = document.importNode(submit.form, true);"
+			+ "    var messageBox = form.querySelector(messageBoxSelector);"
+			+ "    if (messageBox === null) {"
+			+ "      callback(['error', attempts]);"
+			+ "      return;"
+			+ "    }"
+			+ "    form.style.display = 'none';"
+			+ "    document.body.appendChild(form);"
+			+ "    messageBox.value = message;"
+			+ "    callback(['posted', attempts]);"
+			+ "    setTimeout(function () {"
+			+ "      form.querySelector(submitSelector).click();"
+			+ "    }, 0);"
+			+ "  };"
+			+ "  request.onerror = function () {"
+			+ "    setTimeout(check, Math.max(delay, 100));"
+			+ "  };"
+			+ "  request.send();"
+			+ "}"
+			+ "check();";
+	// @formatter:on
+	/**
+	 * State answered by {@link #POST_REPLY_WATCHER} if the post-reply form was
+	 * found without a message box.
+	 */
+	public static final String WATCHER_STATE_ERROR = "error";
+	/**
+	 * State answered by {@link #POST_REPLY_WATCHER} if the duration has passed
+	 * without finding the post-reply form.
+	 */
+	public static final String WATCHER_STATE_PENDING = "pending";
+	/**
+	 * State answered by {@link #POST_REPLY_WATCHER} if the post-reply form was
+	 * found and submitted.
+	 */
+	public static final String WATCHER_STATE_POSTED = "posted";
+
+	/**
+	 * Utility class. No implementation.
+	 */
+	private Scripts() {
+
+	}
+}
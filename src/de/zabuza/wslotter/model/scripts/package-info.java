@@ -0,0 +1,4 @@
+/**
+ * This is the core package for scripts executed in the browser by the tool.
+ */
+package de.zabuza.wslotter.model.scripts;
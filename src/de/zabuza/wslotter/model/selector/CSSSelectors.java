@@ -10,24 +10,25 @@ public final class CSSSelectors {
 	/**
 	 * Selector that corresponds to the name input field of the login form.
 	 */
-	public static final String LOGIN_FORM_NAME = ".textbox[name=user_name]";
+	public static final String LOGIN_FORM_NAME = ".textbox[name=" + Names.LOGIN_FORM_NAME + "]";
 	/**
 	 * Selector that corresponds to the password input field of the login form.
 	 */
-	public static final String LOGIN_FORM_PASSWORD = ".textbox[name=user_pass]";
+	public static final String LOGIN_FORM_PASSWORD = ".textbox[name=" + Names.LOGIN_FORM_PASSWORD + "]";
 	/**
 	 * Selector that corresponds to the submit button of the login form.
 	 */
-	public static final String LOGIN_FORM_SUBMIT = ".button[name=login]";
+	public static final String LOGIN_FORM_SUBMIT = ".button[name=" + Names.LOGIN_FORM_SUBMIT + "]";
 	/**
 	 * Selector that corresponds to the message input box of the post-reply
 	 * form.
 	 */
-	public static final String POST_REPLY_FORM_MESSAGE_BOX = ".textbox[name=message]";
+	public static final String POST_REPLY_FORM_MESSAGE_BOX = ".textbox[name=" + Names.POST_REPLY_FORM_MESSAGE_BOX
+			+ "]";
 	/**
 	 * Selector that corresponds to the submit button of the post-reply form.
 	 */
-	public static final String POST_REPLY_FORM_SUBMIT = ".button[name=postreply]";
+	public static final String POST_REPLY_FORM_SUBMIT = ".button[name=" + Names.POST_REPLY_FORM_SUBMIT + "]";
 
 	/**
 	 * Utility class. No implementation.
@@ -11,6 +11,26 @@ public final class Names {
 	 * Name of the cookie for the user session on the web site.
 	 */
 	public static final String COOKIE_SESSION = "new_fusion79K26_user";
+	/**
+	 * Name of the name input field of the login form.
+	 */
+	public static final String LOGIN_FORM_NAME = "user_name";
+	/**
+	 * Name of the password input field of the login form.
+	 */
+	public static final String LOGIN_FORM_PASSWORD = "user_pass";
+	/**
+	 * Name of the submit button of the login form.
+	 */
+	public static final String LOGIN_FORM_SUBMIT = "login";
+	/**
+	 * Name of the message input box of the post-reply form.
+	 */
+	public static final String POST_REPLY_FORM_MESSAGE_BOX = "message";
+	/**
+	 * Name of the submit button of the post-reply form.
+	 */
+	public static final String POST_REPLY_FORM_SUBMIT = "postreply";
 
 	/**
 	 * Utility class. No implementation.
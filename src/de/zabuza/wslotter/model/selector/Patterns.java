@@ -7,6 +7,18 @@ package de.zabuza.wslotter.model.selector;
  *
  */
 public final class Patterns {
+	/**
+	 * Pattern that matches the password field of the login form in the raw
+	 * HTML of a site.
+	 */
+	public final static String LOGIN_FORM_PASSWORD = "(?i)<input[^>]*\\sname\\s*=\\s*['\"]?"
+			+ Names.LOGIN_FORM_PASSWORD + "['\"\\s/>]";
+	/**
+	 * Pattern that matches the submit button of the post-reply form in the raw
+	 * HTML of a thread.
+	 */
+	public final static String POST_REPLY_FORM_SUBMIT = "(?i)<input[^>]*\\sname\\s*=\\s*['\"]?"
+			+ Names.POST_REPLY_FORM_SUBMIT + "['\"\\s/>]";
 	/**
 	 * Needle for the title of the site.
 	 */
@@ -0,0 +1,217 @@
+package de.zabuza.wslotter.model.session;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.Cookie;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.time.IClock;
+import de.zabuza.wslotter.model.tasks.HttpSessionLogin;
+
+/**
+ * Keeps the session of a user alive while polling. It tells when the session
+ * should be checked next and, once an expired session is reported, logs in
+ * again in the background by a {@link HttpSessionLogin}. The poll loop picks
+ * up the cookies of the renewed session without pausing. After a failed
+ * renewal the next one does not start before the check interval has passed,
+ * the pause doubles with every failure in a row.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SessionKeeper {
+	/**
+	 * The maximal factor by which the check interval is stretched for the
+	 * pause after failed renewals.
+	 */
+	private static final int MAX_BACKOFF_FACTOR = 16;
+	/**
+	 * The minimal pause in nanoseconds after a failed renewal.
+	 */
+	private static final long MIN_RETRY_DELAY = TimeUnit.SECONDS.toNanos(1);
+	/**
+	 * The name of the thread which renews the session.
+	 */
+	private static final String RENEWAL_THREAD_NAME = "SessionRenewal";
+
+	/**
+	 * The time in nanoseconds between two checks of the session.
+	 */
+	private final long mCheckInterval;
+	/**
+	 * The clock which measures the check interval.
+	 */
+	private final IClock mClock;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The time in nanoseconds at which the session should be checked next.
+	 */
+	private long mNextCheck;
+	/**
+	 * The time in nanoseconds before which no renewal is started, as the
+	 * previous one failed.
+	 */
+	private long mNextRenewal;
+	/**
+	 * The password of the user.
+	 */
+	private final String mPassword;
+	/**
+	 * The running renewal of the session or <tt>null</tt> if there is none.
+	 */
+	private FutureTask<List<Cookie>> mRenewal;
+	/**
+	 * The pause in nanoseconds after the latest failed renewal or <tt>0</tt>
+	 * if the latest renewal succeeded.
+	 */
+	private long mRetryDelay;
+	/**
+	 * The store to save the renewed session to or <tt>null</tt> if the
+	 * session should not be stored.
+	 */
+	private final SessionStore mSessionStore;
+	/**
+	 * The factory of the threads which renew the session.
+	 */
+	private final NamedThreadFactory mThreadFactory;
+	/**
+	 * The URL of the thread which contains the login form.
+	 */
+	private final String mThreadUrl;
+	/**
+	 * The name of the user.
+	 */
+	private final String mUsername;
+
+	/**
+	 * Creates a new keeper of the session of the given user.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread which contains the login form
+	 * @param username
+	 *            The name of the user
+	 * @param password
+	 *            The password of the user
+	 * @param sessionStore
+	 *            The store to save the renewed session to or <tt>null</tt> if
+	 *            the session should not be stored
+	 * @param checkInterval
+	 *            The time in seconds between two checks of the session
+	 * @param preferVirtualThreads
+	 *            Whether the session should be renewed on a virtual thread if
+	 *            supported
+	 * @param clock
+	 *            The clock which measures the check interval
+	 * @param logger
+	 *            The logger to use
+	 */
+	public SessionKeeper(final String threadUrl, final String username, final String password,
+			final SessionStore sessionStore, final long checkInterval, final boolean preferVirtualThreads,
+			final IClock clock, final Logger logger) {
+		this.mThreadUrl = threadUrl;
+		this.mUsername = username;
+		this.mPassword = password;
+		this.mSessionStore = sessionStore;
+		this.mCheckInterval = TimeUnit.SECONDS.toNanos(checkInterval);
+		this.mClock = clock;
+		this.mLogger = logger;
+		this.mThreadFactory = new NamedThreadFactory(RENEWAL_THREAD_NAME, preferVirtualThreads);
+		this.mRenewal = null;
+		this.mRetryDelay = 0;
+		this.mNextCheck = this.mClock.nanoTime() + this.mCheckInterval;
+		this.mNextRenewal = this.mClock.nanoTime();
+	}
+
+	/**
+	 * Cancels a running renewal of the session.
+	 */
+	public void cancel() {
+		if (this.mRenewal != null) {
+			this.mRenewal.cancel(true);
+			this.mRenewal = null;
+		}
+	}
+
+	/**
+	 * Whether the session should be checked now. That is the case if the check
+	 * interval elapsed since the last check and no renewal is running. The
+	 * interval starts again if a check is due.
+	 * 
+	 * @return <tt>True</tt> if the session should be checked now,
+	 *         <tt>false</tt> if not
+	 */
+	public boolean isCheckDue() {
+		if (this.mRenewal != null || this.mClock.nanoTime() - this.mNextCheck < 0) {
+			return false;
+		}
+		this.mNextCheck = this.mClock.nanoTime() + this.mCheckInterval;
+		return true;
+	}
+
+	/**
+	 * Gets the cookies of the renewed session if the renewal finished, without
+	 * waiting for it. The renewed session is stored if a store was given. If
+	 * the renewal failed, the next one is postponed.
+	 * 
+	 * @return The cookies of the renewed session or <tt>null</tt> if no
+	 *         renewal finished successfully
+	 */
+	public List<Cookie> pollRenewedCookies() {
+		if (this.mRenewal == null || !this.mRenewal.isDone()) {
+			return null;
+		}
+
+		final FutureTask<List<Cookie>> renewal = this.mRenewal;
+		this.mRenewal = null;
+		List<Cookie> cookies = null;
+		try {
+			cookies = renewal.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (final ExecutionException e) {
+			this.mLogger.logUnknownError(e);
+		}
+
+		if (cookies == null) {
+			// Back off instead of logging in again at the next expired check
+			final long firstRetryDelay = Math.max(this.mCheckInterval, MIN_RETRY_DELAY);
+			if (this.mRetryDelay == 0) {
+				this.mRetryDelay = firstRetryDelay;
+			} else {
+				this.mRetryDelay = Math.min(2 * this.mRetryDelay, MAX_BACKOFF_FACTOR * firstRetryDelay);
+			}
+			this.mNextRenewal = this.mClock.nanoTime() + this.mRetryDelay;
+			this.mLogger.logError("Renewing the session failed, trying again in "
+					+ TimeUnit.NANOSECONDS.toSeconds(this.mRetryDelay) + " seconds.", Logger.SECOND_LEVEL);
+			return null;
+		}
+		this.mRetryDelay = 0;
+		if (this.mSessionStore != null) {
+			this.mSessionStore.save(this.mUsername, this.mPassword, cookies);
+		}
+		this.mLogger.logInfo("Session renewed.", Logger.SECOND_LEVEL);
+		return cookies;
+	}
+
+	/**
+	 * Reports that the session expired. Starts to log in again in the
+	 * background, unless a renewal is already running or the previous one
+	 * failed too recently.
+	 */
+	public void reportExpired() {
+		if (this.mRenewal != null || this.mClock.nanoTime() - this.mNextRenewal < 0) {
+			return;
+		}
+		this.mLogger.logError("Session expired, logging in again in the background...", Logger.SECOND_LEVEL);
+		this.mRenewal = new FutureTask<>(
+				new HttpSessionLogin(this.mThreadUrl, this.mUsername, this.mPassword, this.mLogger));
+		this.mThreadFactory.newThread(this.mRenewal).start();
+	}
+}
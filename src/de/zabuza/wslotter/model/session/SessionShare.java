@@ -0,0 +1,163 @@
+package de.zabuza.wslotter.model.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.Cookie;
+
+/**
+ * Shares the session cookies of accounts between the routines of a run, such
+ * that routines of the same account run in parallel on one login. The first
+ * routine of an account logs in while the others wait for it and then take
+ * over its cookies. The cookies are only held in memory, independent of
+ * whether sessions are remembered across runs by the {@link SessionStore}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SessionShare {
+	/**
+	 * The shared session of an account.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	private static final class Entry {
+		/**
+		 * The cookies of the session or <tt>null</tt> if no routine has
+		 * logged in yet.
+		 */
+		private List<Cookie> mCookies;
+		/**
+		 * The routine which currently logs in for the account or
+		 * <tt>null</tt> if no routine does.
+		 */
+		private Object mLoggingIn;
+		/**
+		 * The password the session was logged in with or <tt>null</tt> if no
+		 * routine has logged in yet.
+		 */
+		private String mPassword;
+
+		/**
+		 * Creates a new entry without a session.
+		 */
+		public Entry() {
+			this.mCookies = null;
+			this.mLoggingIn = null;
+			this.mPassword = null;
+		}
+	}
+
+	/**
+	 * The shared sessions, accessed by the key of their account.
+	 */
+	private final Map<String, Entry> mEntries;
+
+	/**
+	 * Creates a new share without sessions.
+	 */
+	public SessionShare() {
+		this.mEntries = new HashMap<>();
+	}
+
+	/**
+	 * Gets the shared session of the given account. Waits while another
+	 * routine logs in for the account. If no valid session is shared yet, the
+	 * given routine logs in for the account and must either
+	 * {@link #publish(String, String, Collection) publish} its session or
+	 * {@link #release(String, Object) release} the login afterwards.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param password
+	 *            The password of the account
+	 * @param routine
+	 *            The routine which asks for the session
+	 * @return The cookies of the shared session or <tt>null</tt> if there is
+	 *         none, the routine then logs in itself
+	 * @throws InterruptedException
+	 *             If the routine was interrupted while waiting for the login
+	 *             of another routine
+	 */
+	public synchronized List<Cookie> acquire(final String username, final String password, final Object routine)
+			throws InterruptedException {
+		final String accountKey = SessionStore.getAccountKey(username);
+		Entry entry = this.mEntries.get(accountKey);
+		if (entry == null) {
+			entry = new Entry();
+			this.mEntries.put(accountKey, entry);
+		}
+		while (entry.mLoggingIn != null && entry.mLoggingIn != routine) {
+			wait();
+		}
+
+		if (entry.mCookies != null && password.equals(entry.mPassword)) {
+			final Date now = new Date();
+			final List<Cookie> cookies = new ArrayList<>();
+			for (final Cookie cookie : entry.mCookies) {
+				if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) {
+					cookies.add(cookie);
+				}
+			}
+			if (!cookies.isEmpty()) {
+				return cookies;
+			}
+		}
+
+		// A routine with another password must not take over the login
+		if (entry.mPassword == null || password.equals(entry.mPassword)) {
+			entry.mLoggingIn = routine;
+		}
+		return null;
+	}
+
+	/**
+	 * Shares the session of the given account with its other routines. Ends
+	 * the login of the account and wakes up the routines which wait for it.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param password
+	 *            The password of the account
+	 * @param cookies
+	 *            The cookies of the session
+	 */
+	public synchronized void publish(final String username, final String password,
+			final Collection<Cookie> cookies) {
+		final String accountKey = SessionStore.getAccountKey(username);
+		Entry entry = this.mEntries.get(accountKey);
+		if (entry == null) {
+			entry = new Entry();
+			this.mEntries.put(accountKey, entry);
+		}
+		entry.mCookies = new ArrayList<>(cookies);
+		entry.mPassword = password;
+		entry.mLoggingIn = null;
+		notifyAll();
+	}
+
+	/**
+	 * Ends the login of the given routine without sharing a session, for
+	 * example since the login failed. The next waiting routine of the account
+	 * then logs in itself. Has no effect if the routine does not log in for
+	 * the account.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param routine
+	 *            The routine which logs in for the account
+	 */
+	public synchronized void release(final String username, final Object routine) {
+		final Entry entry = this.mEntries.get(SessionStore.getAccountKey(username));
+		if (entry == null || entry.mLoggingIn != routine) {
+			return;
+		}
+		entry.mLoggingIn = null;
+		notifyAll();
+	}
+}
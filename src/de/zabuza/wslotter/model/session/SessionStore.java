@@ -0,0 +1,425 @@
+package de.zabuza.wslotter.model.session;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openqa.selenium.Cookie;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+
+/**
+ * Persists the session cookies of accounts across runs such that a still valid
+ * session can be restored instead of logging in again. The cookies are stored
+ * next to the settings, encrypted with a key that is derived from the
+ * password of the account. Accounts are stored by a hash of their name only.
+ * The cookies are written as plain JSON fields, such that loading them never
+ * creates other objects than cookies.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SessionStore {
+	/**
+	 * Algorithm which encrypts the cookies.
+	 */
+	private static final String CIPHER_ALGORITHM = "AES/GCM/NoPadding";
+	/**
+	 * Algorithm which hashes the names of accounts.
+	 */
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	/**
+	 * Key of the domain of a stored cookie.
+	 */
+	private static final String FIELD_DOMAIN = "domain";
+	/**
+	 * Key of the expiry date of a stored cookie, in milliseconds since
+	 * midnight, January 1, 1970 UTC.
+	 */
+	private static final String FIELD_EXPIRY = "expiry";
+	/**
+	 * Key of whether a stored cookie is hidden from scripts.
+	 */
+	private static final String FIELD_HTTP_ONLY = "httpOnly";
+	/**
+	 * Key of the name of a stored cookie.
+	 */
+	private static final String FIELD_NAME = "name";
+	/**
+	 * Key of the path of a stored cookie.
+	 */
+	private static final String FIELD_PATH = "path";
+	/**
+	 * Key of whether a stored cookie is only sent over secure connections.
+	 */
+	private static final String FIELD_SECURE = "secure";
+	/**
+	 * Key of the value of a stored cookie.
+	 */
+	private static final String FIELD_VALUE = "value";
+	/**
+	 * Comment for the session file.
+	 */
+	private static final String FILE_COMMENT = "Encrypted sessions of WSlotter.";
+	/**
+	 * File path of the sessions, next to the settings.
+	 */
+	private static final String FILEPATH = "sessions.ini";
+	/**
+	 * Length of the initialization vector of the cipher, in bytes.
+	 */
+	private static final int IV_LENGTH = 12;
+	/**
+	 * Algorithm which derives the key from the password.
+	 */
+	private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+	/**
+	 * Number of iterations used to derive the key from the password.
+	 */
+	private static final int KEY_ITERATIONS = 20000;
+	/**
+	 * Length of the key, in bits.
+	 */
+	private static final int KEY_LENGTH = 128;
+	/**
+	 * Length of the salt for deriving the key, in bytes.
+	 */
+	private static final int SALT_LENGTH = 16;
+	/**
+	 * Algorithm of the secret key.
+	 */
+	private static final String SECRET_KEY_ALGORITHM = "AES";
+	/**
+	 * Length of the authentication tag of the cipher, in bits.
+	 */
+	private static final int TAG_LENGTH = 128;
+
+	/**
+	 * Gets the key which identifies the given account without revealing its
+	 * name. Sessions are stored under this key.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @return The key of the account
+	 */
+	public static String getAccountKey(final String username) {
+		try {
+			final byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM)
+					.digest(username.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+			final StringBuilder key = new StringBuilder();
+			for (final byte value : hash) {
+				key.append(String.format("%02x", Byte.valueOf(value)));
+			}
+			return key.toString();
+		} catch (final GeneralSecurityException e) {
+			// Every Java platform supports the digest algorithm
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Creates a cipher which uses the key derived from the given password.
+	 * 
+	 * @param mode
+	 *            The mode of the cipher, {@link Cipher#ENCRYPT_MODE} or
+	 *            {@link Cipher#DECRYPT_MODE}
+	 * @param password
+	 *            The password to derive the key from
+	 * @param salt
+	 *            The salt to derive the key with
+	 * @param iv
+	 *            The initialization vector of the cipher
+	 * @return The initialized cipher
+	 * @throws GeneralSecurityException
+	 *             If the cipher could not be created
+	 */
+	private static Cipher createCipher(final int mode, final String password, final byte[] salt, final byte[] iv)
+			throws GeneralSecurityException {
+		final PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, KEY_ITERATIONS, KEY_LENGTH);
+		final byte[] key;
+		try {
+			key = SecretKeyFactory.getInstance(KEY_ALGORITHM).generateSecret(keySpec).getEncoded();
+		} finally {
+			keySpec.clearPassword();
+		}
+
+		final Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
+		cipher.init(mode, new SecretKeySpec(key, SECRET_KEY_ALGORITHM), new GCMParameterSpec(TAG_LENGTH, iv));
+		return cipher;
+	}
+
+	/**
+	 * Reads a cookie from the given stored fields.
+	 * 
+	 * @param storedCookie
+	 *            The stored fields of the cookie
+	 * @return The cookie
+	 * @throws JsonParseException
+	 *             If the stored fields do not describe a cookie
+	 */
+	private static Cookie fromJson(final JsonObject storedCookie) throws JsonParseException {
+		final JsonElement name = storedCookie.get(FIELD_NAME);
+		final JsonElement value = storedCookie.get(FIELD_VALUE);
+		if (name == null || value == null) {
+			throw new JsonParseException("The cookie has no name or value.");
+		}
+		try {
+			return new Cookie(name.getAsString(), value.getAsString(), getOptionalString(storedCookie, FIELD_DOMAIN),
+					getOptionalString(storedCookie, FIELD_PATH), getOptionalDate(storedCookie, FIELD_EXPIRY),
+					getOptionalBoolean(storedCookie, FIELD_SECURE), getOptionalBoolean(storedCookie, FIELD_HTTP_ONLY));
+		} catch (final ClassCastException | IllegalStateException | IllegalArgumentException e) {
+			throw new JsonParseException(e);
+		}
+	}
+
+	/**
+	 * Gets the optional boolean field of the given object.
+	 * 
+	 * @param object
+	 *            The object to get the field of
+	 * @param key
+	 *            The key of the field
+	 * @return The value of the field or <tt>false</tt> if not present
+	 */
+	private static boolean getOptionalBoolean(final JsonObject object, final String key) {
+		final JsonElement element = object.get(key);
+		return element != null && !element.isJsonNull() && element.getAsBoolean();
+	}
+
+	/**
+	 * Gets the optional date field of the given object.
+	 * 
+	 * @param object
+	 *            The object to get the field of
+	 * @param key
+	 *            The key of the field
+	 * @return The value of the field or <tt>null</tt> if not present
+	 */
+	private static Date getOptionalDate(final JsonObject object, final String key) {
+		final JsonElement element = object.get(key);
+		if (element == null || element.isJsonNull()) {
+			return null;
+		}
+		return new Date(element.getAsLong());
+	}
+
+	/**
+	 * Gets the optional text field of the given object.
+	 * 
+	 * @param object
+	 *            The object to get the field of
+	 * @param key
+	 *            The key of the field
+	 * @return The value of the field or <tt>null</tt> if not present
+	 */
+	private static String getOptionalString(final JsonObject object, final String key) {
+		final JsonElement element = object.get(key);
+		if (element == null || element.isJsonNull()) {
+			return null;
+		}
+		return element.getAsString();
+	}
+
+	/**
+	 * Writes the fields of the given cookie.
+	 * 
+	 * @param cookie
+	 *            The cookie to write
+	 * @return The stored fields of the cookie
+	 */
+	private static JsonObject toJson(final Cookie cookie) {
+		final JsonObject storedCookie = new JsonObject();
+		storedCookie.addProperty(FIELD_NAME, cookie.getName());
+		storedCookie.addProperty(FIELD_VALUE, cookie.getValue());
+		if (cookie.getDomain() != null) {
+			storedCookie.addProperty(FIELD_DOMAIN, cookie.getDomain());
+		}
+		if (cookie.getPath() != null) {
+			storedCookie.addProperty(FIELD_PATH, cookie.getPath());
+		}
+		if (cookie.getExpiry() != null) {
+			storedCookie.addProperty(FIELD_EXPIRY, Long.valueOf(cookie.getExpiry().getTime()));
+		}
+		storedCookie.addProperty(FIELD_SECURE, Boolean.valueOf(cookie.isSecure()));
+		storedCookie.addProperty(FIELD_HTTP_ONLY, Boolean.valueOf(cookie.isHttpOnly()));
+		return storedCookie;
+	}
+
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * Properties object which holds the stored sessions.
+	 */
+	private final Properties mProperties;
+	/**
+	 * The source of randomness for salts and initialization vectors.
+	 */
+	private final SecureRandom mRandom;
+
+	/**
+	 * Creates a new session store and loads the stored sessions.
+	 * 
+	 * @param logger
+	 *            The logger to use
+	 */
+	public SessionStore(final Logger logger) {
+		this.mLogger = logger;
+		this.mProperties = new Properties();
+		this.mRandom = new SecureRandom();
+
+		try (final FileInputStream fis = new FileInputStream(FILEPATH)) {
+			this.mProperties.load(fis);
+		} catch (final FileNotFoundException e) {
+			// No sessions stored yet
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while loading sessions from : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+
+	/**
+	 * Loads the stored session cookies of the given account. Cookies which
+	 * expired are dropped.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param password
+	 *            The password of the account
+	 * @return The stored cookies or <tt>null</tt> if no session is stored or
+	 *         it could not be decrypted with the given password
+	 */
+	public synchronized List<Cookie> load(final String username, final String password) {
+		final String entry = this.mProperties.getProperty(getAccountKey(username));
+		if (entry == null) {
+			return null;
+		}
+
+		final JsonArray storedCookies;
+		try {
+			final byte[] data = Base64.getDecoder().decode(entry);
+			final byte[] salt = new byte[SALT_LENGTH];
+			final byte[] iv = new byte[IV_LENGTH];
+			System.arraycopy(data, 0, salt, 0, SALT_LENGTH);
+			System.arraycopy(data, SALT_LENGTH, iv, 0, IV_LENGTH);
+
+			final Cipher cipher = createCipher(Cipher.DECRYPT_MODE, password, salt, iv);
+			final byte[] plain = cipher.doFinal(data, SALT_LENGTH + IV_LENGTH, data.length - SALT_LENGTH - IV_LENGTH);
+			final JsonElement element = new JsonParser().parse(new String(plain, StandardCharsets.UTF_8));
+			if (!element.isJsonArray()) {
+				return null;
+			}
+			storedCookies = element.getAsJsonArray();
+		} catch (final GeneralSecurityException | JsonParseException | IllegalArgumentException
+				| IndexOutOfBoundsException e) {
+			// Either corrupted or stored with another password
+			return null;
+		}
+
+		final Date now = new Date();
+		final List<Cookie> cookies = new ArrayList<>();
+		for (final JsonElement storedCookie : storedCookies) {
+			if (!storedCookie.isJsonObject()) {
+				continue;
+			}
+			final Cookie cookie;
+			try {
+				cookie = fromJson(storedCookie.getAsJsonObject());
+			} catch (final JsonParseException e) {
+				continue;
+			}
+			if (cookie.getExpiry() == null || cookie.getExpiry().after(now)) {
+				cookies.add(cookie);
+			}
+		}
+		if (cookies.isEmpty()) {
+			return null;
+		}
+		return cookies;
+	}
+
+	/**
+	 * Removes the stored session of the given account, for example if it is
+	 * not valid anymore.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 */
+	public synchronized void remove(final String username) {
+		if (this.mProperties.remove(getAccountKey(username)) != null) {
+			store();
+		}
+	}
+
+	/**
+	 * Stores the given session cookies of the given account, replacing the
+	 * previously stored session.
+	 * 
+	 * @param username
+	 *            The name of the account
+	 * @param password
+	 *            The password of the account, used to encrypt the cookies
+	 * @param cookies
+	 *            The session cookies to store
+	 */
+	public synchronized void save(final String username, final String password, final Collection<Cookie> cookies) {
+		try {
+			final JsonArray storedCookies = new JsonArray();
+			for (final Cookie cookie : cookies) {
+				storedCookies.add(toJson(cookie));
+			}
+			final byte[] plain = storedCookies.toString().getBytes(StandardCharsets.UTF_8);
+
+			final byte[] salt = new byte[SALT_LENGTH];
+			final byte[] iv = new byte[IV_LENGTH];
+			this.mRandom.nextBytes(salt);
+			this.mRandom.nextBytes(iv);
+			final byte[] encrypted = createCipher(Cipher.ENCRYPT_MODE, password, salt, iv).doFinal(plain);
+
+			final byte[] data = new byte[SALT_LENGTH + IV_LENGTH + encrypted.length];
+			System.arraycopy(salt, 0, data, 0, SALT_LENGTH);
+			System.arraycopy(iv, 0, data, SALT_LENGTH, IV_LENGTH);
+			System.arraycopy(encrypted, 0, data, SALT_LENGTH + IV_LENGTH, encrypted.length);
+			this.mProperties.setProperty(getAccountKey(username), Base64.getEncoder().encodeToString(data));
+		} catch (final GeneralSecurityException e) {
+			this.mLogger.logError("Error while encrypting the session: " + e.getMessage(), Logger.FIRST_LEVEL);
+			return;
+		}
+		store();
+	}
+
+	/**
+	 * Writes the stored sessions to the session file.
+	 */
+	private void store() {
+		try (final FileOutputStream target = new FileOutputStream(FILEPATH)) {
+			this.mProperties.store(target, FILE_COMMENT);
+		} catch (final IOException e) {
+			this.mLogger.logError("IO-error while saving sessions to : " + FILEPATH, Logger.FIRST_LEVEL);
+		}
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains classes which persist the sessions of users across
+ * runs.
+ */
+package de.zabuza.wslotter.model.session;
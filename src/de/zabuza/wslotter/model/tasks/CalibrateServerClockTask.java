@@ -0,0 +1,180 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.time.ServerClock;
+
+/**
+ * A task which estimates the clock of the server by requesting a given thread
+ * a few times. Every request is timed such that it reaches the server at the
+ * estimated change of its second, the <tt>Date</tt> header of the answer then
+ * tells on which side of the change the estimation was and roughly halves its
+ * uncertainty. The task stops once the estimation is about as certain as the
+ * round trip time allows.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class CalibrateServerClockTask implements ITask {
+	/**
+	 * The maximal amount of requests.
+	 */
+	private static final int MAX_PROBES = 10;
+	/**
+	 * The minimal amount of requests.
+	 */
+	private static final int MIN_PROBES = 3;
+	/**
+	 * The minimal time in milliseconds to prepare the next request.
+	 */
+	private static final long PROBE_LEAD = 50;
+	/**
+	 * The resolution of the time told by the server, in milliseconds.
+	 */
+	private static final long SERVER_SECOND = 1000;
+	/**
+	 * The uncertainty in milliseconds, on top of half of the round trip time,
+	 * which is accepted.
+	 */
+	private static final long TARGET_UNCERTAINTY = 25;
+
+	/**
+	 * The HTTP client to use, it must tell its requests to the server clock.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The clock of the server to estimate.
+	 */
+	private final ServerClock mServerClock;
+	/**
+	 * The URL of the thread to request.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a task which estimates the clock of the server by requesting the
+	 * given thread.
+	 * 
+	 * @param httpClient
+	 *            The HTTP client to use, it must tell its requests to the
+	 *            server clock
+	 * @param threadUrl
+	 *            The URL of the thread to request
+	 * @param serverClock
+	 *            The clock of the server to estimate
+	 * @param logger
+	 *            The logger to use
+	 */
+	public CalibrateServerClockTask(final SiteHttpClient httpClient, final String threadUrl,
+			final ServerClock serverClock, final Logger logger) {
+		this.mHttpClient = httpClient;
+		this.mThreadUrl = threadUrl;
+		this.mServerClock = serverClock;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		this.mLogger.logInfo("Estimating server clock...", Logger.TOP_LEVEL);
+		int probes = 0;
+		while (!isInterrupted() && probes < MAX_PROBES && !isCertainEnough(probes)) {
+			try {
+				this.mServerClock.sleep(TimeUnit.MILLISECONDS.toNanos(getPauseToNextProbe()));
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				interrupt();
+				return;
+			}
+
+			probes++;
+			try {
+				this.mHttpClient.fetchPage(this.mThreadUrl);
+			} catch (final IOException e) {
+				this.mLogger.logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+			}
+		}
+
+		if (isInterrupted()) {
+			return;
+		}
+		if (this.mServerClock.getSampleCount() == 0) {
+			this.mLogger.logError("The server did not tell its time, using the local clock.", Logger.FIRST_LEVEL);
+			return;
+		}
+		this.mLogger.logInfo("Server clock offset is " + this.mServerClock.getOffset() + " ms (+-"
+				+ this.mServerClock.getUncertainty() + " ms), round trip " + this.mServerClock.getRoundTrip()
+				+ " ms (+" + this.mServerClock.getJitter() + " ms).", Logger.FIRST_LEVEL);
+	}
+
+	/**
+	 * Gets the pause before the next request, such that it reaches the server
+	 * at the estimated change of its second.
+	 * 
+	 * @return The pause before the next request in milliseconds
+	 */
+	private long getPauseToNextProbe() {
+		if (this.mServerClock.getSampleCount() == 0) {
+			return 0;
+		}
+		final long now = this.mServerClock.getBaseClock().currentTimeMillis();
+		final long offset = this.mServerClock.getOffset();
+		final long halfRoundTrip = this.mServerClock.getRoundTrip() / 2;
+
+		// The next change of the second the request can reach in time
+		final long earliestArrival = now + PROBE_LEAD + halfRoundTrip + offset;
+		final long nextSecond = (earliestArrival / SERVER_SECOND + 1) * SERVER_SECOND;
+		return nextSecond - offset - halfRoundTrip - now;
+	}
+
+	/**
+	 * Whether the estimation of the clock of the server is certain enough.
+	 * 
+	 * @param probes
+	 *            The amount of requests sent so far
+	 * @return <tt>True</tt> if the estimation is certain enough,
+	 *         <tt>false</tt> if further requests are needed
+	 */
+	private boolean isCertainEnough(final int probes) {
+		if (probes < MIN_PROBES || this.mServerClock.getSampleCount() == 0) {
+			return false;
+		}
+		return this.mServerClock.getUncertainty() <= TARGET_UNCERTAINTY + this.mServerClock.getRoundTrip() / 2;
+	}
+}
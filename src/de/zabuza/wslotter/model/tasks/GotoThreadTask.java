@@ -5,7 +5,11 @@ import org.openqa.selenium.WebDriver;
 
 import de.zabuza.wslotter.controller.logging.Logger;
 import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.EPageLoadStrategy;
 import de.zabuza.wslotter.model.selector.Patterns;
+import de.zabuza.wslotter.model.wait.DomProbe;
+import de.zabuza.wslotter.model.wait.ProbeSnapshot;
+import de.zabuza.wslotter.model.wait.ReadinessWait;
 import de.zabuza.wslotter.model.wait.TitleContainsWait;
 
 /**
@@ -15,6 +19,10 @@ import de.zabuza.wslotter.model.wait.TitleContainsWait;
  *
  */
 public class GotoThreadTask implements ITask {
+	/**
+	 * Default time in seconds to wait for the thread to be opened.
+	 */
+	private static final long DEFAULT_TIMEOUT = 5;
 
 	/**
 	 * The web driver to use.
@@ -23,18 +31,27 @@ public class GotoThreadTask implements ITask {
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The page load strategy the web driver uses.
+	 */
+	private final EPageLoadStrategy mPageLoadStrategy;
 	/**
 	 * The URL of the thread to post to.
 	 */
 	private final String mThreadUrl;
+	/**
+	 * Time in seconds to wait for the thread to be opened.
+	 */
+	private final long mTimeout;
 
 	/**
-	 * Creates a task which opens the given thread in web driver.
+	 * Creates a task which opens the given thread in web driver. The web
+	 * driver must use the {@link EPageLoadStrategy#NORMAL} page load strategy.
 	 * 
 	 * @param driver
 	 *            The web driver to use
@@ -44,8 +61,31 @@ public class GotoThreadTask implements ITask {
 	 *            The logger to use
 	 */
 	public GotoThreadTask(final WebDriver driver, final String threadUrl, final Logger logger) {
+		this(driver, threadUrl, EPageLoadStrategy.NORMAL, DEFAULT_TIMEOUT, logger);
+	}
+
+	/**
+	 * Creates a task which opens the given thread in web driver. If the web
+	 * driver uses a page load strategy whose navigation returns early, the task
+	 * returns as soon as the markers of the thread are in the document.
+	 * 
+	 * @param driver
+	 *            The web driver to use
+	 * @param threadUrl
+	 *            The URL of the thread to go to
+	 * @param pageLoadStrategy
+	 *            The page load strategy the web driver uses
+	 * @param timeout
+	 *            Time in seconds to wait for the thread to be opened
+	 * @param logger
+	 *            The logger to use
+	 */
+	public GotoThreadTask(final WebDriver driver, final String threadUrl, final EPageLoadStrategy pageLoadStrategy,
+			final long timeout, final Logger logger) {
 		this.mDriver = driver;
 		this.mThreadUrl = threadUrl;
+		this.mPageLoadStrategy = pageLoadStrategy;
+		this.mTimeout = timeout;
 		this.mLogger = logger;
 		this.mInterrupted = false;
 	}
@@ -78,12 +118,32 @@ public class GotoThreadTask implements ITask {
 	@Override
 	public void start() {
 		this.mLogger.logInfo("Opening thread...", Logger.TOP_LEVEL);
-		this.mDriver.get(this.mThreadUrl);
-		try {
-			new TitleContainsWait(this.mDriver, Patterns.SITE_TITLE).waitUntilCondition();
-		} catch (final TimeoutException e) {
-			this.mLogger.logError("The site is no 'Gruppe W' thread.", Logger.FIRST_LEVEL);
-			throw new AbortTaskException();
+		if (this.mPageLoadStrategy == EPageLoadStrategy.NORMAL) {
+			this.mDriver.get(this.mThreadUrl);
+			try {
+				new TitleContainsWait(this.mDriver, Patterns.SITE_TITLE, this.mTimeout).waitUntilCondition();
+			} catch (final TimeoutException e) {
+				this.mLogger.logError("The site is no 'Gruppe W' thread.", Logger.FIRST_LEVEL);
+				throw new AbortTaskException();
+			}
+		} else {
+			// Mark the current document to not confuse it with the thread
+			// while it is still loading
+			final DomProbe threadProbe = ReadinessWait.createThreadProbe(this.mDriver);
+			threadProbe.markDocument();
+			this.mDriver.get(this.mThreadUrl);
+
+			ProbeSnapshot snapshot = null;
+			try {
+				snapshot = new ReadinessWait(this.mDriver, threadProbe, this.mTimeout).waitUntilCondition();
+			} catch (final TimeoutException e) {
+				this.mLogger.logError("The thread did not load in time.", Logger.FIRST_LEVEL);
+				throw new AbortTaskException();
+			}
+			if (!snapshot.titleContains(Patterns.SITE_TITLE)) {
+				this.mLogger.logError("The site is no 'Gruppe W' thread.", Logger.FIRST_LEVEL);
+				throw new AbortTaskException();
+			}
 		}
 		this.mLogger.logInfo("Thread opened.", Logger.FIRST_LEVEL);
 	}
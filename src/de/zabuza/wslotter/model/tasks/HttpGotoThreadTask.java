@@ -0,0 +1,98 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.http.HtmlForms;
+import de.zabuza.wslotter.model.http.HttpPage;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.selector.Patterns;
+
+/**
+ * A task which requests a given thread with a HTTP client and checks that it
+ * belongs to the 'Gruppe W' site. It is the browserless version of
+ * {@link GotoThreadTask}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class HttpGotoThreadTask implements ITask {
+
+	/**
+	 * The HTTP client to use.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The URL of the thread to post to.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a task which requests the given thread with a HTTP client.
+	 * 
+	 * @param httpClient
+	 *            The HTTP client to use
+	 * @param threadUrl
+	 *            The URL of the thread to go to
+	 * @param logger
+	 *            The logger to use
+	 */
+	public HttpGotoThreadTask(final SiteHttpClient httpClient, final String threadUrl, final Logger logger) {
+		this.mHttpClient = httpClient;
+		this.mThreadUrl = threadUrl;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		this.mLogger.logInfo("Opening thread...", Logger.TOP_LEVEL);
+		final HttpPage page;
+		try {
+			page = this.mHttpClient.fetchPage(this.mThreadUrl);
+		} catch (final IOException e) {
+			this.mLogger.logError("The thread could not be requested: " + e.getMessage(), Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+		if (!HtmlForms.getTitle(page).contains(Patterns.SITE_TITLE)) {
+			this.mLogger.logError("The site is no 'Gruppe W' thread.", Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+		this.mLogger.logInfo("Thread opened.", Logger.FIRST_LEVEL);
+	}
+
+}
@@ -0,0 +1,138 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.http.HtmlForm;
+import de.zabuza.wslotter.model.http.HtmlForms;
+import de.zabuza.wslotter.model.http.HttpPage;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.selector.Names;
+
+/**
+ * Ensures the session of a HTTP client is logged in to the 'Gruppe W' site by
+ * either submitting the login form of a given thread or returning if already
+ * logged in. It is the browserless version of {@link LoginTask}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class HttpLoginTask implements ITask {
+
+	/**
+	 * The HTTP client to use.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The password to login with.
+	 */
+	private final String mPassword;
+	/**
+	 * The URL of the thread which contains the login form.
+	 */
+	private final String mThreadUrl;
+	/**
+	 * The username to login with.
+	 */
+	private final String mUsername;
+
+	/**
+	 * Creates a task which ensures the session of the HTTP client is logged in
+	 * to the 'Gruppe W' site by either logging in or returning if already
+	 * logged in.
+	 * 
+	 * @param httpClient
+	 *            The HTTP client to use
+	 * @param threadUrl
+	 *            The URL of the thread which contains the login form
+	 * @param username
+	 *            The username to login with
+	 * @param password
+	 *            The password to login with
+	 * @param logger
+	 *            The logger to use
+	 */
+	public HttpLoginTask(final SiteHttpClient httpClient, final String threadUrl, final String username,
+			final String password, final Logger logger) {
+		this.mHttpClient = httpClient;
+		this.mThreadUrl = threadUrl;
+		this.mUsername = username;
+		this.mPassword = password;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		try {
+			// Check if already logged in
+			this.mLogger.logInfo("Checking if already logged in...", Logger.TOP_LEVEL);
+			final HttpPage page = this.mHttpClient.fetchPage(this.mThreadUrl);
+			final HtmlForm loginForm = HtmlForms.findFormWithField(page, Names.LOGIN_FORM_PASSWORD);
+
+			if (loginForm != null || this.mHttpClient.getCookieValue(Names.COOKIE_SESSION) == null) {
+				this.mLogger.logInfo("Not logged in.", Logger.FIRST_LEVEL);
+				if (loginForm == null) {
+					this.mLogger.logError("The login form could not be found.", Logger.FIRST_LEVEL);
+					throw new AbortTaskException();
+				}
+				if (isInterrupted()) {
+					return;
+				}
+
+				// Login
+				this.mLogger.logInfo("Logging in...", Logger.TOP_LEVEL);
+				loginForm.setField(Names.LOGIN_FORM_NAME, this.mUsername);
+				loginForm.setField(Names.LOGIN_FORM_PASSWORD, this.mPassword);
+				this.mHttpClient.submitForm(loginForm, Names.LOGIN_FORM_SUBMIT);
+
+				// Check if login succeeded
+				if (this.mHttpClient.getCookieValue(Names.COOKIE_SESSION) == null) {
+					this.mLogger.logError("User credentials not accepted!", Logger.FIRST_LEVEL);
+					throw new AbortTaskException();
+				}
+			}
+		} catch (final IOException e) {
+			this.mLogger.logError("Request failed: " + e.getMessage(), Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+
+		// At this point the user is logged in
+		this.mLogger.logInfo("Logged in.", Logger.FIRST_LEVEL);
+	}
+
+}
@@ -0,0 +1,270 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.http.HtmlForm;
+import de.zabuza.wslotter.model.http.HtmlForms;
+import de.zabuza.wslotter.model.http.HttpPage;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.poll.IPollCheck;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+import de.zabuza.wslotter.model.poll.PollPacer;
+import de.zabuza.wslotter.model.poll.StaggeredPoller;
+import de.zabuza.wslotter.model.selector.Names;
+import de.zabuza.wslotter.model.selector.Patterns;
+
+/**
+ * Requests a thread with a HTTP client until the post-reply form appears and
+ * submits it with a given message. It is the browserless version of
+ * {@link PostReplyTask}. The thread can be requested by several staggered
+ * pollers at once, the first one which finds the form has it posted.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class HttpPostReplyTask implements ITask {
+	/**
+	 * Pattern that matches the submit button of the post-reply form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern POST_REPLY_SUBMIT_PATTERN = Pattern.compile(Patterns.POST_REPLY_FORM_SUBMIT);
+	/**
+	 * Time in milliseconds to wait for the staggered pollers at once, before
+	 * interruption is checked.
+	 */
+	private static final long POLLER_WAIT_SLICE = 500;
+
+	/**
+	 * The HTTP client to use.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The controller which determines the pauses between two requests or
+	 * <tt>null</tt> if the requests follow each other immediately.
+	 */
+	private final IPollIntervalController mIntervalController;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The amount of staggered pollers which request the thread at once.
+	 */
+	private final int mPollers;
+	/**
+	 * Whether the staggered pollers should run on virtual threads if
+	 * supported.
+	 */
+	private final boolean mPreferVirtualThreads;
+	/**
+	 * The text to post.
+	 */
+	private final String mTextToPost;
+	/**
+	 * The URL of the thread to post to.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a task which requests the given thread until the post-reply form
+	 * appears and posts a given message.
+	 * 
+	 * @param httpClient
+	 *            The HTTP client to use, it must be logged in
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param textToPost
+	 *            The text to post
+	 * @param intervalController
+	 *            The controller which determines the pauses between two
+	 *            requests or <tt>null</tt> if the requests should follow each
+	 *            other immediately, shared by all pollers
+	 * @param pollers
+	 *            The amount of staggered pollers which request the thread at
+	 *            once, at least one is used
+	 * @param preferVirtualThreads
+	 *            Whether the staggered pollers should run on virtual threads
+	 *            if supported
+	 * @param logger
+	 *            The logger to use
+	 */
+	public HttpPostReplyTask(final SiteHttpClient httpClient, final String threadUrl, final String textToPost,
+			final IPollIntervalController intervalController, final int pollers, final boolean preferVirtualThreads,
+			final Logger logger) {
+		this.mHttpClient = httpClient;
+		this.mThreadUrl = threadUrl;
+		this.mTextToPost = textToPost;
+		this.mIntervalController = intervalController;
+		this.mPollers = Math.max(1, pollers);
+		this.mPreferVirtualThreads = preferVirtualThreads;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		this.mLogger.logInfo("Checking if post-reply is possible...", Logger.TOP_LEVEL);
+		final HttpPage page;
+		if (this.mPollers > 1) {
+			page = pollWithStaggeredPollers();
+		} else {
+			page = poll();
+		}
+
+		if (isInterrupted() || page == null) {
+			return;
+		}
+		final HtmlForm postReplyForm = HtmlForms.findFormWithField(page, Names.POST_REPLY_FORM_SUBMIT);
+		if (postReplyForm == null) {
+			this.mLogger.logError("The post-reply form could not be read.", Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+
+		this.mLogger.logInfo("Post-reply is possible.", Logger.FIRST_LEVEL);
+		this.mLogger.logInfo("Posting text...", Logger.TOP_LEVEL);
+
+		postReplyForm.setField(Names.POST_REPLY_FORM_MESSAGE_BOX, this.mTextToPost);
+		try {
+			this.mHttpClient.submitForm(postReplyForm, Names.POST_REPLY_FORM_SUBMIT);
+		} catch (final IOException e) {
+			this.mLogger.logError("The text could not be posted: " + e.getMessage(), Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+
+		this.mLogger.logInfo("Text posted.", Logger.FIRST_LEVEL);
+	}
+
+	/**
+	 * Requests the thread and checks whether its content contains the
+	 * post-reply form.
+	 * 
+	 * @return The thread if it contains the post-reply form or <tt>null</tt>
+	 *         if not
+	 * @throws IOException
+	 *             If the request failed
+	 */
+	private HttpPage fetchIfPostReplyPossible() throws IOException {
+		final HttpPage page = this.mHttpClient.fetchPage(this.mThreadUrl);
+		if (POST_REPLY_SUBMIT_PATTERN.matcher(page.getContent()).find()) {
+			return page;
+		}
+		return null;
+	}
+
+	/**
+	 * Requests the thread until its content contains the post-reply form or
+	 * the task was interrupted, one request at a time and pausing in between
+	 * as the controller decides.
+	 * 
+	 * @return The thread containing the post-reply form or <tt>null</tt> if
+	 *         the task was interrupted
+	 */
+	private HttpPage poll() {
+		HttpPage page = null;
+		final PollPacer pacer = new PollPacer(this.mIntervalController, CancellationContext.getCurrentClock(),
+				this.mLogger);
+
+		// Attempt until interrupted or post-reply form found
+		while (!isInterrupted() && page == null) {
+			if (pacer.getAttempts() == 1) {
+				this.mLogger.logInfo("Not possible.", Logger.FIRST_LEVEL);
+				this.mLogger.logInfo("Attempting again...", Logger.TOP_LEVEL);
+			}
+
+			pacer.requestStarted();
+			try {
+				page = fetchIfPostReplyPossible();
+				pacer.requestSucceeded();
+			} catch (final IOException e) {
+				pacer.requestFailed();
+				this.mLogger.logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+			}
+
+			if (page == null && !isInterrupted() && !pacer.pause()) {
+				interrupt();
+			}
+		}
+
+		return page;
+	}
+
+	/**
+	 * Requests the thread with several staggered pollers at once until one of
+	 * them finds the post-reply form or the task was interrupted. The other
+	 * pollers are stopped then.
+	 * 
+	 * @return The thread containing the post-reply form or <tt>null</tt> if
+	 *         the task was interrupted
+	 */
+	private HttpPage pollWithStaggeredPollers() {
+		this.mLogger.logInfo("Polling with " + this.mPollers + " staggered pollers...", Logger.FIRST_LEVEL);
+		final StaggeredPoller<HttpPage> poller = new StaggeredPoller<>(new IPollCheck<HttpPage>() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.wslotter.model.poll.IPollCheck#check()
+			 */
+			@Override
+			public HttpPage check() throws IOException {
+				return fetchIfPostReplyPossible();
+			}
+		}, this.mPollers, this.mIntervalController, CancellationContext.getCurrentClock(), this.mPreferVirtualThreads,
+				this.mLogger);
+
+		HttpPage page = null;
+		poller.start();
+		try {
+			int loggedAttempts = 0;
+			// Wait until interrupted or post-reply form found
+			while (!isInterrupted() && page == null) {
+				try {
+					page = poller.awaitResult(POLLER_WAIT_SLICE);
+				} catch (final InterruptedException e) {
+					interrupt();
+					return null;
+				}
+
+				final int attempts = poller.getAttempts();
+				PollPacer.logAttempt(loggedAttempts, attempts, poller.getInterval(), this.mLogger);
+				loggedAttempts = attempts;
+			}
+		} finally {
+			poller.stop();
+		}
+
+		return page;
+	}
+}
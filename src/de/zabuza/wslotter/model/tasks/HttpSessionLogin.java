@@ -0,0 +1,75 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.openqa.selenium.Cookie;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+
+/**
+ * Logs in to the 'Gruppe W' site with a lightweight HTTP client and yields the
+ * cookies of the resulting session. It is meant to run in the background
+ * while a web driver starts, such that the browser can open the thread
+ * already logged in by adding the cookies.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class HttpSessionLogin implements Callable<List<Cookie>> {
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The password to login with.
+	 */
+	private final String mPassword;
+	/**
+	 * The URL of the thread which contains the login form.
+	 */
+	private final String mThreadUrl;
+	/**
+	 * The username to login with.
+	 */
+	private final String mUsername;
+
+	/**
+	 * Creates a new login which yields the cookies of the session.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread which contains the login form
+	 * @param username
+	 *            The username to login with
+	 * @param password
+	 *            The password to login with
+	 * @param logger
+	 *            The logger to use
+	 */
+	public HttpSessionLogin(final String threadUrl, final String username, final String password,
+			final Logger logger) {
+		this.mThreadUrl = threadUrl;
+		this.mUsername = username;
+		this.mPassword = password;
+		this.mLogger = logger;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.Callable#call()
+	 */
+	@Override
+	public List<Cookie> call() {
+		try (final SiteHttpClient httpClient = new SiteHttpClient(null)) {
+			new HttpLoginTask(httpClient, this.mThreadUrl, this.mUsername, this.mPassword, this.mLogger).start();
+			return httpClient.getCookies();
+		} catch (final AbortTaskException | IOException e) {
+			// The login failed, the form login of the browser takes over
+			return null;
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package de.zabuza.wslotter.model.tasks;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.Cookie;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
@@ -10,12 +9,18 @@ import de.zabuza.wslotter.controller.logging.Logger;
 import de.zabuza.wslotter.model.AbortTaskException;
 import de.zabuza.wslotter.model.selector.CSSSelectors;
 import de.zabuza.wslotter.model.selector.Names;
+import de.zabuza.wslotter.model.session.SessionStore;
 import de.zabuza.wslotter.model.wait.CookiePresenceWait;
+import de.zabuza.wslotter.model.wait.DomProbe;
 import de.zabuza.wslotter.model.wait.LoginFormWait;
+import de.zabuza.wslotter.model.wait.ProbeSnapshot;
+import de.zabuza.wslotter.model.wait.ProbeWait;
+import de.zabuza.wslotter.model.wait.ReadinessWait;
 
 /**
  * Ensures the user is logged in to the 'Gruppe W' site by either logging in or
- * returning if already logged in.
+ * returning if already logged in. If a session store is given, the session of
+ * a successful login is stored for the next runs.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
@@ -26,6 +31,11 @@ public class LoginTask implements ITask {
 	 * Time in seconds to wait for the check if the user is already logged in.
 	 */
 	private static final long ALREADY_LOGGED_IN_WAIT = 1;
+	/**
+	 * Default time in seconds to wait for the login form and for the login to
+	 * succeed.
+	 */
+	private static final long DEFAULT_TIMEOUT = 5;
 
 	/**
 	 * The web driver to use.
@@ -34,7 +44,11 @@ public class LoginTask implements ITask {
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
+	/**
+	 * Whether a stored session was restored into the web driver.
+	 */
+	private final boolean mIsSessionRestored;
 	/**
 	 * The logger to use.
 	 */
@@ -43,6 +57,15 @@ public class LoginTask implements ITask {
 	 * The password to login with.
 	 */
 	private final String mPassword;
+	/**
+	 * The store to save the session to or <tt>null</tt> if the session should
+	 * not be stored.
+	 */
+	private final SessionStore mSessionStore;
+	/**
+	 * Time in seconds to wait for the login form and for the login to succeed.
+	 */
+	private final long mTimeout;
 	/**
 	 * The username to login with.
 	 */
@@ -62,9 +85,40 @@ public class LoginTask implements ITask {
 	 *            The logger to use
 	 */
 	public LoginTask(final WebDriver driver, final String username, final String password, final Logger logger) {
+		this(driver, username, password, DEFAULT_TIMEOUT, null, false, logger);
+	}
+
+	/**
+	 * Creates a task which ensures the user is logged in to the 'Gruppe W' site
+	 * by either logging in or returning if already logged in.
+	 * 
+	 * @param driver
+	 *            The web driver to use
+	 * @param username
+	 *            The username to login with
+	 * @param password
+	 *            The password to login with
+	 * @param timeout
+	 *            Time in seconds to wait for the login form and for the login
+	 *            to succeed
+	 * @param sessionStore
+	 *            The store to save the session to or <tt>null</tt> if the
+	 *            session should not be stored
+	 * @param isSessionRestored
+	 *            Whether a stored session was restored into the web driver. It
+	 *            is then checked as soon as the thread was parsed and removed
+	 *            from the store if not valid anymore.
+	 * @param logger
+	 *            The logger to use
+	 */
+	public LoginTask(final WebDriver driver, final String username, final String password, final long timeout,
+			final SessionStore sessionStore, final boolean isSessionRestored, final Logger logger) {
 		this.mDriver = driver;
 		this.mUsername = username;
 		this.mPassword = password;
+		this.mTimeout = timeout;
+		this.mSessionStore = sessionStore;
+		this.mIsSessionRestored = isSessionRestored;
 		this.mLogger = logger;
 		this.mInterrupted = false;
 	}
@@ -96,22 +150,44 @@ public class LoginTask implements ITask {
 	 */
 	@Override
 	public void start() {
-		// Check if already logged in
-		Cookie sessionCookie = null;
-		try {
-			this.mLogger.logInfo("Checking if already logged in...", Logger.TOP_LEVEL);
-			sessionCookie = new CookiePresenceWait(this.mDriver, Names.COOKIE_SESSION, ALREADY_LOGGED_IN_WAIT)
-					.waitUntilCondition();
-		} catch (final TimeoutException e) {
-			// Just ignore the exception and continue
+		// Check if already logged in, probing for the login form at the same
+		// time such that it does not need to be searched again
+		ProbeSnapshot snapshot = null;
+		this.mLogger.logInfo("Checking if already logged in...", Logger.TOP_LEVEL);
+		final DomProbe loginProbe = LoginFormWait.createLoginFormProbe(this.mDriver).addCookie(Names.COOKIE_SESSION);
+		if (this.mIsSessionRestored) {
+			// The opened thread reflects the restored session once it was
+			// parsed, the login form is then either present or not
+			try {
+				snapshot = new ReadinessWait(this.mDriver, loginProbe, true, this.mTimeout).waitUntilCondition();
+			} catch (final TimeoutException e) {
+				// Just ignore the exception and continue
+			}
 		}
-		if (sessionCookie == null) {
+		if (snapshot == null || !snapshot.isParsed()) {
+			try {
+				snapshot = new ProbeWait(this.mDriver, loginProbe, false, ALREADY_LOGGED_IN_WAIT)
+						.waitUntilCondition();
+			} catch (final TimeoutException e) {
+				// Just ignore the exception and continue
+			}
+		}
+		final boolean isLoginFormPresent = snapshot != null && snapshot.hasElement(CSSSelectors.LOGIN_FORM_SUBMIT)
+				&& snapshot.hasElement(CSSSelectors.LOGIN_FORM_NAME)
+				&& snapshot.hasElement(CSSSelectors.LOGIN_FORM_PASSWORD);
+		if (isLoginFormPresent || snapshot == null || !snapshot.hasCookie(Names.COOKIE_SESSION)) {
 			this.mLogger.logInfo("Not logged in.", Logger.FIRST_LEVEL);
+			if (this.mIsSessionRestored && this.mSessionStore != null) {
+				this.mSessionStore.remove(this.mUsername);
+			}
 			this.mLogger.logInfo("Logging in...", Logger.TOP_LEVEL);
 			// Login
-			final WebElement loginSubmit = new LoginFormWait(this.mDriver).waitUntilCondition();
-			final WebElement loginName = this.mDriver.findElement(By.cssSelector(CSSSelectors.LOGIN_FORM_NAME));
-			final WebElement loginPassword = this.mDriver.findElement(By.cssSelector(CSSSelectors.LOGIN_FORM_PASSWORD));
+			if (!isLoginFormPresent) {
+				snapshot = new LoginFormWait(this.mDriver, this.mTimeout).waitUntilCondition();
+			}
+			final WebElement loginSubmit = snapshot.getElement(CSSSelectors.LOGIN_FORM_SUBMIT);
+			final WebElement loginName = snapshot.getElement(CSSSelectors.LOGIN_FORM_NAME);
+			final WebElement loginPassword = snapshot.getElement(CSSSelectors.LOGIN_FORM_PASSWORD);
 
 			// Type in user credentials
 			loginName.sendKeys(this.mUsername);
@@ -121,8 +197,10 @@ public class LoginTask implements ITask {
 			loginSubmit.click();
 
 			// Check if login succeeded
+			Cookie sessionCookie = null;
 			try {
-				sessionCookie = new CookiePresenceWait(this.mDriver, Names.COOKIE_SESSION).waitUntilCondition();
+				sessionCookie = new CookiePresenceWait(this.mDriver, Names.COOKIE_SESSION, this.mTimeout)
+						.waitUntilCondition();
 			} catch (final TimeoutException e) {
 				// Just ignore the exception and continue
 			}
@@ -130,6 +208,10 @@ public class LoginTask implements ITask {
 				this.mLogger.logError("User credentials not accepted!", Logger.FIRST_LEVEL);
 				throw new AbortTaskException();
 			}
+
+			if (this.mSessionStore != null) {
+				this.mSessionStore.save(this.mUsername, this.mPassword, this.mDriver.manage().getCookies());
+			}
 		}
 
 		// At this point the user is logged in
@@ -1,12 +1,39 @@
 package de.zabuza.wslotter.model.tasks;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
 import org.openqa.selenium.By;
-import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
 import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.EEngine;
+import de.zabuza.wslotter.model.EPageLoadStrategy;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.poll.IPollCheck;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+import de.zabuza.wslotter.model.poll.PollPacer;
+import de.zabuza.wslotter.model.poll.StaggeredPoller;
+import de.zabuza.wslotter.model.scripts.Scripts;
 import de.zabuza.wslotter.model.selector.CSSSelectors;
+import de.zabuza.wslotter.model.selector.Names;
+import de.zabuza.wslotter.model.selector.Patterns;
+import de.zabuza.wslotter.model.session.SessionKeeper;
+import de.zabuza.wslotter.model.wait.DomProbe;
+import de.zabuza.wslotter.model.wait.ProbeSnapshot;
+import de.zabuza.wslotter.model.wait.ReadinessWait;
+import de.zabuza.wslotter.model.wait.StalenessWait;
+import de.zabuza.wslotter.model.watch.ThreadWatcherRegistry;
+import de.zabuza.wslotter.model.watch.WatcherSubscription;
 
 /**
  * Waits for the post-reply text field at a thread and posts a given message.
@@ -20,26 +47,109 @@ public class PostReplyTask implements ITask {
 	 * appear, a logging message will be printed.
 	 */
 	private static final int ATTEMPT_LOG_EVERY = 5;
+	/**
+	 * Default time in seconds to wait for the thread to be ready after each
+	 * refresh.
+	 */
+	private static final long DEFAULT_POLL_TIMEOUT = 5;
+	/**
+	 * Pattern that matches the password field of the login form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern LOGIN_FORM_PASSWORD_PATTERN = Pattern.compile(Patterns.LOGIN_FORM_PASSWORD);
+	/**
+	 * Pattern that matches the submit button of the post-reply form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern POST_REPLY_SUBMIT_PATTERN = Pattern.compile(Patterns.POST_REPLY_FORM_SUBMIT);
+	/**
+	 * Time in milliseconds a single run of the in-page watcher script lasts
+	 * at most, before control is handed back to check for interruption.
+	 */
+	private static final long WATCHER_RUN_DURATION = 10000;
+	/**
+	 * Additional time in milliseconds the web driver waits for a run of the
+	 * in-page watcher script to finish, before it times out.
+	 */
+	private static final long WATCHER_RUN_TIMEOUT_OFFSET = 20000;
+	/**
+	 * Time in milliseconds to wait for the shared thread watcher or the
+	 * staggered pollers at once, before the session is kept alive and
+	 * interruption is checked.
+	 */
+	private static final long WATCHER_WAIT_SLICE = 500;
 	/**
 	 * The web driver to use.
 	 */
 	private final WebDriver mDriver;
+	/**
+	 * The engine which determines how the thread is polled.
+	 */
+	private final EEngine mEngine;
+	/**
+	 * The HTTP client to poll the thread with or <tt>null</tt> if the thread
+	 * is not polled by a HTTP client.
+	 */
+	private final SiteHttpClient mHttpClient;
 	/**
 	 * Whether interrupted flag of the task is set.
 	 */
-	private boolean mInterrupted;
+	private volatile boolean mInterrupted;
+	/**
+	 * The controller which determines the pauses between two polls of the
+	 * thread or <tt>null</tt> if the thread is polled without pauses.
+	 */
+	private final IPollIntervalController mIntervalController;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The page load strategy the web driver uses.
+	 */
+	private final EPageLoadStrategy mPageLoadStrategy;
+	/**
+	 * Time in seconds to wait for the thread to be ready after each refresh.
+	 */
+	private final long mPollTimeout;
+	/**
+	 * The amount of staggered pollers which request the thread at once with
+	 * the HTTP client.
+	 */
+	private final int mPollers;
+	/**
+	 * The probe for the elements of the post-reply form.
+	 */
+	private final DomProbe mPostReplyFormProbe;
+	/**
+	 * Whether the staggered pollers should run on virtual threads if
+	 * supported.
+	 */
+	private final boolean mPreferVirtualThreads;
+	/**
+	 * The keeper of the session or <tt>null</tt> if the session is not
+	 * checked while polling.
+	 */
+	private final SessionKeeper mSessionKeeper;
+	/**
+	 * The probe for the login form and the session cookie, which tell whether
+	 * the session is still valid.
+	 */
+	private final DomProbe mSessionProbe;
 	/**
 	 * The text to post.
 	 */
 	private final String mTextToPost;
+	/**
+	 * The registry of the shared thread watchers or <tt>null</tt> if the
+	 * thread is polled by this task alone.
+	 */
+	private final ThreadWatcherRegistry mWatcherRegistry;
 
 	/**
 	 * Creates a task which waits for the post-reply text field at the current
-	 * site and posts a given message.
+	 * site and posts a given message. The thread is polled by refreshing it in
+	 * the web driver.
 	 * 
 	 * @param driver
 	 *            The web driver to use
@@ -49,10 +159,99 @@ public class PostReplyTask implements ITask {
 	 *            The logger to use
 	 */
 	public PostReplyTask(final WebDriver driver, final String textToPost, final Logger logger) {
+		this(driver, EEngine.BROWSER, null, textToPost, EPageLoadStrategy.NORMAL, DEFAULT_POLL_TIMEOUT, null, 1,
+				false, null, null, logger);
+	}
+
+	/**
+	 * Creates a task which waits for the post-reply text field at the current
+	 * site and posts a given message. The thread is polled as determined by
+	 * the given engine:
+	 * <ul>
+	 * <li>{@link EEngine#BROWSER}: The site is refreshed in the web
+	 * driver.</li>
+	 * <li>{@link EEngine#HYBRID}: The thread is requested by the given HTTP
+	 * client, the web driver is only refreshed once the form was found in
+	 * order to post the message.</li>
+	 * <li>{@link EEngine#SCRIPT}: A script in the site requests the thread in
+	 * the background and posts the message itself once the form was
+	 * found.</li>
+	 * </ul>
+	 * If the web driver uses a page load strategy whose navigation returns
+	 * early, the form is searched as soon as the new document is ready, without
+	 * waiting for the site to finish loading. If a session keeper is given,
+	 * the session is checked while polling and renewed in the background once
+	 * it expired, without pausing the polling. If a registry of thread watchers
+	 * is given, the {@link EEngine#HYBRID} engine does not poll on its own but
+	 * shares the watcher of the thread with all other routines targeting it.
+	 * The {@link EEngine#BROWSER} engine always refreshes the web driver. If an
+	 * interval controller is given, the thread is not polled back-to-back but
+	 * with the pauses determined by the controller. This does not apply to the
+	 * {@link EEngine#SCRIPT} engine, whose script polls on its own. Polling by
+	 * the HTTP client of the {@link EEngine#HYBRID} engine, alone or by a
+	 * shared thread watcher, can use several staggered pollers at once, whose
+	 * phases are evenly offset. The web driver always polls alone.
+	 * 
+	 * @param driver
+	 *            The web driver to use
+	 * @param engine
+	 *            The engine which determines how the thread is polled, the
+	 *            browserless {@link EEngine#HTTP} is not supported
+	 * @param httpClient
+	 *            The HTTP client to poll the thread with, it must share the
+	 *            session of the web driver. Only used by the
+	 *            {@link EEngine#HYBRID} engine, may be <tt>null</tt> else.
+	 * @param textToPost
+	 *            The text to post
+	 * @param pageLoadStrategy
+	 *            The page load strategy the web driver uses
+	 * @param pollTimeout
+	 *            Time in seconds to wait for the thread to be ready after each
+	 *            refresh
+	 * @param intervalController
+	 *            The controller which determines the pauses between two polls
+	 *            of the thread or <tt>null</tt> if the thread should be polled
+	 *            without pauses
+	 * @param pollers
+	 *            The amount of staggered pollers which request the thread at
+	 *            once with the HTTP client, at least one is used
+	 * @param preferVirtualThreads
+	 *            Whether the staggered pollers should run on virtual threads
+	 *            if supported
+	 * @param sessionKeeper
+	 *            The keeper of the session or <tt>null</tt> if the session
+	 *            should not be checked while polling
+	 * @param watcherRegistry
+	 *            The registry of the shared thread watchers or <tt>null</tt>
+	 *            if the thread should be polled by this task alone. Only used
+	 *            by the {@link EEngine#HYBRID} engine.
+	 * @param logger
+	 *            The logger to use
+	 */
+	public PostReplyTask(final WebDriver driver, final EEngine engine, final SiteHttpClient httpClient,
+			final String textToPost, final EPageLoadStrategy pageLoadStrategy, final long pollTimeout,
+			final IPollIntervalController intervalController, final int pollers, final boolean preferVirtualThreads,
+			final SessionKeeper sessionKeeper, final ThreadWatcherRegistry watcherRegistry, final Logger logger) {
+		if (engine == EEngine.HTTP || (engine == EEngine.HYBRID && httpClient == null)) {
+			throw new IllegalArgumentException("The given engine is not supported by this task: " + engine);
+		}
 		this.mDriver = driver;
+		this.mEngine = engine;
+		this.mHttpClient = httpClient;
 		this.mTextToPost = textToPost;
+		this.mPageLoadStrategy = pageLoadStrategy;
+		this.mPollTimeout = pollTimeout;
+		this.mIntervalController = intervalController;
+		this.mPollers = Math.max(1, pollers);
+		this.mPreferVirtualThreads = preferVirtualThreads;
+		this.mSessionKeeper = sessionKeeper;
+		this.mWatcherRegistry = watcherRegistry;
 		this.mLogger = logger;
 		this.mInterrupted = false;
+		this.mPostReplyFormProbe = new DomProbe(driver).addSelector(CSSSelectors.POST_REPLY_FORM_SUBMIT)
+				.addSelector(CSSSelectors.POST_REPLY_FORM_MESSAGE_BOX);
+		this.mSessionProbe = new DomProbe(driver).addSelector(CSSSelectors.LOGIN_FORM_PASSWORD)
+				.addCookie(Names.COOKIE_SESSION);
 	}
 
 	/*
@@ -83,43 +282,21 @@ public class PostReplyTask implements ITask {
 	@Override
 	public void start() {
 		// Check if post-reply form is already present
-		WebElement postReplySubmit = null;
 		this.mLogger.logInfo("Checking if post-reply is possible...", Logger.TOP_LEVEL);
-		try {
-			postReplySubmit = this.mDriver.findElement(By.cssSelector(CSSSelectors.POST_REPLY_FORM_SUBMIT));
-		} catch (final NoSuchElementException e) {
-			// Just ignore the exception and continue with an error message
-		}
+		ProbeSnapshot postReplyForm = probePostReplyForm();
 
-		if (postReplySubmit == null) {
+		if (postReplyForm == null) {
 			this.mLogger.logInfo("Not possible.", Logger.FIRST_LEVEL);
 			this.mLogger.logInfo("Attempting again...", Logger.TOP_LEVEL);
-			int attemptNumber = 0;
-
-			// Attempt again until interrupted or post-reply form found
-			while (!isInterrupted() && postReplySubmit == null) {
-				// Update the site
-				if (attemptNumber == 0) {
-					// Hard refresh at first attempt to delete the login POST
-					// parameters from the refresh query
-					final String currentUrl = this.mDriver.getCurrentUrl();
-					this.mDriver.get(currentUrl);
-				} else {
-					this.mDriver.navigate().refresh();
-				}
-
-				attemptNumber++;
-				if (attemptNumber % ATTEMPT_LOG_EVERY == 0) {
-					this.mLogger.logInfo("Attempt #" + attemptNumber, Logger.SECOND_LEVEL);
-				}
-
-				// Search for the post-reply form
-				try {
-					postReplySubmit = this.mDriver.findElement(By.cssSelector(CSSSelectors.POST_REPLY_FORM_SUBMIT));
-				} catch (final NoSuchElementException e) {
-					// Just ignore the exception and continue with an error
-					// message
-				}
+			if (this.mEngine == EEngine.SCRIPT) {
+				pollAndPostWithScript();
+				return;
+			} else if (this.mEngine == EEngine.HYBRID && this.mWatcherRegistry != null) {
+				postReplyForm = pollWithWatcher();
+			} else if (this.mEngine == EEngine.HYBRID) {
+				postReplyForm = pollWithHttpClient();
+			} else {
+				postReplyForm = pollWithDriver();
 			}
 		}
 
@@ -131,19 +308,419 @@ public class PostReplyTask implements ITask {
 		this.mLogger.logInfo("Posting text...", Logger.TOP_LEVEL);
 
 		// At this point the post-reply form is present
-		final WebElement messageBox = this.mDriver
-				.findElement(By.cssSelector(CSSSelectors.POST_REPLY_FORM_MESSAGE_BOX));
+		if (postReplyForm == null) {
+			throw new AssertionError();
+		}
+		final WebElement messageBox = postReplyForm.getElement(CSSSelectors.POST_REPLY_FORM_MESSAGE_BOX);
+		final WebElement postReplySubmit = postReplyForm.getElement(CSSSelectors.POST_REPLY_FORM_SUBMIT);
 
 		// Type in message
 		messageBox.sendKeys(this.mTextToPost);
 
 		// Submit form
-		if (postReplySubmit == null) {
-			throw new AssertionError();
-		}
 		postReplySubmit.click();
 
 		this.mLogger.logInfo("Text posted.", Logger.FIRST_LEVEL);
 	}
 
+	/**
+	 * Keeps the session alive while polling. Swaps the cookies of a renewed
+	 * session in, or checks whether the session is still valid if a check is
+	 * due. An expired session is renewed in the background.
+	 */
+	private void keepSessionAlive() {
+		if (this.mSessionKeeper == null) {
+			return;
+		}
+
+		final List<Cookie> renewedCookies = this.mSessionKeeper.pollRenewedCookies();
+		if (renewedCookies != null) {
+			for (final Cookie cookie : renewedCookies) {
+				this.mDriver.manage().deleteCookieNamed(cookie.getName());
+				RestoreSessionTask.addCookie(this.mDriver, cookie);
+			}
+			if (this.mHttpClient != null) {
+				this.mHttpClient.importCookies(this.mDriver);
+			}
+			return;
+		}
+
+		if (!this.mSessionKeeper.isCheckDue()) {
+			return;
+		}
+		final ProbeSnapshot snapshot = this.mSessionProbe.probe();
+		if (snapshot.hasElement(CSSSelectors.LOGIN_FORM_PASSWORD) || !snapshot.hasCookie(Names.COOKIE_SESSION)) {
+			this.mSessionKeeper.reportExpired();
+		}
+	}
+
+	/**
+	 * Loads the given site, or refreshes the current site, in the web driver
+	 * and probes it for the elements of the post-reply form. If the page load
+	 * strategy returns early, the form is probed as soon as all of its
+	 * elements are in the new document or the document was parsed without
+	 * them.
+	 * 
+	 * @param url
+	 *            The URL of the site to load or <tt>null</tt> to refresh the
+	 *            current site
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if not present
+	 * @throws TimeoutException
+	 *             If the page load strategy returns early and the new document
+	 *             was neither parsed nor contained the whole form in time
+	 */
+	private ProbeSnapshot loadAndAwaitPostReplyForm(final String url) throws TimeoutException {
+		final boolean waitForReadiness = this.mPageLoadStrategy != EPageLoadStrategy.NORMAL;
+		if (waitForReadiness) {
+			this.mPostReplyFormProbe.markDocument();
+		}
+
+		if (url != null) {
+			this.mDriver.get(url);
+		} else {
+			this.mDriver.navigate().refresh();
+		}
+
+		if (!waitForReadiness) {
+			return probePostReplyForm();
+		}
+
+		// Wait for the whole form, a form which is parsed only half is not
+		// absent. It is only absent if the document was parsed without it.
+		final ProbeSnapshot snapshot = new ReadinessWait(this.mDriver, this.mPostReplyFormProbe, true,
+				this.mPollTimeout).waitUntilCondition();
+		if (!snapshot.isComplete()) {
+			return null;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Loads the given site, or refreshes the current site, in the web driver
+	 * and probes it for the elements of the post-reply form. If the page load
+	 * strategy returns early, the form is probed as soon as all of its
+	 * elements are in the new document or the document was parsed without
+	 * them. A site which did not load in time is treated as if the form is
+	 * not present.
+	 * 
+	 * @param url
+	 *            The URL of the site to load or <tt>null</tt> to refresh the
+	 *            current site
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if not present
+	 */
+	private ProbeSnapshot loadAndProbePostReplyForm(final String url) {
+		try {
+			return loadAndAwaitPostReplyForm(url);
+		} catch (final TimeoutException e) {
+			this.mLogger.logError("The thread did not load in time.", Logger.SECOND_LEVEL);
+			return null;
+		}
+	}
+
+	/**
+	 * Runs the in-page watcher script until it posted the message or the task
+	 * was interrupted. The script requests the thread in the background and
+	 * submits the post-reply form itself, such that no web driver calls are
+	 * needed per attempt.
+	 */
+	private void pollAndPostWithScript() {
+		if (!(this.mDriver instanceof JavascriptExecutor)) {
+			this.mLogger.logError("The browser does not support scripts.", Logger.FIRST_LEVEL);
+			throw new AbortTaskException();
+		}
+		final JavascriptExecutor executor = (JavascriptExecutor) this.mDriver;
+		this.mDriver.manage().timeouts().setScriptTimeout(WATCHER_RUN_DURATION + WATCHER_RUN_TIMEOUT_OFFSET,
+				TimeUnit.MILLISECONDS);
+		final WebElement currentSite = this.mDriver.findElement(By.tagName("html"));
+
+		int attemptNumber = 0;
+		// Attempt again until interrupted or the form was posted
+		while (!isInterrupted()) {
+			// The script pauses between its requests, a pause longer than the
+			// run is shortened such that the run does not time out
+			long delay = 0;
+			if (this.mIntervalController != null) {
+				delay = Math.min(TimeUnit.NANOSECONDS.toMillis(Math.max(0, this.mIntervalController.nextInterval())),
+						WATCHER_RUN_DURATION);
+			}
+			final Object result = executor.executeAsyncScript(Scripts.POST_REPLY_WATCHER,
+					CSSSelectors.POST_REPLY_FORM_SUBMIT, CSSSelectors.POST_REPLY_FORM_MESSAGE_BOX, this.mTextToPost,
+					Long.valueOf(WATCHER_RUN_DURATION), Long.valueOf(delay));
+			if (!(result instanceof List<?>) || ((List<?>) result).size() != 2) {
+				throw new IllegalStateException("Unexpected answer of the watcher script: " + result);
+			}
+			final List<?> answer = (List<?>) result;
+
+			final int previousAttemptNumber = attemptNumber;
+			attemptNumber += ((Number) answer.get(1)).intValue();
+			if (attemptNumber / ATTEMPT_LOG_EVERY != previousAttemptNumber / ATTEMPT_LOG_EVERY) {
+				this.mLogger.logInfo("Attempt #" + attemptNumber, Logger.SECOND_LEVEL);
+			}
+
+			if (Scripts.WATCHER_STATE_ERROR.equals(answer.get(0))) {
+				this.mLogger.logError("The post-reply form has no message box.", Logger.FIRST_LEVEL);
+				throw new AbortTaskException();
+			}
+			if (Scripts.WATCHER_STATE_POSTED.equals(answer.get(0))) {
+				this.mLogger.logInfo("Post-reply is possible.", Logger.FIRST_LEVEL);
+				this.mLogger.logInfo("Posting text...", Logger.TOP_LEVEL);
+
+				// Wait for the browser to submit the form and leave the site
+				try {
+					new StalenessWait(this.mDriver, currentSite).waitUntilCondition();
+				} catch (final TimeoutException e) {
+					this.mLogger.logError("The form was not submitted.", Logger.FIRST_LEVEL);
+					throw new AbortTaskException();
+				}
+				this.mLogger.logInfo("Text posted.", Logger.FIRST_LEVEL);
+				return;
+			}
+
+			keepSessionAlive();
+		}
+	}
+
+	/**
+	 * Refreshes the site in the web driver until the post-reply form appears
+	 * or the task was interrupted.
+	 * 
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if the task was interrupted
+	 */
+	private ProbeSnapshot pollWithDriver() {
+		final PollPacer pacer = new PollPacer(this.mIntervalController, CancellationContext.getCurrentClock(),
+				this.mLogger);
+		ProbeSnapshot postReplyForm = null;
+
+		// Attempt again until interrupted or post-reply form found
+		while (!isInterrupted() && postReplyForm == null) {
+			// Update the site and search for the post-reply form
+			pacer.requestStarted();
+			try {
+				if (pacer.getAttempts() == 1) {
+					// Hard refresh at first attempt to delete the login POST
+					// parameters from the refresh query
+					postReplyForm = loadAndAwaitPostReplyForm(this.mDriver.getCurrentUrl());
+				} else {
+					postReplyForm = loadAndAwaitPostReplyForm(null);
+				}
+				pacer.requestSucceeded();
+			} catch (final TimeoutException e) {
+				pacer.requestFailed();
+				this.mLogger.logError("The thread did not load in time.", Logger.SECOND_LEVEL);
+			}
+
+			if (postReplyForm == null) {
+				keepSessionAlive();
+				if (!pacer.pause()) {
+					interrupt();
+				}
+			}
+		}
+
+		return postReplyForm;
+	}
+
+	/**
+	 * Requests the thread with the HTTP client until its content contains the
+	 * post-reply form or the task was interrupted. Once found, the site is
+	 * loaded once in the web driver. Uses several staggered pollers if
+	 * configured.
+	 * 
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if the task was interrupted
+	 */
+	private ProbeSnapshot pollWithHttpClient() {
+		final String threadUrl = this.mDriver.getCurrentUrl();
+		if (this.mPollers > 1) {
+			return pollWithStaggeredPollers(threadUrl);
+		}
+		final PollPacer pacer = new PollPacer(this.mIntervalController, CancellationContext.getCurrentClock(),
+				this.mLogger);
+		ProbeSnapshot postReplyForm = null;
+
+		// Attempt again until interrupted or post-reply form found
+		while (!isInterrupted() && postReplyForm == null) {
+			keepSessionAlive();
+
+			// Request the thread without rendering it
+			boolean isFormPresent = false;
+			pacer.requestStarted();
+			try {
+				final String content = this.mHttpClient.fetchPage(threadUrl).getContent();
+				pacer.requestSucceeded();
+				isFormPresent = POST_REPLY_SUBMIT_PATTERN.matcher(content).find();
+				if (!isFormPresent && this.mSessionKeeper != null
+						&& LOGIN_FORM_PASSWORD_PATTERN.matcher(content).find()) {
+					this.mSessionKeeper.reportExpired();
+				}
+			} catch (final IOException e) {
+				pacer.requestFailed();
+				this.mLogger.logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+			}
+
+			if (isFormPresent) {
+				// The form is present, load the site in the browser. This also
+				// deletes the login POST parameters from the refresh query.
+				postReplyForm = loadAndProbePostReplyForm(threadUrl);
+			}
+			if (postReplyForm == null && !pacer.pause()) {
+				interrupt();
+			}
+		}
+
+		return postReplyForm;
+	}
+
+	/**
+	 * Requests the thread with several staggered pollers at once, using the
+	 * HTTP client, until one of them finds the post-reply form or the task was
+	 * interrupted. The other pollers are stopped then and the site is loaded
+	 * once in the web driver. The session is kept alive meanwhile, should the
+	 * form not be shown to the web driver yet, the pollers start over.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread to poll
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if the task was interrupted
+	 */
+	private ProbeSnapshot pollWithStaggeredPollers(final String threadUrl) {
+		this.mLogger.logInfo("Polling with " + this.mPollers + " staggered pollers...", Logger.FIRST_LEVEL);
+		// Expired sessions are only reported by the thread of the task
+		final AtomicBoolean isSessionExpired = new AtomicBoolean(false);
+		final IPollCheck<Boolean> check = new IPollCheck<Boolean>() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see de.zabuza.wslotter.model.poll.IPollCheck#check()
+			 */
+			@Override
+			public Boolean check() throws IOException {
+				final String content = PostReplyTask.this.mHttpClient.fetchPage(threadUrl).getContent();
+				if (POST_REPLY_SUBMIT_PATTERN.matcher(content).find()) {
+					return Boolean.TRUE;
+				}
+				if (LOGIN_FORM_PASSWORD_PATTERN.matcher(content).find()) {
+					isSessionExpired.set(true);
+				}
+				return null;
+			}
+		};
+
+		ProbeSnapshot postReplyForm = null;
+		int previousAttempts = 0;
+		int loggedAttempts = 0;
+		// Attempt again until interrupted or post-reply form found
+		while (!isInterrupted() && postReplyForm == null) {
+			final StaggeredPoller<Boolean> poller = new StaggeredPoller<>(check, this.mPollers,
+					this.mIntervalController, CancellationContext.getCurrentClock(), this.mPreferVirtualThreads,
+					this.mLogger);
+			boolean isFormPresent = false;
+			poller.start();
+			try {
+				while (!isInterrupted() && !isFormPresent) {
+					try {
+						isFormPresent = poller.awaitResult(WATCHER_WAIT_SLICE) != null;
+					} catch (final InterruptedException e) {
+						interrupt();
+						return null;
+					}
+
+					final int attempts = previousAttempts + poller.getAttempts();
+					PollPacer.logAttempt(loggedAttempts, attempts, poller.getInterval(), this.mLogger);
+					loggedAttempts = attempts;
+
+					if (isSessionExpired.getAndSet(false) && this.mSessionKeeper != null) {
+						this.mSessionKeeper.reportExpired();
+					}
+					keepSessionAlive();
+				}
+			} finally {
+				poller.stop();
+			}
+			previousAttempts += poller.getAttempts();
+
+			if (isFormPresent) {
+				// The form is present, load the site in the browser. This also
+				// deletes the login POST parameters from the refresh query.
+				postReplyForm = loadAndProbePostReplyForm(threadUrl);
+			}
+		}
+
+		return postReplyForm;
+	}
+
+	/**
+	 * Waits for the shared watcher of the thread to detect the post-reply
+	 * form, keeping the session alive meanwhile. Once detected, the site is
+	 * loaded once in the web driver. If the form is not shown to this session
+	 * yet or if the watcher stopped, the thread is polled by this task alone
+	 * afterwards.
+	 * 
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if the task was interrupted
+	 */
+	private ProbeSnapshot pollWithWatcher() {
+		final String threadUrl = this.mDriver.getCurrentUrl();
+		final WatcherSubscription subscription = this.mWatcherRegistry.subscribe(threadUrl, this.mHttpClient,
+				this.mIntervalController, this.mPollers, this.mLogger);
+		boolean isDetected = false;
+		try {
+			int loggedAttempts = 0;
+			// Wait until interrupted, post-reply form detected or the watcher
+			// stopped
+			while (!isInterrupted() && !isDetected && !subscription.isStopped()) {
+				try {
+					isDetected = subscription.awaitDetection(WATCHER_WAIT_SLICE);
+				} catch (final InterruptedException e) {
+					interrupt();
+					return null;
+				}
+
+				final int attempts = subscription.getAttempts();
+				PollPacer.logAttempt(loggedAttempts, attempts, subscription.getInterval(), this.mLogger);
+				loggedAttempts = attempts;
+
+				if (this.mSessionKeeper != null && subscription.pollSessionExpired()) {
+					this.mSessionKeeper.reportExpired();
+				}
+				keepSessionAlive();
+			}
+		} finally {
+			subscription.cancel();
+		}
+		if (isInterrupted()) {
+			return null;
+		}
+		if (!isDetected) {
+			this.mLogger.logError("The shared polling stopped, polling alone.", Logger.FIRST_LEVEL);
+			return pollWithHttpClient();
+		}
+
+		// The form is present, load the site in the browser
+		final ProbeSnapshot postReplyForm = loadAndProbePostReplyForm(threadUrl);
+		if (postReplyForm != null || isInterrupted()) {
+			return postReplyForm;
+		}
+		this.mLogger.logInfo("The form is not shown to this session yet, polling alone.", Logger.FIRST_LEVEL);
+		return pollWithHttpClient();
+	}
+
+	/**
+	 * Probes the current site of the web driver for the elements of the
+	 * post-reply form, using one call to the driver.
+	 * 
+	 * @return A snapshot containing the elements of the post-reply form or
+	 *         <tt>null</tt> if not present
+	 */
+	private ProbeSnapshot probePostReplyForm() {
+		final ProbeSnapshot snapshot = this.mPostReplyFormProbe.probe();
+		if (!snapshot.isComplete()) {
+			return null;
+		}
+		return snapshot;
+	}
+
 }
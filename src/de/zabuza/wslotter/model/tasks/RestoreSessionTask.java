@@ -0,0 +1,153 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+
+/**
+ * Restores a session, given by its cookies, into a web driver such that the
+ * thread is opened already logged in. The cookies are either stored from a
+ * previous run or obtained by a {@link HttpSessionLogin}. Whether the session
+ * is still valid is checked afterwards by the {@link LoginTask}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class RestoreSessionTask implements ITask {
+	/**
+	 * Path of a small resource of the site which is loaded to be able to add
+	 * cookies for its domain, web drivers only accept cookies of the current
+	 * site.
+	 */
+	private static final String LANDING_PATH = "/robots.txt";
+
+	/**
+	 * Adds the given cookie to the given web driver. If the web driver rejects
+	 * the domain of the cookie, it is added for the current host instead.
+	 * 
+	 * @param driver
+	 *            The web driver to add the cookie to
+	 * @param cookie
+	 *            The cookie to add
+	 */
+	static void addCookie(final WebDriver driver, final Cookie cookie) {
+		try {
+			driver.manage().addCookie(cookie);
+		} catch (final WebDriverException e) {
+			driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), cookie.getPath(),
+					cookie.getExpiry()));
+		}
+	}
+
+	/**
+	 * The cookies of the session to restore.
+	 */
+	private final List<Cookie> mCookies;
+	/**
+	 * The web driver to use.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * Whether the session was restored.
+	 */
+	private boolean mIsRestored;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The URL of the thread to post to.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a task which restores the session given by the cookies into the
+	 * given web driver.
+	 * 
+	 * @param driver
+	 *            The web driver to use
+	 * @param threadUrl
+	 *            The URL of the thread to post to
+	 * @param cookies
+	 *            The cookies of the session to restore
+	 * @param logger
+	 *            The logger to use
+	 */
+	public RestoreSessionTask(final WebDriver driver, final String threadUrl, final List<Cookie> cookies,
+			final Logger logger) {
+		this.mDriver = driver;
+		this.mThreadUrl = threadUrl;
+		this.mCookies = cookies;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+		this.mIsRestored = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/**
+	 * Whether the session was restored into the web driver.
+	 * 
+	 * @return <tt>True</tt> if a session was restored, <tt>false</tt> if not
+	 */
+	public boolean isRestored() {
+		return this.mIsRestored;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		final URL landingUrl;
+		try {
+			final URL threadUrl = new URL(this.mThreadUrl);
+			landingUrl = new URL(threadUrl.getProtocol(), threadUrl.getHost(), threadUrl.getPort(), LANDING_PATH);
+		} catch (final MalformedURLException e) {
+			return;
+		}
+
+		this.mLogger.logInfo("Restoring session...", Logger.TOP_LEVEL);
+		try {
+			this.mDriver.get(landingUrl.toString());
+			for (final Cookie cookie : this.mCookies) {
+				addCookie(this.mDriver, cookie);
+			}
+		} catch (final WebDriverException e) {
+			this.mLogger.logError("Session could not be restored.", Logger.FIRST_LEVEL);
+			return;
+		}
+		this.mIsRestored = true;
+		this.mLogger.logInfo("Session restored.", Logger.FIRST_LEVEL);
+	}
+}
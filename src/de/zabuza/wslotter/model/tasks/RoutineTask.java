@@ -1,131 +1,72 @@
 package de.zabuza.wslotter.model.tasks;
 
-import java.io.File;
-
-import org.openqa.selenium.Capabilities;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxBinary;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.ie.InternetExplorerDriver;
-import org.openqa.selenium.opera.OperaDriver;
-import org.openqa.selenium.remote.DesiredCapabilities;
-import org.openqa.selenium.safari.SafariDriver;
-
-import de.zabuza.wslotter.controller.MainFrameController;
+import org.openqa.selenium.WebDriverException;
+
+import de.zabuza.wslotter.controller.RoutineManager;
 import de.zabuza.wslotter.controller.logging.Logger;
 import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
 import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EEngine;
+import de.zabuza.wslotter.model.EOption;
+import de.zabuza.wslotter.model.EPageLoadStrategy;
+import de.zabuza.wslotter.model.ERoutineStatus;
 import de.zabuza.wslotter.model.IBrowserSettingsProvider;
+import de.zabuza.wslotter.model.IOptionProvider;
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.driver.WebDriverConfiguration;
+import de.zabuza.wslotter.model.driver.WebDriverPool;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.poll.AdaptiveIntervalController;
+import de.zabuza.wslotter.model.poll.ArmedIntervalController;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+import de.zabuza.wslotter.model.session.SessionKeeper;
+import de.zabuza.wslotter.model.session.SessionShare;
+import de.zabuza.wslotter.model.session.SessionStore;
+import de.zabuza.wslotter.model.time.ServerClock;
+import de.zabuza.wslotter.model.watch.ThreadPoller;
+import de.zabuza.wslotter.model.watch.ThreadWatcherRegistry;
 
 /**
  * The WSlotter routine which logs in to the main page, finds a thread and posts
- * a given text.
+ * a given text. Routines are run by a {@link RoutineManager}, several of them
+ * may run concurrently. The {@link CancellationContext} of a routine is shared
+ * by all of its sub tasks and waits, it stops them once the routine is
+ * interrupted or its deadline has passed.<br>
+ * <br>
+ * A routine can be armed at the time the thread opens. It then prepares as
+ * usual, estimates the clock of the server and fires a burst of requests
+ * centred on the opening by the clock of the server.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
-public final class RoutineTask extends Thread implements ITask {
-
+public final class RoutineTask implements ITask, Runnable {
 	/**
-	 * Creates the capabilities to use with a browser for the given arguments.
-	 * 
-	 * @param browser
-	 *            Browser to create capabilities for
-	 * @param driverPath
-	 *            Path to the driver or <tt>null</tt> if not set
-	 * @param binaryPath
-	 *            Path to the binary or <tt>null</tt> if not set
-	 * @return The capabilities to use or <tt>null</tt> if there are no
-	 */
-	private static Capabilities createCapabilities(final EBrowser browser, final String driverPath,
-			final String binaryPath) {
-		DesiredCapabilities capabilities = null;
-
-		if (browser == EBrowser.FIREFOX) {
-			capabilities = DesiredCapabilities.firefox();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.gecko.driver", driverPath);
-				System.setProperty("webdriver.firefox.marionette", driverPath);
-				capabilities.setCapability(FirefoxDriver.MARIONETTE, true);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				final File pathToBinary = new File(binaryPath);
-				final FirefoxBinary binary = new FirefoxBinary(pathToBinary);
-				capabilities.setCapability(FirefoxDriver.BINARY, binary);
-			}
-		} else if (browser == EBrowser.CHROME) {
-			capabilities = DesiredCapabilities.chrome();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.chrome.driver", driverPath);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				capabilities.setCapability("chrome.binary", binaryPath);
-			}
-		} else if (browser == EBrowser.SAFARI) {
-			capabilities = DesiredCapabilities.internetExplorer();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.safari.driver", driverPath);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				capabilities.setCapability("safari.binary", binaryPath);
-			}
-		} else if (browser == EBrowser.INTERNET_EXPLORER) {
-			capabilities = DesiredCapabilities.internetExplorer();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.ie.driver", driverPath);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				capabilities.setCapability("ie.binary", binaryPath);
-			}
-		} else if (browser == EBrowser.OPERA) {
-			capabilities = DesiredCapabilities.internetExplorer();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.opera.driver", driverPath);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				capabilities.setCapability("opera.binary", binaryPath);
-			}
-		} else if (browser == EBrowser.MS_EDGE) {
-			capabilities = DesiredCapabilities.internetExplorer();
-
-			// Set the driver
-			if (driverPath != null) {
-				System.setProperty("webdriver.edge.driver", driverPath);
-			}
-
-			// Set the binary
-			if (binaryPath != null) {
-				capabilities.setCapability("edge.binary", binaryPath);
-			}
-		} else {
-			throw new IllegalArgumentException("The given browser is not supported: " + browser);
-		}
-
-		return capabilities;
-	}
+	 * Value of the arm time if the routine is not armed.
+	 */
+	public static final long NOT_ARMED = AdaptiveIntervalController.NO_OPENING_TIME;
+	/**
+	 * The name of the thread which logs in by HTTP while the browser starts.
+	 */
+	private static final String HTTP_LOGIN_THREAD_NAME = "HttpLogin";
 
+	/**
+	 * The time the thread opens by the clock of the server, in milliseconds
+	 * since midnight, January 1, 1970 UTC. Or {@link #NOT_ARMED} if the routine
+	 * is not armed.
+	 */
+	private final long mArmTime;
 	/**
 	 * The browser to use.
 	 */
@@ -135,25 +76,80 @@ public final class RoutineTask extends Thread implements ITask {
 	 */
 	private final IBrowserSettingsProvider mBrowserSettingsProvider;
 	/**
-	 * The controller of the main frame.
+	 * The context telling the sub tasks and waits whether to stop.
 	 */
-	private final MainFrameController mController;
+	private final CancellationContext mContext;
 	/**
 	 * The current executing sub task.
 	 */
-	private ITask mCurrentSubTask;
+	private volatile ITask mCurrentSubTask;
 	/**
 	 * The web driver to use.
 	 */
-	private WebDriver mDriver;
+	private volatile WebDriver mDriver;
+	/**
+	 * The pool to lease the web driver from.
+	 */
+	private final WebDriverPool mDriverPool;
+	/**
+	 * The engine to use.
+	 */
+	private final EEngine mEngine;
+	/**
+	 * The HTTP client sharing the session of the web driver or <tt>null</tt>
+	 * if not used by the engine.
+	 */
+	private volatile SiteHttpClient mHttpClient;
+	/**
+	 * The number which identifies the routine.
+	 */
+	private final int mId;
 	/**
 	 * The logger to use.
 	 */
 	private final Logger mLogger;
+	/**
+	 * The manager which runs the routine.
+	 */
+	private final RoutineManager mManager;
+	/**
+	 * The provider of the options.
+	 */
+	private final IOptionProvider mOptionProvider;
+	/**
+	 * The page load strategy the web driver uses.
+	 */
+	private EPageLoadStrategy mPageLoadStrategy;
 	/**
 	 * The password of the user to post with.
 	 */
 	private final String mPassword;
+	/**
+	 * The thread which runs the routine or <tt>null</tt> if not running.
+	 */
+	private volatile Thread mRunner;
+	/**
+	 * The keeper of the session while polling or <tt>null</tt> if not
+	 * polling yet.
+	 */
+	private SessionKeeper mSessionKeeper;
+	/**
+	 * The clock of the server, estimated by the answers of the HTTP clients
+	 * of the routine.
+	 */
+	private final ServerClock mServerClock;
+	/**
+	 * The share of the sessions between the routines of the same user.
+	 */
+	private final SessionShare mSessionShare;
+	/**
+	 * The store holding the sessions of the users.
+	 */
+	private final SessionStore mSessionStore;
+	/**
+	 * The status of the routine.
+	 */
+	private volatile ERoutineStatus mStatus;
 	/**
 	 * The text to post.
 	 */
@@ -167,10 +163,16 @@ public final class RoutineTask extends Thread implements ITask {
 	 * The name of the user to post with.
 	 */
 	private final String mUsername;
+	/**
+	 * The registry of the shared thread watchers.
+	 */
+	private final ThreadWatcherRegistry mWatcherRegistry;
 
 	/**
 	 * Creates a new routine task.
 	 * 
+	 * @param id
+	 *            The number which identifies the routine
 	 * @param threadUrl
 	 *            The URL of the thread to post to
 	 * @param textToPost
@@ -181,137 +183,363 @@ public final class RoutineTask extends Thread implements ITask {
 	 *            The password of the user to post with
 	 * @param browser
 	 *            The browser to use
+	 * @param engine
+	 *            The engine to use
+	 * @param armTime
+	 *            The time the thread opens by the clock of the server, in
+	 *            milliseconds since midnight, January 1, 1970 UTC. Or
+	 *            {@link #NOT_ARMED} if the routine should poll right after
+	 *            preparing.
 	 * @param logger
 	 *            The logger to use
-	 * @param controller
-	 *            The controller of the main frame
+	 * @param manager
+	 *            The manager which runs the routine
 	 * @param browserSettingsProvider
 	 *            The browser settings provider
+	 * @param optionProvider
+	 *            The provider of the options
+	 * @param driverPool
+	 *            The pool to lease the web driver from
+	 * @param sessionStore
+	 *            The store holding the sessions of the users
+	 * @param sessionShare
+	 *            The share of the sessions between the routines of the same
+	 *            user
+	 * @param watcherRegistry
+	 *            The registry of the shared thread watchers
 	 */
-	public RoutineTask(final String threadUrl, final String textToPost, final String username, final String password,
-			final EBrowser browser, final Logger logger, final MainFrameController controller,
-			final IBrowserSettingsProvider browserSettingsProvider) {
+	public RoutineTask(final int id, final String threadUrl, final String textToPost, final String username,
+			final String password, final EBrowser browser, final EEngine engine, final long armTime,
+			final Logger logger, final RoutineManager manager, final IBrowserSettingsProvider browserSettingsProvider,
+			final IOptionProvider optionProvider, final WebDriverPool driverPool, final SessionStore sessionStore,
+			final SessionShare sessionShare, final ThreadWatcherRegistry watcherRegistry) {
+		this.mId = id;
 		this.mThreadUrl = threadUrl;
 		this.mTextToPost = textToPost;
 		this.mUsername = username;
 		this.mPassword = password;
 		this.mBrowser = browser;
+		this.mEngine = engine;
+		this.mArmTime = armTime;
 		this.mLogger = logger;
-		this.mController = controller;
+		this.mManager = manager;
 		this.mBrowserSettingsProvider = browserSettingsProvider;
+		this.mOptionProvider = optionProvider;
+		this.mDriverPool = driverPool;
+		this.mSessionStore = sessionStore;
+		this.mSessionShare = sessionShare;
+		this.mWatcherRegistry = watcherRegistry;
 
+		this.mPageLoadStrategy = EPageLoadStrategy.NORMAL;
 		this.mDriver = null;
+		this.mHttpClient = null;
+		this.mSessionKeeper = null;
 		this.mCurrentSubTask = null;
+		this.mContext = new CancellationContext(manager.getClock());
+		this.mServerClock = new ServerClock(manager.getClock());
+		this.mRunner = null;
+		this.mStatus = ERoutineStatus.QUEUED;
+	}
+
+	/**
+	 * Aborts the calls to the web driver and the HTTP client of an interrupted
+	 * routine which are still in flight. Calls to the web driver can not be
+	 * interrupted, the web driver is thus quit, which lets the calls fail. The
+	 * routine then ends and tears down as usual. Has no effect if the routine
+	 * was not interrupted.
+	 */
+	public void abort() {
+		if (!isInterrupted()) {
+			return;
+		}
+		final SiteHttpClient httpClient = this.mHttpClient;
+		if (httpClient != null) {
+			httpClient.abortRequests();
+		}
+		final WebDriver driver = this.mDriver;
+		if (driver != null) {
+			try {
+				driver.quit();
+			} catch (final WebDriverException e) {
+				// Just ignore the exception, the driver is gone anyway
+			}
+		}
+	}
+
+	/**
+	 * Gets the context telling the sub tasks and waits of the routine whether
+	 * to stop.
+	 * 
+	 * @return The context of the routine
+	 */
+	public CancellationContext getContext() {
+		return this.mContext;
+	}
+
+	/**
+	 * Gets the number which identifies the routine.
+	 * 
+	 * @return The number which identifies the routine
+	 */
+	public int getId() {
+		return this.mId;
+	}
+
+	/**
+	 * Gets the status of the routine.
+	 * 
+	 * @return The status of the routine
+	 */
+	public ERoutineStatus getStatus() {
+		return this.mStatus;
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see java.lang.Thread#interrupt()
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
 	 */
 	@Override
 	public void interrupt() {
-		if (this.mCurrentSubTask != null) {
-			this.mCurrentSubTask.interrupt();
+		this.mContext.cancel();
+		final ITask currentSubTask = this.mCurrentSubTask;
+		if (currentSubTask != null) {
+			currentSubTask.interrupt();
 		}
-		super.interrupt();
+		// Wake the routine up if it waits
+		final Thread runner = this.mRunner;
+		if (runner != null) {
+			runner.interrupt();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mContext.isCancelled();
 	}
 
 	/*
 	 * (non-Javadoc)
 	 * 
-	 * @see java.lang.Thread#run()
+	 * @see java.lang.Runnable#run()
 	 */
 	@Override
 	public void run() {
+		this.mRunner = Thread.currentThread();
+		this.mStatus = ERoutineStatus.RUNNING;
+		ERoutineStatus finalStatus = ERoutineStatus.FAILED;
+		// The deadline is shared by all sub tasks and waits of the routine
+		this.mContext.startDeadline(
+				TimeUnit.SECONDS.toMillis(this.mOptionProvider.getOptionAsNumber(EOption.ROUTINE_DEADLINE)));
+		CancellationContext.setCurrent(this.mContext);
+		this.mManager.routineStarted(this);
 		try {
-			// Create browser
-			this.mLogger.logInfo("Starting web driver...", Logger.TOP_LEVEL);
-			this.mDriver = createWebDriver(this.mBrowser);
-			this.mLogger.logInfo("Web driver started.", Logger.FIRST_LEVEL);
-
-			// Goto thread
-			registerAndStartSubTask(new GotoThreadTask(this.mDriver, this.mThreadUrl, this.mLogger));
-			if (isInterrupted()) {
-				return;
+			if (!isInterrupted()) {
+				if (this.mEngine == EEngine.HTTP) {
+					runWithHttpClient();
+				} else {
+					runWithWebDriver();
+				}
 			}
-
-			// Login to the site
-			registerAndStartSubTask(new LoginTask(this.mDriver, this.mUsername, this.mPassword, this.mLogger));
 			if (isInterrupted()) {
-				return;
-			}
-
-			// Wait for the post-reply form and post the message
-			registerAndStartSubTask(new PostReplyTask(this.mDriver, this.mTextToPost, this.mLogger));
-			if (isInterrupted()) {
-				return;
+				finalStatus = getInterruptedStatus();
+			} else {
+				finalStatus = ERoutineStatus.FINISHED;
 			}
-
 		} catch (final AbortTaskException e) {
 			// Known exception, just terminate
+			if (isInterrupted()) {
+				finalStatus = getInterruptedStatus();
+			}
 		} catch (final Exception e) {
-			this.mLogger.logUnknownError(e);
+			if (isInterrupted()) {
+				finalStatus = getInterruptedStatus();
+			} else {
+				this.mLogger.logUnknownError(e);
+			}
 		} finally {
+			this.mRunner = null;
+			// Clear a pending interrupt such that it does not disturb the
+			// teardown
+			Thread.interrupted();
 			terminate();
-			this.mController.routineFinished();
+			CancellationContext.setCurrent(null);
+			this.mStatus = finalStatus;
+			this.mManager.routineFinished(this);
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		run();
+	}
+
 	/**
-	 * Creates a {@link WebDriver} that uses the given browser.
+	 * Gets the session of a routine of the same user which runs in parallel.
+	 * Waits while such a routine logs in. If there is no session yet, this
+	 * routine logs in for the others and shares its session afterwards.
 	 * 
-	 * @param browser
-	 *            Browser to use for the driver
-	 * @return Webdriver that uses the given browser
-	 */
-	private WebDriver createWebDriver(final EBrowser browser) {
-		final String driverPath = this.mBrowserSettingsProvider.getDriverForBrowser(browser);
-		final String binaryPath = this.mBrowserSettingsProvider.getBrowserBinary();
-		final Capabilities capabilities = createCapabilities(browser, driverPath, binaryPath);
-
-		WebDriver driver;
-		if (browser == EBrowser.FIREFOX) {
-			if (capabilities != null) {
-				driver = new FirefoxDriver(capabilities);
-			} else {
-				driver = new FirefoxDriver();
-			}
-		} else if (browser == EBrowser.CHROME) {
-			if (capabilities != null) {
-				driver = new ChromeDriver(capabilities);
-			} else {
-				driver = new ChromeDriver();
-			}
-		} else if (browser == EBrowser.SAFARI) {
-			if (capabilities != null) {
-				driver = new SafariDriver(capabilities);
-			} else {
-				driver = new SafariDriver();
+	 * @return The cookies of the shared session or <tt>null</tt> if this
+	 *         routine logs in itself or was interrupted
+	 */
+	private List<Cookie> acquireSharedSession() {
+		try {
+			final List<Cookie> sessionCookies = this.mSessionShare.acquire(this.mUsername, this.mPassword, this);
+			if (sessionCookies != null) {
+				this.mLogger.logInfo("Taking over the session of another routine.", Logger.TOP_LEVEL);
 			}
-		} else if (browser == EBrowser.INTERNET_EXPLORER) {
-			if (capabilities != null) {
-				driver = new InternetExplorerDriver(capabilities);
-			} else {
-				driver = new InternetExplorerDriver();
+			return sessionCookies;
+		} catch (final InterruptedException e) {
+			interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Waits for the given login by HTTP to finish. The login is cancelled if
+	 * the routine gets interrupted meanwhile.
+	 * 
+	 * @param httpLogin
+	 *            The login to wait for
+	 * @return The cookies of the logged in session or <tt>null</tt> if the
+	 *         login failed
+	 */
+	private List<Cookie> awaitHttpLogin(final FutureTask<List<Cookie>> httpLogin) {
+		try {
+			final List<Cookie> sessionCookies = httpLogin.get();
+			if (sessionCookies == null) {
+				this.mLogger.logError("Login by HTTP failed, using the login form instead.", Logger.FIRST_LEVEL);
 			}
-		} else if (browser == EBrowser.OPERA) {
-			if (capabilities != null) {
-				driver = new OperaDriver(capabilities);
-			} else {
-				driver = new OperaDriver();
+			return sessionCookies;
+		} catch (final InterruptedException e) {
+			httpLogin.cancel(true);
+			interrupt();
+		} catch (final ExecutionException e) {
+			this.mLogger.logUnknownError(e);
+		}
+		return null;
+	}
+
+	/**
+	 * Estimates the clock of the server by requesting the thread. Uses the
+	 * HTTP client of the routine or a temporary one if the engine does not
+	 * use a HTTP client.
+	 */
+	private void calibrateServerClock() {
+		SiteHttpClient httpClient = this.mHttpClient;
+		final boolean isTemporaryClient = httpClient == null;
+		if (isTemporaryClient) {
+			httpClient = new SiteHttpClient(null);
+			httpClient.setServerClock(this.mServerClock);
+		}
+		try {
+			registerAndStartSubTask(
+					new CalibrateServerClockTask(httpClient, this.mThreadUrl, this.mServerClock, this.mLogger));
+		} finally {
+			if (isTemporaryClient) {
+				try {
+					httpClient.close();
+				} catch (final IOException e) {
+					// Just ignore the exception and continue
+				}
 			}
-		} else if (browser == EBrowser.MS_EDGE) {
-			if (capabilities != null) {
-				driver = new EdgeDriver(capabilities);
-			} else {
-				driver = new EdgeDriver();
+		}
+	}
+
+	/**
+	 * Creates a HTTP client that shares the session, i.e. the cookies and the
+	 * user agent, of the current web driver.
+	 * 
+	 * @param poller
+	 *            The poller whose pooled connections the client should use or
+	 *            <tt>null</tt> if it should manage its own connections
+	 * @return The HTTP client sharing the session of the web driver
+	 */
+	private SiteHttpClient createHttpClient(final ThreadPoller poller) {
+		String userAgent = null;
+		if (this.mDriver instanceof JavascriptExecutor) {
+			final Object result = ((JavascriptExecutor) this.mDriver).executeScript("return navigator.userAgent;");
+			if (result instanceof String) {
+				userAgent = (String) result;
 			}
+		}
+
+		final SiteHttpClient httpClient;
+		if (poller != null) {
+			httpClient = poller.createHttpClient(userAgent);
 		} else {
-			throw new IllegalArgumentException("The given browser is not supported: " + browser);
+			httpClient = new SiteHttpClient(userAgent);
 		}
+		httpClient.importCookies(this.mDriver);
+		httpClient.setServerClock(this.mServerClock);
+		return httpClient;
+	}
 
-		return driver;
+	/**
+	 * Creates the controller which determines the pauses between two requests
+	 * while polling the thread, as given by the options.
+	 * 
+	 * @return The controller which determines the pauses while polling
+	 */
+	private IPollIntervalController createIntervalController() {
+		final long minInterval = this.mOptionProvider.getOptionAsNumber(EOption.POLL_INTERVAL_MIN);
+		final long maxInterval = TimeUnit.SECONDS
+				.toMillis(this.mOptionProvider.getOptionAsNumber(EOption.POLL_INTERVAL_MAX));
+		if (this.mArmTime != NOT_ARMED) {
+			// Pace by the clock of the server, should the burst miss the
+			// opening keep polling as fast as allowed
+			final ArmedIntervalController armedController = new ArmedIntervalController(this.mArmTime,
+					minInterval, maxInterval, this.mServerClock,
+					new AdaptiveIntervalController(this.mArmTime, minInterval, maxInterval, this.mServerClock));
+			this.mLogger.logInfo("Armed, bursting +-" + armedController.getBurstHalfWidth()
+					+ " ms around the opening.", Logger.FIRST_LEVEL);
+			return armedController;
+		}
+
+		long openingTime = AdaptiveIntervalController.NO_OPENING_TIME;
+		try {
+			openingTime = AdaptiveIntervalController
+					.parseOpeningTime(this.mOptionProvider.getOption(EOption.OPENING_TIME));
+		} catch (final ParseException e) {
+			this.mLogger.logError("Unknown opening time, polling as fast as allowed. " + e.getMessage(),
+					Logger.FIRST_LEVEL);
+		}
+		return new AdaptiveIntervalController(openingTime, minInterval, maxInterval, this.mContext.getClock());
+	}
+
+	/**
+	 * Gets the final status of the interrupted routine. Logs if the routine was
+	 * interrupted since its deadline has passed.
+	 * 
+	 * @return {@link ERoutineStatus#FAILED} if the deadline has passed,
+	 *         {@link ERoutineStatus#STOPPED} if the routine was stopped
+	 */
+	private ERoutineStatus getInterruptedStatus() {
+		if (this.mContext.isExpired()) {
+			this.mLogger.logError("The deadline of the routine has passed.", Logger.TOP_LEVEL);
+			return ERoutineStatus.FAILED;
+		}
+		return ERoutineStatus.STOPPED;
+	}
+
+	/**
+	 * Gets the amount of staggered pollers which request the thread at once,
+	 * as given by the options.
+	 * 
+	 * @return The amount of pollers, at least one
+	 */
+	private int getPollers() {
+		return (int) Math.max(1, this.mOptionProvider.getOptionAsNumber(EOption.POLLERS));
 	}
 
 	/**
@@ -319,18 +547,209 @@ public final class RoutineTask extends Thread implements ITask {
 	 * 
 	 * @param subTask
 	 *            Sub task to register and start
+	 * @throws AbortTaskException
+	 *             If the routine was interrupted before the sub task was
+	 *             registered
 	 */
-	private void registerAndStartSubTask(final ITask subTask) {
+	private void registerAndStartSubTask(final ITask subTask) throws AbortTaskException {
 		this.mCurrentSubTask = subTask;
-		this.mCurrentSubTask.start();
+		// An interrupt that came before the registration did not reach the
+		// sub task
+		this.mContext.checkCancelled();
+		subTask.start();
 	}
 
 	/**
-	 * Terminates the current task and shuts down the web driver.
+	 * Runs the routine without a browser by only using a HTTP client.
+	 */
+	private void runWithHttpClient() {
+		this.mHttpClient = new SiteHttpClient(null);
+		this.mHttpClient.setServerClock(this.mServerClock);
+
+		// Goto thread
+		registerAndStartSubTask(new HttpGotoThreadTask(this.mHttpClient, this.mThreadUrl, this.mLogger));
+		if (isInterrupted()) {
+			return;
+		}
+
+		// Login to the site
+		registerAndStartSubTask(
+				new HttpLoginTask(this.mHttpClient, this.mThreadUrl, this.mUsername, this.mPassword, this.mLogger));
+		if (isInterrupted()) {
+			return;
+		}
+
+		// Warm up such that the first attempt is as fast as later ones
+		warmUp();
+		if (isInterrupted()) {
+			return;
+		}
+
+		// Estimate the clock of the server if armed
+		if (this.mArmTime != NOT_ARMED) {
+			calibrateServerClock();
+			if (isInterrupted()) {
+				return;
+			}
+		}
+
+		// Wait for the post-reply form and post the message
+		registerAndStartSubTask(new HttpPostReplyTask(this.mHttpClient, this.mThreadUrl, this.mTextToPost,
+				createIntervalController(), getPollers(),
+				this.mOptionProvider.isOptionEnabled(EOption.VIRTUAL_THREADS), this.mLogger));
+	}
+
+	/**
+	 * Runs the routine using a web driver.
+	 */
+	private void runWithWebDriver() {
+		// Take the stored session or the one of a parallel routine of the
+		// user, else log in by HTTP while the browser starts
+		final boolean preferVirtualThreads = this.mOptionProvider.isOptionEnabled(EOption.VIRTUAL_THREADS);
+		SessionStore sessionStore = null;
+		List<Cookie> sessionCookies = null;
+		if (this.mOptionProvider.isOptionEnabled(EOption.REMEMBER_SESSION)) {
+			sessionStore = this.mSessionStore;
+			sessionCookies = sessionStore.load(this.mUsername, this.mPassword);
+		}
+		if (sessionCookies == null) {
+			sessionCookies = acquireSharedSession();
+			if (isInterrupted()) {
+				return;
+			}
+		}
+		FutureTask<List<Cookie>> httpLogin = null;
+		if (sessionCookies == null && this.mOptionProvider.isOptionEnabled(EOption.PARALLEL_LOGIN)) {
+			httpLogin = new FutureTask<>(
+					new HttpSessionLogin(this.mThreadUrl, this.mUsername, this.mPassword, this.mLogger));
+			new NamedThreadFactory(HTTP_LOGIN_THREAD_NAME, preferVirtualThreads).newThread(httpLogin).start();
+		}
+
+		// Create browser
+		this.mLogger.logInfo("Starting web driver...", Logger.TOP_LEVEL);
+		final String pageLoadStrategyName = this.mOptionProvider.getOption(EOption.PAGE_LOAD_STRATEGY);
+		if (EPageLoadStrategy.fromName(pageLoadStrategyName) == null) {
+			this.mLogger.logError("Unknown page load strategy, using normal: " + pageLoadStrategyName,
+					Logger.FIRST_LEVEL);
+		}
+		final WebDriverConfiguration configuration = WebDriverConfiguration.fromSettings(this.mBrowser,
+				this.mThreadUrl, this.mUsername, this.mBrowserSettingsProvider, this.mOptionProvider);
+		this.mPageLoadStrategy = configuration.getPageLoadStrategy();
+		this.mDriver = this.mDriverPool.lease(configuration);
+		this.mLogger.logInfo("Web driver started.", Logger.FIRST_LEVEL);
+
+		if (httpLogin != null) {
+			sessionCookies = awaitHttpLogin(httpLogin);
+			if (isInterrupted()) {
+				return;
+			}
+			if (sessionCookies != null) {
+				this.mSessionShare.publish(this.mUsername, this.mPassword, sessionCookies);
+				if (sessionStore != null) {
+					sessionStore.save(this.mUsername, this.mPassword, sessionCookies);
+				}
+			}
+		}
+
+		// Restore the session such that the thread is opened logged in
+		boolean isSessionRestored = false;
+		if (sessionCookies != null) {
+			final RestoreSessionTask restoreSessionTask = new RestoreSessionTask(this.mDriver, this.mThreadUrl,
+					sessionCookies, this.mLogger);
+			registerAndStartSubTask(restoreSessionTask);
+			isSessionRestored = restoreSessionTask.isRestored();
+			if (isInterrupted()) {
+				return;
+			}
+		}
+
+		// Goto thread
+		registerAndStartSubTask(new GotoThreadTask(this.mDriver, this.mThreadUrl, this.mPageLoadStrategy,
+				this.mOptionProvider.getOptionAsNumber(EOption.GOTO_THREAD_TIMEOUT), this.mLogger));
+		if (isInterrupted()) {
+			return;
+		}
+
+		// Login to the site
+		registerAndStartSubTask(new LoginTask(this.mDriver, this.mUsername, this.mPassword,
+				this.mOptionProvider.getOptionAsNumber(EOption.LOGIN_TIMEOUT), sessionStore, isSessionRestored,
+				this.mLogger));
+		if (isInterrupted()) {
+			return;
+		}
+		this.mSessionShare.publish(this.mUsername, this.mPassword, this.mDriver.manage().getCookies());
+
+		// Share the session with a lightweight HTTP client for polling, a
+		// shared thread watcher polls with the clients of its routines. The
+		// browser engine keeps refreshing the browser itself.
+		ThreadWatcherRegistry watcherRegistry = null;
+		if (this.mEngine == EEngine.HYBRID && this.mOptionProvider.isOptionEnabled(EOption.SHARE_POLLING)) {
+			watcherRegistry = this.mWatcherRegistry;
+		}
+		if (this.mEngine == EEngine.HYBRID) {
+			ThreadPoller poller = null;
+			if (watcherRegistry != null) {
+				poller = watcherRegistry.getPoller();
+			}
+			this.mHttpClient = createHttpClient(poller);
+		}
+
+		// Warm up such that the first attempt is as fast as later ones
+		warmUp();
+		if (isInterrupted()) {
+			return;
+		}
+
+		// Estimate the clock of the server if armed
+		if (this.mArmTime != NOT_ARMED) {
+			calibrateServerClock();
+			if (isInterrupted()) {
+				return;
+			}
+		}
+
+		// Wait for the post-reply form and post the message, renewing the
+		// session in the background should it expire meanwhile
+		this.mSessionKeeper = new SessionKeeper(this.mThreadUrl, this.mUsername, this.mPassword, sessionStore,
+				this.mOptionProvider.getOptionAsNumber(EOption.SESSION_CHECK_INTERVAL), preferVirtualThreads,
+				this.mContext.getClock(), this.mLogger);
+		registerAndStartSubTask(new PostReplyTask(this.mDriver, this.mEngine, this.mHttpClient, this.mTextToPost,
+				this.mPageLoadStrategy, this.mOptionProvider.getOptionAsNumber(EOption.POLL_TIMEOUT),
+				createIntervalController(), getPollers(), preferVirtualThreads, this.mSessionKeeper, watcherRegistry,
+				this.mLogger));
+	}
+
+	/**
+	 * Terminates the current task and returns the web driver to the pool.
 	 */
 	private void terminate() {
+		// Let the next routine of the user log in if this one did not
+		this.mSessionShare.release(this.mUsername, this);
+		if (this.mSessionKeeper != null) {
+			this.mSessionKeeper.cancel();
+		}
+		if (this.mHttpClient != null) {
+			try {
+				this.mHttpClient.close();
+			} catch (final IOException e) {
+				// Just ignore the exception and continue
+			}
+		}
 		if (this.mDriver != null) {
-			this.mDriver.close();
+			this.mDriverPool.release(this.mDriver);
+		}
+	}
+
+	/**
+	 * Warms up the polling of the thread if dry runs of the detection are
+	 * set, such that the first attempt is as fast as later ones.
+	 */
+	private void warmUp() {
+		final long cycles = this.mOptionProvider.getOptionAsNumber(EOption.WARM_UP_CYCLES);
+		if (cycles <= 0) {
+			return;
 		}
+		registerAndStartSubTask(new WarmUpTask(this.mDriver, this.mHttpClient, this.mThreadUrl, (int) cycles,
+				this.mContext.getClock(), this.mLogger));
 	}
 }
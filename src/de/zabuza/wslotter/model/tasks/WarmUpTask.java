@@ -0,0 +1,305 @@
+package de.zabuza.wslotter.model.tasks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.WebDriver;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.http.HtmlForms;
+import de.zabuza.wslotter.model.http.HttpPage;
+import de.zabuza.wslotter.model.http.PinnedDnsResolver;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.selector.CSSSelectors;
+import de.zabuza.wslotter.model.selector.Names;
+import de.zabuza.wslotter.model.selector.Patterns;
+import de.zabuza.wslotter.model.time.IClock;
+import de.zabuza.wslotter.model.wait.DomProbe;
+
+/**
+ * A task which warms up a routine before it polls the thread, such that the
+ * first attempt that matters is as fast as the later ones. It pins the address
+ * of the site, opens a keep-alive connection by requesting the thread a few
+ * times and runs the detection of the post-reply form on the requested thread
+ * a given amount of times, such that its code gets compiled. The web driver
+ * probes the thread a few times too. Nothing is posted, the task stops early
+ * if post-reply is already possible.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class WarmUpTask implements ITask {
+	/**
+	 * The amount of times the web driver probes the thread at most.
+	 */
+	private static final int DRIVER_PROBES = 3;
+	/**
+	 * Pattern that matches the password field of the login form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern LOGIN_FORM_PASSWORD_PATTERN = Pattern.compile(Patterns.LOGIN_FORM_PASSWORD);
+	/**
+	 * Pattern that matches the submit button of the post-reply form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern POST_REPLY_SUBMIT_PATTERN = Pattern.compile(Patterns.POST_REPLY_FORM_SUBMIT);
+	/**
+	 * The amount of times the thread is requested at most.
+	 */
+	private static final int REQUESTS = 3;
+
+	/**
+	 * Describes the given durations.
+	 * 
+	 * @param first
+	 *            The duration of the first run in nanoseconds
+	 * @param last
+	 *            The duration of the last run in nanoseconds
+	 * @param unit
+	 *            The unit to describe the durations in
+	 * @return The description of the durations
+	 */
+	private static String describeDurations(final long first, final long last, final TimeUnit unit) {
+		final String unitName;
+		if (unit == TimeUnit.MICROSECONDS) {
+			unitName = " us";
+		} else {
+			unitName = " ms";
+		}
+		return unit.convert(last, TimeUnit.NANOSECONDS) + unitName + ", first "
+				+ unit.convert(first, TimeUnit.NANOSECONDS) + unitName;
+	}
+
+	/**
+	 * Runs the detection of the post-reply form on the given thread, like the
+	 * poll loops do.
+	 * 
+	 * @param page
+	 *            The requested thread
+	 * @return <tt>True</tt> if post-reply is possible, <tt>false</tt> if not
+	 */
+	private static boolean isPostReplyPossible(final HttpPage page) {
+		// Read the forms first and in any case, such that reading is warm once
+		// the form appears, also while the session is logged out
+		final boolean hasForm = HtmlForms.findFormWithField(page, Names.POST_REPLY_FORM_SUBMIT) != null;
+		final boolean isFormPresent = POST_REPLY_SUBMIT_PATTERN.matcher(page.getContent()).find();
+		if (!isFormPresent && LOGIN_FORM_PASSWORD_PATTERN.matcher(page.getContent()).find()) {
+			return false;
+		}
+		return hasForm && isFormPresent;
+	}
+
+	/**
+	 * The clock which measures the durations of the warm-up.
+	 */
+	private final IClock mClock;
+	/**
+	 * The amount of times to run the detection of the post-reply form.
+	 */
+	private final int mCycles;
+	/**
+	 * The web driver which probes the thread or <tt>null</tt> if the routine
+	 * does not use a web driver.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * The HTTP client which requests the thread or <tt>null</tt> if the
+	 * routine does not poll by a HTTP client.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * Whether interrupted flag of the task is set.
+	 */
+	private volatile boolean mInterrupted;
+	/**
+	 * The logger to use.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The URL of the thread to request.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a task which warms up a routine before it polls the given
+	 * thread.
+	 * 
+	 * @param driver
+	 *            The web driver which probes the thread, it must show the
+	 *            thread. Or <tt>null</tt> if the routine does not use a web
+	 *            driver.
+	 * @param httpClient
+	 *            The HTTP client which requests the thread or <tt>null</tt> if
+	 *            the routine does not poll by a HTTP client
+	 * @param threadUrl
+	 *            The URL of the thread to request
+	 * @param cycles
+	 *            The amount of times to run the detection of the post-reply
+	 *            form
+	 * @param clock
+	 *            The clock which measures the durations of the warm-up
+	 * @param logger
+	 *            The logger to use
+	 */
+	public WarmUpTask(final WebDriver driver, final SiteHttpClient httpClient, final String threadUrl,
+			final int cycles, final IClock clock, final Logger logger) {
+		this.mDriver = driver;
+		this.mHttpClient = httpClient;
+		this.mThreadUrl = threadUrl;
+		this.mCycles = cycles;
+		this.mClock = clock;
+		this.mLogger = logger;
+		this.mInterrupted = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#interrupt()
+	 */
+	@Override
+	public void interrupt() {
+		this.mInterrupted = true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#isInterrupted()
+	 */
+	@Override
+	public boolean isInterrupted() {
+		return this.mInterrupted;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.tasks.ITask#start()
+	 */
+	@Override
+	public void start() {
+		this.mLogger.logInfo("Warming up...", Logger.TOP_LEVEL);
+		if (this.mHttpClient != null) {
+			pinHost();
+			if (!warmUpHttpClient() || isInterrupted()) {
+				return;
+			}
+		}
+		if (this.mDriver != null && !warmUpDriver()) {
+			return;
+		}
+		if (isInterrupted()) {
+			return;
+		}
+		this.mLogger.logInfo("Warmed up, ready.", Logger.FIRST_LEVEL);
+	}
+
+	/**
+	 * Resolves the host of the thread and pins its address, such that
+	 * connections to it do not wait for a lookup anymore.
+	 */
+	private void pinHost() {
+		final String host;
+		try {
+			host = URI.create(this.mThreadUrl).getHost();
+		} catch (final IllegalArgumentException e) {
+			return;
+		}
+		if (host == null) {
+			return;
+		}
+
+		try {
+			final InetAddress[] addresses = PinnedDnsResolver.INSTANCE.pin(host);
+			this.mLogger.logInfo("Pinned " + host + " to " + Arrays.toString(addresses) + ".", Logger.SECOND_LEVEL);
+		} catch (final UnknownHostException e) {
+			this.mLogger.logError("The host could not be resolved: " + e.getMessage(), Logger.SECOND_LEVEL);
+		}
+	}
+
+	/**
+	 * Probes the thread a few times with the web driver.
+	 * 
+	 * @return <tt>True</tt> if the warm-up should continue, <tt>false</tt> if
+	 *         post-reply is already possible
+	 */
+	private boolean warmUpDriver() {
+		final DomProbe probe = new DomProbe(this.mDriver).addSelector(CSSSelectors.POST_REPLY_FORM_SUBMIT)
+				.addSelector(CSSSelectors.POST_REPLY_FORM_MESSAGE_BOX);
+		final int probes = Math.min(DRIVER_PROBES, Math.max(1, this.mCycles));
+		long first = 0;
+		long last = 0;
+		for (int i = 0; i < probes && !isInterrupted(); i++) {
+			final long probeStart = this.mClock.nanoTime();
+			final boolean isComplete = probe.probe().isComplete();
+			last = this.mClock.nanoTime() - probeStart;
+			if (i == 0) {
+				first = last;
+			}
+			if (isComplete) {
+				this.mLogger.logInfo("Post-reply is already possible.", Logger.FIRST_LEVEL);
+				return false;
+			}
+		}
+		this.mLogger.logInfo("Probe takes " + describeDurations(first, last, TimeUnit.MILLISECONDS) + ".",
+				Logger.SECOND_LEVEL);
+		return true;
+	}
+
+	/**
+	 * Requests the thread a few times with the HTTP client, which opens a
+	 * keep-alive connection, and runs the detection of the post-reply form on
+	 * it.
+	 * 
+	 * @return <tt>True</tt> if the warm-up should continue, <tt>false</tt> if
+	 *         post-reply is already possible
+	 */
+	private boolean warmUpHttpClient() {
+		HttpPage page = null;
+		long first = -1;
+		long last = 0;
+		for (int i = 0; i < REQUESTS && !isInterrupted(); i++) {
+			final long requestStart = this.mClock.nanoTime();
+			try {
+				page = this.mHttpClient.fetchPage(this.mThreadUrl);
+			} catch (final IOException e) {
+				this.mLogger.logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+				continue;
+			}
+			last = this.mClock.nanoTime() - requestStart;
+			if (first < 0) {
+				first = last;
+			}
+		}
+		if (page == null) {
+			return true;
+		}
+		this.mLogger.logInfo("Request takes " + describeDurations(first, last, TimeUnit.MILLISECONDS) + ".",
+				Logger.SECOND_LEVEL);
+
+		first = 0;
+		for (int i = 0; i < this.mCycles && !isInterrupted(); i++) {
+			final long detectionStart = this.mClock.nanoTime();
+			final boolean isPossible = isPostReplyPossible(page);
+			last = this.mClock.nanoTime() - detectionStart;
+			if (i == 0) {
+				first = last;
+			}
+			if (isPossible) {
+				this.mLogger.logInfo("Post-reply is already possible.", Logger.FIRST_LEVEL);
+				return false;
+			}
+		}
+		if (this.mCycles > 0) {
+			this.mLogger.logInfo("Detection takes " + describeDurations(first, last, TimeUnit.MICROSECONDS) + ".",
+					Logger.SECOND_LEVEL);
+		}
+		return true;
+	}
+}
@@ -0,0 +1,291 @@
+package de.zabuza.wslotter.model.time;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import de.zabuza.wslotter.model.NamedThreadFactory;
+
+/**
+ * Scheduler which runs tasks once a delay measured by an {@link IClock} has
+ * passed. A single dispatcher thread sleeps on the clock until the earliest
+ * task is due and then hands it to an executor or runs it itself. Delays thus
+ * pass in simulated time if the scheduler is driven by a
+ * {@link VirtualClock}.<br>
+ * <br>
+ * The dispatcher is woken up if a task is scheduled which is due before the
+ * one it sleeps for. Cancelled tasks are removed from the scheduler.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ClockScheduler {
+	/**
+	 * Task which waits in the scheduler until it is due.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	private final class ScheduledTask extends FutureTask<Void> implements Comparable<ScheduledTask> {
+		/**
+		 * The number which orders tasks that are due at the same time by the
+		 * time they were scheduled.
+		 */
+		private final long mSequence;
+		/**
+		 * The time the task is due, as given by the monotonic time of the
+		 * clock.
+		 */
+		private final long mTime;
+
+		/**
+		 * Creates a new task which runs the given task once due.
+		 * 
+		 * @param task
+		 *            The task to run
+		 * @param time
+		 *            The time the task is due, as given by the monotonic time
+		 *            of the clock
+		 * @param sequence
+		 *            The number which orders tasks that are due at the same
+		 *            time by the time they were scheduled
+		 */
+		public ScheduledTask(final Runnable task, final long time, final long sequence) {
+			super(task, null);
+			this.mTime = time;
+			this.mSequence = sequence;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.FutureTask#cancel(boolean)
+		 */
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			final boolean isCancelled = super.cancel(mayInterruptIfRunning);
+			if (isCancelled) {
+				remove(this);
+			}
+			return isCancelled;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		@Override
+		public int compareTo(final ScheduledTask other) {
+			// Compare the difference since the monotonic time may overflow
+			final long difference = this.mTime - other.mTime;
+			if (difference != 0) {
+				return difference < 0 ? -1 : 1;
+			}
+			return Long.compare(this.mSequence, other.mSequence);
+		}
+	}
+
+	/**
+	 * The maximal delay in nanoseconds, longer delays are shortened to it such
+	 * that the time a task is due does not overflow.
+	 */
+	private static final long MAX_DELAY = Long.MAX_VALUE >> 1;
+
+	/**
+	 * The clock which measures the delays.
+	 */
+	private final IClock mClock;
+	/**
+	 * The thread which hands the tasks over once they are due.
+	 */
+	private final Thread mDispatcher;
+	/**
+	 * The executor which runs the due tasks or <tt>null</tt> if the
+	 * dispatcher runs them itself.
+	 */
+	private final Executor mExecutor;
+	/**
+	 * The number of the next scheduled task.
+	 */
+	private long mNextSequence;
+	/**
+	 * Whether the scheduler was shut down.
+	 */
+	private boolean mShutdown;
+	/**
+	 * Whether the dispatcher sleeps until the earliest task is due.
+	 */
+	private boolean mSleeping;
+	/**
+	 * The tasks which are not due yet, ordered by the time they are due.
+	 */
+	private final PriorityQueue<ScheduledTask> mTasks;
+
+	/**
+	 * Creates and starts a new scheduler without tasks.
+	 * 
+	 * @param name
+	 *            The name of the thread of the dispatcher
+	 * @param clock
+	 *            The clock which measures the delays
+	 * @param executor
+	 *            The executor which runs the due tasks or <tt>null</tt> if
+	 *            the dispatcher should run them itself, they should be short
+	 *            then
+	 */
+	public ClockScheduler(final String name, final IClock clock, final Executor executor) {
+		this.mClock = clock;
+		this.mExecutor = executor;
+		this.mTasks = new PriorityQueue<>();
+		this.mNextSequence = 0;
+		this.mShutdown = false;
+		this.mSleeping = false;
+		this.mDispatcher = new NamedThreadFactory(name).newThread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				dispatch();
+			}
+		});
+		this.mDispatcher.start();
+	}
+
+	/**
+	 * Gets the clock which measures the delays.
+	 * 
+	 * @return The clock which measures the delays
+	 */
+	public IClock getClock() {
+		return this.mClock;
+	}
+
+	/**
+	 * Gets the amount of tasks which are not due yet.
+	 * 
+	 * @return The amount of tasks which are not due yet
+	 */
+	public synchronized int getPendingTasks() {
+		return this.mTasks.size();
+	}
+
+	/**
+	 * Schedules the given task to run once the given delay has passed.
+	 * 
+	 * @param task
+	 *            The task to run
+	 * @param delay
+	 *            The delay in nanoseconds, zero or less to run the task as
+	 *            soon as possible. Very long delays are shortened to about
+	 *            146 years.
+	 * @return A future which can be used to cancel the task
+	 * @throws RejectedExecutionException
+	 *             If the scheduler was already shut down
+	 */
+	public synchronized Future<?> schedule(final Runnable task, final long delay) throws RejectedExecutionException {
+		if (this.mShutdown) {
+			throw new RejectedExecutionException("The scheduler was shut down");
+		}
+		final long time = this.mClock.nanoTime() + Math.min(Math.max(0, delay), MAX_DELAY);
+		final ScheduledTask scheduledTask = new ScheduledTask(task, time, this.mNextSequence);
+		this.mNextSequence++;
+		this.mTasks.add(scheduledTask);
+
+		// Wake the dispatcher up if the task is due before the one it waits for
+		if (this.mTasks.peek() == scheduledTask) {
+			wakeUp();
+		}
+		return scheduledTask;
+	}
+
+	/**
+	 * Shuts the scheduler down. Pending tasks are dropped, tasks which are
+	 * running are finished.
+	 */
+	public synchronized void shutdown() {
+		this.mShutdown = true;
+		this.mTasks.clear();
+		wakeUp();
+	}
+
+	/**
+	 * Hands the tasks over once they are due, until the scheduler is shut
+	 * down.
+	 */
+	private void dispatch() {
+		while (true) {
+			final ScheduledTask task;
+			final long delay;
+			synchronized (this) {
+				while (!this.mShutdown && this.mTasks.isEmpty()) {
+					try {
+						wait();
+					} catch (final InterruptedException e) {
+						// Check the state again
+					}
+				}
+				if (this.mShutdown) {
+					return;
+				}
+
+				delay = this.mTasks.peek().mTime - this.mClock.nanoTime();
+				if (delay <= 0) {
+					task = this.mTasks.poll();
+				} else {
+					task = null;
+					this.mSleeping = true;
+				}
+			}
+
+			if (task == null) {
+				try {
+					this.mClock.sleep(delay);
+				} catch (final InterruptedException e) {
+					// Woken up by an earlier task or the shutdown
+				}
+				synchronized (this) {
+					this.mSleeping = false;
+					// Clear a wake-up which arrived after the sleep has ended
+					Thread.interrupted();
+				}
+				continue;
+			}
+
+			if (this.mExecutor == null) {
+				task.run();
+				continue;
+			}
+			try {
+				this.mExecutor.execute(task);
+			} catch (final RejectedExecutionException e) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given task, for example since it was cancelled.
+	 * 
+	 * @param task
+	 *            The task to remove
+	 */
+	private synchronized void remove(final ScheduledTask task) {
+		this.mTasks.remove(task);
+	}
+
+	/**
+	 * Wakes the dispatcher up, such that it checks the tasks again.
+	 */
+	private synchronized void wakeUp() {
+		notifyAll();
+		if (this.mSleeping) {
+			this.mDispatcher.interrupt();
+		}
+	}
+}
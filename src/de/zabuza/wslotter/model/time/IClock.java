@@ -0,0 +1,39 @@
+package de.zabuza.wslotter.model.time;
+
+/**
+ * Interface for clocks which measure time and let the current thread sleep.
+ * Waits, polling loops and schedulers use a clock instead of the system, such
+ * that their timing can be run in simulated time by a {@link VirtualClock}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public interface IClock {
+	/**
+	 * Gets the current time of the wall clock.
+	 * 
+	 * @return The current time in milliseconds since midnight, January 1,
+	 *         1970 UTC
+	 */
+	public long currentTimeMillis();
+
+	/**
+	 * Gets the current value of the monotonic clock. The value only has a
+	 * meaning compared to other values of the same clock, it does not jump if
+	 * the wall clock is changed.
+	 * 
+	 * @return The current value of the monotonic clock, in nanoseconds
+	 */
+	public long nanoTime();
+
+	/**
+	 * Lets the current thread sleep for the given time.
+	 * 
+	 * @param nanos
+	 *            The time to sleep in nanoseconds, nothing happens if zero or
+	 *            less
+	 * @throws InterruptedException
+	 *             If the current thread was interrupted while sleeping
+	 */
+	public void sleep(long nanos) throws InterruptedException;
+}
@@ -0,0 +1,194 @@
+package de.zabuza.wslotter.model.time;
+
+/**
+ * Clock which tells the time of a server, as estimated from the
+ * <tt>Date</tt> headers of its answers. A <tt>Date</tt> header only has a
+ * resolution of one second and it is unknown when exactly the server created
+ * it while the request was in flight. Every answer thus only bounds the offset
+ * of the server to the local clock. The clock intersects the bounds of all
+ * answers, requests which reach the server near one of its full seconds narrow
+ * them the most. The offset is estimated as the middle of the bounds.<br>
+ * <br>
+ * The clock also tracks the lowest round trip time of the requests, which is
+ * the one of a warm connection, and how much later requests usually are.
+ * Monotonic time and sleeping are taken from the local clock.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ServerClock implements IClock {
+	/**
+	 * The resolution of the time told by the server, in milliseconds.
+	 */
+	private static final long DATE_RESOLUTION = 1000;
+	/**
+	 * The weight of the latest delay in the average delay of the round trip
+	 * time.
+	 */
+	private static final double JITTER_SMOOTHING = 0.25;
+
+	/**
+	 * The local clock.
+	 */
+	private final IClock mBaseClock;
+	/**
+	 * The average delay of the round trip time compared to the lowest round
+	 * trip time, in milliseconds.
+	 */
+	private double mJitter;
+	/**
+	 * The lower bound of the offset of the server to the local clock, in
+	 * milliseconds.
+	 */
+	private long mLowerOffset;
+	/**
+	 * The lowest round trip time in milliseconds.
+	 */
+	private long mRoundTrip;
+	/**
+	 * The amount of answers seen so far.
+	 */
+	private int mSamples;
+	/**
+	 * The upper bound of the offset of the server to the local clock, in
+	 * milliseconds.
+	 */
+	private long mUpperOffset;
+
+	/**
+	 * Creates a new server clock which did not see any answer of the server
+	 * yet. Until it does, it tells the time of the local clock.
+	 * 
+	 * @param baseClock
+	 *            The local clock
+	 */
+	public ServerClock(final IClock baseClock) {
+		this.mBaseClock = baseClock;
+		this.mLowerOffset = 0;
+		this.mUpperOffset = 0;
+		this.mRoundTrip = 0;
+		this.mJitter = 0;
+		this.mSamples = 0;
+	}
+
+	/**
+	 * Adds an answer of the server to the estimation.
+	 * 
+	 * @param requestStart
+	 *            The time the request was sent, as given by the local clock
+	 * @param responseEnd
+	 *            The time the answer was received, as given by the local clock
+	 * @param serverDate
+	 *            The time told by the <tt>Date</tt> header of the answer, in
+	 *            milliseconds since midnight, January 1, 1970 UTC
+	 */
+	public synchronized void addSample(final long requestStart, final long responseEnd, final long serverDate) {
+		// The server created the date while the request was in flight and cut
+		// off the fraction of the second
+		final long lowerOffset = serverDate - responseEnd;
+		final long upperOffset = serverDate + DATE_RESOLUTION - requestStart;
+		if (this.mSamples == 0 || lowerOffset > this.mUpperOffset || upperOffset < this.mLowerOffset) {
+			// First answer or the clock of the server has changed, start over
+			this.mLowerOffset = lowerOffset;
+			this.mUpperOffset = upperOffset;
+		} else {
+			this.mLowerOffset = Math.max(this.mLowerOffset, lowerOffset);
+			this.mUpperOffset = Math.min(this.mUpperOffset, upperOffset);
+		}
+
+		final long roundTrip = Math.max(0, responseEnd - requestStart);
+		if (this.mSamples == 0 || roundTrip < this.mRoundTrip) {
+			this.mRoundTrip = roundTrip;
+		}
+		this.mJitter += JITTER_SMOOTHING * (roundTrip - this.mRoundTrip - this.mJitter);
+		this.mSamples++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#currentTimeMillis()
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return this.mBaseClock.currentTimeMillis() + getOffset();
+	}
+
+	/**
+	 * Gets the local clock.
+	 * 
+	 * @return The local clock
+	 */
+	public IClock getBaseClock() {
+		return this.mBaseClock;
+	}
+
+	/**
+	 * Gets how much later than the lowest round trip time requests usually
+	 * are answered.
+	 * 
+	 * @return The average delay of the round trip time in milliseconds
+	 */
+	public synchronized long getJitter() {
+		return Math.round(this.mJitter);
+	}
+
+	/**
+	 * Gets the estimated offset of the server to the local clock.
+	 * 
+	 * @return The estimated offset in milliseconds, positive if the server is
+	 *         ahead of the local clock. Zero if no answer was seen yet.
+	 */
+	public synchronized long getOffset() {
+		return (this.mLowerOffset + this.mUpperOffset) / 2;
+	}
+
+	/**
+	 * Gets the lowest round trip time of the requests, the one of a warm
+	 * connection.
+	 * 
+	 * @return The lowest round trip time in milliseconds
+	 */
+	public synchronized long getRoundTrip() {
+		return this.mRoundTrip;
+	}
+
+	/**
+	 * Gets the amount of answers seen so far.
+	 * 
+	 * @return The amount of answers seen so far
+	 */
+	public synchronized int getSampleCount() {
+		return this.mSamples;
+	}
+
+	/**
+	 * Gets how far the real offset may be away from the estimated offset at
+	 * most.
+	 * 
+	 * @return The uncertainty of the offset in milliseconds
+	 */
+	public synchronized long getUncertainty() {
+		return (this.mUpperOffset - this.mLowerOffset + 1) / 2;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#nanoTime()
+	 */
+	@Override
+	public long nanoTime() {
+		return this.mBaseClock.nanoTime();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#sleep(long)
+	 */
+	@Override
+	public void sleep(final long nanos) throws InterruptedException {
+		this.mBaseClock.sleep(nanos);
+	}
+}
@@ -0,0 +1,54 @@
+package de.zabuza.wslotter.model.time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock which measures the real time of the system and lets threads really
+ * sleep. It is the clock used by default.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class SystemClock implements IClock {
+	/**
+	 * The clock of the system.
+	 */
+	public static final SystemClock INSTANCE = new SystemClock();
+
+	/**
+	 * Creates the clock of the system. Use {@link #INSTANCE} instead.
+	 */
+	private SystemClock() {
+		// Singleton, use the instance
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#currentTimeMillis()
+	 */
+	@Override
+	public long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#nanoTime()
+	 */
+	@Override
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#sleep(long)
+	 */
+	@Override
+	public void sleep(final long nanos) throws InterruptedException {
+		TimeUnit.NANOSECONDS.sleep(nanos);
+	}
+}
@@ -0,0 +1,139 @@
+package de.zabuza.wslotter.model.time;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock which measures simulated time. The time only moves on if it is
+ * advanced, hours of polling thus pass in milliseconds of real time.<br>
+ * <br>
+ * The clock either advances on its own, then sleeping moves the time forward
+ * to the moment the sleeping thread wakes up and returns immediately. Or it is
+ * advanced explicitly by {@link #advance(long)}, then sleeping threads block
+ * until the time was advanced past their wake-up.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class VirtualClock implements IClock {
+	/**
+	 * Whether sleeping advances the time on its own.
+	 */
+	private final boolean mAutoAdvance;
+	/**
+	 * The elapsed simulated time in nanoseconds.
+	 */
+	private long mElapsed;
+	/**
+	 * The amount of threads which sleep at the moment.
+	 */
+	private int mSleepingThreads;
+	/**
+	 * The time of the wall clock at which the simulation starts, in
+	 * milliseconds since midnight, January 1, 1970 UTC.
+	 */
+	private final long mStartTime;
+
+	/**
+	 * Creates a new virtual clock which advances on its own, starting at the
+	 * beginning of the epoch.
+	 */
+	public VirtualClock() {
+		this(0, true);
+	}
+
+	/**
+	 * Creates a new virtual clock.
+	 * 
+	 * @param startTime
+	 *            The time of the wall clock at which the simulation starts, in
+	 *            milliseconds since midnight, January 1, 1970 UTC
+	 * @param autoAdvance
+	 *            <tt>True</tt> if sleeping should advance the time on its own,
+	 *            <tt>false</tt> if the time is only advanced by
+	 *            {@link #advance(long)}
+	 */
+	public VirtualClock(final long startTime, final boolean autoAdvance) {
+		this.mStartTime = startTime;
+		this.mAutoAdvance = autoAdvance;
+		this.mElapsed = 0;
+		this.mSleepingThreads = 0;
+	}
+
+	/**
+	 * Advances the time by the given amount and wakes up all threads whose
+	 * sleep has passed.
+	 * 
+	 * @param nanos
+	 *            The time to advance by, in nanoseconds
+	 * @throws IllegalArgumentException
+	 *             If the given time is negative
+	 */
+	public synchronized void advance(final long nanos) throws IllegalArgumentException {
+		if (nanos < 0) {
+			throw new IllegalArgumentException("The time can not go back: " + nanos);
+		}
+		this.mElapsed += nanos;
+		notifyAll();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#currentTimeMillis()
+	 */
+	@Override
+	public synchronized long currentTimeMillis() {
+		return this.mStartTime + TimeUnit.NANOSECONDS.toMillis(this.mElapsed);
+	}
+
+	/**
+	 * Gets the amount of threads which sleep at the moment, waiting for the
+	 * time to be advanced.
+	 * 
+	 * @return The amount of threads which sleep at the moment
+	 */
+	public synchronized int getSleepingThreads() {
+		return this.mSleepingThreads;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#nanoTime()
+	 */
+	@Override
+	public synchronized long nanoTime() {
+		return this.mElapsed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.time.IClock#sleep(long)
+	 */
+	@Override
+	public synchronized void sleep(final long nanos) throws InterruptedException {
+		if (Thread.interrupted()) {
+			throw new InterruptedException();
+		}
+		if (nanos <= 0) {
+			return;
+		}
+
+		final long wakeUp = this.mElapsed + nanos;
+		if (this.mAutoAdvance) {
+			this.mElapsed = wakeUp;
+			notifyAll();
+			return;
+		}
+
+		this.mSleepingThreads++;
+		try {
+			while (this.mElapsed - wakeUp < 0) {
+				wait();
+			}
+		} finally {
+			this.mSleepingThreads--;
+		}
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the clocks which measure time and let threads sleep,
+ * either in real time or in simulated time.
+ */
+package de.zabuza.wslotter.model.time;
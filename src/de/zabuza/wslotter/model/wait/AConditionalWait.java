@@ -1,14 +1,28 @@
 package de.zabuza.wslotter.model.wait;
 
+import java.util.concurrent.TimeUnit;
+
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.WebDriverWait;
+
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.time.IClock;
 
 /**
  * Abstract class for waiting for a given condition. By using
  * {@link #waitUntilCondition()} the method returns as soon as the condition
- * given by {@link #getCondition()} resolves to <tt>true</tt>.
+ * given by {@link #getCondition()} resolves to <tt>true</tt>. The condition
+ * is checked by a {@link WaitEngine}, following the {@link PollingStrategy}
+ * of the wait. Every finished wait is recorded in the statistics given by
+ * {@link #getStatistics()}.<br>
+ * <br>
+ * Waits created on a thread of a routine obey its
+ * {@link CancellationContext}, the timeout is limited to the time left until
+ * the deadline of the routine and the wait ends as soon as the routine is
+ * stopped. The wait then also uses the clock of the routine, else the clock of
+ * the system.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
@@ -22,11 +36,42 @@ public abstract class AConditionalWait<V> {
 	 * <tt>true</tt> until a {@link TimeoutException} is thrown.
 	 */
 	protected static final int STANDARD_TIMEOUT = 5;
+	/**
+	 * The statistics of all finished waits.
+	 */
+	private static final WaitStatistics STATISTICS = new WaitStatistics();
+
+	/**
+	 * Gets the statistics of all finished waits.
+	 * 
+	 * @return The statistics of all finished waits
+	 */
+	public static WaitStatistics getStatistics() {
+		return STATISTICS;
+	}
 
+	/**
+	 * The clock which measures the time of the wait.
+	 */
+	private final IClock mClock;
+	/**
+	 * The context of the routine the wait belongs to or <tt>null</tt> if it
+	 * does not belong to a routine.
+	 */
+	private final CancellationContext mContext;
 	/**
 	 * Web driver to use for waiting.
 	 */
-	private final WebDriverWait mWait;
+	private final WebDriver mDriver;
+	/**
+	 * The strategy which determines the pauses between two checks of the
+	 * condition.
+	 */
+	private PollingStrategy mPollingStrategy;
+	/**
+	 * Timeout to wait for the condition, in nanoseconds.
+	 */
+	private final long mTimeout;
 
 	/**
 	 * Creates a new conditional wait object that uses a given web driver and
@@ -50,7 +95,32 @@ public abstract class AConditionalWait<V> {
 	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
 	 */
 	public AConditionalWait(final WebDriver driver, final long timeOutInSeconds) {
-		this.mWait = new WebDriverWait(driver, timeOutInSeconds);
+		this.mDriver = driver;
+		this.mTimeout = TimeUnit.SECONDS.toNanos(timeOutInSeconds);
+		this.mContext = CancellationContext.getCurrent();
+		this.mClock = CancellationContext.getCurrentClock();
+		this.mPollingStrategy = PollingStrategy.STANDARD;
+	}
+
+	/**
+	 * Gets the strategy which determines the pauses between two checks of the
+	 * condition.
+	 * 
+	 * @return The polling strategy of the wait
+	 */
+	public PollingStrategy getPollingStrategy() {
+		return this.mPollingStrategy;
+	}
+
+	/**
+	 * Sets the strategy which determines the pauses between two checks of the
+	 * condition. Waits use {@link PollingStrategy#STANDARD} if not set.
+	 * 
+	 * @param pollingStrategy
+	 *            The polling strategy to use
+	 */
+	public final void setPollingStrategy(final PollingStrategy pollingStrategy) {
+		this.mPollingStrategy = pollingStrategy;
 	}
 
 	/**
@@ -58,9 +128,37 @@ public abstract class AConditionalWait<V> {
 	 * soon as it resolves to <tt>true</tt>.
 	 * 
 	 * @return The object specified by {@link ExpectedCondition}.
+	 * @throws TimeoutException
+	 *             If the condition did not resolve to <tt>true</tt> in time
+	 * @throws AbortTaskException
+	 *             If the routine the wait belongs to was stopped or its
+	 *             deadline has passed
+	 */
+	public V waitUntilCondition() throws TimeoutException, AbortTaskException {
+		long timeout = this.mTimeout;
+		if (this.mContext != null) {
+			timeout = this.mContext.limitTimeout(timeout);
+		}
+
+		final WaitEngine engine = new WaitEngine(this.mDriver, timeout, this.mPollingStrategy, this.mClock,
+				this.mContext);
+		try {
+			return engine.until(getCondition());
+		} finally {
+			if (engine.getChecks() > 0) {
+				STATISTICS.record(getClass().getSimpleName(), engine.getChecks(), engine.getElapsed(),
+						engine.isTimedOut());
+			}
+		}
+	}
+
+	/**
+	 * Gets the clock which measures the time of the wait.
+	 * 
+	 * @return The clock of the wait
 	 */
-	public V waitUntilCondition() {
-		return this.mWait.until(getCondition());
+	protected IClock getClock() {
+		return this.mClock;
 	}
 
 	/**
@@ -8,8 +8,9 @@ import org.openqa.selenium.support.ui.ExpectedCondition;
 import de.zabuza.wslotter.model.wait.conditions.CookieCondition;
 
 /**
- * Class for waiting until a given cookie is present. Start waiting using the
- * {@link #waitUntilCondition()} method.
+ * Class for waiting until a given cookie is present. Reading the cookies is
+ * cheap, the wait thus uses {@link PollingStrategy#FAST}. Start waiting using
+ * the {@link #waitUntilCondition()} method.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
@@ -32,6 +33,7 @@ public class CookiePresenceWait extends AConditionalWait<Cookie> {
 	public CookiePresenceWait(final WebDriver driver, final String name) {
 		super(driver);
 		this.mCondition = new CookieCondition(name);
+		setPollingStrategy(PollingStrategy.FAST);
 	}
 
 	/**
@@ -49,6 +51,7 @@ public class CookiePresenceWait extends AConditionalWait<Cookie> {
 	public CookiePresenceWait(final WebDriver driver, final String name, final long timeOutInSeconds) {
 		super(driver, timeOutInSeconds);
 		this.mCondition = new CookieCondition(name);
+		setPollingStrategy(PollingStrategy.FAST);
 	}
 
 	/*
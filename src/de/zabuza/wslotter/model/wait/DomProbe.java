@@ -0,0 +1,142 @@
+package de.zabuza.wslotter.model.wait;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import de.zabuza.wslotter.model.scripts.Scripts;
+
+/**
+ * Probes the current site of a web driver for a set of elements, cookies and
+ * title needles using only one call to the driver. Register the items to probe
+ * for and use {@link #probe()} to get a {@link ProbeSnapshot}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class DomProbe {
+	/**
+	 * Names of the cookies to probe for.
+	 */
+	private final List<String> mCookieNames;
+	/**
+	 * The web driver to probe.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * CSS selectors of the elements to probe for.
+	 */
+	private final List<String> mSelectors;
+	/**
+	 * Needles to probe the title for.
+	 */
+	private final List<String> mTitleNeedles;
+
+	/**
+	 * Creates a new probe without any items to probe for.
+	 * 
+	 * @param driver
+	 *            The web driver to probe, it must support the execution of
+	 *            scripts
+	 */
+	public DomProbe(final WebDriver driver) {
+		if (!(driver instanceof JavascriptExecutor)) {
+			throw new IllegalArgumentException("The given driver does not support scripts: " + driver);
+		}
+		this.mDriver = driver;
+		this.mSelectors = new ArrayList<>();
+		this.mCookieNames = new ArrayList<>();
+		this.mTitleNeedles = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a cookie to probe for.
+	 * 
+	 * @param name
+	 *            The name of the cookie
+	 * @return This probe, for chaining
+	 */
+	public DomProbe addCookie(final String name) {
+		this.mCookieNames.add(name);
+		return this;
+	}
+
+	/**
+	 * Adds an element to probe for.
+	 * 
+	 * @param cssSelector
+	 *            CSS selector that corresponds to the element
+	 * @return This probe, for chaining
+	 */
+	public DomProbe addSelector(final String cssSelector) {
+		this.mSelectors.add(cssSelector);
+		return this;
+	}
+
+	/**
+	 * Adds a needle which the title should contain.
+	 * 
+	 * @param needle
+	 *            The needle in question
+	 * @return This probe, for chaining
+	 */
+	public DomProbe addTitleNeedle(final String needle) {
+		this.mTitleNeedles.add(needle);
+		return this;
+	}
+
+	/**
+	 * Gets the names of the cookies to probe for.
+	 * 
+	 * @return An unmodifiable view to the names of the cookies
+	 */
+	public List<String> getCookieNames() {
+		return Collections.unmodifiableList(this.mCookieNames);
+	}
+
+	/**
+	 * Gets the CSS selectors of the elements to probe for.
+	 * 
+	 * @return An unmodifiable view to the CSS selectors
+	 */
+	public List<String> getSelectors() {
+		return Collections.unmodifiableList(this.mSelectors);
+	}
+
+	/**
+	 * Gets the needles to probe the title for.
+	 * 
+	 * @return An unmodifiable view to the needles
+	 */
+	public List<String> getTitleNeedles() {
+		return Collections.unmodifiableList(this.mTitleNeedles);
+	}
+
+	/**
+	 * Marks the current document of the web driver using one call to the
+	 * driver. Snapshots of the document then report it as marked, which allows
+	 * to detect whether navigation has already replaced the document.
+	 */
+	public void markDocument() {
+		((JavascriptExecutor) this.mDriver).executeScript(Scripts.MARK_DOCUMENT);
+	}
+
+	/**
+	 * Probes the current site of the web driver for all registered items using
+	 * one call to the driver.
+	 * 
+	 * @return A snapshot of the probed items
+	 */
+	public ProbeSnapshot probe() {
+		final Object result = ((JavascriptExecutor) this.mDriver).executeScript(Scripts.DOM_PROBE, this.mSelectors,
+				this.mCookieNames);
+		if (!(result instanceof Map<?, ?>)) {
+			throw new IllegalStateException("Unexpected answer of the probe script: " + result);
+		}
+		return new ProbeSnapshot(this, this.mDriver, (Map<?, ?>) result);
+	}
+}
@@ -1,17 +1,31 @@
 package de.zabuza.wslotter.model.wait;
 
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 
 import de.zabuza.wslotter.model.selector.CSSSelectors;
 
 /**
- * Class for waiting until the login form is present. Start waiting using the
- * {@link #waitUntilCondition()} method.
+ * Class for waiting until the login form is present. The resulting snapshot
+ * contains the submit button, the name and the password field of the form.
+ * Start waiting using the {@link #waitUntilCondition()} method.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
-public class LoginFormWait extends CSSSelectorPresenceWait {
+public class LoginFormWait extends ProbeWait {
+	/**
+	 * Creates a probe for the elements of the login form.
+	 * 
+	 * @param driver
+	 *            Driver to probe
+	 * @return The probe for the elements of the login form
+	 */
+	public static DomProbe createLoginFormProbe(final WebDriver driver) {
+		return new DomProbe(driver).addSelector(CSSSelectors.LOGIN_FORM_SUBMIT)
+				.addSelector(CSSSelectors.LOGIN_FORM_NAME).addSelector(CSSSelectors.LOGIN_FORM_PASSWORD);
+	}
+
 	/**
 	 * Creates a new instance of this object using a given driver.
 	 * 
@@ -19,6 +33,19 @@ public class LoginFormWait extends CSSSelectorPresenceWait {
 	 *            Driver to use for waiting
 	 */
 	public LoginFormWait(final WebDriver driver) {
-		super(driver, CSSSelectors.LOGIN_FORM_SUBMIT);
+		super(driver, createLoginFormProbe(driver), true);
+	}
+
+	/**
+	 * Creates a new instance of this object using a given driver and timeout.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param timeOutInSeconds
+	 *            Timeout in seconds to wait for the condition to resolve to
+	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
+	 */
+	public LoginFormWait(final WebDriver driver, final long timeOutInSeconds) {
+		super(driver, createLoginFormProbe(driver), true, timeOutInSeconds);
 	}
 }
@@ -0,0 +1,83 @@
+package de.zabuza.wslotter.model.wait;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Strategy which determines how long a {@link WaitEngine} pauses between two
+ * checks of a condition. The first checks follow each other immediately,
+ * afterwards the pause starts at an initial interval and grows by a factor
+ * with every check until it reaches a maximal interval. Conditions which
+ * usually resolve quickly are thus detected without delay, while long waits
+ * do not flood the driver with calls.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PollingStrategy {
+	/**
+	 * Strategy for conditions which are cheap to check, like the cookies or
+	 * the title of the current site.
+	 */
+	public static final PollingStrategy FAST = new PollingStrategy(3, 5, 50, 1.5);
+	/**
+	 * Strategy for conditions which need to inspect the document of the
+	 * current site.
+	 */
+	public static final PollingStrategy STANDARD = new PollingStrategy(1, 20, 250, 1.5);
+
+	/**
+	 * The factor the interval grows by with every check.
+	 */
+	private final double mBackOffFactor;
+	/**
+	 * The interval after the immediate checks, in nanoseconds.
+	 */
+	private final long mInitialInterval;
+	/**
+	 * The maximal interval, in nanoseconds.
+	 */
+	private final long mMaxInterval;
+	/**
+	 * The amount of checks which follow each other immediately.
+	 */
+	private final int mSpinChecks;
+
+	/**
+	 * Creates a new polling strategy.
+	 * 
+	 * @param spinChecks
+	 *            The amount of checks which follow each other immediately
+	 * @param initialInterval
+	 *            The interval after the immediate checks, in milliseconds
+	 * @param maxInterval
+	 *            The maximal interval, in milliseconds
+	 * @param backOffFactor
+	 *            The factor the interval grows by with every check, at least
+	 *            one
+	 */
+	public PollingStrategy(final int spinChecks, final long initialInterval, final long maxInterval,
+			final double backOffFactor) {
+		this.mSpinChecks = Math.max(0, spinChecks);
+		this.mInitialInterval = TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialInterval));
+		this.mMaxInterval = Math.max(this.mInitialInterval, TimeUnit.MILLISECONDS.toNanos(maxInterval));
+		this.mBackOffFactor = Math.max(1.0, backOffFactor);
+	}
+
+	/**
+	 * Gets the time to pause after the given check.
+	 * 
+	 * @param checks
+	 *            The amount of checks made so far, at least one
+	 * @return The time to pause before the next check, in nanoseconds
+	 */
+	public long getInterval(final int checks) {
+		if (checks <= this.mSpinChecks) {
+			return 0;
+		}
+		final double interval = this.mInitialInterval * Math.pow(this.mBackOffFactor, checks - this.mSpinChecks - 1);
+		if (interval >= this.mMaxInterval) {
+			return this.mMaxInterval;
+		}
+		return (long) interval;
+	}
+}
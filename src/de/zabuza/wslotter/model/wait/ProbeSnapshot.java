@@ -0,0 +1,277 @@
+package de.zabuza.wslotter.model.wait;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Snapshot of the items probed by a {@link DomProbe}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ProbeSnapshot {
+	/**
+	 * Key of the cookies in the answer of the probe script.
+	 */
+	private static final String KEY_COOKIES = "cookies";
+	/**
+	 * Key of the elements in the answer of the probe script.
+	 */
+	private static final String KEY_ELEMENTS = "elements";
+	/**
+	 * Key of the flag whether the document was marked in the answer of the
+	 * probe script.
+	 */
+	private static final String KEY_MARKED = "marked";
+	/**
+	 * Key of the ready state of the document in the answer of the probe
+	 * script.
+	 */
+	private static final String KEY_READY_STATE = "readyState";
+	/**
+	 * Ready state of a document which is still being parsed.
+	 */
+	private static final String READY_STATE_LOADING = "loading";
+	/**
+	 * Key of the title in the answer of the probe script.
+	 */
+	private static final String KEY_TITLE = "title";
+
+	/**
+	 * Values of the probed cookies, accessed by their name. Cookies not
+	 * visible to scripts are looked up lazily.
+	 */
+	private final Map<String, String> mCookies;
+	/**
+	 * The web driver that was probed.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * The probed elements, accessed by their CSS selector.
+	 */
+	private final Map<String, WebElement> mElements;
+	/**
+	 * Whether the cookies not visible to scripts were already looked up.
+	 */
+	private boolean mHiddenCookiesLookedUp;
+	/**
+	 * Whether the probed document was marked.
+	 */
+	private final boolean mIsMarked;
+	/**
+	 * The probe that created this snapshot.
+	 */
+	private final DomProbe mProbe;
+	/**
+	 * The ready state of the probed document.
+	 */
+	private final String mReadyState;
+	/**
+	 * The title of the probed site.
+	 */
+	private final String mTitle;
+
+	/**
+	 * Creates a new snapshot out of the answer of the probe script.
+	 * 
+	 * @param probe
+	 *            The probe that created this snapshot
+	 * @param driver
+	 *            The web driver that was probed
+	 * @param answer
+	 *            The answer of the probe script
+	 */
+	ProbeSnapshot(final DomProbe probe, final WebDriver driver, final Map<?, ?> answer) {
+		this.mProbe = probe;
+		this.mDriver = driver;
+		this.mHiddenCookiesLookedUp = false;
+
+		final Object title = answer.get(KEY_TITLE);
+		if (title == null) {
+			this.mTitle = "";
+		} else {
+			this.mTitle = title.toString();
+		}
+
+		this.mIsMarked = Boolean.TRUE.equals(answer.get(KEY_MARKED));
+		final Object readyState = answer.get(KEY_READY_STATE);
+		if (readyState == null) {
+			this.mReadyState = "";
+		} else {
+			this.mReadyState = readyState.toString();
+		}
+
+		this.mElements = new HashMap<>();
+		final Object elements = answer.get(KEY_ELEMENTS);
+		if (elements instanceof Map<?, ?>) {
+			for (final Map.Entry<?, ?> entry : ((Map<?, ?>) elements).entrySet()) {
+				if (entry.getValue() instanceof WebElement) {
+					this.mElements.put(entry.getKey().toString(), (WebElement) entry.getValue());
+				}
+			}
+		}
+
+		this.mCookies = new HashMap<>();
+		final Object cookies = answer.get(KEY_COOKIES);
+		if (cookies instanceof Map<?, ?>) {
+			for (final Map.Entry<?, ?> entry : ((Map<?, ?>) cookies).entrySet()) {
+				if (entry.getValue() != null) {
+					this.mCookies.put(entry.getKey().toString(), entry.getValue().toString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the value of the given probed cookie. Cookies that are not visible
+	 * to scripts, like <tt>HttpOnly</tt> cookies, are looked up by one
+	 * additional call to the driver, the first time such a cookie is
+	 * requested.
+	 * 
+	 * @param name
+	 *            The name of the cookie
+	 * @return The value of the cookie or <tt>null</tt> if not present
+	 */
+	public String getCookieValue(final String name) {
+		if (!this.mCookies.containsKey(name) && !this.mHiddenCookiesLookedUp) {
+			this.mHiddenCookiesLookedUp = true;
+			for (final Cookie cookie : this.mDriver.manage().getCookies()) {
+				if (this.mProbe.getCookieNames().contains(cookie.getName())) {
+					this.mCookies.put(cookie.getName(), cookie.getValue());
+				}
+			}
+		}
+		return this.mCookies.get(name);
+	}
+
+	/**
+	 * Gets the given probed element.
+	 * 
+	 * @param cssSelector
+	 *            CSS selector of the element
+	 * @return The element or <tt>null</tt> if not present
+	 */
+	public WebElement getElement(final String cssSelector) {
+		return this.mElements.get(cssSelector);
+	}
+
+	/**
+	 * Gets the title of the probed site.
+	 * 
+	 * @return The title of the probed site
+	 */
+	public String getTitle() {
+		return this.mTitle;
+	}
+
+	/**
+	 * Whether the given probed cookie is present.
+	 * 
+	 * @param name
+	 *            The name of the cookie
+	 * @return <tt>True</tt> if the cookie is present, <tt>false</tt> if not
+	 * @see #getCookieValue(String)
+	 */
+	public boolean hasCookie(final String name) {
+		return getCookieValue(name) != null;
+	}
+
+	/**
+	 * Whether the given probed element is present.
+	 * 
+	 * @param cssSelector
+	 *            CSS selector of the element
+	 * @return <tt>True</tt> if the element is present, <tt>false</tt> if not
+	 */
+	public boolean hasElement(final String cssSelector) {
+		return this.mElements.containsKey(cssSelector);
+	}
+
+	/**
+	 * Whether all probed items are present. That is all elements and cookies
+	 * are present and the title contains all needles.
+	 * 
+	 * @return <tt>True</tt> if all probed items are present, <tt>false</tt>
+	 *         if not
+	 */
+	public boolean isComplete() {
+		for (final String selector : this.mProbe.getSelectors()) {
+			if (!hasElement(selector)) {
+				return false;
+			}
+		}
+		for (final String needle : this.mProbe.getTitleNeedles()) {
+			if (!titleContains(needle)) {
+				return false;
+			}
+		}
+		for (final String name : this.mProbe.getCookieNames()) {
+			if (!hasCookie(name)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether the probed document was marked by
+	 * {@link DomProbe#markDocument()}, i.e. navigation has not yet replaced
+	 * it.
+	 * 
+	 * @return <tt>True</tt> if the document was marked, <tt>false</tt> if not
+	 */
+	public boolean isMarked() {
+		return this.mIsMarked;
+	}
+
+	/**
+	 * Whether the probed document was parsed completely. Resources like images
+	 * may still be loading.
+	 * 
+	 * @return <tt>True</tt> if the document was parsed completely,
+	 *         <tt>false</tt> if it is still being parsed
+	 */
+	public boolean isParsed() {
+		return !this.mReadyState.isEmpty() && !this.mReadyState.equals(READY_STATE_LOADING);
+	}
+
+	/**
+	 * Whether any of the probed items is present. That is at least one element
+	 * or cookie is present or the title contains a needle.
+	 * 
+	 * @return <tt>True</tt> if any probed item is present, <tt>false</tt> if
+	 *         not
+	 */
+	public boolean isPartial() {
+		if (!this.mElements.isEmpty()) {
+			return true;
+		}
+		for (final String needle : this.mProbe.getTitleNeedles()) {
+			if (titleContains(needle)) {
+				return true;
+			}
+		}
+		for (final String name : this.mProbe.getCookieNames()) {
+			if (hasCookie(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Whether the title of the probed site contains the given needle.
+	 * 
+	 * @param needle
+	 *            The needle in question
+	 * @return <tt>True</tt> if the title contains the needle, <tt>false</tt>
+	 *         if not
+	 */
+	public boolean titleContains(final String needle) {
+		return this.mTitle.contains(needle);
+	}
+}
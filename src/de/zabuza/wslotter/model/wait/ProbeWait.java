@@ -0,0 +1,70 @@
+package de.zabuza.wslotter.model.wait;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import de.zabuza.wslotter.model.wait.conditions.ProbeCondition;
+
+/**
+ * Class for waiting until all or any of the items of a {@link DomProbe} are
+ * present. Each check only needs one call to the driver. Start waiting using
+ * the {@link #waitUntilCondition()} method.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class ProbeWait extends AConditionalWait<ProbeSnapshot> {
+	/**
+	 * Condition to wait for.
+	 */
+	private final ExpectedCondition<ProbeSnapshot> mCondition;
+
+	/**
+	 * Creates a new instance of this object using a given web driver and
+	 * probe.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param probe
+	 *            Probe to wait for its items
+	 * @param requireAll
+	 *            <tt>True</tt> if all probed items must be present,
+	 *            <tt>false</tt> if any of them suffices
+	 */
+	public ProbeWait(final WebDriver driver, final DomProbe probe, final boolean requireAll) {
+		super(driver);
+		this.mCondition = new ProbeCondition(probe, requireAll);
+	}
+
+	/**
+	 * Creates a new instance of this object using a given web driver, probe
+	 * and timeout.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param probe
+	 *            Probe to wait for its items
+	 * @param requireAll
+	 *            <tt>True</tt> if all probed items must be present,
+	 *            <tt>false</tt> if any of them suffices
+	 * @param timeOutInSeconds
+	 *            Timeout in seconds to wait for the condition to resolve to
+	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
+	 */
+	public ProbeWait(final WebDriver driver, final DomProbe probe, final boolean requireAll,
+			final long timeOutInSeconds) {
+		super(driver, timeOutInSeconds);
+		this.mCondition = new ProbeCondition(probe, requireAll);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.wait.AConditionalWait#getCondition()
+	 */
+	@Override
+	protected ExpectedCondition<ProbeSnapshot> getCondition() {
+		return this.mCondition;
+	}
+}
@@ -0,0 +1,90 @@
+package de.zabuza.wslotter.model.wait;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import de.zabuza.wslotter.model.selector.CSSSelectors;
+import de.zabuza.wslotter.model.selector.Patterns;
+import de.zabuza.wslotter.model.wait.conditions.ReadinessCondition;
+
+/**
+ * Class for waiting until a site, that replaces a document marked by
+ * {@link DomProbe#markDocument()}, is ready. The site is ready as soon as any
+ * or, if required, all of the probed markers are in the document or once the
+ * document was parsed completely. The wait does not depend on the site and its resources to have
+ * finished loading and is thus meant to be used with a page load strategy
+ * whose navigation returns early. Start waiting using the
+ * {@link #waitUntilCondition()} method.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class ReadinessWait extends AConditionalWait<ProbeSnapshot> {
+	/**
+	 * Creates a probe for the markers of a thread. These are the title of the
+	 * site, the submit button of the login form and the submit button of the
+	 * post-reply form.
+	 * 
+	 * @param driver
+	 *            Driver to probe
+	 * @return The probe for the markers of a thread
+	 */
+	public static DomProbe createThreadProbe(final WebDriver driver) {
+		return new DomProbe(driver).addTitleNeedle(Patterns.SITE_TITLE).addSelector(CSSSelectors.LOGIN_FORM_SUBMIT)
+				.addSelector(CSSSelectors.POST_REPLY_FORM_SUBMIT);
+	}
+
+	/**
+	 * Condition to wait for.
+	 */
+	private final ExpectedCondition<ProbeSnapshot> mCondition;
+
+	/**
+	 * Creates a new instance of this object using a given web driver, probe
+	 * and timeout.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param probe
+	 *            Probe for the markers to wait for
+	 * @param timeOutInSeconds
+	 *            Timeout in seconds to wait for the condition to resolve to
+	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
+	 */
+	public ReadinessWait(final WebDriver driver, final DomProbe probe, final long timeOutInSeconds) {
+		this(driver, probe, false, timeOutInSeconds);
+	}
+
+	/**
+	 * Creates a new instance of this object using a given web driver, probe
+	 * and timeout.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param probe
+	 *            Probe for the markers to wait for
+	 * @param requireAll
+	 *            <tt>True</tt> if all probed markers must be present,
+	 *            <tt>false</tt> if any of them suffices. A document which was
+	 *            parsed completely is ready in any case.
+	 * @param timeOutInSeconds
+	 *            Timeout in seconds to wait for the condition to resolve to
+	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
+	 */
+	public ReadinessWait(final WebDriver driver, final DomProbe probe, final boolean requireAll,
+			final long timeOutInSeconds) {
+		super(driver, timeOutInSeconds);
+		this.mCondition = new ReadinessCondition(probe, requireAll);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.wait.AConditionalWait#getCondition()
+	 */
+	@Override
+	protected ExpectedCondition<ProbeSnapshot> getCondition() {
+		return this.mCondition;
+	}
+}
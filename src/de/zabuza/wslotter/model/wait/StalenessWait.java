@@ -0,0 +1,45 @@
+package de.zabuza.wslotter.model.wait;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+/**
+ * Class for waiting until a given element is no longer attached to the site,
+ * for example because the browser navigated to another site. Start waiting
+ * using the {@link #waitUntilCondition()} method.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public class StalenessWait extends AConditionalWait<Boolean> {
+	/**
+	 * Condition to wait for.
+	 */
+	private final ExpectedCondition<Boolean> mCondition;
+
+	/**
+	 * Creates a new instance of this object using a given web driver and
+	 * element.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param element
+	 *            Element to wait for until it is no longer attached
+	 */
+	public StalenessWait(final WebDriver driver, final WebElement element) {
+		super(driver);
+		this.mCondition = ExpectedConditions.stalenessOf(element);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see de.zabuza.wslotter.model.wait.AConditionalWait#getCondition()
+	 */
+	@Override
+	protected ExpectedCondition<Boolean> getCondition() {
+		return this.mCondition;
+	}
+}
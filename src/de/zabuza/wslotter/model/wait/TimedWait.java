@@ -13,6 +13,11 @@ import de.zabuza.wslotter.model.wait.conditions.TimedCondition;
  *
  */
 public class TimedWait extends AConditionalWait<Boolean> {
+	/**
+	 * Strategy which checks the time every few milliseconds. The check does
+	 * not call the driver, the wait thus ends only shortly after the period.
+	 */
+	private static final PollingStrategy POLLING_STRATEGY = new PollingStrategy(0, 5, 5, 1.0);
 	/**
 	 * Factor to convert seconds to milliseconds, if multiplied with.
 	 */
@@ -39,7 +44,8 @@ public class TimedWait extends AConditionalWait<Boolean> {
 	 */
 	public TimedWait(final WebDriver driver, final long timeToWait) {
 		super(driver, (timeToWait / SECONDS_TO_MILLIS) + TIMEOUT_OFFSET);
-		this.mCondition = new TimedCondition(timeToWait);
+		this.mCondition = new TimedCondition(timeToWait, getClock());
+		setPollingStrategy(POLLING_STRATEGY);
 	}
 
 	/*
@@ -1,11 +1,13 @@
 package de.zabuza.wslotter.model.wait;
 
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
 /**
- * Class for waiting until the sites title contains a given needle. Start
+ * Class for waiting until the sites title contains a given needle. Reading
+ * the title is cheap, the wait thus uses {@link PollingStrategy#FAST}. Start
  * waiting using the {@link #waitUntilCondition()} method.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
@@ -28,6 +30,25 @@ public class TitleContainsWait extends AConditionalWait<Boolean> {
 	public TitleContainsWait(final WebDriver driver, final String needle) {
 		super(driver);
 		this.mCondition = ExpectedConditions.titleContains(needle);
+		setPollingStrategy(PollingStrategy.FAST);
+	}
+
+	/**
+	 * Creates a new instance of this object using a given web driver, needle
+	 * and timeout.
+	 * 
+	 * @param driver
+	 *            Driver to use for waiting
+	 * @param needle
+	 *            Needle to wait for until the title contains it
+	 * @param timeOutInSeconds
+	 *            Timeout in seconds to wait for the condition to resolve to
+	 *            <tt>true</tt> until a {@link TimeoutException} is thrown.
+	 */
+	public TitleContainsWait(final WebDriver driver, final String needle, final long timeOutInSeconds) {
+		super(driver, timeOutInSeconds);
+		this.mCondition = ExpectedConditions.titleContains(needle);
+		setPollingStrategy(PollingStrategy.FAST);
 	}
 
 	/*
@@ -0,0 +1,214 @@
+package de.zabuza.wslotter.model.wait;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.time.IClock;
+
+/**
+ * Engine which checks a condition repeatedly until it resolves to
+ * <tt>true</tt> or the timeout has passed. The pauses between the checks are
+ * given by a {@link PollingStrategy} and never exceed the time left, such
+ * that a wait does not overshoot its condition or its timeout. All times are
+ * measured by the monotonic time of an {@link IClock}, which does not jump if
+ * the clock of the system is changed. Like the wait of Selenium, the engine
+ * treats a {@link NotFoundException} thrown by the condition as not resolved
+ * yet. So are a {@link StaleElementReferenceException} and errors of scripts,
+ * which a condition may run into while the browser navigates to a new
+ * document.<br>
+ * <br>
+ * An engine makes one wait and remembers how many checks it needed and how
+ * long it took.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WaitEngine {
+	/**
+	 * Name of the class newer versions of Selenium use for errors of scripts.
+	 */
+	private static final String SCRIPT_ERROR_CLASS_NAME = "JavascriptException";
+	/**
+	 * Part of the message by which Selenium reports an error of a script.
+	 */
+	private static final String SCRIPT_ERROR_MESSAGE = "javascript error";
+
+	/**
+	 * Whether the given exception reports an error of a script.
+	 * 
+	 * @param exception
+	 *            The exception to check
+	 * @return <tt>True</tt> if the exception reports an error of a script,
+	 *         <tt>false</tt> if not
+	 */
+	private static boolean isScriptError(final WebDriverException exception) {
+		if (exception.getClass().getSimpleName().equals(SCRIPT_ERROR_CLASS_NAME)) {
+			return true;
+		}
+		final String message = exception.getMessage();
+		return message != null && message.toLowerCase(Locale.ROOT).contains(SCRIPT_ERROR_MESSAGE);
+	}
+
+	/**
+	 * The amount of checks made so far.
+	 */
+	private int mChecks;
+	/**
+	 * The clock which measures the time and lets the wait sleep.
+	 */
+	private final IClock mClock;
+	/**
+	 * The context of the routine the wait belongs to or <tt>null</tt> if it
+	 * does not belong to a routine.
+	 */
+	private final CancellationContext mContext;
+	/**
+	 * The driver to pass to the condition.
+	 */
+	private final WebDriver mDriver;
+	/**
+	 * The time the wait took, in nanoseconds.
+	 */
+	private long mElapsed;
+	/**
+	 * The strategy which determines the pauses between the checks.
+	 */
+	private final PollingStrategy mStrategy;
+	/**
+	 * The time to wait at most, in nanoseconds.
+	 */
+	private final long mTimeout;
+	/**
+	 * Whether the wait timed out.
+	 */
+	private boolean mTimedOut;
+
+	/**
+	 * Creates a new engine for one wait.
+	 * 
+	 * @param driver
+	 *            The driver to pass to the condition
+	 * @param timeout
+	 *            The time to wait at most, in nanoseconds
+	 * @param strategy
+	 *            The strategy which determines the pauses between the checks
+	 * @param clock
+	 *            The clock which measures the time and lets the wait sleep
+	 * @param context
+	 *            The context of the routine the wait belongs to or
+	 *            <tt>null</tt> if it does not belong to a routine
+	 */
+	public WaitEngine(final WebDriver driver, final long timeout, final PollingStrategy strategy,
+			final IClock clock, final CancellationContext context) {
+		this.mDriver = driver;
+		this.mTimeout = timeout;
+		this.mStrategy = strategy;
+		this.mClock = clock;
+		this.mContext = context;
+		this.mChecks = 0;
+		this.mElapsed = 0;
+		this.mTimedOut = false;
+	}
+
+	/**
+	 * Gets the amount of checks the wait needed.
+	 * 
+	 * @return The amount of checks the wait needed
+	 */
+	public int getChecks() {
+		return this.mChecks;
+	}
+
+	/**
+	 * Gets the time the wait took.
+	 * 
+	 * @return The time the wait took, in nanoseconds
+	 */
+	public long getElapsed() {
+		return this.mElapsed;
+	}
+
+	/**
+	 * Whether the wait timed out.
+	 * 
+	 * @return <tt>True</tt> if the wait timed out, <tt>false</tt> if not
+	 */
+	public boolean isTimedOut() {
+		return this.mTimedOut;
+	}
+
+	/**
+	 * Checks the given condition until it resolves to <tt>true</tt>, i.e. it
+	 * returns neither <tt>null</tt> nor <tt>false</tt>.
+	 * 
+	 * @param <V>
+	 *            Class the condition returns when resolving to <tt>true</tt>
+	 * @param condition
+	 *            The condition to wait for
+	 * @return The value of the resolved condition
+	 * @throws TimeoutException
+	 *             If the condition did not resolve to <tt>true</tt> in time
+	 * @throws AbortTaskException
+	 *             If the routine the wait belongs to was stopped or its
+	 *             deadline has passed
+	 * @throws WebDriverException
+	 *             If the current thread was interrupted while waiting
+	 */
+	public <V> V until(final ExpectedCondition<V> condition)
+			throws TimeoutException, AbortTaskException, WebDriverException {
+		final long start = this.mClock.nanoTime();
+		RuntimeException lastException = null;
+		while (true) {
+			if (this.mContext != null) {
+				this.mContext.checkCancelled();
+			}
+
+			this.mChecks++;
+			try {
+				final V value = condition.apply(this.mDriver);
+				if (value != null && !Boolean.FALSE.equals(value)) {
+					this.mElapsed = this.mClock.nanoTime() - start;
+					return value;
+				}
+				lastException = null;
+			} catch (final NotFoundException | StaleElementReferenceException e) {
+				lastException = e;
+			} catch (final WebDriverException e) {
+				if (!isScriptError(e)) {
+					throw e;
+				}
+				lastException = e;
+			}
+
+			this.mElapsed = this.mClock.nanoTime() - start;
+			final long remaining = this.mTimeout - this.mElapsed;
+			if (remaining <= 0) {
+				this.mTimedOut = true;
+				throw new TimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(this.mElapsed)
+						+ " ms and " + this.mChecks + " checks waiting for " + condition, lastException);
+			}
+
+			final long pause = Math.min(this.mStrategy.getInterval(this.mChecks), remaining);
+			if (pause > 0) {
+				try {
+					this.mClock.sleep(pause);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					if (this.mContext != null) {
+						this.mContext.checkCancelled();
+					}
+					throw new WebDriverException(e);
+				}
+			}
+		}
+	}
+}
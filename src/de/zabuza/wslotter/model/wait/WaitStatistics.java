@@ -0,0 +1,133 @@
+package de.zabuza.wslotter.model.wait;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of the waits made so far, grouped by the type of the wait. For
+ * every type it counts the waits, the checks of the condition they needed,
+ * the time they took and how many of them timed out. The statistics are
+ * shared by all routines and can be recorded from any thread.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WaitStatistics {
+	/**
+	 * Statistics of the waits of one type.
+	 * 
+	 * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+	 *
+	 */
+	private static final class Entry {
+		/**
+		 * The total amount of checks.
+		 */
+		private long mChecks;
+		/**
+		 * The total time the waits took, in nanoseconds.
+		 */
+		private long mElapsed;
+		/**
+		 * The maximal amount of checks of a single wait.
+		 */
+		private int mMaxChecks;
+		/**
+		 * The amount of waits which timed out.
+		 */
+		private int mTimeouts;
+		/**
+		 * The amount of waits.
+		 */
+		private int mWaits;
+
+		/**
+		 * Creates a new entry without waits.
+		 */
+		public Entry() {
+			this.mChecks = 0;
+			this.mElapsed = 0;
+			this.mMaxChecks = 0;
+			this.mTimeouts = 0;
+			this.mWaits = 0;
+		}
+	}
+
+	/**
+	 * The statistics of the waits, accessed by their type.
+	 */
+	private final Map<String, Entry> mEntries;
+
+	/**
+	 * Creates new statistics without waits.
+	 */
+	public WaitStatistics() {
+		this.mEntries = new TreeMap<>();
+	}
+
+	/**
+	 * Gets a summary of the statistics, one line per type of wait.
+	 * 
+	 * @return The summary of the statistics, sorted by the type of the wait
+	 */
+	public synchronized List<String> getSummary() {
+		final List<String> summary = new ArrayList<>(this.mEntries.size());
+		for (final Map.Entry<String, Entry> typeToEntry : this.mEntries.entrySet()) {
+			final Entry entry = typeToEntry.getValue();
+			summary.add(typeToEntry.getKey() + ": " + entry.mWaits + " waits, "
+					+ String.format("%.1f", Double.valueOf((double) entry.mChecks / entry.mWaits))
+					+ " checks on average, at most " + entry.mMaxChecks + ", "
+					+ TimeUnit.NANOSECONDS.toMillis(entry.mElapsed / entry.mWaits) + " ms on average, "
+					+ entry.mTimeouts + " timed out");
+		}
+		return summary;
+	}
+
+	/**
+	 * Whether no wait was recorded yet.
+	 * 
+	 * @return <tt>True</tt> if no wait was recorded yet, <tt>false</tt> if
+	 *         not
+	 */
+	public synchronized boolean isEmpty() {
+		return this.mEntries.isEmpty();
+	}
+
+	/**
+	 * Records a finished wait.
+	 * 
+	 * @param type
+	 *            The type of the wait
+	 * @param checks
+	 *            The amount of checks of the condition the wait needed
+	 * @param elapsed
+	 *            The time the wait took, in nanoseconds
+	 * @param timedOut
+	 *            Whether the wait timed out
+	 */
+	public synchronized void record(final String type, final int checks, final long elapsed,
+			final boolean timedOut) {
+		Entry entry = this.mEntries.get(type);
+		if (entry == null) {
+			entry = new Entry();
+			this.mEntries.put(type, entry);
+		}
+		entry.mWaits++;
+		entry.mChecks += checks;
+		entry.mElapsed += elapsed;
+		entry.mMaxChecks = Math.max(entry.mMaxChecks, checks);
+		if (timedOut) {
+			entry.mTimeouts++;
+		}
+	}
+
+	/**
+	 * Removes all recorded waits.
+	 */
+	public synchronized void reset() {
+		this.mEntries.clear();
+	}
+}
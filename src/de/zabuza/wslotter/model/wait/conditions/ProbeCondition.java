@@ -0,0 +1,57 @@
+package de.zabuza.wslotter.model.wait.conditions;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import de.zabuza.wslotter.model.wait.DomProbe;
+import de.zabuza.wslotter.model.wait.ProbeSnapshot;
+
+/**
+ * Condition that outputs a snapshot of a {@link DomProbe} once all or any of
+ * its probed items are present.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ProbeCondition implements ExpectedCondition<ProbeSnapshot> {
+	/**
+	 * The probe to use.
+	 */
+	private final DomProbe mProbe;
+	/**
+	 * Whether all probed items must be present or only any of them.
+	 */
+	private final boolean mRequireAll;
+
+	/**
+	 * Creates a new condition which outputs a snapshot of the given probe once
+	 * all or any of its probed items are present.
+	 * 
+	 * @param probe
+	 *            The probe to use
+	 * @param requireAll
+	 *            <tt>True</tt> if all probed items must be present,
+	 *            <tt>false</tt> if any of them suffices
+	 */
+	public ProbeCondition(final DomProbe probe, final boolean requireAll) {
+		this.mProbe = probe;
+		this.mRequireAll = requireAll;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.google.common.base.Function#apply(java.lang.Object)
+	 */
+	@Override
+	public ProbeSnapshot apply(final WebDriver driver) {
+		final ProbeSnapshot snapshot = this.mProbe.probe();
+		if (this.mRequireAll && snapshot.isComplete()) {
+			return snapshot;
+		}
+		if (!this.mRequireAll && snapshot.isPartial()) {
+			return snapshot;
+		}
+		return null;
+	}
+}
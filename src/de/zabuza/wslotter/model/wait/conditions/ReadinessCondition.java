@@ -0,0 +1,78 @@
+package de.zabuza.wslotter.model.wait.conditions;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import de.zabuza.wslotter.model.wait.DomProbe;
+import de.zabuza.wslotter.model.wait.ProbeSnapshot;
+
+/**
+ * Condition that outputs a snapshot of a {@link DomProbe} once the document is
+ * ready. That is the document is not marked, i.e. navigation has replaced the
+ * old document, and either all or any of the probed items are present or the
+ * document was parsed completely without them.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ReadinessCondition implements ExpectedCondition<ProbeSnapshot> {
+	/**
+	 * The probe to use.
+	 */
+	private final DomProbe mProbe;
+	/**
+	 * Whether all probed items must be present or only any of them, before
+	 * the document was parsed completely.
+	 */
+	private final boolean mRequireAll;
+
+	/**
+	 * Creates a new condition which outputs a snapshot of the given probe once
+	 * the document is ready, that is once any of the probed items is present.
+	 * 
+	 * @param probe
+	 *            The probe to use
+	 */
+	public ReadinessCondition(final DomProbe probe) {
+		this(probe, false);
+	}
+
+	/**
+	 * Creates a new condition which outputs a snapshot of the given probe once
+	 * the document is ready.
+	 * 
+	 * @param probe
+	 *            The probe to use
+	 * @param requireAll
+	 *            <tt>True</tt> if all probed items must be present,
+	 *            <tt>false</tt> if any of them suffices. A document which was
+	 *            parsed completely is ready in any case.
+	 */
+	public ReadinessCondition(final DomProbe probe, final boolean requireAll) {
+		this.mProbe = probe;
+		this.mRequireAll = requireAll;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.google.common.base.Function#apply(java.lang.Object)
+	 */
+	@Override
+	public ProbeSnapshot apply(final WebDriver driver) {
+		final ProbeSnapshot snapshot = this.mProbe.probe();
+		if (snapshot.isMarked()) {
+			return null;
+		}
+		if (snapshot.isParsed()) {
+			return snapshot;
+		}
+		if (this.mRequireAll && snapshot.isComplete()) {
+			return snapshot;
+		}
+		if (!this.mRequireAll && snapshot.isPartial()) {
+			return snapshot;
+		}
+		return null;
+	}
+}
@@ -1,26 +1,38 @@
 package de.zabuza.wslotter.model.wait.conditions;
 
+import java.util.concurrent.TimeUnit;
+
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
+import de.zabuza.wslotter.model.time.IClock;
+import de.zabuza.wslotter.model.time.SystemClock;
+
 /**
  * Condition that outputs whether a given time period has passed. The timer
  * automatically starts by the first time {@link #apply(WebDriver)} is called.
+ * The time is measured by the monotonic time of an {@link IClock}, which does
+ * not jump if the clock of the system is changed.
  * 
  * @author Zabuza {@literal <zabuza.dev@gmail.com>}
  *
  */
 public class TimedCondition implements ExpectedCondition<Boolean> {
+	/**
+	 * The clock which measures the time.
+	 */
+	private final IClock mClock;
 	/**
 	 * If the timer has started.
 	 */
 	private boolean mConditionActivated;
 	/**
-	 * A system time stamp from that point where the timer has started.
+	 * A time stamp, as given by {@link IClock#nanoTime()}, from that point
+	 * where the timer has started.
 	 */
 	private long mTimeStampStarted;
 	/**
-	 * Time period to wait for to pass, in milliseconds.
+	 * Time period to wait for to pass, in nanoseconds.
 	 */
 	private final long mTimeToWait;
 
@@ -33,7 +45,22 @@ public class TimedCondition implements ExpectedCondition<Boolean> {
 	 *            Time period to wait for to pass, in milliseconds
 	 */
 	public TimedCondition(final long timeToWait) {
-		this.mTimeToWait = timeToWait;
+		this(timeToWait, SystemClock.INSTANCE);
+	}
+
+	/**
+	 * Creates a new instance of this object with a given time to wait,
+	 * measured by the given clock. The timer automatically starts by the
+	 * first time {@link #apply(WebDriver)} is called.
+	 * 
+	 * @param timeToWait
+	 *            Time period to wait for to pass, in milliseconds
+	 * @param clock
+	 *            The clock which measures the time
+	 */
+	public TimedCondition(final long timeToWait, final IClock clock) {
+		this.mClock = clock;
+		this.mTimeToWait = TimeUnit.MILLISECONDS.toNanos(timeToWait);
 		this.mConditionActivated = false;
 		this.mTimeStampStarted = 0;
 	}
@@ -46,10 +73,10 @@ public class TimedCondition implements ExpectedCondition<Boolean> {
 	@Override
 	public Boolean apply(final WebDriver driver) {
 		if (!this.mConditionActivated) {
-			this.mTimeStampStarted = System.currentTimeMillis();
+			this.mTimeStampStarted = this.mClock.nanoTime();
 			this.mConditionActivated = true;
 		}
-		return Boolean.valueOf(System.currentTimeMillis() - this.mTimeStampStarted > this.mTimeToWait);
+		return Boolean.valueOf(this.mClock.nanoTime() - this.mTimeStampStarted >= this.mTimeToWait);
 	}
 
 }
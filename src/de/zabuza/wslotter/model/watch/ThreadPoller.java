@@ -0,0 +1,243 @@
+package de.zabuza.wslotter.model.watch;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import de.zabuza.wslotter.model.NamedThreadFactory;
+import de.zabuza.wslotter.model.http.AsyncHttpTransport;
+import de.zabuza.wslotter.model.http.PinnedDnsResolver;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.time.ClockScheduler;
+import de.zabuza.wslotter.model.time.IClock;
+
+/**
+ * Runs the checks of all {@link ThreadWatcher}s on a small fixed amount of
+ * threads. A watcher does not own a thread, every check makes one request and
+ * then queues the next check of the watcher behind the checks of all other
+ * watchers. Hosts are resolved by the {@link PinnedDnsResolver}.<br>
+ * <br>
+ * The requests of the checks do not block. They are sent by an
+ * {@link AsyncHttpTransport}, whose single selector thread serves all
+ * connections, and a callback on the threads of the poller queues the next
+ * check once the site answered. A check thus only occupies a thread while it
+ * sends its request and while it inspects the answer, the amount of checks in
+ * flight at once is not limited by the amount of threads. The transport keeps
+ * its connections alive, such that hundreds of threads can be watched without
+ * opening a connection per request. Delayed checks are queued by a
+ * {@link ClockScheduler}, such that the pauses of the watchers are measured
+ * by the clock of the poller.<br>
+ * <br>
+ * Blocking requests of the HTTP clients, for example to post a message, share
+ * a separate pool of keep-alive connections.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ThreadPoller {
+	/**
+	 * The time in seconds after which idle connections are closed.
+	 */
+	private static final long IDLE_CONNECTION_TIMEOUT = 30;
+	/**
+	 * The time to keep idle threads alive, in seconds.
+	 */
+	private static final long KEEP_ALIVE_TIME = 30;
+	/**
+	 * The maximal amount of pooled connections per host.
+	 */
+	private static final int MAX_CONNECTIONS_PER_HOST = 16;
+	/**
+	 * The maximal amount of pooled connections in total.
+	 */
+	private static final int MAX_CONNECTIONS_TOTAL = 64;
+	/**
+	 * The name of the thread which queues delayed checks.
+	 */
+	private static final String SCHEDULER_THREAD_NAME = "ThreadPollerScheduler";
+	/**
+	 * The name of the threads which run the checks.
+	 */
+	private static final String THREAD_NAME = "ThreadPoller";
+
+	/**
+	 * The pool of keep-alive connections shared by the blocking requests of
+	 * the HTTP clients.
+	 */
+	private final PoolingHttpClientConnectionManager mConnectionManager;
+	/**
+	 * The executor which runs the checks.
+	 */
+	private final ThreadPoolExecutor mExecutor;
+	/**
+	 * The scheduler which queues delayed checks and closes idle connections.
+	 */
+	private final ClockScheduler mScheduler;
+	/**
+	 * The transport of the requests of the checks, which do not block.
+	 */
+	private final AsyncHttpTransport mTransport;
+
+	/**
+	 * Creates a new poller which runs the checks on the given amount of
+	 * threads.
+	 * 
+	 * @param threads
+	 *            The amount of threads to run the checks on, at least one is
+	 *            used
+	 * @param clock
+	 *            The clock which measures the checks and the pauses between
+	 *            them
+	 */
+	public ThreadPoller(final int threads, final IClock clock) {
+		this.mConnectionManager = new PoolingHttpClientConnectionManager(
+				RegistryBuilder.<ConnectionSocketFactory> create()
+						.register("http", PlainConnectionSocketFactory.getSocketFactory())
+						.register("https", SSLConnectionSocketFactory.getSocketFactory()).build(),
+				PinnedDnsResolver.INSTANCE);
+		this.mConnectionManager.setMaxTotal(MAX_CONNECTIONS_TOTAL);
+		this.mConnectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+
+		final int poolSize = Math.max(1, threads);
+		this.mExecutor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(THREAD_NAME));
+		this.mExecutor.allowCoreThreadTimeOut(true);
+		this.mScheduler = new ClockScheduler(SCHEDULER_THREAD_NAME, clock, this.mExecutor);
+		this.mTransport = new AsyncHttpTransport(this.mExecutor, PinnedDnsResolver.INSTANCE);
+		scheduleConnectionEviction();
+	}
+
+	/**
+	 * Creates a HTTP client with an empty cookie store which uses the pooled
+	 * connections of the poller, its pages can also be fetched without
+	 * blocking by the transport of the poller. Closing the client does not
+	 * close the pooled connections.
+	 * 
+	 * @param userAgent
+	 *            The user agent to send with requests or <tt>null</tt> if the
+	 *            default should be used
+	 * @return The HTTP client using the pooled connections
+	 */
+	public SiteHttpClient createHttpClient(final String userAgent) {
+		return new SiteHttpClient(userAgent, this.mConnectionManager, this.mTransport);
+	}
+
+	/**
+	 * Gets the clock which measures the checks and the pauses between them.
+	 * 
+	 * @return The clock of the poller
+	 */
+	public IClock getClock() {
+		return this.mScheduler.getClock();
+	}
+
+	/**
+	 * Sets the amount of threads which run the checks. Checks which wait for
+	 * the answer of the site do not occupy a thread.
+	 * 
+	 * @param threads
+	 *            The amount of threads to run the checks on, at least one is
+	 *            used
+	 */
+	public void setThreads(final int threads) {
+		final int poolSize = Math.max(1, threads);
+		// The core size must never exceed the maximal size
+		if (poolSize > this.mExecutor.getMaximumPoolSize()) {
+			this.mExecutor.setMaximumPoolSize(poolSize);
+			this.mExecutor.setCorePoolSize(poolSize);
+		} else {
+			this.mExecutor.setCorePoolSize(poolSize);
+			this.mExecutor.setMaximumPoolSize(poolSize);
+		}
+	}
+
+	/**
+	 * Sets whether the checks should run on virtual threads, if supported.
+	 * Applies to threads created afterwards.
+	 * 
+	 * @param preferVirtual
+	 *            Whether the checks should run on virtual threads
+	 */
+	public void setVirtualThreads(final boolean preferVirtual) {
+		if (((NamedThreadFactory) this.mExecutor.getThreadFactory()).isVirtual() == preferVirtual) {
+			return;
+		}
+		this.mExecutor.setThreadFactory(new NamedThreadFactory(THREAD_NAME, preferVirtual));
+	}
+
+	/**
+	 * Shuts the poller down. Pending checks are dropped, requests in flight
+	 * fail and the pooled connections are closed.
+	 */
+	public void shutdown() {
+		this.mScheduler.shutdown();
+		this.mExecutor.shutdownNow();
+		this.mTransport.shutdown();
+		this.mConnectionManager.shutdown();
+	}
+
+	/**
+	 * Queues the given check behind all other pending checks.
+	 * 
+	 * @param check
+	 *            The check to run
+	 * @return <tt>True</tt> if the check was queued, <tt>false</tt> if the
+	 *         poller was already shut down
+	 */
+	boolean submit(final Runnable check) {
+		return submit(check, 0);
+	}
+
+	/**
+	 * Queues the given check after the given delay, behind all other checks
+	 * pending by then.
+	 * 
+	 * @param check
+	 *            The check to run
+	 * @param delay
+	 *            The delay in nanoseconds as measured by the clock of the
+	 *            poller, zero or less to queue the check immediately
+	 * @return <tt>True</tt> if the check was queued, <tt>false</tt> if the
+	 *         poller was already shut down
+	 */
+	boolean submit(final Runnable check, final long delay) {
+		try {
+			if (delay > 0) {
+				this.mScheduler.schedule(check, delay);
+			} else {
+				this.mExecutor.execute(check);
+			}
+			return true;
+		} catch (final RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Schedules closing the connections the site has dropped or which are not
+	 * needed anymore, repeating until the poller is shut down.
+	 */
+	private void scheduleConnectionEviction() {
+		submit(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				ThreadPoller.this.mConnectionManager.closeExpiredConnections();
+				ThreadPoller.this.mConnectionManager.closeIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.SECONDS);
+				ThreadPoller.this.mTransport.closeIdleConnections(IDLE_CONNECTION_TIMEOUT, TimeUnit.SECONDS);
+				scheduleConnectionEviction();
+			}
+		}, TimeUnit.SECONDS.toNanos(IDLE_CONNECTION_TIMEOUT));
+	}
+}
@@ -0,0 +1,417 @@
+package de.zabuza.wslotter.model.watch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.http.HttpPage;
+import de.zabuza.wslotter.model.http.IPageCallback;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+import de.zabuza.wslotter.model.poll.PollStagger;
+import de.zabuza.wslotter.model.selector.Patterns;
+
+/**
+ * Watches a thread on behalf of all routines targeting it. The thread is
+ * requested once per attempt instead of once per routine, the HTTP clients of
+ * the subscribed routines take turns such that every session stays in use.
+ * All subscriptions are notified the moment the post-reply form appears, the
+ * routines then only have to post. Watchers are managed by a
+ * {@link ThreadWatcherRegistry} and do not own a thread, their checks run on
+ * a shared {@link ThreadPoller} and are timed by its clock. The request of a
+ * check does not block, the callback which receives the answer queues the
+ * next check of the chain. The thread can be polled by several chains of
+ * checks at once, whose phases are evenly offset by a {@link PollStagger},
+ * the pause is split across them.<br>
+ * <br>
+ * The settings of the subscriptions are merged. The pause between two checks
+ * is the shortest pause any {@link IPollIntervalController} of the
+ * subscriptions asks for, such that the soonest opening is not missed, and
+ * the thread is polled by as many chains as any subscription asks for. The
+ * settings are recomputed whenever a subscription is added or cancelled.<br>
+ * <br>
+ * If the poller refuses a check, for example since it was shut down, the
+ * watcher stops and its subscriptions are woken up, such that the routines
+ * can poll on their own.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ThreadWatcher implements Runnable {
+	/**
+	 * Pattern that matches the password field of the login form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern LOGIN_FORM_PASSWORD_PATTERN = Pattern.compile(Patterns.LOGIN_FORM_PASSWORD);
+	/**
+	 * Pattern that matches the submit button of the post-reply form in the raw
+	 * HTML of a thread.
+	 */
+	private static final Pattern POST_REPLY_SUBMIT_PATTERN = Pattern.compile(Patterns.POST_REPLY_FORM_SUBMIT);
+
+	/**
+	 * The amount of requests made so far.
+	 */
+	private final AtomicInteger mAttempts;
+	/**
+	 * The amount of chains of checks which poll the thread at the moment.
+	 */
+	private int mChains;
+	/**
+	 * Whether the post-reply form was detected.
+	 */
+	private boolean mDetected;
+	/**
+	 * The pause chosen after the latest check in nanoseconds or a negative
+	 * value if the checks are not paced.
+	 */
+	private volatile long mInterval;
+	/**
+	 * The index of the subscription whose HTTP client is used next.
+	 */
+	private int mNextSubscription;
+	/**
+	 * The poller which runs the checks.
+	 */
+	private final ThreadPoller mPoller;
+	/**
+	 * The stagger which offsets the phases of the chains of checks.
+	 */
+	private final PollStagger mStagger;
+	/**
+	 * Whether the watcher stopped since the poller refused a check.
+	 */
+	private boolean mStopped;
+	/**
+	 * The subscriptions which were not cancelled yet.
+	 */
+	private final List<WatcherSubscription> mSubscriptions;
+	/**
+	 * The URL of the thread to watch.
+	 */
+	private final String mThreadUrl;
+
+	/**
+	 * Creates a new watcher of the given thread without subscriptions. It
+	 * starts polling once the first subscription is added.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread to watch
+	 * @param poller
+	 *            The poller which runs the checks
+	 */
+	ThreadWatcher(final String threadUrl, final ThreadPoller poller) {
+		this.mThreadUrl = threadUrl;
+		this.mPoller = poller;
+		this.mStagger = new PollStagger(1);
+		this.mInterval = -1;
+		this.mSubscriptions = new ArrayList<>();
+		this.mAttempts = new AtomicInteger(0);
+		this.mChains = 0;
+		this.mDetected = false;
+		this.mStopped = false;
+		this.mNextSubscription = 0;
+	}
+
+	/**
+	 * Gets the amount of requests made so far.
+	 * 
+	 * @return The amount of requests made so far
+	 */
+	public int getAttempts() {
+		return this.mAttempts.get();
+	}
+
+	/**
+	 * Gets the pause chosen after the latest check.
+	 * 
+	 * @return The pause in nanoseconds or a negative value if the checks are
+	 *         not paced
+	 */
+	public long getInterval() {
+		return this.mInterval;
+	}
+
+	/**
+	 * Gets the URL of the thread to watch.
+	 * 
+	 * @return The URL of the thread to watch
+	 */
+	public String getThreadUrl() {
+		return this.mThreadUrl;
+	}
+
+	/**
+	 * Whether the post-reply form was detected.
+	 * 
+	 * @return <tt>True</tt> if the post-reply form was detected,
+	 *         <tt>false</tt> if not yet
+	 */
+	public synchronized boolean isDetected() {
+		return this.mDetected;
+	}
+
+	/**
+	 * Whether the watcher stopped since the poller refused a check. A stopped
+	 * watcher does not poll the thread anymore.
+	 * 
+	 * @return <tt>True</tt> if the watcher stopped, <tt>false</tt> if not
+	 */
+	public synchronized boolean isStopped() {
+		return this.mStopped;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		if (!continueChain()) {
+			return;
+		}
+		final WatcherSubscription subscription = nextSubscription();
+		if (subscription == null) {
+			// All subscriptions were cancelled
+			return;
+		}
+		final List<IPollIntervalController> intervalControllers = getIntervalControllers();
+
+		this.mAttempts.incrementAndGet();
+		final long requestStart = this.mPoller.getClock().nanoTime();
+		try {
+			subscription.getHttpClient().fetchPageAsync(this.mThreadUrl, new IPageCallback() {
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see
+				 * de.zabuza.wslotter.model.http.IPageCallback#completed(de.zabuza.
+				 * wslotter.model.http.HttpPage)
+				 */
+				@Override
+				public void completed(final HttpPage page) {
+					final long latency = ThreadWatcher.this.mPoller.getClock().nanoTime() - requestStart;
+					ThreadWatcher.this.mStagger.requestAnswered(latency);
+					for (final IPollIntervalController intervalController : intervalControllers) {
+						intervalController.requestSucceeded(latency);
+					}
+					checkAnswered(subscription, intervalControllers, page.getContent());
+				}
+
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see
+				 * de.zabuza.wslotter.model.http.IPageCallback#failed(java.io.
+				 * IOException)
+				 */
+				@Override
+				public void failed(final IOException e) {
+					for (final IPollIntervalController intervalController : intervalControllers) {
+						intervalController.requestFailed();
+					}
+					if (!subscription.isCancelled()) {
+						subscription.getLogger().logError("Request failed: " + e.getMessage(), Logger.SECOND_LEVEL);
+					}
+					checkAnswered(subscription, intervalControllers, null);
+				}
+			});
+		} catch (final IllegalStateException e) {
+			// The client was closed while the subscription was cancelled
+			checkAnswered(subscription, intervalControllers, null);
+		}
+	}
+
+	/**
+	 * Adds the given subscription. Starts further chains of checks if the
+	 * subscription asks for more of them than are running.
+	 * 
+	 * @param subscription
+	 *            The subscription to add
+	 */
+	void addSubscription(final WatcherSubscription subscription) {
+		final int newChains;
+		synchronized (this) {
+			this.mSubscriptions.add(subscription);
+			final int chains = getRequestedChains();
+			this.mStagger.setPollers(chains);
+			newChains = Math.max(0, chains - this.mChains);
+			this.mChains += newChains;
+		}
+		for (int i = 0; i < newChains; i++) {
+			submitAt(this.mPoller.getClock().nanoTime(), Math.max(0, this.mInterval));
+		}
+	}
+
+	/**
+	 * Waits until the post-reply form was detected, the watcher stopped or the
+	 * given time has passed.
+	 * 
+	 * @param timeout
+	 *            The maximal time to wait in milliseconds
+	 * @return <tt>True</tt> if the post-reply form was detected,
+	 *         <tt>false</tt> if not yet
+	 * @throws InterruptedException
+	 *             If the current thread was interrupted while waiting
+	 */
+	synchronized boolean awaitDetection(final long timeout) throws InterruptedException {
+		if (!this.mDetected && !this.mStopped) {
+			wait(timeout);
+		}
+		return this.mDetected;
+	}
+
+	/**
+	 * Removes the given subscription. Surplus chains of checks end on their
+	 * own.
+	 * 
+	 * @param subscription
+	 *            The subscription to remove
+	 * @return <tt>True</tt> if no subscriptions are left, <tt>false</tt> if
+	 *         not
+	 */
+	synchronized boolean removeSubscription(final WatcherSubscription subscription) {
+		this.mSubscriptions.remove(subscription);
+		this.mStagger.setPollers(getRequestedChains());
+		return this.mSubscriptions.isEmpty();
+	}
+
+	/**
+	 * Inspects the answer of a check and queues the next check of the chain
+	 * unless the post-reply form was detected.
+	 * 
+	 * @param subscription
+	 *            The subscription whose HTTP client made the request
+	 * @param intervalControllers
+	 *            The interval controllers of the subscriptions at the time the
+	 *            check started
+	 * @param content
+	 *            The content of the thread or <tt>null</tt> if the request
+	 *            failed
+	 */
+	private void checkAnswered(final WatcherSubscription subscription,
+			final List<IPollIntervalController> intervalControllers, final String content) {
+		if (content != null) {
+			if (POST_REPLY_SUBMIT_PATTERN.matcher(content).find()) {
+				synchronized (this) {
+					this.mDetected = true;
+					notifyAll();
+				}
+				return;
+			}
+			if (LOGIN_FORM_PASSWORD_PATTERN.matcher(content).find()) {
+				subscription.reportSessionExpired();
+			}
+		}
+
+		// Queue the next check behind the checks of the other watchers, the
+		// shortest pause any subscription asks for is split across the chains
+		// of checks
+		long interval = 0;
+		if (!intervalControllers.isEmpty()) {
+			interval = Long.MAX_VALUE;
+			for (final IPollIntervalController intervalController : intervalControllers) {
+				interval = Math.min(interval, intervalController.nextInterval());
+			}
+			this.mInterval = interval;
+		}
+		submitAt(this.mPoller.getClock().nanoTime(), interval);
+	}
+
+	/**
+	 * Whether the current chain of checks should continue. A chain ends once
+	 * the post-reply form was detected, the watcher stopped, all subscriptions
+	 * were cancelled or more chains are running than the subscriptions ask
+	 * for.
+	 * 
+	 * @return <tt>True</tt> if the chain should continue, <tt>false</tt> if it
+	 *         ended
+	 */
+	private synchronized boolean continueChain() {
+		if (this.mDetected || this.mStopped || this.mSubscriptions.isEmpty()
+				|| this.mChains > getRequestedChains()) {
+			this.mChains--;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the interval controllers of the subscriptions.
+	 * 
+	 * @return The interval controllers of the subscriptions which have one
+	 */
+	private synchronized List<IPollIntervalController> getIntervalControllers() {
+		final List<IPollIntervalController> intervalControllers = new ArrayList<>();
+		for (final WatcherSubscription subscription : this.mSubscriptions) {
+			if (subscription.getIntervalController() != null) {
+				intervalControllers.add(subscription.getIntervalController());
+			}
+		}
+		return intervalControllers;
+	}
+
+	/**
+	 * Gets the amount of chains of checks the subscriptions ask for, which is
+	 * the highest amount any subscription asks for.
+	 * 
+	 * @return The amount of chains of checks, at least one
+	 */
+	private synchronized int getRequestedChains() {
+		int chains = 1;
+		for (final WatcherSubscription subscription : this.mSubscriptions) {
+			chains = Math.max(chains, subscription.getPollers());
+		}
+		return chains;
+	}
+
+	/**
+	 * Gets the subscription whose HTTP client polls the thread next, taking
+	 * turns between all subscriptions.
+	 * 
+	 * @return The subscription or <tt>null</tt> if there are no subscriptions
+	 *         left
+	 */
+	private synchronized WatcherSubscription nextSubscription() {
+		if (this.mSubscriptions.isEmpty()) {
+			return null;
+		}
+		if (this.mNextSubscription >= this.mSubscriptions.size()) {
+			this.mNextSubscription = 0;
+		}
+		final WatcherSubscription subscription = this.mSubscriptions.get(this.mNextSubscription);
+		this.mNextSubscription++;
+		return subscription;
+	}
+
+	/**
+	 * Stops the watcher since the poller refused a check of the current chain
+	 * and wakes all subscriptions up.
+	 */
+	private synchronized void stop() {
+		this.mChains--;
+		this.mStopped = true;
+		notifyAll();
+	}
+
+	/**
+	 * Queues a check on the poller, starting at the time the stagger reserves
+	 * for it. Stops the watcher if the poller refuses the check.
+	 * 
+	 * @param earliestStart
+	 *            The earliest time the check can start, as given by the
+	 *            monotonic time of the clock of the poller
+	 * @param interval
+	 *            The pause between two checks of a single chain in
+	 *            nanoseconds, it is split across all chains
+	 */
+	private void submitAt(final long earliestStart, final long interval) {
+		final long start = this.mStagger.reserveStart(earliestStart, interval);
+		if (!this.mPoller.submit(this, start - this.mPoller.getClock().nanoTime())) {
+			stop();
+		}
+	}
+}
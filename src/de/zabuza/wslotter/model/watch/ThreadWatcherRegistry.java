@@ -0,0 +1,109 @@
+package de.zabuza.wslotter.model.watch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+
+/**
+ * Registry of the {@link ThreadWatcher}s, accessed by the URL of their
+ * thread. Routines targeting the same thread share one watcher, which is
+ * started with the first subscription and stopped once the last
+ * subscription was cancelled. The checks of all watchers run on one
+ * {@link ThreadPoller}.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ThreadWatcherRegistry {
+	/**
+	 * The poller which runs the checks of the watchers.
+	 */
+	private final ThreadPoller mPoller;
+	/**
+	 * The watchers with at least one subscription, accessed by the URL of
+	 * their thread.
+	 */
+	private final Map<String, ThreadWatcher> mWatchers;
+
+	/**
+	 * Creates a new registry without watchers.
+	 * 
+	 * @param poller
+	 *            The poller which runs the checks of the watchers
+	 */
+	public ThreadWatcherRegistry(final ThreadPoller poller) {
+		this.mPoller = poller;
+		this.mWatchers = new HashMap<>();
+	}
+
+	/**
+	 * Gets the poller which runs the checks of the watchers.
+	 * 
+	 * @return The poller which runs the checks of the watchers
+	 */
+	public ThreadPoller getPoller() {
+		return this.mPoller;
+	}
+
+	/**
+	 * Subscribes to the watcher of the given thread, starting it if there is
+	 * none yet or if it stopped. The watcher polls the thread with the given HTTP client, taking
+	 * turns with the clients of the other subscriptions. The given settings
+	 * are merged with the ones of the other subscriptions, the watcher pauses
+	 * as short as any subscription asks for and polls with as many chains of
+	 * checks as any subscription asks for.
+	 * 
+	 * @param threadUrl
+	 *            The URL of the thread to watch
+	 * @param httpClient
+	 *            The HTTP client, sharing the session of the routine, to poll
+	 *            the thread with
+	 * @param intervalController
+	 *            The controller which determines the pauses between two
+	 *            requests of the watcher as the routine wants them or
+	 *            <tt>null</tt> if the requests should follow each other
+	 *            immediately
+	 * @param pollers
+	 *            The amount of chains of checks which poll the thread at once,
+	 *            evenly offset, as the routine wants them
+	 * @param logger
+	 *            The logger of the routine
+	 * @return The subscription, it must be cancelled once not needed anymore
+	 */
+	public synchronized WatcherSubscription subscribe(final String threadUrl, final SiteHttpClient httpClient,
+			final IPollIntervalController intervalController, final int pollers, final Logger logger) {
+		final String key = threadUrl.trim();
+		ThreadWatcher watcher = this.mWatchers.get(key);
+		final boolean isNew = watcher == null || watcher.isStopped();
+		if (isNew) {
+			watcher = new ThreadWatcher(key, this.mPoller);
+			this.mWatchers.put(key, watcher);
+		}
+
+		final WatcherSubscription subscription = new WatcherSubscription(this, watcher, httpClient,
+				intervalController, pollers, logger);
+		watcher.addSubscription(subscription);
+		if (!isNew) {
+			logger.logInfo("Sharing the polling of the thread with other routines.", Logger.FIRST_LEVEL);
+		}
+		return subscription;
+	}
+
+	/**
+	 * Removes the given subscription from its watcher. The watcher is stopped
+	 * and removed if it has no subscriptions left.
+	 * 
+	 * @param subscription
+	 *            The subscription to remove
+	 */
+	synchronized void unsubscribe(final WatcherSubscription subscription) {
+		final ThreadWatcher watcher = subscription.getWatcher();
+		if (watcher.removeSubscription(subscription)) {
+			// A stopped watcher may have been replaced already
+			this.mWatchers.remove(watcher.getThreadUrl(), watcher);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package de.zabuza.wslotter.model.watch;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.http.SiteHttpClient;
+import de.zabuza.wslotter.model.poll.IPollIntervalController;
+
+/**
+ * Subscription of a routine to a {@link ThreadWatcher}. It lends the HTTP
+ * client of the routine to the watcher and tells the routine once the
+ * post-reply form was detected. It also carries the settings of the routine,
+ * which the watcher merges with the settings of the other subscriptions. Subscriptions are obtained from a
+ * {@link ThreadWatcherRegistry} and must be cancelled once not needed
+ * anymore.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class WatcherSubscription {
+	/**
+	 * Whether the subscription was cancelled.
+	 */
+	private volatile boolean mCancelled;
+	/**
+	 * The HTTP client, sharing the session of the routine, to poll the
+	 * thread with.
+	 */
+	private final SiteHttpClient mHttpClient;
+	/**
+	 * The controller which determines the pauses between two requests as the
+	 * routine wants them or <tt>null</tt> if the requests should follow each
+	 * other immediately.
+	 */
+	private final IPollIntervalController mIntervalController;
+	/**
+	 * The logger of the routine.
+	 */
+	private final Logger mLogger;
+	/**
+	 * The amount of chains of checks the routine wants to poll the thread
+	 * with.
+	 */
+	private final int mPollers;
+	/**
+	 * The registry which hands out the subscription.
+	 */
+	private final ThreadWatcherRegistry mRegistry;
+	/**
+	 * Whether the session of the routine was found to be expired and not yet
+	 * reported.
+	 */
+	private volatile boolean mSessionExpired;
+	/**
+	 * The watcher the subscription belongs to.
+	 */
+	private final ThreadWatcher mWatcher;
+
+	/**
+	 * Creates a new subscription to the given watcher.
+	 * 
+	 * @param registry
+	 *            The registry which hands out the subscription
+	 * @param watcher
+	 *            The watcher the subscription belongs to
+	 * @param httpClient
+	 *            The HTTP client, sharing the session of the routine, to poll
+	 *            the thread with
+	 * @param intervalController
+	 *            The controller which determines the pauses between two
+	 *            requests as the routine wants them or <tt>null</tt> if the
+	 *            requests should follow each other immediately
+	 * @param pollers
+	 *            The amount of chains of checks the routine wants to poll the
+	 *            thread with, at least one is used
+	 * @param logger
+	 *            The logger of the routine
+	 */
+	WatcherSubscription(final ThreadWatcherRegistry registry, final ThreadWatcher watcher,
+			final SiteHttpClient httpClient, final IPollIntervalController intervalController, final int pollers,
+			final Logger logger) {
+		this.mRegistry = registry;
+		this.mWatcher = watcher;
+		this.mHttpClient = httpClient;
+		this.mIntervalController = intervalController;
+		this.mPollers = Math.max(1, pollers);
+		this.mLogger = logger;
+		this.mCancelled = false;
+		this.mSessionExpired = false;
+	}
+
+	/**
+	 * Waits until the post-reply form was detected or the given time has
+	 * passed.
+	 * 
+	 * @param timeout
+	 *            The maximal time to wait in milliseconds
+	 * @return <tt>True</tt> if the post-reply form was detected,
+	 *         <tt>false</tt> if not yet
+	 * @throws InterruptedException
+	 *             If the current thread was interrupted while waiting
+	 */
+	public boolean awaitDetection(final long timeout) throws InterruptedException {
+		return this.mWatcher.awaitDetection(timeout);
+	}
+
+	/**
+	 * Whether the watcher stopped since its poller refused a check. The
+	 * routine has to poll on its own then.
+	 * 
+	 * @return <tt>True</tt> if the watcher stopped, <tt>false</tt> if not
+	 */
+	public boolean isStopped() {
+		return this.mWatcher.isStopped();
+	}
+
+	/**
+	 * Cancels the subscription. The watcher stops once all of its
+	 * subscriptions are cancelled.
+	 */
+	public void cancel() {
+		if (this.mCancelled) {
+			return;
+		}
+		this.mCancelled = true;
+		this.mRegistry.unsubscribe(this);
+	}
+
+	/**
+	 * Gets the amount of requests the watcher has made so far, on behalf of
+	 * all subscriptions.
+	 * 
+	 * @return The amount of requests the watcher has made so far
+	 */
+	public int getAttempts() {
+		return this.mWatcher.getAttempts();
+	}
+
+	/**
+	 * Gets the pause the watcher chose after its latest request.
+	 * 
+	 * @return The pause in nanoseconds or a negative value if the requests of
+	 *         the watcher are not paced
+	 */
+	public long getInterval() {
+		return this.mWatcher.getInterval();
+	}
+
+	/**
+	 * Whether the session of the routine was found to be expired since the
+	 * last call. Resets the state.
+	 * 
+	 * @return <tt>True</tt> if the session was found to be expired,
+	 *         <tt>false</tt> if not
+	 */
+	public boolean pollSessionExpired() {
+		if (!this.mSessionExpired) {
+			return false;
+		}
+		this.mSessionExpired = false;
+		return true;
+	}
+
+	/**
+	 * Gets the HTTP client, sharing the session of the routine, to poll the
+	 * thread with.
+	 * 
+	 * @return The HTTP client to poll the thread with
+	 */
+	SiteHttpClient getHttpClient() {
+		return this.mHttpClient;
+	}
+
+	/**
+	 * Gets the controller which determines the pauses between two requests as
+	 * the routine wants them.
+	 * 
+	 * @return The controller or <tt>null</tt> if the requests should follow
+	 *         each other immediately
+	 */
+	IPollIntervalController getIntervalController() {
+		return this.mIntervalController;
+	}
+
+	/**
+	 * Gets the logger of the routine.
+	 * 
+	 * @return The logger of the routine
+	 */
+	Logger getLogger() {
+		return this.mLogger;
+	}
+
+	/**
+	 * Gets the amount of chains of checks the routine wants to poll the thread
+	 * with.
+	 * 
+	 * @return The amount of chains of checks, at least one
+	 */
+	int getPollers() {
+		return this.mPollers;
+	}
+
+	/**
+	 * Gets the watcher the subscription belongs to.
+	 * 
+	 * @return The watcher the subscription belongs to
+	 */
+	ThreadWatcher getWatcher() {
+		return this.mWatcher;
+	}
+
+	/**
+	 * Whether the subscription was cancelled.
+	 * 
+	 * @return <tt>True</tt> if the subscription was cancelled, <tt>false</tt>
+	 *         if not
+	 */
+	boolean isCancelled() {
+		return this.mCancelled;
+	}
+
+	/**
+	 * Reports that the session of the routine was found to be expired.
+	 */
+	void reportSessionExpired() {
+		this.mSessionExpired = true;
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains classes which watch a thread once on behalf of all
+ * routines targeting it.
+ */
+package de.zabuza.wslotter.model.watch;
@@ -5,6 +5,7 @@ import java.awt.Container;
 import java.awt.Font;
 import java.awt.KeyboardFocusManager;
 import java.awt.event.ActionListener;
+import java.awt.event.ItemListener;
 import java.awt.event.WindowListener;
 import java.util.LinkedList;
 import java.util.List;
@@ -22,12 +23,14 @@ import javax.swing.JTextField;
 import javax.swing.JTextPane;
 import javax.swing.SwingConstants;
 import javax.swing.border.BevelBorder;
+import javax.swing.event.DocumentListener;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyleContext;
 
 import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EEngine;
 
 /**
  * View of the main frame.
@@ -39,7 +42,7 @@ public final class MainFrameView {
 	/**
 	 * Height of the view.
 	 */
-	public static final int HEIGHT = 385;
+	public static final int HEIGHT = 415;
 	/**
 	 * Width of the view.
 	 */
@@ -56,6 +59,10 @@ public final class MainFrameView {
 	 * The default font size of the view.
 	 */
 	private static final int DEFAULT_FONT_SIZE = 11;
+	/**
+	 * Arm time field of the view.
+	 */
+	private JTextField mArmTimeField;
 	/**
 	 * The browser choice of the view.
 	 */
@@ -64,6 +71,10 @@ public final class MainFrameView {
 	 * Container of the view.
 	 */
 	private final Container mContainer;
+	/**
+	 * The engine choice of the view.
+	 */
+	private JComboBox<EEngine> mEngineChoiceBox;
 	/**
 	 * The frame of the view.
 	 */
@@ -72,6 +83,10 @@ public final class MainFrameView {
 	 * List of all input elements.
 	 */
 	private final List<JComponent> mInputElements;
+	/**
+	 * Job file button of the view.
+	 */
+	private JButton mJobFileBtn;
 	/**
 	 * Log area of the view.
 	 */
@@ -134,6 +149,36 @@ public final class MainFrameView {
 		initialize();
 	}
 
+	/**
+	 * Adds an item listener to the browser choice.
+	 * 
+	 * @param listener
+	 *            Listener to add
+	 */
+	public void addListenerToBrowserChoice(final ItemListener listener) {
+		this.mBrowserChoiceBox.addItemListener(listener);
+	}
+
+	/**
+	 * Adds an item listener to the engine choice.
+	 * 
+	 * @param listener
+	 *            Listener to add
+	 */
+	public void addListenerToEngineChoice(final ItemListener listener) {
+		this.mEngineChoiceBox.addItemListener(listener);
+	}
+
+	/**
+	 * Adds an action listener to the job file action.
+	 * 
+	 * @param listener
+	 *            Listener to add
+	 */
+	public void addListenerToJobFileAction(final ActionListener listener) {
+		this.mJobFileBtn.addActionListener(listener);
+	}
+
 	/**
 	 * Adds an action listener to the settings action.
 	 * 
@@ -164,6 +209,26 @@ public final class MainFrameView {
 		this.mStopBtn.addActionListener(listener);
 	}
 
+	/**
+	 * Adds a document listener to changes of the thread URL.
+	 * 
+	 * @param listener
+	 *            Listener to add
+	 */
+	public void addListenerToThreadUrlChange(final DocumentListener listener) {
+		this.mThreadUrlField.getDocument().addDocumentListener(listener);
+	}
+
+	/**
+	 * Adds a document listener to changes of the username.
+	 * 
+	 * @param listener
+	 *            Listener to add
+	 */
+	public void addListenerToUsernameChange(final DocumentListener listener) {
+		this.mUsernameField.getDocument().addDocumentListener(listener);
+	}
+
 	/**
 	 * Adds a window listener to the view window.
 	 * 
@@ -174,6 +239,16 @@ public final class MainFrameView {
 		this.mFrame.addWindowListener(listener);
 	}
 
+	/**
+	 * Gets the input arm time.
+	 * 
+	 * @return The input arm time, of the format <tt>yyyy-MM-dd HH:mm:ss</tt>
+	 *         or empty if the routine should not be armed
+	 */
+	public String getArmTime() {
+		return this.mArmTimeField.getText();
+	}
+
 	/**
 	 * Gets the selected input browser.
 	 * 
@@ -183,6 +258,15 @@ public final class MainFrameView {
 		return (EBrowser) this.mBrowserChoiceBox.getSelectedItem();
 	}
 
+	/**
+	 * Gets the selected input engine.
+	 * 
+	 * @return The selected input engine
+	 */
+	public EEngine getEngine() {
+		return (EEngine) this.mEngineChoiceBox.getSelectedItem();
+	}
+
 	/**
 	 * Gets the input password.
 	 * 
@@ -322,16 +406,20 @@ public final class MainFrameView {
 	 */
 	private void initializeButtons() {
 		this.mStartBtn = new JButton("Start");
-		this.mStartBtn.setBounds(180, 170, 100, 23);
+		this.mStartBtn.setBounds(180, 200, 100, 23);
 		this.mMainPanel.add(this.mStartBtn);
 
 		this.mStopBtn = new JButton("Stop");
-		this.mStopBtn.setBounds(300, 170, 100, 23);
+		this.mStopBtn.setBounds(300, 200, 100, 23);
 		this.mMainPanel.add(this.mStopBtn);
 
 		this.mSettingsBtn = new LinkButton("Settings");
 		this.mSettingsBtn.setBounds(350, 0, 90, 23);
 		this.mTrailerPanel.add(this.mSettingsBtn);
+
+		this.mJobFileBtn = new LinkButton("Run job file");
+		this.mJobFileBtn.setBounds(230, 0, 110, 23);
+		this.mTrailerPanel.add(this.mJobFileBtn);
 	}
 
 	/**
@@ -359,6 +447,13 @@ public final class MainFrameView {
 		this.mInputElements.add(this.mPasswordField);
 		this.mPasswordField.setColumns(DEFAULT_FIELD_COLUMNS);
 
+		this.mArmTimeField = new JTextField();
+		this.mArmTimeField.setHorizontalAlignment(SwingConstants.LEFT);
+		this.mArmTimeField.setBounds(55, 160, (this.mMainPanel.getWidth() / 2) - 75, 20);
+		this.mMainPanel.add(this.mArmTimeField);
+		this.mInputElements.add(this.mArmTimeField);
+		this.mArmTimeField.setColumns(DEFAULT_FIELD_COLUMNS);
+
 		this.mBrowserChoiceBox = new JComboBox<>();
 		for (final EBrowser browser : EBrowser.values()) {
 			this.mBrowserChoiceBox.addItem(browser);
@@ -369,6 +464,17 @@ public final class MainFrameView {
 		this.mBrowserChoiceBox.setBounds((this.mMainPanel.getWidth() / 2) + 90, 130, 123, 20);
 		this.mMainPanel.add(this.mBrowserChoiceBox);
 		this.mInputElements.add(this.mBrowserChoiceBox);
+
+		this.mEngineChoiceBox = new JComboBox<>();
+		for (final EEngine engine : EEngine.values()) {
+			this.mEngineChoiceBox.addItem(engine);
+			if (engine == EEngine.BROWSER) {
+				this.mEngineChoiceBox.setSelectedItem(engine);
+			}
+		}
+		this.mEngineChoiceBox.setBounds((this.mMainPanel.getWidth() / 2) + 90, 160, 123, 20);
+		this.mMainPanel.add(this.mEngineChoiceBox);
+		this.mInputElements.add(this.mEngineChoiceBox);
 	}
 
 	/**
@@ -387,6 +493,12 @@ public final class MainFrameView {
 		mTextToPostLbl.setBounds(0, 50, 90, 14);
 		this.mMainPanel.add(mTextToPostLbl);
 
+		final JLabel mArmTimeLbl = new JLabel("Arm at:");
+		mArmTimeLbl.setHorizontalAlignment(SwingConstants.LEFT);
+		mArmTimeLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
+		mArmTimeLbl.setBounds(0, 163, 50, 14);
+		this.mMainPanel.add(mArmTimeLbl);
+
 		final JLabel mUsernameLbl = new JLabel("Username:");
 		mUsernameLbl.setHorizontalAlignment(SwingConstants.RIGHT);
 		mUsernameLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
@@ -404,6 +516,12 @@ public final class MainFrameView {
 		mBrowserChoiceLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
 		mBrowserChoiceLbl.setBounds((this.mMainPanel.getWidth() / 2) + 20, 130, 65, 14);
 		this.mMainPanel.add(mBrowserChoiceLbl);
+
+		final JLabel mEngineChoiceLbl = new JLabel("Engine:");
+		mEngineChoiceLbl.setHorizontalAlignment(SwingConstants.RIGHT);
+		mEngineChoiceLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
+		mEngineChoiceLbl.setBounds((this.mMainPanel.getWidth() / 2) + 20, 160, 65, 14);
+		this.mMainPanel.add(mEngineChoiceLbl);
 	}
 
 	/**
@@ -411,7 +529,7 @@ public final class MainFrameView {
 	 */
 	private void initializePanels() {
 		this.mMainPanel = new JPanel();
-		this.mMainPanel.setBounds(10, 10, WIDTH - 25, 200);
+		this.mMainPanel.setBounds(10, 10, WIDTH - 25, 230);
 		this.mContainer.add(this.mMainPanel);
 		this.mMainPanel.setLayout(null);
 
@@ -422,11 +540,11 @@ public final class MainFrameView {
 
 		this.mLogPane = new JScrollPane();
 		this.mLogPane.setViewportBorder(new BevelBorder(BevelBorder.LOWERED, null, null, null, null));
-		this.mLogPane.setBounds(10, 230, WIDTH - 25, 100);
+		this.mLogPane.setBounds(10, 260, WIDTH - 25, 100);
 		this.mContainer.add(this.mLogPane);
 
 		this.mTrailerPanel = new JPanel();
-		this.mTrailerPanel.setBounds(10, 330, WIDTH - 25, 50);
+		this.mTrailerPanel.setBounds(10, 360, WIDTH - 25, 50);
 		this.mContainer.add(this.mTrailerPanel);
 		this.mTrailerPanel.setLayout(null);
 	}
@@ -1,23 +1,29 @@
 package de.zabuza.wslotter.view;
 
 import java.awt.Container;
+import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.ActionListener;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.border.TitledBorder;
 
 import de.zabuza.wslotter.model.EBrowser;
+import de.zabuza.wslotter.model.EOption;
 
 /**
  * Dialog window for changing the settings of the tool.
@@ -53,11 +59,23 @@ public final class SettingsDialog extends JDialog {
 	/**
 	 * The height of the dialog.
 	 */
-	private final static int FRAME_HEIGHT = 380;
+	private final static int FRAME_HEIGHT = 580;
 	/**
 	 * The width of the dialog.
 	 */
 	private final static int FRAME_WIDTH = 400;
+	/**
+	 * The height of the visible area of the option panel.
+	 */
+	private final static int OPTION_PANEL_HEIGHT = 170;
+	/**
+	 * The vertical distance between two rows of the option panel.
+	 */
+	private final static int OPTION_ROW_HEIGHT = 30;
+	/**
+	 * The title of the option panel.
+	 */
+	private final static String OPTION_TITLE = "Options";
 	/**
 	 * The origin offset of the dialog to the owner, in both directions.
 	 */
@@ -138,6 +156,26 @@ public final class SettingsDialog extends JDialog {
 	 * The driver input field for Opera.
 	 */
 	private JTextField mOperaDriverField;
+	/**
+	 * The check boxes of all flag options.
+	 */
+	private final Map<EOption, JCheckBox> mOptionCheckBoxes;
+	/**
+	 * The input fields of all options which are no flags.
+	 */
+	private final Map<EOption, JTextField> mOptionFields;
+	/**
+	 * The option panel of the dialog.
+	 */
+	private JPanel mOptionPanel;
+	/**
+	 * Select driver button of the dialog for PhantomJS.
+	 */
+	private JButton mPhantomJsBtn;
+	/**
+	 * The driver input field for PhantomJS.
+	 */
+	private JTextField mPhantomJsDriverField;
 	/**
 	 * Select driver button of the dialog for Safari.
 	 */
@@ -165,6 +203,8 @@ public final class SettingsDialog extends JDialog {
 		super(owner, DIALOG_TITLE);
 		this.mContainer = getContentPane();
 		this.mElements = new LinkedList<>();
+		this.mOptionCheckBoxes = new EnumMap<>(EOption.class);
+		this.mOptionFields = new EnumMap<>(EOption.class);
 		initialize(owner);
 	}
 
@@ -198,6 +238,8 @@ public final class SettingsDialog extends JDialog {
 			this.mMsEdgeBtn.addActionListener(listener);
 		} else if (browser == EBrowser.OPERA) {
 			this.mOperaBtn.addActionListener(listener);
+		} else if (browser == EBrowser.PHANTOMJS) {
+			this.mPhantomJsBtn.addActionListener(listener);
 		} else if (browser == EBrowser.SAFARI) {
 			this.mSafariBtn.addActionListener(listener);
 		} else {
@@ -252,6 +294,8 @@ public final class SettingsDialog extends JDialog {
 			return this.mMsEdgeDriverField;
 		} else if (browser == EBrowser.OPERA) {
 			return this.mOperaDriverField;
+		} else if (browser == EBrowser.PHANTOMJS) {
+			return this.mPhantomJsDriverField;
 		} else if (browser == EBrowser.SAFARI) {
 			return this.mSafariDriverField;
 		} else {
@@ -259,6 +303,20 @@ public final class SettingsDialog extends JDialog {
 		}
 	}
 
+	/**
+	 * Gets the value of the given option as currently entered in the dialog.
+	 * 
+	 * @param option
+	 *            Option to get its value
+	 * @return The value of the option as currently entered in the dialog
+	 */
+	public String getOptionValue(final EOption option) {
+		if (option.isFlag()) {
+			return Boolean.toString(this.mOptionCheckBoxes.get(option).isSelected());
+		}
+		return this.mOptionFields.get(option).getText();
+	}
+
 	/**
 	 * Enables or disables all elements of the dialog.
 	 * 
@@ -271,6 +329,22 @@ public final class SettingsDialog extends JDialog {
 		}
 	}
 
+	/**
+	 * Sets the value of the given option to display in the dialog.
+	 * 
+	 * @param option
+	 *            Option to set its value
+	 * @param value
+	 *            The value to display
+	 */
+	public void setOptionValue(final EOption option, final String value) {
+		if (option.isFlag()) {
+			this.mOptionCheckBoxes.get(option).setSelected(Boolean.parseBoolean(value));
+		} else {
+			this.mOptionFields.get(option).setText(value);
+		}
+	}
+
 	/**
 	 * Initialize the contents of the view.
 	 * 
@@ -315,8 +389,13 @@ public final class SettingsDialog extends JDialog {
 		this.mDriverPanel.add(this.mOperaBtn);
 		this.mElements.add(this.mOperaBtn);
 
+		this.mPhantomJsBtn = new JButton(SELECT_TITLE);
+		this.mPhantomJsBtn.setBounds(290, 180, 80, 20);
+		this.mDriverPanel.add(this.mPhantomJsBtn);
+		this.mElements.add(this.mPhantomJsBtn);
+
 		this.mSafariBtn = new JButton(SELECT_TITLE);
-		this.mSafariBtn.setBounds(290, 180, 80, 20);
+		this.mSafariBtn.setBounds(290, 210, 80, 20);
 		this.mDriverPanel.add(this.mSafariBtn);
 		this.mElements.add(this.mSafariBtn);
 
@@ -326,12 +405,12 @@ public final class SettingsDialog extends JDialog {
 		this.mElements.add(this.mBrowserBinaryBtn);
 
 		this.mSaveBtn = new JButton("Save");
-		this.mSaveBtn.setBounds((FRAME_WIDTH / 2) - 100, 310, 80, 20);
+		this.mSaveBtn.setBounds((FRAME_WIDTH / 2) - 100, 510, 80, 20);
 		this.mTrailerPanel.add(this.mSaveBtn);
 		this.mElements.add(this.mSaveBtn);
 
 		this.mCancelBtn = new JButton("Cancel");
-		this.mCancelBtn.setBounds((FRAME_WIDTH / 2) + 20, 310, 80, 20);
+		this.mCancelBtn.setBounds((FRAME_WIDTH / 2) + 20, 510, 80, 20);
 		this.mTrailerPanel.add(this.mCancelBtn);
 		this.mElements.add(this.mCancelBtn);
 	}
@@ -375,9 +454,16 @@ public final class SettingsDialog extends JDialog {
 		this.mElements.add(this.mOperaDriverField);
 		this.mOperaDriverField.setColumns(DEFAULT_FIELD_COLUMNS);
 
+		this.mPhantomJsDriverField = new JTextField();
+		this.mPhantomJsDriverField.setHorizontalAlignment(SwingConstants.LEFT);
+		this.mPhantomJsDriverField.setBounds(80, 180, 200, 20);
+		this.mDriverPanel.add(this.mPhantomJsDriverField);
+		this.mElements.add(this.mPhantomJsDriverField);
+		this.mPhantomJsDriverField.setColumns(DEFAULT_FIELD_COLUMNS);
+
 		this.mSafariDriverField = new JTextField();
 		this.mSafariDriverField.setHorizontalAlignment(SwingConstants.LEFT);
-		this.mSafariDriverField.setBounds(80, 180, 200, 20);
+		this.mSafariDriverField.setBounds(80, 210, 200, 20);
 		this.mDriverPanel.add(this.mSafariDriverField);
 		this.mElements.add(this.mSafariDriverField);
 		this.mSafariDriverField.setColumns(DEFAULT_FIELD_COLUMNS);
@@ -388,6 +474,27 @@ public final class SettingsDialog extends JDialog {
 		this.mBinaryPanel.add(this.mBrowserBinaryField);
 		this.mElements.add(this.mBrowserBinaryField);
 		this.mBrowserBinaryField.setColumns(DEFAULT_FIELD_COLUMNS);
+
+		int optionRow = 0;
+		for (final EOption option : EOption.values()) {
+			final int y = 10 + optionRow * OPTION_ROW_HEIGHT;
+			if (option.isFlag()) {
+				final JCheckBox checkBox = new JCheckBox();
+				checkBox.setBounds(190, y, 150, 20);
+				this.mOptionPanel.add(checkBox);
+				this.mElements.add(checkBox);
+				this.mOptionCheckBoxes.put(option, checkBox);
+			} else {
+				final JTextField field = new JTextField();
+				field.setHorizontalAlignment(SwingConstants.LEFT);
+				field.setBounds(190, y, 150, 20);
+				this.mOptionPanel.add(field);
+				this.mElements.add(field);
+				field.setColumns(DEFAULT_FIELD_COLUMNS);
+				this.mOptionFields.put(option, field);
+			}
+			optionRow++;
+		}
 	}
 
 	/**
@@ -424,10 +531,16 @@ public final class SettingsDialog extends JDialog {
 		mOperaDriverLbl.setBounds(10, 150, 60, 14);
 		this.mDriverPanel.add(mOperaDriverLbl);
 
+		final JLabel mPhantomJsDriverLbl = new JLabel("PhantomJS:");
+		mPhantomJsDriverLbl.setHorizontalAlignment(SwingConstants.RIGHT);
+		mPhantomJsDriverLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
+		mPhantomJsDriverLbl.setBounds(10, 180, 60, 14);
+		this.mDriverPanel.add(mPhantomJsDriverLbl);
+
 		final JLabel mSafariDriverLbl = new JLabel("Safari:");
 		mSafariDriverLbl.setHorizontalAlignment(SwingConstants.RIGHT);
 		mSafariDriverLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
-		mSafariDriverLbl.setBounds(10, 180, 60, 14);
+		mSafariDriverLbl.setBounds(10, 210, 60, 14);
 		this.mDriverPanel.add(mSafariDriverLbl);
 
 		final JLabel mBrowserBinaryLbl = new JLabel("Browser:");
@@ -435,6 +548,16 @@ public final class SettingsDialog extends JDialog {
 		mBrowserBinaryLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
 		mBrowserBinaryLbl.setBounds(10, 30, 60, 14);
 		this.mBinaryPanel.add(mBrowserBinaryLbl);
+
+		int optionRow = 0;
+		for (final EOption option : EOption.values()) {
+			final JLabel optionLbl = new JLabel(option.getLabel() + ":");
+			optionLbl.setHorizontalAlignment(SwingConstants.RIGHT);
+			optionLbl.setFont(new Font(DEFAULT_FONT, Font.BOLD, DEFAULT_FONT_SIZE + 1));
+			optionLbl.setBounds(10, 13 + optionRow * OPTION_ROW_HEIGHT, 170, 14);
+			this.mOptionPanel.add(optionLbl);
+			optionRow++;
+		}
 	}
 
 	/**
@@ -442,21 +565,32 @@ public final class SettingsDialog extends JDialog {
 	 */
 	private void initializePanels() {
 		this.mDriverPanel = new JPanel();
-		this.mDriverPanel.setBounds(10, 10, FRAME_WIDTH - 25, 220);
+		this.mDriverPanel.setBounds(10, 10, FRAME_WIDTH - 25, 250);
 		final TitledBorder titledBorderDriver = BorderFactory.createTitledBorder(DRIVER_TITLE);
 		this.mDriverPanel.setBorder(titledBorderDriver);
 		this.mContainer.add(this.mDriverPanel);
 		this.mDriverPanel.setLayout(null);
 
 		this.mBinaryPanel = new JPanel();
-		this.mBinaryPanel.setBounds(10, 230, FRAME_WIDTH - 25, 70);
+		this.mBinaryPanel.setBounds(10, 260, FRAME_WIDTH - 25, 70);
 		final TitledBorder titledBorderBinary = BorderFactory.createTitledBorder(BINARY_TITLE);
 		this.mBinaryPanel.setBorder(titledBorderBinary);
 		this.mContainer.add(this.mBinaryPanel);
 		this.mBinaryPanel.setLayout(null);
 
+		this.mOptionPanel = new JPanel();
+		this.mOptionPanel
+				.setPreferredSize(new Dimension(FRAME_WIDTH - 50, 10 + EOption.values().length * OPTION_ROW_HEIGHT));
+		this.mOptionPanel.setLayout(null);
+		final JScrollPane optionScrollPane = new JScrollPane(this.mOptionPanel);
+		optionScrollPane.setBounds(10, 330, FRAME_WIDTH - 25, OPTION_PANEL_HEIGHT);
+		final TitledBorder titledBorderOption = BorderFactory.createTitledBorder(OPTION_TITLE);
+		optionScrollPane.setBorder(titledBorderOption);
+		optionScrollPane.getVerticalScrollBar().setUnitIncrement(OPTION_ROW_HEIGHT);
+		this.mContainer.add(optionScrollPane);
+
 		this.mTrailerPanel = new JPanel();
-		this.mTrailerPanel.setBounds(10, 300, FRAME_WIDTH - 25, 80);
+		this.mTrailerPanel.setBounds(10, 500, FRAME_WIDTH - 25, 80);
 		this.mContainer.add(this.mTrailerPanel);
 		this.mTrailerPanel.setLayout(null);
 	}
@@ -0,0 +1,137 @@
+package de.zabuza.wslotter.model.poll;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.zabuza.wslotter.model.time.VirtualClock;
+
+/**
+ * Test for the class {@link AdaptiveIntervalController}. The time until the
+ * opening is measured by a {@link VirtualClock}, which is advanced by the
+ * tests.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class AdaptiveIntervalControllerTest {
+	/**
+	 * The maximal pause in milliseconds.
+	 */
+	private static final long MAX_INTERVAL = 600_000;
+	/**
+	 * The minimal pause in milliseconds.
+	 */
+	private static final long MIN_INTERVAL = 100;
+	/**
+	 * The time the simulation starts, in milliseconds since midnight, January
+	 * 1, 1970 UTC.
+	 */
+	private static final long START_TIME = 1_500_000_000_000L;
+	/**
+	 * The tolerance of pauses which are computed by floating point numbers,
+	 * in nanoseconds.
+	 */
+	private static final double TOLERANCE = 1;
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#nextInterval()} while
+	 * the opening is far away.
+	 */
+	@Test
+	public void testNextIntervalFarFromOpening() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final long openingTime = START_TIME + TimeUnit.HOURS.toMillis(1);
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(openingTime, MIN_INTERVAL,
+				MAX_INTERVAL, clock);
+
+		// A twentieth of the time until the opening
+		assertEquals(TimeUnit.SECONDS.toNanos(180), controller.nextInterval());
+
+		// Within the sprint window the thread is polled as fast as allowed
+		clock.advance(TimeUnit.MINUTES.toNanos(59) + TimeUnit.SECONDS.toNanos(40));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#nextInterval()} with
+	 * a maximal pause shorter than the distance to the opening.
+	 */
+	@Test
+	public void testNextIntervalMaxInterval() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final long openingTime = START_TIME + TimeUnit.HOURS.toMillis(10);
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(openingTime, MIN_INTERVAL,
+				MAX_INTERVAL, clock);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MAX_INTERVAL), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#nextInterval()} right
+	 * before the sprint window.
+	 */
+	@Test
+	public void testNextIntervalSprintWindow() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final long openingTime = START_TIME + TimeUnit.SECONDS.toMillis(31);
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(openingTime, MIN_INTERVAL,
+				MAX_INTERVAL, clock);
+
+		// The pause ends when the sprint window starts
+		assertEquals(TimeUnit.SECONDS.toNanos(1), controller.nextInterval());
+		clock.advance(controller.nextInterval());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#nextInterval()}
+	 * without an opening time.
+	 */
+	@Test
+	public void testNextIntervalWithoutOpeningTime() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(
+				AdaptiveIntervalController.NO_OPENING_TIME, MIN_INTERVAL, MAX_INTERVAL, clock);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+		clock.advance(TimeUnit.DAYS.toNanos(1));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#requestFailed()}.
+	 */
+	@Test
+	public void testRequestFailed() {
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(
+				AdaptiveIntervalController.NO_OPENING_TIME, MIN_INTERVAL, MAX_INTERVAL, new VirtualClock());
+
+		// The pause doubles with every failure in a row
+		controller.requestFailed();
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(2 * MIN_INTERVAL), controller.nextInterval());
+		controller.requestFailed();
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(4 * MIN_INTERVAL), controller.nextInterval());
+
+		// An answered request ends the back-off
+		controller.requestSucceeded(0);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link AdaptiveIntervalController#requestSucceeded(long)}
+	 * with a slowed down site.
+	 */
+	@Test
+	public void testRequestSucceededSlowedDown() {
+		final AdaptiveIntervalController controller = new AdaptiveIntervalController(
+				AdaptiveIntervalController.NO_OPENING_TIME, MIN_INTERVAL, MAX_INTERVAL, new VirtualClock());
+		controller.requestSucceeded(TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MIN_INTERVAL), controller.nextInterval());
+
+		// The average latency becomes 2.6 times the lowest one, the pause is
+		// stretched by that factor and the additional latency is waited out
+		controller.requestSucceeded(TimeUnit.MILLISECONDS.toNanos(900));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(260 + 416), controller.nextInterval(), TOLERANCE);
+	}
+}
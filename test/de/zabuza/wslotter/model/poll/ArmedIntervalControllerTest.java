@@ -0,0 +1,172 @@
+package de.zabuza.wslotter.model.poll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.zabuza.wslotter.model.time.ServerClock;
+import de.zabuza.wslotter.model.time.VirtualClock;
+
+/**
+ * Test for the class {@link ArmedIntervalController}. The clock of the server
+ * is based on a {@link VirtualClock}, which is advanced by the tests.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ArmedIntervalControllerTest {
+	/**
+	 * The time from the start of the simulation until the thread opens, in
+	 * milliseconds.
+	 */
+	private static final long ARM_DELAY = 60_000;
+	/**
+	 * The pause between two requests of the burst in milliseconds.
+	 */
+	private static final long BURST_INTERVAL = 20;
+	/**
+	 * The pause the controller after the burst determines, in nanoseconds.
+	 */
+	private static final long INTERVAL_AFTER_BURST = TimeUnit.SECONDS.toNanos(1);
+	/**
+	 * The maximal pause before the burst in milliseconds.
+	 */
+	private static final long MAX_INTERVAL = 10_000;
+	/**
+	 * The time the simulation starts, in milliseconds since midnight, January
+	 * 1, 1970 UTC.
+	 */
+	private static final long START_TIME = 1_500_000_000_000L;
+
+	/**
+	 * Creates a controller which always determines
+	 * {@link #INTERVAL_AFTER_BURST}.
+	 * 
+	 * @return The controller
+	 */
+	private static IPollIntervalController createAfterBurst() {
+		return new IPollIntervalController() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#nextInterval()
+			 */
+			@Override
+			public long nextInterval() {
+				return INTERVAL_AFTER_BURST;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestFailed()
+			 */
+			@Override
+			public void requestFailed() {
+				// Does not adapt
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestSucceeded
+			 * (long)
+			 */
+			@Override
+			public void requestSucceeded(final long latency) {
+				// Does not adapt
+			}
+		};
+	}
+
+	/**
+	 * Test method for {@link ArmedIntervalController#getBurstHalfWidth()}.
+	 */
+	@Test
+	public void testGetBurstHalfWidth() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final ServerClock serverClock = new ServerClock(clock);
+		final ArmedIntervalController controller = new ArmedIntervalController(START_TIME + ARM_DELAY,
+				BURST_INTERVAL, MAX_INTERVAL, serverClock, createAfterBurst());
+
+		// Without answers of the server the burst has its minimal width
+		assertEquals(250, controller.getBurstHalfWidth());
+
+		// The date of the server only has a resolution of a second
+		serverClock.addSample(START_TIME, START_TIME + 100, START_TIME);
+		assertEquals(550, controller.getBurstHalfWidth());
+	}
+
+	/**
+	 * Test method for {@link ArmedIntervalController#nextInterval()}.
+	 */
+	@Test
+	public void testNextInterval() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final ArmedIntervalController controller = new ArmedIntervalController(START_TIME + ARM_DELAY,
+				BURST_INTERVAL, TimeUnit.DAYS.toMillis(1), new ServerClock(clock), createAfterBurst());
+		final long burstStart = ARM_DELAY - controller.getBurstHalfWidth();
+
+		// A single request keeps the connection open shortly before the burst
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(burstStart - 3000), controller.nextInterval());
+		clock.advance(controller.nextInterval());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(3000), controller.nextInterval());
+
+		// The burst covers the opening
+		clock.advance(controller.nextInterval());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(BURST_INTERVAL), controller.nextInterval());
+		clock.advance(TimeUnit.MILLISECONDS.toNanos(2 * controller.getBurstHalfWidth()));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(BURST_INTERVAL), controller.nextInterval());
+
+		// Afterwards the other controller takes over
+		clock.advance(TimeUnit.MILLISECONDS.toNanos(1));
+		assertEquals(INTERVAL_AFTER_BURST, controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link ArmedIntervalController#nextInterval()} with a
+	 * burst further away than the maximal pause.
+	 */
+	@Test
+	public void testNextIntervalMaxInterval() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final ArmedIntervalController controller = new ArmedIntervalController(START_TIME + ARM_DELAY,
+				BURST_INTERVAL, MAX_INTERVAL, new ServerClock(clock), createAfterBurst());
+		final long burstStart = ARM_DELAY - controller.getBurstHalfWidth();
+
+		// The pause is split, the routine keeps its session alive in between
+		int pauses = 0;
+		while (clock.currentTimeMillis() < START_TIME + burstStart - 3000) {
+			assertTrue(controller.nextInterval() <= TimeUnit.MILLISECONDS.toNanos(MAX_INTERVAL));
+			clock.advance(controller.nextInterval());
+			pauses++;
+		}
+		assertEquals(6, pauses);
+		assertEquals(START_TIME + burstStart - 3000, clock.currentTimeMillis());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(3000), controller.nextInterval());
+	}
+
+	/**
+	 * Test method for {@link ArmedIntervalController#nextInterval()} with a
+	 * clock of the server which is ahead.
+	 */
+	@Test
+	public void testNextIntervalServerAhead() {
+		final VirtualClock clock = new VirtualClock(START_TIME, false);
+		final ServerClock serverClock = new ServerClock(clock);
+		// The server is ten seconds ahead and answers in no time
+		serverClock.addSample(START_TIME, START_TIME, START_TIME + 10_000);
+		final ArmedIntervalController controller = new ArmedIntervalController(START_TIME + ARM_DELAY,
+				BURST_INTERVAL, MAX_INTERVAL, serverClock, createAfterBurst());
+
+		final long burstStart = ARM_DELAY - serverClock.getOffset() - controller.getBurstHalfWidth();
+		clock.advance(TimeUnit.MILLISECONDS.toNanos(burstStart - 3000 - MAX_INTERVAL / 2));
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(MAX_INTERVAL / 2), controller.nextInterval());
+	}
+}
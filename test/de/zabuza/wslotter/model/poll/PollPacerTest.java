@@ -0,0 +1,146 @@
+package de.zabuza.wslotter.model.poll;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import de.zabuza.wslotter.controller.logging.Logger;
+import de.zabuza.wslotter.model.time.VirtualClock;
+
+/**
+ * Test for the class {@link PollPacer}. The pacer is driven by a
+ * {@link VirtualClock}, pauses thus pass without waiting.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PollPacerTest {
+	/**
+	 * The pause the controller of the tests determines, in nanoseconds.
+	 */
+	private static final long INTERVAL = TimeUnit.SECONDS.toNanos(2);
+
+	/**
+	 * Creates a controller which always determines {@link #INTERVAL} and
+	 * keeps the latency of the latest answered request.
+	 * 
+	 * @param latency
+	 *            The holder to put the latency of answered requests into, in
+	 *            nanoseconds
+	 * @return The controller
+	 */
+	private static IPollIntervalController createController(final AtomicLong latency) {
+		return new IPollIntervalController() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#nextInterval()
+			 */
+			@Override
+			public long nextInterval() {
+				return INTERVAL;
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestFailed()
+			 */
+			@Override
+			public void requestFailed() {
+				latency.set(-1);
+			}
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see
+			 * de.zabuza.wslotter.model.poll.IPollIntervalController#requestSucceeded
+			 * (long)
+			 */
+			@Override
+			public void requestSucceeded(final long requestLatency) {
+				latency.set(requestLatency);
+			}
+		};
+	}
+
+	/**
+	 * Test method for {@link PollPacer#getAttempts()}.
+	 */
+	@Test
+	public void testGetAttempts() {
+		final PollPacer pacer = new PollPacer(null, new VirtualClock(), new Logger(null));
+		assertEquals(0, pacer.getAttempts());
+		for (int i = 1; i <= 3; i++) {
+			pacer.requestStarted();
+			pacer.requestSucceeded();
+			assertEquals(i, pacer.getAttempts());
+		}
+	}
+
+	/**
+	 * Test method for {@link PollPacer#pause()}.
+	 */
+	@Test
+	public void testPause() {
+		final VirtualClock clock = new VirtualClock();
+		final PollPacer pacer = new PollPacer(createController(new AtomicLong()), clock, new Logger(null));
+		pacer.requestStarted();
+		pacer.requestSucceeded();
+		assertTrue(pacer.pause());
+		assertEquals(INTERVAL, clock.nanoTime());
+		assertTrue(pacer.pause());
+		assertEquals(2 * INTERVAL, clock.nanoTime());
+	}
+
+	/**
+	 * Test method for {@link PollPacer#pause()} without a controller.
+	 */
+	@Test
+	public void testPauseWithoutController() {
+		final VirtualClock clock = new VirtualClock();
+		final PollPacer pacer = new PollPacer(null, clock, new Logger(null));
+		pacer.requestStarted();
+		assertTrue(pacer.pause());
+		assertEquals(0, clock.nanoTime());
+	}
+
+	/**
+	 * Test method for {@link PollPacer#requestFailed()}.
+	 */
+	@Test
+	public void testRequestFailed() {
+		final AtomicLong latency = new AtomicLong();
+		final PollPacer pacer = new PollPacer(createController(latency), new VirtualClock(), new Logger(null));
+		pacer.requestStarted();
+		pacer.requestFailed();
+		assertEquals(-1, latency.get());
+	}
+
+	/**
+	 * Test method for {@link PollPacer#requestSucceeded()}.
+	 */
+	@Test
+	public void testRequestSucceeded() {
+		final VirtualClock clock = new VirtualClock(0, false);
+		final AtomicLong latency = new AtomicLong();
+		final PollPacer pacer = new PollPacer(createController(latency), clock, new Logger(null));
+
+		pacer.requestStarted();
+		clock.advance(TimeUnit.MILLISECONDS.toNanos(150));
+		pacer.requestSucceeded();
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(150), latency.get());
+
+		pacer.requestStarted();
+		clock.advance(TimeUnit.MILLISECONDS.toNanos(40));
+		pacer.requestSucceeded();
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(40), latency.get());
+	}
+}
@@ -0,0 +1,68 @@
+package de.zabuza.wslotter.model.poll;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test for the class {@link PollStagger}. The starts are reserved by times
+ * given by the tests, no clock is involved.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class PollStaggerTest {
+	/**
+	 * The pause between two requests of a single poller, in nanoseconds.
+	 */
+	private static final long INTERVAL = TimeUnit.SECONDS.toNanos(10);
+	/**
+	 * The latency of every request in nanoseconds.
+	 */
+	private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+	/**
+	 * The amount of pollers.
+	 */
+	private static final int POLLERS = 4;
+
+	/**
+	 * Test method for {@link PollStagger#reserveStart(long, long)}.
+	 */
+	@Test
+	public void testReserveStart() {
+		final PollStagger stagger = new PollStagger(POLLERS);
+		stagger.requestAnswered(LATENCY);
+		assertEquals(0, stagger.reserveStart(0, INTERVAL));
+
+		// The pause is split across the pollers instead of every poller
+		// waiting for all of it
+		long previousStart = 0;
+		for (int i = 0; i < 2 * POLLERS; i++) {
+			final long start = stagger.reserveStart(previousStart, INTERVAL);
+			assertEquals((INTERVAL + LATENCY) / POLLERS, start - previousStart);
+			previousStart = start;
+		}
+	}
+
+	/**
+	 * Test method for {@link PollStagger#reserveStart(long, long)} with a
+	 * single poller.
+	 */
+	@Test
+	public void testReserveStartSinglePoller() {
+		final PollStagger stagger = new PollStagger(1);
+		stagger.requestAnswered(LATENCY);
+		final long firstStart = stagger.reserveStart(0, INTERVAL);
+
+		// The next request starts once the previous one was answered and the
+		// pause has passed
+		final long secondStart = stagger.reserveStart(firstStart + LATENCY, INTERVAL);
+		assertEquals(firstStart + LATENCY + INTERVAL, secondStart);
+
+		// A poller which is late starts right away
+		final long lateStart = secondStart + 2 * (LATENCY + INTERVAL);
+		assertEquals(lateStart, stagger.reserveStart(lateStart, INTERVAL));
+	}
+}
@@ -0,0 +1,166 @@
+package de.zabuza.wslotter.model.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ClockScheduler}. The scheduler is driven by a
+ * {@link VirtualClock} which is advanced by the tests, tasks must only run
+ * once the clock has passed their delay.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class ClockSchedulerTest {
+	/**
+	 * The maximal real time to wait for a due task to run, in milliseconds.
+	 */
+	private static final long RUN_TIMEOUT = 5000;
+
+	/**
+	 * Creates a task which counts the given latch down.
+	 * 
+	 * @param latch
+	 *            The latch to count down
+	 * @return The task
+	 */
+	private static Runnable createTask(final CountDownLatch latch) {
+		return new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				latch.countDown();
+			}
+		};
+	}
+
+	/**
+	 * The clock which drives the scheduler.
+	 */
+	private VirtualClock mClock;
+	/**
+	 * The scheduler to test.
+	 */
+	private ClockScheduler mScheduler;
+
+	/**
+	 * Creates a scheduler driven by a clock which is only advanced by the
+	 * tests.
+	 */
+	@Before
+	public void setUp() {
+		this.mClock = new VirtualClock(0, false);
+		this.mScheduler = new ClockScheduler("ClockSchedulerTest", this.mClock, null);
+	}
+
+	/**
+	 * Shuts the scheduler down.
+	 */
+	@After
+	public void tearDown() {
+		this.mScheduler.shutdown();
+	}
+
+	/**
+	 * Test method for {@link ClockScheduler#schedule(Runnable, long)}.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test was interrupted while waiting for the task
+	 */
+	@Test
+	public void testSchedule() throws InterruptedException {
+		final CountDownLatch latch = new CountDownLatch(1);
+		this.mScheduler.schedule(createTask(latch), TimeUnit.SECONDS.toNanos(10));
+		awaitSleepingDispatcher();
+		assertEquals(1, latch.getCount());
+
+		this.mClock.advance(TimeUnit.SECONDS.toNanos(9));
+		assertFalse(latch.await(50, TimeUnit.MILLISECONDS));
+
+		this.mClock.advance(TimeUnit.SECONDS.toNanos(1));
+		assertTrue(latch.await(RUN_TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(0, this.mScheduler.getPendingTasks());
+	}
+
+	/**
+	 * Test method for {@link ClockScheduler#schedule(Runnable, long)} with a
+	 * task which is due before the one the scheduler sleeps for.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test was interrupted while waiting for the task
+	 */
+	@Test
+	public void testScheduleEarlierTask() throws InterruptedException {
+		final CountDownLatch laterLatch = new CountDownLatch(1);
+		final CountDownLatch earlierLatch = new CountDownLatch(1);
+		this.mScheduler.schedule(createTask(laterLatch), TimeUnit.HOURS.toNanos(1));
+		awaitSleepingDispatcher();
+		this.mScheduler.schedule(createTask(earlierLatch), TimeUnit.SECONDS.toNanos(1));
+
+		this.mClock.advance(TimeUnit.SECONDS.toNanos(1));
+		assertTrue(earlierLatch.await(RUN_TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(1, laterLatch.getCount());
+		assertEquals(1, this.mScheduler.getPendingTasks());
+	}
+
+	/**
+	 * Test method for {@link ClockScheduler#schedule(Runnable, long)} with a
+	 * task which is cancelled before it is due.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test was interrupted while waiting for the task
+	 */
+	@Test
+	public void testScheduleCancelled() throws InterruptedException {
+		final CountDownLatch cancelledLatch = new CountDownLatch(1);
+		final CountDownLatch latch = new CountDownLatch(1);
+		final Future<?> cancelledTask = this.mScheduler.schedule(createTask(cancelledLatch),
+				TimeUnit.SECONDS.toNanos(1));
+		this.mScheduler.schedule(createTask(latch), TimeUnit.SECONDS.toNanos(2));
+		assertTrue(cancelledTask.cancel(false));
+		assertEquals(1, this.mScheduler.getPendingTasks());
+
+		this.mClock.advance(TimeUnit.SECONDS.toNanos(2));
+		assertTrue(latch.await(RUN_TIMEOUT, TimeUnit.MILLISECONDS));
+		assertEquals(1, cancelledLatch.getCount());
+	}
+
+	/**
+	 * Test method for {@link ClockScheduler#shutdown()}.
+	 */
+	@Test(expected = RejectedExecutionException.class)
+	public void testShutdown() {
+		this.mScheduler.schedule(createTask(new CountDownLatch(1)), TimeUnit.SECONDS.toNanos(1));
+		this.mScheduler.shutdown();
+		assertEquals(0, this.mScheduler.getPendingTasks());
+		this.mScheduler.schedule(createTask(new CountDownLatch(1)), 0);
+	}
+
+	/**
+	 * Waits until the dispatcher of the scheduler sleeps on the clock.
+	 * 
+	 * @throws InterruptedException
+	 *             If the test was interrupted while waiting
+	 */
+	private void awaitSleepingDispatcher() throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RUN_TIMEOUT);
+		while (this.mClock.getSleepingThreads() == 0) {
+			assertTrue(System.nanoTime() - deadline < 0);
+			Thread.sleep(1);
+		}
+	}
+}
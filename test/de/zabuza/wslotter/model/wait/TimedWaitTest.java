@@ -0,0 +1,84 @@
+package de.zabuza.wslotter.model.wait;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zabuza.wslotter.model.AbortTaskException;
+import de.zabuza.wslotter.model.CancellationContext;
+import de.zabuza.wslotter.model.time.VirtualClock;
+
+/**
+ * Test for the class {@link TimedWait}. The wait measures its time by the
+ * {@link VirtualClock} of the bound {@link CancellationContext}, long periods
+ * thus pass without waiting.
+ * 
+ * @author Zabuza {@literal <zabuza.dev@gmail.com>}
+ *
+ */
+public final class TimedWaitTest {
+	/**
+	 * The time to wait for in milliseconds.
+	 */
+	private static final long TIME_TO_WAIT = TimeUnit.MINUTES.toMillis(10);
+
+	/**
+	 * The clock of the bound context.
+	 */
+	private VirtualClock mClock;
+
+	/**
+	 * Binds a context with a virtual clock to the current thread.
+	 */
+	@Before
+	public void setUp() {
+		this.mClock = new VirtualClock();
+		CancellationContext.setCurrent(new CancellationContext(this.mClock));
+	}
+
+	/**
+	 * Removes the bound context from the current thread.
+	 */
+	@After
+	public void tearDown() {
+		CancellationContext.setCurrent(null);
+	}
+
+	/**
+	 * Test method for {@link TimedWait#waitUntilCondition()}.
+	 */
+	@Test
+	public void testWaitUntilCondition() {
+		// The condition does not call the driver
+		final TimedWait wait = new TimedWait(null, TIME_TO_WAIT);
+		assertEquals(Boolean.TRUE, wait.waitUntilCondition());
+
+		// The wait ends shortly after the period
+		final long elapsed = TimeUnit.NANOSECONDS.toMillis(this.mClock.nanoTime());
+		assertTrue(elapsed >= TIME_TO_WAIT);
+		assertTrue(elapsed <= TIME_TO_WAIT + 10);
+	}
+
+	/**
+	 * Test method for {@link TimedWait#waitUntilCondition()} with a period
+	 * that passes the deadline of the context.
+	 */
+	@Test
+	public void testWaitUntilConditionDeadline() {
+		CancellationContext.getCurrent().startDeadline(TIME_TO_WAIT / 2);
+		try {
+			new TimedWait(null, TIME_TO_WAIT).waitUntilCondition();
+			fail();
+		} catch (final AbortTaskException e) {
+			// The wait ends once the deadline has passed
+			assertEquals(TIME_TO_WAIT / 2, TimeUnit.NANOSECONDS.toMillis(this.mClock.nanoTime()));
+			assertTrue(CancellationContext.getCurrent().isExpired());
+		}
+	}
+}